@@ -78,6 +78,7 @@ import org.kie.workbench.common.services.datamodeller.driver.FilterHolder;
 import org.kie.workbench.common.services.datamodeller.driver.ModelDriver;
 import org.kie.workbench.common.services.datamodeller.driver.ModelDriverException;
 import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelDriver;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaSourceParseCache;
 import org.kie.workbench.common.services.datamodeller.driver.impl.ProjectDataModelOracleUtils;
 import org.kie.workbench.common.services.datamodeller.driver.impl.UpdateInfo;
 import org.kie.workbench.common.services.datamodeller.driver.model.AnnotationDefinitionRequest;
@@ -174,6 +175,9 @@ public class DataModelerServiceImpl
     @Inject
     private FilterHolder filterHolder;
 
+    @Inject
+    private JavaSourceParseCache parseCache;
+
     private static final String DEFAULT_COMMIT_MESSAGE = "Data modeller generated action.";
 
     public DataModelerServiceImpl() {
@@ -332,7 +336,8 @@ public class DataModelerServiceImpl
             ModelDriver modelDriver = new JavaRoasterModelDriver( ioService,
                                                                   Paths.convert( defaultPackage.getPackageMainSrcPath() ),
                                                                   classLoader,
-                                                                  filterHolder );
+                                                                  filterHolder,
+                                                                  parseCache );
             ModelDriverResult result = modelDriver.loadModel();
             dataModel = result.getDataModel();
 
@@ -56,4 +56,10 @@ public interface DatabaseMetadataService {
                                       String schema,
                                       String tableNamePattern,
                                       DatabaseMetadata.TableType... types );
-}
\ No newline at end of file
+
+    /**
+     * Discards the cached metadata of a given database, so the next queries read it again from the database.
+     * @param dataSourceUuid A data source uuid.
+     */
+    void refresh( String dataSourceUuid );
+}
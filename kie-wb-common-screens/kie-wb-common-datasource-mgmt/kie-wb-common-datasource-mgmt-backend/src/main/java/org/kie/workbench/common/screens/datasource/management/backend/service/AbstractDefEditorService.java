@@ -146,6 +146,10 @@ public abstract class AbstractDefEditorService<C extends DefEditorContent<D>,D e
                 newPath = Paths.convert( _target );
             }
             serviceHelper.getDefRegistry().setEntry( newPath, editorContent.getDef() );
+            if ( !newPath.equals( path ) ) {
+                serviceHelper.getDefIndex().remove( path );
+            }
+            serviceHelper.getDefIndex().update( newPath, editorContent.getDef() );
 
             fireUpdateEvent( editorContent.getDef(), editorContent.getProject(), originalDef );
 
@@ -205,6 +209,7 @@ public abstract class AbstractDefEditorService<C extends DefEditorContent<D>,D e
             //create the file.
             ioService.write( nioPath, content, optionsFactory.makeCommentedOption( "" ) );
             serviceHelper.getDefRegistry( ).setEntry( newPath, def );
+            serviceHelper.getDefIndex( ).update( newPath, def );
         } catch ( Exception e ) {
             logger.error( "It was not possible to create: " + def.getName(), e );
             ioService.endBatch();
@@ -217,6 +222,7 @@ public abstract class AbstractDefEditorService<C extends DefEditorContent<D>,D e
         } catch ( Exception e1 ) {
             logger.error( "It was not possible to create: " + def.getName(), e1 );
             serviceHelper.getDefRegistry().invalidateCache( newPath );
+            serviceHelper.getDefIndex().remove( newPath );
             //the file was created, but the deployment failed.
             try {
                 ioService.delete( nioPath );
@@ -246,6 +252,7 @@ public abstract class AbstractDefEditorService<C extends DefEditorContent<D>,D e
                 }
                 serviceHelper.getDefRegistry().invalidateCache( path );
                 ioService.delete( Paths.convert( path ), optionsFactory.makeCommentedOption( comment ) );
+                serviceHelper.getDefIndex().remove( path );
                 fireDeleteEvent( def, project );
             } catch ( Exception e ) {
                 throw ExceptionUtilities.handleException( e );
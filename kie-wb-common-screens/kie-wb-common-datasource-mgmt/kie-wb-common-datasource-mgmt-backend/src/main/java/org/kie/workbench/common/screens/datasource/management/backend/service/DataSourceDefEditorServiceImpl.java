@@ -211,12 +211,13 @@ public class DataSourceDefEditorServiceImpl
             return result;
         }
 
+        URLConnectionFactory connectionFactory = null;
         try {
             Properties properties = new Properties(  );
             properties.put( "user", dataSourceDef.getUser() );
             properties.put("password", dataSourceDef.getPassword() );
 
-            URLConnectionFactory connectionFactory = new URLConnectionFactory( uri.toURL(), driverDef.getDriverClass(),
+            connectionFactory = new URLConnectionFactory( uri.toURL(), driverDef.getDriverClass(),
                     dataSourceDef.getConnectionURL(), properties );
 
             Connection conn = connectionFactory.createConnection();
@@ -248,6 +249,10 @@ public class DataSourceDefEditorServiceImpl
         } catch ( Exception e ) {
             result.setMessage( e.getMessage() );
             return result;
+        } finally {
+            if ( connectionFactory != null ) {
+                connectionFactory.close();
+            }
         }
     }
 }
\ No newline at end of file
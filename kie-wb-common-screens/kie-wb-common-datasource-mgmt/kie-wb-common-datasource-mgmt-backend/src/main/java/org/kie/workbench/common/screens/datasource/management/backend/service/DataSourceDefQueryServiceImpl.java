@@ -23,7 +23,6 @@ import java.util.List;
 import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import javax.inject.Named;
 
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.guvnor.common.services.project.model.Project;
@@ -38,16 +37,10 @@ import org.kie.workbench.common.screens.datasource.management.model.DriverDef;
 import org.kie.workbench.common.screens.datasource.management.model.DriverDefInfo;
 import org.kie.workbench.common.screens.datasource.management.model.DriverDeploymentInfo;
 import org.kie.workbench.common.screens.datasource.management.service.DataSourceDefQueryService;
-import org.kie.workbench.common.screens.datasource.management.util.DataSourceDefSerializer;
-import org.kie.workbench.common.screens.datasource.management.util.DriverDefSerializer;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
-import org.uberfire.io.IOService;
-import org.uberfire.java.nio.file.DirectoryStream;
-import org.uberfire.java.nio.file.Files;
 
 import static org.uberfire.commons.validation.PortablePreconditions.*;
 
@@ -58,12 +51,6 @@ public class DataSourceDefQueryServiceImpl
 
     private static final Logger logger = LoggerFactory.getLogger( DataSourceDefQueryServiceImpl.class );
 
-    private static String DS_FILE_TYPE = ".datasource";
-
-    private static String DRIVER_FILE_TYPE = ".driver";
-
-    private IOService ioService;
-
     private KieProjectService projectService;
 
     private DataSourceServicesHelper serviceHelper;
@@ -72,20 +59,22 @@ public class DataSourceDefQueryServiceImpl
 
     private DataSourceRuntimeManager runtimeManager;
 
+    private DefIndex defIndex;
+
     public DataSourceDefQueryServiceImpl() {
     }
 
     @Inject
-    public DataSourceDefQueryServiceImpl( @Named( "ioStrategy" ) IOService ioService,
-            KieProjectService projectService,
+    public DataSourceDefQueryServiceImpl( KieProjectService projectService,
             DataSourceServicesHelper serviceHelper,
             DataSourceProviderFactory providerFactory,
-            DataSourceRuntimeManager runtimeManager ) {
-        this.ioService = ioService;
+            DataSourceRuntimeManager runtimeManager,
+            DefIndex defIndex ) {
         this.projectService = projectService;
         this.serviceHelper = serviceHelper;
         this.providerFactory = providerFactory;
         this.runtimeManager = runtimeManager;
+        this.defIndex = defIndex;
     }
 
     @Override
@@ -156,12 +145,11 @@ public class DataSourceDefQueryServiceImpl
         checkNotNull( "uuid", uuid );
         checkNotNull( "path", path );
 
-        for ( DriverDefInfo driverDefInfo : findProjectDrivers( path ) ) {
-            if ( uuid.equals( driverDefInfo.getUuid() ) ) {
-                return driverDefInfo;
-            }
+        Project project = projectService.resolveProject( path );
+        if ( project == null ) {
+            return null;
         }
-        return null;
+        return resolveDriver( serviceHelper.getProjectDataSourcesContext( project ), uuid );
     }
 
     @Override
@@ -177,30 +165,25 @@ public class DataSourceDefQueryServiceImpl
     public DriverDefInfo findGlobalDriver( String uuid ) {
         checkNotNull( "uuid", uuid );
 
-        for ( DriverDefInfo driverDefInfo : findGlobalDrivers() ) {
-            if ( uuid.equals( driverDefInfo.getUuid() ) ) {
-                return driverDefInfo;
-            }
+        return resolveDriver( serviceHelper.getGlobalDataSourcesContext(), uuid );
+    }
+
+    private DriverDefInfo resolveDriver( final Path path, final String uuid ) {
+        try {
+            DefIndex.Entry<DriverDef> entry = defIndex.getDriver( path, uuid );
+            return entry != null ? createDriverInfo( entry ) : null;
+        } catch ( Exception e ) {
+            logger.error( "It was not possible read driver info from: " + path, e );
+            throw ExceptionUtilities.handleException( e );
         }
-        return null;
     }
 
     private Collection<DriverDefInfo> resolveDrivers( final Path path ) {
-
-        final org.uberfire.java.nio.file.Path nioPath = Paths.convert( path );
         final List<DriverDefInfo> result = new ArrayList<>( );
-
         try {
-            final DirectoryStream<org.uberfire.java.nio.file.Path> stream = ioService.newDirectoryStream( nioPath,
-                    entry -> Files.isRegularFile( entry ) &&
-                            !entry.getFileName().toString().startsWith( "." ) &&
-                            entry.getFileName().toString().endsWith( DRIVER_FILE_TYPE ) );
-
-            stream.forEach( file -> {
-                result.add( createDriverInfo( file ) );
-            } );
-            stream.close();
-
+            for ( DefIndex.Entry<DriverDef> entry : defIndex.getDrivers( path ) ) {
+                result.add( createDriverInfo( entry ) );
+            }
             return result;
         } catch ( Exception e ) {
             logger.error( "It was not possible read drivers info from: " + path, e );
@@ -209,21 +192,11 @@ public class DataSourceDefQueryServiceImpl
     }
 
     private Collection<DataSourceDefInfo> resolveDataSources( final Path path ) {
-
-        final org.uberfire.java.nio.file.Path nioPath = Paths.convert( path );
         final List<DataSourceDefInfo> result = new ArrayList<>( );
-
         try {
-            final DirectoryStream<org.uberfire.java.nio.file.Path> stream = ioService.newDirectoryStream( nioPath,
-                    entry -> Files.isRegularFile( entry ) &&
-                            !entry.getFileName().toString().startsWith( "." ) &&
-                            entry.getFileName().toString().endsWith( DS_FILE_TYPE ) );
-
-            stream.forEach( file -> {
-                result.add( createDataSourceDefInfo( file ) );
-            } );
-            stream.close();
-
+            for ( DefIndex.Entry<DataSourceDef> entry : defIndex.getDataSources( path ) ) {
+                result.add( createDataSourceDefInfo( entry ) );
+            }
             return result;
         } catch ( Exception e ) {
             logger.error( "It was not possible read data sources info from: " + path, e );
@@ -231,9 +204,8 @@ public class DataSourceDefQueryServiceImpl
         }
     }
 
-    private DataSourceDefInfo createDataSourceDefInfo( final org.uberfire.java.nio.file.Path path ) {
-        String content = ioService.readAllString( path );
-        DataSourceDef dataSourceDef = DataSourceDefSerializer.deserialize( content );
+    private DataSourceDefInfo createDataSourceDefInfo( final DefIndex.Entry<DataSourceDef> entry ) {
+        DataSourceDef dataSourceDef = entry.getDef();
         DataSourceDeploymentInfo deploymentInfo = null;
         try {
             deploymentInfo = runtimeManager.getDataSourceDeploymentInfo( dataSourceDef.getUuid() );
@@ -243,13 +215,12 @@ public class DataSourceDefQueryServiceImpl
         }
         return new DataSourceDefInfo( dataSourceDef.getUuid(),
                 dataSourceDef.getName(),
-                Paths.convert( path ),
+                entry.getPath(),
                 deploymentInfo );
     }
 
-    private DriverDefInfo createDriverInfo( final org.uberfire.java.nio.file.Path path ) {
-        String content = ioService.readAllString( path );
-        DriverDef driverDef = DriverDefSerializer.deserialize( content );
+    private DriverDefInfo createDriverInfo( final DefIndex.Entry<DriverDef> entry ) {
+        DriverDef driverDef = entry.getDef();
         DriverDeploymentInfo deploymentInfo = null;
         try {
             deploymentInfo = runtimeManager.getDriverDeploymentInfo( driverDef.getUuid() );
@@ -257,6 +228,6 @@ public class DataSourceDefQueryServiceImpl
             logger.warn( "It was not possible to read deployment info when building DriverDefInfo for driver: "
                     + driverDef.getUuid(), e );
         }
-        return new DriverDefInfo( driverDef.getUuid(), driverDef.getName(), Paths.convert( path ), deploymentInfo );
+        return new DriverDefInfo( driverDef.getUuid(), driverDef.getName(), entry.getPath(), deploymentInfo );
     }
-}
\ No newline at end of file
+}
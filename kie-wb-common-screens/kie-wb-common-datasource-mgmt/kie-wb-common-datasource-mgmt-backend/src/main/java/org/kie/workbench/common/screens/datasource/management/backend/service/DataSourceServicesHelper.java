@@ -47,6 +47,9 @@ public class DataSourceServicesHelper {
     @Inject
     private DefRegistry defRegistry;
 
+    @Inject
+    private DefIndex defIndex;
+
     /**
      *  Root to the platform data sources and drivers repository.
      */
@@ -101,6 +104,10 @@ public class DataSourceServicesHelper {
         return defRegistry;
     }
 
+    public DefIndex getDefIndex( ) {
+        return defIndex;
+    }
+
     public boolean isDriverFile( Path path ) {
         return path != null && path.getFileName( ).endsWith( ".driver" );
     }
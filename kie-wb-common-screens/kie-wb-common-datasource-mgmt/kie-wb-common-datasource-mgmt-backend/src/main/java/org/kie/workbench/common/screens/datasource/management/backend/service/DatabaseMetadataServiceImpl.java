@@ -16,14 +16,25 @@
 
 package org.kie.workbench.common.screens.datasource.management.backend.service;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.guvnor.common.services.shared.exceptions.GenericPortableException;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.kie.workbench.common.screens.datasource.management.backend.core.DataSource;
 import org.kie.workbench.common.screens.datasource.management.backend.core.DataSourceRuntimeManager;
+import org.kie.workbench.common.screens.datasource.management.events.DeleteDataSourceEvent;
+import org.kie.workbench.common.screens.datasource.management.events.UpdateDataSourceEvent;
 import org.kie.workbench.common.screens.datasource.management.metadata.DatabaseMetadata;
 import org.kie.workbench.common.screens.datasource.management.metadata.TableMetadata;
 import org.kie.workbench.common.screens.datasource.management.service.DatabaseMetadataService;
@@ -33,6 +44,12 @@ import org.slf4j.LoggerFactory;
 
 import static org.uberfire.commons.validation.PortablePreconditions.*;
 
+/**
+ * Database metadata is read once per data source and query, and then kept for a configurable time since it is read
+ * by the database explorer screens on every navigation. Each data source keeps a limited number of queries, the least
+ * recently used being discarded first, and concurrent requests for the same query share a single read. The cached
+ * metadata of a data source is discarded when the data source is updated or deleted, or on demand by refreshing it.
+ */
 @Service
 @ApplicationScoped
 public class DatabaseMetadataServiceImpl
@@ -40,8 +57,18 @@ public class DatabaseMetadataServiceImpl
 
     private static final Logger logger = LoggerFactory.getLogger( DatabaseMetadataServiceImpl.class );
 
+    public static final String CACHE_TTL_PROPERTY_NAME = "org.kie.datasource.metadata.cache.ttl";
+
+    public static final String CACHE_SIZE_PROPERTY_NAME = "org.kie.datasource.metadata.cache.size";
+
     private DataSourceRuntimeManager dataSourceRuntimeManager;
 
+    private long cacheTTL = Long.getLong( CACHE_TTL_PROPERTY_NAME, 60000 );
+
+    private int cacheSize = Integer.getInteger( CACHE_SIZE_PROPERTY_NAME, 100 );
+
+    private final Map< String, Map< String, CachedValue > > cache = new ConcurrentHashMap<>( );
+
     public DatabaseMetadataServiceImpl( ) {
     }
 
@@ -54,8 +81,10 @@ public class DatabaseMetadataServiceImpl
     public DatabaseMetadata getMetadata( String dataSourceUuid, boolean includeCatalogs, boolean includeSchemas ) {
         checkNotNull( "dataSourceUuid", dataSourceUuid );
         try {
-            DataSource dataSource = dataSourceRuntimeManager.lookupDataSource( dataSourceUuid );
-            return DatabaseMetadataUtil.getMetadata( dataSource.getConnection( ), includeCatalogs, includeSchemas );
+            return cached( dataSourceUuid, "metadata:" + includeCatalogs + ":" + includeSchemas, ( ) -> {
+                DataSource dataSource = dataSourceRuntimeManager.lookupDataSource( dataSourceUuid );
+                return DatabaseMetadataUtil.getMetadata( dataSource.getConnection( ), includeCatalogs, includeSchemas );
+            } );
         } catch ( Exception e ) {
             logger.error( "It was not possible to get database metadata for data source: " + dataSourceUuid, e );
             throw new GenericPortableException( "It was not possible to get database metadata for data source: "
@@ -78,12 +107,109 @@ public class DatabaseMetadataServiceImpl
         checkNotNull( "dataSourceUuid", dataSourceUuid );
         checkNotNull( "types", types );
         try {
-            DataSource dataSource = dataSourceRuntimeManager.lookupDataSource( dataSourceUuid );
-            return DatabaseMetadataUtil.findTables( dataSource.getConnection( ), schema, tableNamePattern, types );
+            return cached( dataSourceUuid,
+                    "tables:" + schema + ":" + tableNamePattern + ":" + Arrays.toString( types ), ( ) -> {
+                        DataSource dataSource = dataSourceRuntimeManager.lookupDataSource( dataSourceUuid );
+                        return DatabaseMetadataUtil.findTables( dataSource.getConnection( ), schema, tableNamePattern, types );
+                    } );
         } catch ( Exception e ) {
             logger.error( "It was not possible to get database metadata for data source: " + dataSourceUuid, e );
             throw new GenericPortableException( "It was not possible to get database metadata for data source: "
                     + dataSourceUuid + ": " + e.getMessage( ), e );
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void refresh( String dataSourceUuid ) {
+        checkNotNull( "dataSourceUuid", dataSourceUuid );
+        cache.remove( dataSourceUuid );
+    }
+
+    public void onUpdateDataSource( @Observes UpdateDataSourceEvent event ) {
+        if ( event.getOriginalDataSourceDef( ) != null ) {
+            cache.remove( event.getOriginalDataSourceDef( ).getUuid( ) );
+        }
+        cache.remove( event.getDataSourceDef( ).getUuid( ) );
+    }
+
+    public void onDeleteDataSource( @Observes DeleteDataSourceEvent event ) {
+        cache.remove( event.getDataSourceDef( ).getUuid( ) );
+    }
+
+    /**
+     * facilitates tests programming.
+     */
+    protected void setCacheTTL( long cacheTTL ) {
+        this.cacheTTL = cacheTTL;
+    }
+
+    /**
+     * facilitates tests programming.
+     */
+    protected void setCacheSize( int cacheSize ) {
+        this.cacheSize = cacheSize;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private < T > T cached( String dataSourceUuid,
+                            String key,
+                            Callable< T > loader ) throws Exception {
+        if ( cacheTTL <= 0 ) {
+            return loader.call( );
+        }
+        Map< String, CachedValue > values = cache.computeIfAbsent( dataSourceUuid, uuid -> newValues( ) );
+        CachedValue cachedValue;
+        boolean load = false;
+        synchronized ( values ) {
+            long now = System.currentTimeMillis( );
+            values.values( ).removeIf( value -> now - value.timestamp > cacheTTL );
+            cachedValue = values.get( key );
+            if ( cachedValue == null ) {
+                cachedValue = new CachedValue( new FutureTask<>( loader ), now );
+                values.put( key, cachedValue );
+                load = true;
+            }
+        }
+        if ( load ) {
+            // other requests for the same query wait for this read instead of querying the database themselves
+            cachedValue.value.run( );
+        }
+        try {
+            return ( T ) cachedValue.value.get( );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread( ).interrupt( );
+            throw e;
+        } catch ( ExecutionException e ) {
+            // failed reads are not kept so that the next request queries the database again
+            synchronized ( values ) {
+                values.remove( key, cachedValue );
+            }
+            if ( e.getCause( ) instanceof Exception ) {
+                throw ( Exception ) e.getCause( );
+            }
+            throw e;
+        }
+    }
+
+    private Map< String, CachedValue > newValues( ) {
+        final int maxSize = cacheSize;
+        return Collections.synchronizedMap( new LinkedHashMap< String, CachedValue >( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry< String, CachedValue > eldest ) {
+                return size( ) > maxSize;
+            }
+        } );
+    }
+
+    private static class CachedValue {
+
+        private final FutureTask< ? > value;
+
+        private final long timestamp;
+
+        private CachedValue( FutureTask< ? > value, long timestamp ) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+}
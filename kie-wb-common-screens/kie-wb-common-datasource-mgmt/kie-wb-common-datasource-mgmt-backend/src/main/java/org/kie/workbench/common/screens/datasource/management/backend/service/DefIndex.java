@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.datasource.management.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.kie.workbench.common.screens.datasource.management.model.DataSourceDef;
+import org.kie.workbench.common.screens.datasource.management.model.Def;
+import org.kie.workbench.common.screens.datasource.management.model.DriverDef;
+import org.kie.workbench.common.screens.datasource.management.util.DataSourceDefSerializer;
+import org.kie.workbench.common.screens.datasource.management.util.DriverDefSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.Files;
+
+/**
+ * In-memory index of the data source and driver definitions stored in each data sources context, i.e. the global
+ * context or the META-INF directory of a project. A context is read from the VFS the first time it is queried and
+ * then kept up to date as definition files are created, updated, renamed and deleted.
+ */
+@ApplicationScoped
+public class DefIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger( DefIndex.class );
+
+    private static final String DS_FILE_TYPE = ".datasource";
+
+    private static final String DRIVER_FILE_TYPE = ".driver";
+
+    private IOService ioService;
+
+    private final Map< String, Context > contexts = new ConcurrentHashMap<>( );
+
+    public DefIndex( ) {
+    }
+
+    @Inject
+    public DefIndex( @Named( "ioStrategy" ) IOService ioService ) {
+        this.ioService = ioService;
+    }
+
+    public Collection< Entry< DataSourceDef > > getDataSources( final Path context ) {
+        return getContext( context ).getDefs( DataSourceDef.class );
+    }
+
+    public Collection< Entry< DriverDef > > getDrivers( final Path context ) {
+        return getContext( context ).getDefs( DriverDef.class );
+    }
+
+    public Entry< DataSourceDef > getDataSource( final Path context, final String uuid ) {
+        return getContext( context ).getDef( DataSourceDef.class, uuid );
+    }
+
+    public Entry< DriverDef > getDriver( final Path context, final String uuid ) {
+        return getContext( context ).getDef( DriverDef.class, uuid );
+    }
+
+    /**
+     * Registers the definition stored in a given file. Contexts that were not read yet are not affected since the
+     * file will be read along with the rest of the context.
+     */
+    public void update( final Path path, final Def def ) {
+        final Context context = contexts.get( contextKey( path ) );
+        if ( context != null ) {
+            context.put( path, def );
+        }
+    }
+
+    /**
+     * Reads a given definition file again, or removes it from the index if the file no longer exists.
+     */
+    public void refresh( final Path path ) {
+        final Context context = contexts.get( contextKey( path ) );
+        if ( context != null ) {
+            final org.uberfire.java.nio.file.Path nioPath = Paths.convert( path );
+            if ( ioService.exists( nioPath ) ) {
+                final Def def = readDef( nioPath );
+                if ( def != null ) {
+                    context.put( path, def );
+                } else {
+                    context.remove( path );
+                }
+            } else {
+                context.remove( path );
+            }
+        }
+    }
+
+    public void remove( final Path path ) {
+        final Context context = contexts.get( contextKey( path ) );
+        if ( context != null ) {
+            context.remove( path );
+        }
+    }
+
+    /**
+     * Discards the context containing a given file, so it's read again from the VFS the next time it's queried.
+     */
+    public void invalidateContext( final Path path ) {
+        contexts.remove( contextKey( path ) );
+    }
+
+    @PreDestroy
+    public void invalidateAll( ) {
+        contexts.clear( );
+    }
+
+    private Context getContext( final Path context ) {
+        return contexts.computeIfAbsent( normalize( context.toURI( ) ), key -> loadContext( context ) );
+    }
+
+    private Context loadContext( final Path path ) {
+        final Context context = new Context( );
+        final org.uberfire.java.nio.file.Path nioPath = Paths.convert( path );
+        if ( !ioService.exists( nioPath ) ) {
+            return context;
+        }
+        final DirectoryStream< org.uberfire.java.nio.file.Path > stream = ioService.newDirectoryStream( nioPath,
+                entry -> Files.isRegularFile( entry ) &&
+                        !entry.getFileName( ).toString( ).startsWith( "." ) &&
+                        ( entry.getFileName( ).toString( ).endsWith( DS_FILE_TYPE ) ||
+                                entry.getFileName( ).toString( ).endsWith( DRIVER_FILE_TYPE ) ) );
+        try {
+            stream.forEach( file -> {
+                final Def def = readDef( file );
+                if ( def != null ) {
+                    context.put( Paths.convert( file ), def );
+                }
+            } );
+        } finally {
+            stream.close( );
+        }
+        return context;
+    }
+
+    private Def readDef( final org.uberfire.java.nio.file.Path path ) {
+        final String fileName = path.getFileName( ).toString( );
+        try {
+            final String content = ioService.readAllString( path );
+            if ( fileName.endsWith( DS_FILE_TYPE ) ) {
+                return DataSourceDefSerializer.deserialize( content );
+            } else if ( fileName.endsWith( DRIVER_FILE_TYPE ) ) {
+                return DriverDefSerializer.deserialize( content );
+            }
+        } catch ( Exception e ) {
+            logger.warn( "It was not possible to read definition file: " + path, e );
+        }
+        return null;
+    }
+
+    private static String contextKey( final Path path ) {
+        final String uri = normalize( path.toURI( ) );
+        final int index = uri.lastIndexOf( '/' );
+        return index > 0 ? uri.substring( 0, index ) : uri;
+    }
+
+    private static String normalize( final String uri ) {
+        return uri.endsWith( "/" ) ? uri.substring( 0, uri.length( ) - 1 ) : uri;
+    }
+
+    /**
+     * A definition along with the file it's stored in.
+     */
+    public static class Entry< T extends Def > {
+
+        private final Path path;
+
+        private final T def;
+
+        private Entry( final Path path, final T def ) {
+            this.path = path;
+            this.def = def;
+        }
+
+        public Path getPath( ) {
+            return path;
+        }
+
+        public T getDef( ) {
+            return def;
+        }
+    }
+
+    private static class Context {
+
+        private final Map< String, Entry< ? extends Def > > byPath = new LinkedHashMap<>( );
+
+        private final Map< String, Entry< ? extends Def > > byUuid = new HashMap<>( );
+
+        private synchronized void put( final Path path, final Def def ) {
+            remove( path );
+            final Entry< Def > entry = new Entry<>( path, def );
+            byPath.put( path.toURI( ), entry );
+            if ( def.getUuid( ) != null ) {
+                byUuid.put( def.getUuid( ), entry );
+            }
+        }
+
+        private synchronized void remove( final Path path ) {
+            final Entry< ? extends Def > entry = byPath.remove( path.toURI( ) );
+            if ( entry != null && entry.getDef( ).getUuid( ) != null ) {
+                byUuid.remove( entry.getDef( ).getUuid( ), entry );
+            }
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private synchronized < T extends Def > Collection< Entry< T > > getDefs( final Class< T > type ) {
+            final List< Entry< T > > result = new ArrayList<>( );
+            for ( Entry< ? extends Def > entry : byPath.values( ) ) {
+                if ( type.isInstance( entry.getDef( ) ) ) {
+                    result.add( ( Entry< T > ) entry );
+                }
+            }
+            return result;
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private synchronized < T extends Def > Entry< T > getDef( final Class< T > type, final String uuid ) {
+            final Entry< ? extends Def > entry = byUuid.get( uuid );
+            return entry != null && type.isInstance( entry.getDef( ) ) ? ( Entry< T > ) entry : null;
+        }
+    }
+}
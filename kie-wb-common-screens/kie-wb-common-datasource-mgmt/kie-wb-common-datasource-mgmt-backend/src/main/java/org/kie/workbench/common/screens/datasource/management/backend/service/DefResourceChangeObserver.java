@@ -16,18 +16,23 @@
 
 package org.kie.workbench.common.screens.datasource.management.backend.service;
 
+import java.util.Collection;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
 import org.uberfire.workbench.events.ResourceDeletedEvent;
 import org.uberfire.workbench.events.ResourceRenamedEvent;
 import org.uberfire.workbench.events.ResourceUpdatedEvent;
 
 /**
- * Observes vfs events on data source and drivers definition files and notifies the interested handler.
+ * Observes vfs events on data source and drivers definition files, keeps the definitions index up to date and
+ * notifies the interested handler.
  */
 @ApplicationScoped
 public class DefResourceChangeObserver {
@@ -49,27 +54,51 @@ public class DefResourceChangeObserver {
     }
 
     public void onResourceAdd( @Observes final ResourceAddedEvent resourceAddedEvent ) {
-        if ( defChangeHandler != null && isProcessable( resourceAddedEvent.getPath( ) ) ) {
-            defChangeHandler.processResourceAdd( resourceAddedEvent.getPath( ), resourceAddedEvent.getSessionInfo( ) );
+        if ( isProcessable( resourceAddedEvent.getPath( ) ) ) {
+            serviceHelper.getDefIndex( ).refresh( resourceAddedEvent.getPath( ) );
+            if ( defChangeHandler != null ) {
+                defChangeHandler.processResourceAdd( resourceAddedEvent.getPath( ), resourceAddedEvent.getSessionInfo( ) );
+            }
         }
     }
 
     public void onResourceUpdate( @Observes final ResourceUpdatedEvent resourceUpdatedEvent ) {
-        if ( defChangeHandler != null && isProcessable( resourceUpdatedEvent.getPath( ) ) ) {
-            defChangeHandler.processResourceUpdate( resourceUpdatedEvent.getPath( ), resourceUpdatedEvent.getSessionInfo( ) );
+        if ( isProcessable( resourceUpdatedEvent.getPath( ) ) ) {
+            serviceHelper.getDefIndex( ).refresh( resourceUpdatedEvent.getPath( ) );
+            if ( defChangeHandler != null ) {
+                defChangeHandler.processResourceUpdate( resourceUpdatedEvent.getPath( ), resourceUpdatedEvent.getSessionInfo( ) );
+            }
         }
     }
 
     public void onResourceRename( @Observes final ResourceRenamedEvent resourceRenamedEvent ) {
-        if ( defChangeHandler != null && isProcessable( resourceRenamedEvent.getDestinationPath( ) ) ) {
-            defChangeHandler.processResourceRename( resourceRenamedEvent.getPath( ),
-                    resourceRenamedEvent.getDestinationPath( ), resourceRenamedEvent.getSessionInfo( ) );
+        if ( isProcessable( resourceRenamedEvent.getPath( ) ) ) {
+            serviceHelper.getDefIndex( ).remove( resourceRenamedEvent.getPath( ) );
+        }
+        if ( isProcessable( resourceRenamedEvent.getDestinationPath( ) ) ) {
+            serviceHelper.getDefIndex( ).refresh( resourceRenamedEvent.getDestinationPath( ) );
+            if ( defChangeHandler != null ) {
+                defChangeHandler.processResourceRename( resourceRenamedEvent.getPath( ),
+                        resourceRenamedEvent.getDestinationPath( ), resourceRenamedEvent.getSessionInfo( ) );
+            }
         }
     }
 
     public void onResourceDelete( @Observes final ResourceDeletedEvent resourceDeletedEvent ) {
-        if ( defChangeHandler != null && isProcessable( resourceDeletedEvent.getPath( ) ) ) {
-            defChangeHandler.processResourceDelete( resourceDeletedEvent.getPath( ), resourceDeletedEvent.getSessionInfo( ) );
+        if ( isProcessable( resourceDeletedEvent.getPath( ) ) ) {
+            serviceHelper.getDefIndex( ).remove( resourceDeletedEvent.getPath( ) );
+            if ( defChangeHandler != null ) {
+                defChangeHandler.processResourceDelete( resourceDeletedEvent.getPath( ), resourceDeletedEvent.getSessionInfo( ) );
+            }
+        }
+    }
+
+    public void onBatchResourceChanges( @Observes final ResourceBatchChangesEvent resourceBatchChangesEvent ) {
+        //batches may contain renames, so the affected contexts are read again when queried.
+        for ( final Map.Entry< Path, Collection< ResourceChange > > entry : resourceBatchChangesEvent.getBatch( ).entrySet( ) ) {
+            if ( isProcessable( entry.getKey( ) ) ) {
+                serviceHelper.getDefIndex( ).invalidateContext( entry.getKey( ) );
+            }
         }
     }
 
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.datasource.management.util;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Driver;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a single class loader, and a single driver instance per driver class, for each driver library, so that data
+ * sources using the same driver don't load the driver classes again. Class loaders are reference counted and closed
+ * when the last data source using them releases them.
+ */
+public final class DriverClassLoaderCache {
+
+    private static final Logger logger = LoggerFactory.getLogger( DriverClassLoaderCache.class );
+
+    private static final Map< Key, Entry > entries = new HashMap<>( );
+
+    private DriverClassLoaderCache( ) {
+    }
+
+    /**
+     * Gets the driver for a given driver library and adds a reference to the library class loader. Every successful
+     * acquire must be followed by a release.
+     * @param driverURL The driver library url.
+     * @param driverClass The driver class name.
+     * @param parent The parent class loader, or null.
+     * @return The driver instance.
+     * @throws Exception if the driver class can't be loaded or isn't a driver.
+     */
+    public static synchronized Driver acquire( URL driverURL,
+                                               String driverClass,
+                                               ClassLoader parent ) throws Exception {
+        final Key key = new Key( driverURL, parent );
+        Entry entry = entries.get( key );
+        final boolean created = entry == null;
+        if ( created ) {
+            final URL[] urls = { driverURL };
+            entry = new Entry( parent != null ? new URLClassLoader( urls, parent ) : new URLClassLoader( urls ) );
+        }
+
+        Driver driver = entry.drivers.get( driverClass );
+        if ( driver == null ) {
+            try {
+                driver = newDriver( entry.classLoader, driverClass );
+            } catch ( Exception e ) {
+                if ( created ) {
+                    close( entry );
+                }
+                throw e;
+            }
+            entry.drivers.put( driverClass, driver );
+        }
+
+        if ( created ) {
+            entries.put( key, entry );
+        }
+        entry.references++;
+        return driver;
+    }
+
+    /**
+     * Releases a reference acquired for the given driver library.
+     * @param driverURL The driver library url.
+     * @param parent The parent class loader used when the reference was acquired.
+     */
+    public static synchronized void release( URL driverURL,
+                                             ClassLoader parent ) {
+        final Key key = new Key( driverURL, parent );
+        final Entry entry = entries.get( key );
+        if ( entry != null && --entry.references <= 0 ) {
+            entries.remove( key );
+            close( entry );
+        }
+    }
+
+    /**
+     * facilitates tests programming.
+     */
+    static synchronized int getReferences( URL driverURL,
+                                           ClassLoader parent ) {
+        final Entry entry = entries.get( new Key( driverURL, parent ) );
+        return entry != null ? entry.references : 0;
+    }
+
+    private static Driver newDriver( ClassLoader classLoader,
+                                     String driverClass ) throws Exception {
+        try {
+            final Class clazz = classLoader.loadClass( driverClass );
+            if ( !Driver.class.isAssignableFrom( clazz ) ) {
+                throw new Exception( "Class: " + driverClass + " must extend: " + Driver.class.getName() );
+            }
+            return (Driver) clazz.newInstance();
+        } catch ( ClassNotFoundException e ) {
+            throw new Exception( "Driver class: " + driverClass + " was not found.", e );
+        }
+    }
+
+    private static void close( Entry entry ) {
+        try {
+            entry.classLoader.close( );
+        } catch ( Exception e ) {
+            logger.warn( "An error was produced during driver class loader close", e );
+        }
+    }
+
+    private static class Key {
+
+        private final String driverURL;
+
+        private final ClassLoader parent;
+
+        private Key( URL driverURL,
+                     ClassLoader parent ) {
+            //URL.equals may resolve host names, the external form is enough to identify the library.
+            this.driverURL = driverURL.toExternalForm( );
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !( o instanceof Key ) ) {
+                return false;
+            }
+            Key key = (Key) o;
+            return driverURL.equals( key.driverURL ) && parent == key.parent;
+        }
+
+        @Override
+        public int hashCode( ) {
+            return 31 * driverURL.hashCode( ) + System.identityHashCode( parent );
+        }
+    }
+
+    private static class Entry {
+
+        private final URLClassLoader classLoader;
+
+        private final Map< String, Driver > drivers = new HashMap<>( );
+
+        private int references;
+
+        private Entry( URLClassLoader classLoader ) {
+            this.classLoader = classLoader;
+        }
+    }
+}
@@ -17,16 +17,17 @@
 package org.kie.workbench.common.screens.datasource.management.util;
 
 import java.net.URL;
-import java.net.URLClassLoader;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.SQLException;
 import java.util.Properties;
 
 /**
- * Utility class for opening jdbc connections by using a jdbc driver form a url.
+ * Utility class for opening jdbc connections by using a jdbc driver form a url. The driver classes are shared with
+ * other factories using the same driver library, see {@link DriverClassLoaderCache}, so factories must be closed when
+ * they are no longer used.
  */
-public class URLConnectionFactory {
+public class URLConnectionFactory implements AutoCloseable {
 
     private String driverClass;
 
@@ -40,6 +41,8 @@ public class URLConnectionFactory {
 
     private Driver driver;
 
+    private volatile boolean closed = false;
+
     public URLConnectionFactory( URL driverURL,
             String driverClass,
             ClassLoader parent,
@@ -58,33 +61,27 @@ public class URLConnectionFactory {
             String connectionURL,
             Properties properties ) throws Exception {
         this( driverURL, driverClass, null, connectionURL, properties );
-        init();
     }
 
     private void init() throws Exception {
-
-        ClassLoader classLoader;
-        final URL[] urls = {driverURL};
-
-        if ( parent != null ) {
-            classLoader = new URLClassLoader( urls, parent );
-        } else {
-            classLoader = new URLClassLoader( urls );
-        }
-
-        try {
-            final Class clazz = classLoader.loadClass( driverClass );
-            if ( !Driver.class.isAssignableFrom( clazz ) ) {
-                throw new Exception( "Class: " + driverClass + " must extend: " + Driver.class.getName() );
-            } else {
-                driver = (Driver) clazz.newInstance();
-            }
-        } catch ( ClassNotFoundException e ) {
-            throw new Exception( "Driver class: " + driverClass + " was not found.", e );
-        }
+        driver = DriverClassLoaderCache.acquire( driverURL, driverClass, parent );
     }
 
     public Connection createConnection() throws SQLException {
+        if ( closed ) {
+            throw new SQLException( "Connection factory for driver: " + driverClass + " is closed" );
+        }
         return driver.connect( connectionURL, properties );
     }
-}
\ No newline at end of file
+
+    /**
+     * Releases the driver classes used by this factory. Connections can't be created once the factory is closed.
+     */
+    @Override
+    public synchronized void close() {
+        if ( !closed ) {
+            closed = true;
+            DriverClassLoaderCache.release( driverURL, parent );
+        }
+    }
+}
@@ -63,6 +63,8 @@ public class DataSourceDefQueryServiceTest {
 
     private DataSourceDefQueryService queryService;
 
+    private DefIndex defIndex;
+
     private org.uberfire.java.nio.file.Path nioDataSourcesPath;
 
     private Path dataSourcesPath;
@@ -86,8 +88,9 @@ public class DataSourceDefQueryServiceTest {
         nioDataSourcesPath = fs.getPath( dataSourcesPathURL.toURI() );
         dataSourcesPath = Paths.convert( nioDataSourcesPath );
 
-        queryService = new DataSourceDefQueryServiceImpl( ioService,
-                projectService, serviceHelper, providerFactory, runtimeManager );
+        defIndex = new DefIndex( ioService );
+        queryService = new DataSourceDefQueryServiceImpl( projectService, serviceHelper, providerFactory,
+                runtimeManager, defIndex );
 
         setupExpectedResults();
     }
@@ -144,6 +147,30 @@ public class DataSourceDefQueryServiceTest {
         assertEquals( expectedDrivers.get( 1 ), driverDefInfo );
     }
 
+    @Test
+    public void testFindGlobalDriverByUuid() {
+        when ( serviceHelper.getGlobalDataSourcesContext() ).thenReturn( dataSourcesPath );
+        assertEquals( expectedDrivers.get( 0 ), queryService.findGlobalDriver( "driver1Id" ) );
+        assertNull( queryService.findGlobalDriver( "nonExistingId" ) );
+    }
+
+    @Test
+    public void testDriversAreReadOnceAndUpdated() {
+        when ( serviceHelper.getGlobalDataSourcesContext() ).thenReturn( dataSourcesPath );
+        assertCollectionEquals( expectedDrivers, queryService.findGlobalDrivers() );
+
+        // a removed definition should no longer be returned, without reading the context again.
+        Path driver1Path = expectedDrivers.get( 0 ).getPath();
+        defIndex.remove( driver1Path );
+        assertCollectionEquals( expectedDrivers.subList( 1, 2 ), queryService.findGlobalDrivers() );
+        assertNull( queryService.findGlobalDriver( "driver1Id" ) );
+
+        // refreshing the definition reads the file again.
+        defIndex.refresh( driver1Path );
+        assertCollectionEquals( expectedDrivers, queryService.findGlobalDrivers() );
+        assertEquals( expectedDrivers.get( 0 ), queryService.findGlobalDriver( "driver1Id" ) );
+    }
+
     private void assertCollectionEquals( Collection<?> expectedValues, Collection<?> values ) {
         assertEquals( expectedValues.size(), values.size() );
         for ( Object value : values ) {
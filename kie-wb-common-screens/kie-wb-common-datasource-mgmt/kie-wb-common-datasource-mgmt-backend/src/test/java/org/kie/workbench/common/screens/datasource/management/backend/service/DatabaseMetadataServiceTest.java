@@ -18,6 +18,11 @@ package org.kie.workbench.common.screens.datasource.management.backend.service;
 
 import java.sql.Connection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -109,4 +114,112 @@ public class DatabaseMetadataServiceTest {
         // the result should be the same as the returned by the DatabaseMetadataUtil class.
         assertEquals( tables, result );
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the metadata is read once from the database until the data source is refreshed.
+     */
+    @Test
+    public void testFindTablesIsCachedUntilRefresh( ) throws Exception {
+        PowerMockito.mockStatic( DatabaseMetadataUtil.class );
+        PowerMockito.when( DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types ) ).thenReturn( tables );
+
+        assertEquals( tables, metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types ) );
+        assertEquals( tables, metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types ) );
+        // the second query should have been served from the cache.
+        PowerMockito.verifyStatic( times( 1 ) );
+        DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types );
+
+        metadataService.refresh( DATASOURCE_UUID );
+        assertEquals( tables, metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types ) );
+        // after the refresh the database should have been queried again.
+        PowerMockito.verifyStatic( times( 2 ) );
+        DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types );
+    }
+
+    /**
+     * Tests that the least recently used query of a data source is discarded once the cache is full.
+     */
+    @Test
+    public void testLeastRecentlyUsedQueryIsEvicted( ) throws Exception {
+        ( ( DatabaseMetadataServiceImpl ) metadataService ).setCacheSize( 1 );
+        PowerMockito.mockStatic( DatabaseMetadataUtil.class );
+        PowerMockito.when( DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types ) ).thenReturn( tables );
+        PowerMockito.when( DatabaseMetadataUtil.findTables( conn, SCHEMA, "%", types ) ).thenReturn( tables );
+
+        metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types );
+        metadataService.findTables( DATASOURCE_UUID, SCHEMA, types );
+        metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types );
+
+        // the first query was discarded when the second one was cached, so the database was queried again.
+        PowerMockito.verifyStatic( times( 2 ) );
+        DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types );
+    }
+
+    /**
+     * Tests that concurrent requests for the same query read the metadata from the database only once.
+     */
+    @Test
+    public void testConcurrentFindTablesReadOnce( ) throws Exception {
+        final CountDownLatch reading = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        PowerMockito.mockStatic( DatabaseMetadataUtil.class );
+        PowerMockito.when( DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types ) ).thenAnswer( invocation -> {
+            reading.countDown( );
+            assertTrue( release.await( 5, TimeUnit.SECONDS ) );
+            return tables;
+        } );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try {
+            Future< List< TableMetadata > > first = executor.submit( ( ) -> metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types ) );
+            assertTrue( reading.await( 5, TimeUnit.SECONDS ) );
+            Future< List< TableMetadata > > second = executor.submit( ( ) -> metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types ) );
+            // give the second request the chance to find the read in progress.
+            Thread.sleep( 100 );
+            release.countDown( );
+
+            assertEquals( tables, first.get( 5, TimeUnit.SECONDS ) );
+            assertEquals( tables, second.get( 5, TimeUnit.SECONDS ) );
+        } finally {
+            executor.shutdownNow( );
+        }
+
+        PowerMockito.verifyStatic( times( 1 ) );
+        DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types );
+    }
+
+    /**
+     * Tests that a failed read is not cached.
+     */
+    @Test
+    public void testFailedReadIsNotCached( ) throws Exception {
+        PowerMockito.mockStatic( DatabaseMetadataUtil.class );
+        PowerMockito.when( DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types ) )
+                .thenThrow( new RuntimeException( "connection lost" ) )
+                .thenReturn( tables );
+
+        try {
+            metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types );
+            fail( "the failed read should have been reported" );
+        } catch ( Exception e ) {
+            assertTrue( e.getMessage( ).contains( "connection lost" ) );
+        }
+        assertEquals( tables, metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types ) );
+    }
+
+    /**
+     * Tests that the metadata is read from the database every time when the cache is disabled.
+     */
+    @Test
+    public void testFindTablesWithCacheDisabled( ) throws Exception {
+        ( ( DatabaseMetadataServiceImpl ) metadataService ).setCacheTTL( 0 );
+        PowerMockito.mockStatic( DatabaseMetadataUtil.class );
+        PowerMockito.when( DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types ) ).thenReturn( tables );
+
+        metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types );
+        metadataService.findTables( DATASOURCE_UUID, SCHEMA, PATTERN, types );
+
+        PowerMockito.verifyStatic( times( 2 ) );
+        DatabaseMetadataUtil.findTables( conn, SCHEMA, PATTERN, types );
+    }
+}
@@ -60,6 +60,9 @@ public abstract class DefEditorServiceBaseTest {
     @Mock
     protected DefRegistry defRegistry;
 
+    @Mock
+    protected DefIndex defIndex;
+
     @Mock
     protected IOService ioService;
 
@@ -97,6 +100,7 @@ public abstract class DefEditorServiceBaseTest {
         when ( optionsFactory.getSafeSessionId() ).thenReturn( SESSION_ID );
         when( optionsFactory.getSafeIdentityName() ).thenReturn( IDENTITY );
         when ( serviceHelper.getDefRegistry() ).thenReturn( defRegistry );
+        when ( serviceHelper.getDefIndex() ).thenReturn( defIndex );
     }
 
     protected abstract DefEditorContent getExpectedContent();
@@ -193,6 +197,7 @@ public abstract class DefEditorServiceBaseTest {
         verify( optionsFactory, times( 1 ) ).makeCommentedOption( COMMENT );
         // 2) the new definition was registered.
         verify( defRegistry, times( 1 ) ).setEntry( path, getExpectedDef() );
+        verify( defIndex, times( 1 ) ).update( path, getExpectedDef() );
 
         // 3) the definition was deployed and 4) the notification was fired.
         verifySaveConditions( );
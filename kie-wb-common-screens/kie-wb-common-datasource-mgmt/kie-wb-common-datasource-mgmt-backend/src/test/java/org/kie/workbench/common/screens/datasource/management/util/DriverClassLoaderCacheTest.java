@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.datasource.management.util;
+
+import java.net.URL;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.screens.datasource.management.backend.service.TestDriver;
+
+import static org.junit.Assert.*;
+
+public class DriverClassLoaderCacheTest {
+
+    private static final String CONNECTION_URL = "CONNECTION_URL";
+
+    private URL driverURL;
+
+    private ClassLoader parent;
+
+    @Before
+    public void setup( ) throws Exception {
+        driverURL = new URL( "file:///maven_dir/driver1_file.jar" );
+        // the driver class is resolved by the parent class loader.
+        parent = getClass( ).getClassLoader( );
+    }
+
+    @Test
+    public void testClassLoaderIsSharedAndReleased( ) throws Exception {
+        URLConnectionFactory factory1 = new URLConnectionFactory( driverURL, TestDriver.class.getName( ), parent,
+                CONNECTION_URL, new Properties( ) );
+        URLConnectionFactory factory2 = new URLConnectionFactory( driverURL, TestDriver.class.getName( ), parent,
+                CONNECTION_URL, new Properties( ) );
+        // both factories share the driver library.
+        assertEquals( 2, DriverClassLoaderCache.getReferences( driverURL, parent ) );
+
+        factory1.close( );
+        // closing twice must not release the library twice.
+        factory1.close( );
+        assertEquals( 1, DriverClassLoaderCache.getReferences( driverURL, parent ) );
+
+        factory2.close( );
+        assertEquals( 0, DriverClassLoaderCache.getReferences( driverURL, parent ) );
+    }
+
+    @Test
+    public void testWrongDriverClassIsNotReferenced( ) throws Exception {
+        try {
+            DriverClassLoaderCache.acquire( driverURL, String.class.getName( ), parent );
+            fail( "A class that is not a driver must not be accepted" );
+        } catch ( Exception e ) {
+            assertEquals( "Class: " + String.class.getName( ) + " must extend: " + java.sql.Driver.class.getName( ),
+                    e.getMessage( ) );
+        }
+        assertEquals( 0, DriverClassLoaderCache.getReferences( driverURL, parent ) );
+    }
+}
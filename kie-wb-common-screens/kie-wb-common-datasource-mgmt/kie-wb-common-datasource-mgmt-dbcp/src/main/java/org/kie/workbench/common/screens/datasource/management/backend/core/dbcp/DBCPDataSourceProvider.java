@@ -78,13 +78,7 @@ public class DBCPDataSourceProvider
     @Override
     public DataSourceDeploymentInfo deploy( DataSourceDef dataSourceDef ) throws Exception {
 
-        DriverDef driverDef = null;
-        for ( DriverDef _driverDef : driverProvider.getDeployments() ) {
-            if ( _driverDef.getUuid().equals( dataSourceDef.getDriverUuid() ) ) {
-                driverDef = _driverDef;
-                break;
-            }
-        }
+        DriverDef driverDef = driverProvider.getDeployment( dataSourceDef.getDriverUuid() );
 
         if ( driverDef == null ) {
             throw new Exception( "Required driver: " + dataSourceDef.getDriverUuid() + " is not deployed" );
@@ -120,7 +114,7 @@ public class DBCPDataSourceProvider
         DataSourceDeploymentInfo deploymentInfo = new DataSourceDeploymentInfo( dataSourceDef.getUuid(),
                 true, dataSourceDef.getUuid(), false );
 
-        deploymentRegistry.put( deploymentInfo.getDeploymentId(), new DBCPDataSource( dataSource ) );
+        deploymentRegistry.put( deploymentInfo.getDeploymentId(), new DBCPDataSource( dataSource, urlConnectionFactory ) );
         deploymentInfos.put( deploymentInfo.getDeploymentId(), deploymentInfo );
         deployedDataSources.put( deploymentInfo.getDeploymentId(), dataSourceDef );
 
@@ -225,8 +219,11 @@ public class DBCPDataSourceProvider
 
     private class DBCPDataSource extends AbstractDataSource {
 
-        public DBCPDataSource( PoolingDataSource dataSource ) {
+        private URLConnectionFactory urlConnectionFactory;
+
+        public DBCPDataSource( PoolingDataSource dataSource, URLConnectionFactory urlConnectionFactory ) {
             this.dataSource = dataSource;
+            this.urlConnectionFactory = urlConnectionFactory;
         }
 
         @Override
@@ -240,7 +237,12 @@ public class DBCPDataSourceProvider
         }
 
         public void close() throws Exception {
-            ((PoolingDataSource) dataSource).close();
+            try {
+                ((PoolingDataSource) dataSource).close();
+            } finally {
+                //release the driver classes once the pooled connections are closed.
+                urlConnectionFactory.close();
+            }
         }
     }
 }
\ No newline at end of file
@@ -104,6 +104,13 @@ public class DBCPDriverProvider
         return results;
     }
 
+    /**
+     * @return The deployed driver with the given uuid, or null if no such driver is deployed.
+     */
+    public DriverDef getDeployment( String uuid ) {
+        return deployedDrivers.get( uuid );
+    }
+
     @Override
     public void loadConfig( Properties properties ) {
         //no additional configurations for this provider.
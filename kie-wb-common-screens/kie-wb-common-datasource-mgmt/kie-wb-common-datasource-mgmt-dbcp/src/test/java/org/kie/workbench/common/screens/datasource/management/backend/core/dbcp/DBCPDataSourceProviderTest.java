@@ -87,6 +87,7 @@ public class DBCPDataSourceProviderTest
     @Override
     protected void setupDrivers( ) {
         when( dbcpDriverProvider.getDeployments( ) ).thenReturn( dbcpDrivers );
+        when( dbcpDriverProvider.getDeployment( DRIVER1_UUID ) ).thenReturn( driverDef1 );
     }
 
     @Override
@@ -97,5 +98,7 @@ public class DBCPDataSourceProviderTest
     @Override
     protected void unDeployDataSource( DataSourceDeploymentInfo deploymentInfo ) throws Exception {
         dataSourceProvider.undeploy( deploymentInfo );
+        // the driver classes should have been released.
+        verify( urlConnectionFactory, times( 1 ) ).close( );
     }
 }
\ No newline at end of file
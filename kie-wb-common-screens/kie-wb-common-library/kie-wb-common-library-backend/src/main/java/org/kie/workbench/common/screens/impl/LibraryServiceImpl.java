@@ -57,6 +57,8 @@ public class LibraryServiceImpl implements LibraryService {
 
     private SessionInfo sessionInfo;
 
+    private ProjectCatalog projectCatalog;
+
     public LibraryServiceImpl() {
     }
 
@@ -66,13 +68,15 @@ public class LibraryServiceImpl implements LibraryService {
                                KieProjectService kieProjectService,
                                LibraryPreferences preferences,
                                AuthorizationManager authorizationManager,
-                               SessionInfo sessionInfo ) {
+                               SessionInfo sessionInfo,
+                               ProjectCatalog projectCatalog ) {
         this.ouService = ouService;
         this.repositoryService = repositoryService;
         this.kieProjectService = kieProjectService;
         this.preferences = preferences;
         this.authorizationManager = authorizationManager;
         this.sessionInfo = sessionInfo;
+        this.projectCatalog = projectCatalog;
     }
 
     @Override
@@ -165,9 +169,8 @@ public class LibraryServiceImpl implements LibraryService {
         return getOrganizationalUnits().stream()
                 .flatMap( organizationalUnit -> organizationalUnit.getRepositories().stream()
                         .filter( repository -> authorizationManager.authorize( repository, sessionInfo.getIdentity() ) ) )
-                .flatMap( repository -> repository.getBranches().stream()
-                        .map( branch -> kieProjectService.getProjects( repository, branch ) ) )
-                .anyMatch( projects -> projects != null && !projects.isEmpty() );
+                .anyMatch( repository -> repository.getBranches().stream()
+                        .anyMatch( branch -> projectCatalog.hasProjects( repository, branch ) ) );
     }
 
     POM createPOM( String projectName,
@@ -185,7 +188,7 @@ public class LibraryServiceImpl implements LibraryService {
 
         Repository defaultRepository = getDefaultRepository( ou );
 
-        return kieProjectService.getProjects( defaultRepository, getPreferences().getProjectDefaultBranch() );
+        return projectCatalog.getProjects( defaultRepository, getPreferences().getProjectDefaultBranch() );
     }
 
     Repository getDefaultRepository( OrganizationalUnit ou ) {
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.impl;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.guvnor.common.services.project.events.DeleteProjectEvent;
+import org.guvnor.common.services.project.events.NewProjectEvent;
+import org.guvnor.common.services.project.events.RenameProjectEvent;
+import org.guvnor.common.services.project.model.Project;
+import org.guvnor.structure.repositories.Repository;
+import org.guvnor.structure.repositories.RepositoryRemovedEvent;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * In-memory catalog of the Projects in each Repository branch. A branch is resolved from the VFS the first time it is
+ * requested and then kept up to date from Project creation, deletion and renaming events. Changes to a pom.xml that
+ * are not made through the Project service (e.g. git push, clone or edits on another node of a cluster) discard the
+ * branch containing it, so it is resolved again on demand. As a safety net branches are also resolved again once
+ * older than a configurable time; and the catalog can be rebuilt, which discards everything.
+ */
+@ApplicationScoped
+public class ProjectCatalog {
+
+    static final String TTL_PROPERTY_NAME = "org.kie.library.catalog.ttl";
+
+    private static final String POM_XML = "pom.xml";
+
+    private static final long TTL = Long.getLong( TTL_PROPERTY_NAME,
+                                                  10 * 60 * 1000 );
+
+    private KieProjectService kieProjectService;
+
+    private final Map<String, Branch> branches = new ConcurrentHashMap<>();
+
+    public ProjectCatalog() {
+    }
+
+    @Inject
+    public ProjectCatalog( KieProjectService kieProjectService ) {
+        this.kieProjectService = kieProjectService;
+    }
+
+    /**
+     * @return A copy of the Projects of the branch, which is safe to send to the client.
+     */
+    public Set<Project> getProjects( Repository repository,
+                                     String branch ) {
+        return new HashSet<>( getBranch( repository,
+                                         branch ).projects );
+    }
+
+    public boolean hasProjects( Repository repository,
+                                String branch ) {
+        return !getBranch( repository,
+                           branch ).projects.isEmpty();
+    }
+
+    public void rebuild() {
+        branches.clear();
+    }
+
+    public void rebuild( Repository repository ) {
+        final String prefix = repository.getAlias() + "@";
+        branches.keySet().removeIf( key -> key.startsWith( prefix ) );
+    }
+
+    public void onNewProject( @Observes NewProjectEvent event ) {
+        add( event.getProject() );
+    }
+
+    public void onDeleteProject( @Observes DeleteProjectEvent event ) {
+        remove( event.getProject() );
+    }
+
+    public void onRenameProject( @Observes RenameProjectEvent event ) {
+        remove( event.getOldProject() );
+        add( event.getNewProject() );
+    }
+
+    public void onRepositoryRemoved( @Observes RepositoryRemovedEvent event ) {
+        rebuild( event.getRepository() );
+    }
+
+    public void onResourceAdded( @Observes ResourceAddedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceUpdated( @Observes ResourceUpdatedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes ResourceDeletedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceRenamed( @Observes ResourceRenamedEvent event ) {
+        invalidate( event.getPath() );
+        invalidate( event.getDestinationPath() );
+    }
+
+    public void onBatchResourceChanges( @Observes ResourceBatchChangesEvent event ) {
+        for ( Map.Entry<Path, Collection<ResourceChange>> entry : event.getBatch().entrySet() ) {
+            invalidate( entry.getKey() );
+        }
+    }
+
+    /**
+     * Discards the branches containing a pom.xml that changed, as Projects may have been added, removed or renamed.
+     * @param path The path that changed.
+     */
+    void invalidate( Path path ) {
+        if ( path == null || !POM_XML.equals( path.getFileName() ) ) {
+            return;
+        }
+        final String uri = path.toURI();
+        branches.values().removeIf( branch -> branch.contains( uri ) );
+    }
+
+    private Branch getBranch( Repository repository,
+                              String branch ) {
+        final String key = repository.getAlias() + "@" + branch;
+        final Branch cached = branches.get( key );
+        if ( cached != null && cached.expires < System.currentTimeMillis() ) {
+            branches.remove( key,
+                             cached );
+        }
+        return branches.computeIfAbsent( key,
+                                         k -> load( repository,
+                                                    branch ) );
+    }
+
+    private Branch load( Repository repository,
+                         String branch ) {
+        final Path branchRoot = repository.getBranchRoot( branch );
+        final Set<Project> projects = ConcurrentHashMap.newKeySet();
+        final Set<Project> loaded = kieProjectService.getProjects( repository,
+                                                                   branch );
+        if ( loaded != null ) {
+            projects.addAll( loaded );
+        }
+        return new Branch( branchRoot == null ? null : branchRoot.toURI(),
+                           projects,
+                           System.currentTimeMillis() + TTL );
+    }
+
+    private void add( Project project ) {
+        final String uri = getRootURI( project );
+        if ( uri == null ) {
+            return;
+        }
+        //Only branches that have been resolved need updating; the others will include the Project when resolved
+        for ( Branch branch : branches.values() ) {
+            if ( branch.contains( uri ) ) {
+                branch.projects.removeIf( p -> uri.equals( getRootURI( p ) ) );
+                branch.projects.add( project );
+            }
+        }
+    }
+
+    private void remove( Project project ) {
+        final String uri = getRootURI( project );
+        if ( uri == null ) {
+            return;
+        }
+        for ( Branch branch : branches.values() ) {
+            branch.projects.removeIf( p -> uri.equals( getRootURI( p ) ) );
+        }
+    }
+
+    private static String getRootURI( Project project ) {
+        if ( project == null || project.getRootPath() == null ) {
+            return null;
+        }
+        return project.getRootPath().toURI();
+    }
+
+    private static class Branch {
+
+        private final String rootURI;
+
+        private final Set<Project> projects;
+
+        private final long expires;
+
+        private Branch( String rootURI,
+                        Set<Project> projects,
+                        long expires ) {
+            this.rootURI = rootURI;
+            this.projects = projects;
+            this.expires = expires;
+        }
+
+        private boolean contains( String uri ) {
+            if ( rootURI == null ) {
+                return false;
+            }
+            final String root = rootURI.endsWith( "/" ) ? rootURI : rootURI + "/";
+            return uri.startsWith( root ) || uri.equals( rootURI );
+        }
+    }
+}
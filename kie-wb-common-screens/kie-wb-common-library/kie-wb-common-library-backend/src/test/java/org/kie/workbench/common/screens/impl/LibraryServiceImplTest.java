@@ -110,7 +110,7 @@ public class LibraryServiceImplTest {
         projectsMock.add( mock( Project.class ) );
         projectsMock.add( mock( Project.class ) );
 
-        libraryService = new LibraryServiceImpl( ouService, repositoryService, kieProjectService, preferences, authorizationManager, sessionInfo );
+        libraryService = new LibraryServiceImpl( ouService, repositoryService, kieProjectService, preferences, authorizationManager, sessionInfo, new ProjectCatalog( kieProjectService ) );
     }
 
     @Test
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.screens.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.guvnor.common.services.project.events.DeleteProjectEvent;
+import org.guvnor.common.services.project.events.NewProjectEvent;
+import org.guvnor.common.services.project.model.Project;
+import org.guvnor.structure.repositories.Repository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.rpc.SessionInfo;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceUpdated;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith( MockitoJUnitRunner.class )
+public class ProjectCatalogTest {
+
+    @Mock
+    private KieProjectService kieProjectService;
+
+    @Mock
+    private Repository repository;
+
+    private ProjectCatalog catalog;
+
+    @Before
+    public void setup() {
+        final Path branchRoot = mockPath( "default://master@repo" );
+        when( repository.getAlias() ).thenReturn( "repo" );
+        when( repository.getBranchRoot( "master" ) ).thenReturn( branchRoot );
+
+        catalog = new ProjectCatalog( kieProjectService );
+    }
+
+    @Test
+    public void branchIsResolvedOnce() {
+        final Set<Project> projects = new HashSet<>();
+        projects.add( mockProject( "default://master@repo/project1" ) );
+        doReturn( projects ).when( kieProjectService ).getProjects( repository, "master" );
+
+        assertTrue( catalog.hasProjects( repository, "master" ) );
+        assertEquals( projects, catalog.getProjects( repository, "master" ) );
+
+        verify( kieProjectService, times( 1 ) ).getProjects( repository, "master" );
+    }
+
+    @Test
+    public void branchIsMaintainedFromEvents() {
+        doReturn( new HashSet<Project>() ).when( kieProjectService ).getProjects( repository, "master" );
+        assertFalse( catalog.hasProjects( repository, "master" ) );
+
+        final Project project = mockProject( "default://master@repo/project1" );
+        catalog.onNewProject( new NewProjectEvent( project, "sessionId", "user" ) );
+
+        assertTrue( catalog.hasProjects( repository, "master" ) );
+        assertTrue( catalog.getProjects( repository, "master" ).contains( project ) );
+
+        final DeleteProjectEvent deleteEvent = mock( DeleteProjectEvent.class );
+        when( deleteEvent.getProject() ).thenReturn( mockProject( "default://master@repo/project1" ) );
+        catalog.onDeleteProject( deleteEvent );
+
+        assertFalse( catalog.hasProjects( repository, "master" ) );
+        verify( kieProjectService, times( 1 ) ).getProjects( repository, "master" );
+    }
+
+    @Test
+    public void projectsOfOtherBranchesAreIgnored() {
+        doReturn( new HashSet<Project>() ).when( kieProjectService ).getProjects( repository, "master" );
+        assertFalse( catalog.hasProjects( repository, "master" ) );
+
+        catalog.onNewProject( new NewProjectEvent( mockProject( "default://dev@repo/project1" ), "sessionId", "user" ) );
+
+        assertFalse( catalog.hasProjects( repository, "master" ) );
+    }
+
+    @Test
+    public void rebuildResolvesBranchAgain() {
+        doReturn( new HashSet<Project>() ).when( kieProjectService ).getProjects( repository, "master" );
+        catalog.hasProjects( repository, "master" );
+
+        catalog.rebuild();
+        catalog.hasProjects( repository, "master" );
+
+        verify( kieProjectService, times( 2 ) ).getProjects( repository, "master" );
+    }
+
+    @Test
+    public void pomChangesResolveBranchAgain() {
+        doReturn( new HashSet<Project>() ).when( kieProjectService ).getProjects( repository, "master" );
+        catalog.hasProjects( repository, "master" );
+
+        //e.g. a Project pushed to the repository, or its GAV edited on another node
+        final Map<Path, Collection<ResourceChange>> batch = new HashMap<>();
+        batch.put( mockPath( "default://master@repo/project1/pom.xml", "pom.xml" ),
+                   Collections.singletonList( new ResourceUpdated( "" ) ) );
+        final ResourceBatchChangesEvent batchEvent = mock( ResourceBatchChangesEvent.class );
+        when( batchEvent.getBatch() ).thenReturn( batch );
+        catalog.onBatchResourceChanges( batchEvent );
+        catalog.hasProjects( repository, "master" );
+
+        catalog.onResourceUpdated( new ResourceUpdatedEvent( mockPath( "default://master@repo/project1/pom.xml", "pom.xml" ),
+                                                             "",
+                                                             mock( SessionInfo.class ) ) );
+        catalog.hasProjects( repository, "master" );
+
+        verify( kieProjectService, times( 3 ) ).getProjects( repository, "master" );
+    }
+
+    @Test
+    public void otherChangesAreIgnored() {
+        doReturn( new HashSet<Project>() ).when( kieProjectService ).getProjects( repository, "master" );
+        catalog.hasProjects( repository, "master" );
+
+        catalog.onResourceUpdated( new ResourceUpdatedEvent( mockPath( "default://master@repo/project1/src/main/resources/rule.drl", "rule.drl" ),
+                                                             "",
+                                                             mock( SessionInfo.class ) ) );
+        catalog.onResourceUpdated( new ResourceUpdatedEvent( mockPath( "default://dev@repo/project1/pom.xml", "pom.xml" ),
+                                                             "",
+                                                             mock( SessionInfo.class ) ) );
+        catalog.hasProjects( repository, "master" );
+
+        verify( kieProjectService, times( 1 ) ).getProjects( repository, "master" );
+    }
+
+    private Project mockProject( String uri ) {
+        final Project project = mock( Project.class );
+        final Path rootPath = mockPath( uri );
+        when( project.getRootPath() ).thenReturn( rootPath );
+        return project;
+    }
+
+    private Path mockPath( String uri ) {
+        final Path path = mock( Path.class );
+        when( path.toURI() ).thenReturn( uri );
+        return path;
+    }
+
+    private Path mockPath( String uri,
+                           String fileName ) {
+        final Path path = mockPath( uri );
+        when( path.getFileName() ).thenReturn( fileName );
+        return path;
+    }
+}
@@ -30,6 +30,8 @@ public class FolderListing {
     private FolderItem item;
     private List<FolderItem> content;
     private List<FolderItem> segments;
+    private int offset;
+    private int totalCount;
 
     public FolderListing() {
         //For Errai-marshalling
@@ -41,6 +43,25 @@ public class FolderListing {
         this.item = item;
         this.content = checkNotNull( "content", content );
         this.segments = checkNotNull( "segments", segments );
+        this.offset = 0;
+        this.totalCount = content.size();
+    }
+
+    /**
+     * A window over the contents of a folder.
+     * @param offset Position of the first item of the content within the whole folder.
+     * @param totalCount Number of items in the whole folder.
+     */
+    public FolderListing( final FolderItem item,
+                          final List<FolderItem> content,
+                          final List<FolderItem> segments,
+                          final int offset,
+                          final int totalCount ) {
+        this( item,
+              content,
+              segments );
+        this.offset = offset;
+        this.totalCount = totalCount;
     }
 
     public FolderItem getItem() {
@@ -55,6 +76,18 @@ public class FolderListing {
         return segments;
     }
 
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean hasMore() {
+        return offset + content.size() < totalCount;
+    }
+
     @Override
     public boolean equals( Object o ) {
         if ( this == o ) {
@@ -66,6 +99,12 @@ public class FolderListing {
 
         FolderListing that = (FolderListing) o;
 
+        if ( offset != that.offset ) {
+            return false;
+        }
+        if ( totalCount != that.totalCount ) {
+            return false;
+        }
         if ( content != null ? !content.equals( that.content ) : that.content != null ) {
             return false;
         }
@@ -87,6 +126,10 @@ public class FolderListing {
         result = ~~result;
         result = 31 * result + ( segments != null ? segments.hashCode() : 0 );
         result = ~~result;
+        result = 31 * result + offset;
+        result = ~~result;
+        result = 31 * result + totalCount;
+        result = ~~result;
         return result;
     }
 }
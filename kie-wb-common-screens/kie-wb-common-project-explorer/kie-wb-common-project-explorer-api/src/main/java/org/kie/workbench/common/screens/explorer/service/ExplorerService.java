@@ -51,6 +51,21 @@ public interface ExplorerService {
                                     final FolderItem item,
                                     final ActiveOptions options );
 
+    /**
+     * Retrieves a window over the contents of a folder. Contents are ordered as for the complete listing.
+     * @param offset Position of the first item to return.
+     * @param limit Maximum number of items to return.
+     * @return The listing of the window, or null if the item cannot be listed.
+     */
+    FolderListing getFolderListing( final OrganizationalUnit organizationalUnit,
+                                    final Repository repository,
+                                    final String branch,
+                                    final Project project,
+                                    final FolderItem item,
+                                    final ActiveOptions options,
+                                    final int offset,
+                                    final int limit );
+
     Package resolvePackage( final FolderItem item );
 
     Set<Option> getLastUserOptions();
@@ -19,15 +19,14 @@ package org.kie.workbench.common.screens.explorer.backend.server;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import com.google.common.collect.Lists;
-import com.thoughtworks.xstream.XStream;
 import org.guvnor.common.services.backend.file.LinkedDotFileFilter;
-import org.guvnor.common.services.backend.file.LinkedRegularFileFilter;
 import org.guvnor.common.services.project.model.Package;
 import org.guvnor.common.services.project.model.Project;
 import org.guvnor.common.services.shared.metadata.MetadataService;
@@ -47,8 +46,7 @@ import org.uberfire.backend.server.UserServicesImpl;
 import org.uberfire.backend.server.VFSLockServiceImpl;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
-import org.uberfire.commons.async.DescriptiveRunnable;
-import org.uberfire.commons.async.SimpleAsyncExecutorService;
+import org.uberfire.backend.vfs.impl.LockInfo;
 import org.uberfire.ext.editor.commons.service.CopyService;
 import org.uberfire.ext.editor.commons.service.DeleteService;
 import org.uberfire.ext.editor.commons.service.RenameService;
@@ -63,13 +61,11 @@ public class ExplorerServiceHelper {
     private static final Logger LOGGER = LoggerFactory.getLogger( ExplorerServiceHelper.class );
 
     private LinkedDotFileFilter dotFileFilter = new LinkedDotFileFilter();
-    private LinkedRegularFileFilter regularFileFilter = new LinkedRegularFileFilter( dotFileFilter );
-    private XStream xs = new XStream();
 
     private KieProjectService projectService;
     private FolderListingResolver folderListingResolver;
     private IOService ioService;
-    private IOService ioServiceConfig;
+    private UserExplorerNavigationStore navigationStore;
     private VFSLockServiceImpl lockService;
     private MetadataService metadataService;
     private UserServicesImpl userServices;
@@ -78,6 +74,8 @@ public class ExplorerServiceHelper {
     private RenameService renameService;
     private CopyService copyService;
 
+    private FolderListingCache folderListingCache;
+
     public ExplorerServiceHelper() {
         //WELD proxy support
     }
@@ -86,23 +84,25 @@ public class ExplorerServiceHelper {
     public ExplorerServiceHelper( final KieProjectService projectService,
                                   final FolderListingResolver folderListingResolver,
                                   @Named("ioStrategy") final IOService ioService,
-                                  @Named("configIO") final IOService ioServiceConfig,
+                                  final UserExplorerNavigationStore navigationStore,
                                   final VFSLockServiceImpl lockService,
                                   final MetadataService metadataService,
                                   final UserServicesImpl userServices,
                                   final DeleteService deleteService,
                                   final RenameService renameService,
-                                  final CopyService copyService ) {
+                                  final CopyService copyService,
+                                  final FolderListingCache folderListingCache ) {
         this.projectService = projectService;
         this.folderListingResolver = folderListingResolver;
         this.ioService = ioService;
-        this.ioServiceConfig = ioServiceConfig;
+        this.navigationStore = navigationStore;
         this.lockService = lockService;
         this.metadataService = metadataService;
         this.userServices = userServices;
         this.deleteService = deleteService;
         this.renameService = renameService;
         this.copyService = copyService;
+        this.folderListingCache = folderListingCache;
     }
 
     public FolderItem toFolderItem( final org.guvnor.common.services.project.model.Package pkg ) {
@@ -165,6 +165,25 @@ public class ExplorerServiceHelper {
                                   getPackageSegments( pkg ) );
     }
 
+    public FolderListing getFolderListing( final Package pkg,
+                                           final ActiveOptions options,
+                                           final int offset,
+                                           final int limit ) {
+        final List<FolderItem> folderItems = new ArrayList<FolderItem>();
+        final int from = Math.max( 0,
+                                   offset );
+        final int totalCount = getItems( pkg,
+                                         options,
+                                         from,
+                                         limit,
+                                         folderItems );
+        return new FolderListing( toFolderItem( pkg ),
+                                  folderItems,
+                                  getPackageSegments( pkg ),
+                                  from,
+                                  totalCount );
+    }
+
     public FolderListing getFolderListing( final FolderItem item,
                                            final ActiveOptions options ) {
 
@@ -180,9 +199,40 @@ public class ExplorerServiceHelper {
         return result;
     }
 
+    public FolderListing getFolderListing( final FolderItem item,
+                                           final ActiveOptions options,
+                                           final int offset,
+                                           final int limit ) {
+
+        FolderListing result = null;
+        if ( item.getItem() instanceof Path ) {
+            result = getFolderListing( (Path) item.getItem(),
+                                       options,
+                                       offset,
+                                       limit );
+        } else if ( item.getItem() instanceof Package ) {
+            result = getFolderListing( (Package) item.getItem(),
+                                       options,
+                                       offset,
+                                       limit );
+        }
+
+        return result;
+    }
+
     public FolderListing getFolderListing( final Path path,
                                            final ActiveOptions options
                                          ) {
+        return getFolderListing( path,
+                                 options,
+                                 0,
+                                 Integer.MAX_VALUE );
+    }
+
+    public FolderListing getFolderListing( final Path path,
+                                           final ActiveOptions options,
+                                           final int offset,
+                                           final int limit ) {
         //Get list of files and folders contained in the path
         final List<FolderItem> folderItems = new ArrayList<FolderItem>();
         final boolean includeTags = options.contains( Option.SHOW_TAG_FILTER );
@@ -193,39 +243,44 @@ public class ExplorerServiceHelper {
             nioPath = nioPath.getParent();
         }
         final Path basePath = Paths.convert( nioPath );
-        final DirectoryStream<org.uberfire.java.nio.file.Path> nioPaths = ioService.newDirectoryStream( nioPath,
-                                                                                                        dotFileFilter );
-        for ( org.uberfire.java.nio.file.Path np : nioPaths ) {
-            if ( Files.isRegularFile( np ) ) {
-                final org.uberfire.backend.vfs.Path p = Paths.convert( np );
-                final String lockedBy = Paths.readLockedBy( p );
-                final FolderItem folderItem = new FolderItem( p,
-                                                              p.getFileName(),
-                                                              FolderItemType.FILE,
-                                                              false,
-                                                              lockedBy,
-                                                              includeTags ? metadataService.getTags( p ) : Collections.<String>emptyList(),
-                                                              getRestrictedOperations( p ) );
-                folderItems.add( folderItem );
-            } else if ( Files.isDirectory( np ) ) {
-                final org.uberfire.backend.vfs.Path p = Paths.convert( np );
-                boolean lockedItems = !lockService.retrieveLockInfos( Paths.convert( np ), true ).isEmpty();
-                final FolderItem folderItem = new FolderItem( p,
-                                                              p.getFileName(),
-                                                              FolderItemType.FOLDER,
-                                                              lockedItems,
-                                                              null,
-                                                              Collections.<String>emptyList(),
-                                                              getRestrictedOperations( p ) );
-                folderItems.add( folderItem );
+
+        //Items are held in display order so only those in the requested window need building
+        final List<FolderListingCache.Item> items = getDirectoryItems( nioPath,
+                                                                       includeTags );
+        final int from = Math.max( 0,
+                                   offset );
+        final int to = windowEnd( from,
+                                  limit,
+                                  items.size() );
+        if ( from < to ) {
+            //Lock information for the whole directory is retrieved at once, rather than per item
+            final Map<String, String> lockedBy = getLockedBy( basePath );
+            final List<LockInfo> lockInfos = lockService.retrieveLockInfos( basePath,
+                                                                            true );
+            for ( FolderListingCache.Item item : items.subList( from,
+                                                                to ) ) {
+                final Path p = item.getPath();
+                if ( item.getType() == FolderItemType.FILE ) {
+                    folderItems.add( toFolderItem( item,
+                                                   lockedBy ) );
+                } else {
+                    folderItems.add( new FolderItem( p,
+                                                     p.getFileName(),
+                                                     FolderItemType.FOLDER,
+                                                     containsLocks( p,
+                                                                    lockInfos ),
+                                                     null,
+                                                     Collections.<String>emptyList(),
+                                                     getRestrictedOperations( p ) ) );
+                }
             }
         }
 
-        Collections.sort( folderItems, Sorters.ITEM_SORTER );
-
         return new FolderListing( toFolderItem( nioPath ),
                                   folderItems,
-                                  getPathSegments( basePath ) );
+                                  getPathSegments( basePath ),
+                                  from,
+                                  items.size() );
     }
 
     public List<FolderItem> getItems( final Package pkg,
@@ -235,22 +290,11 @@ public class ExplorerServiceHelper {
             return emptyList();
         }
 
-        final Set<Package> childPackages = projectService.resolvePackages( pkg );
-        for ( final Package childPackage : childPackages ) {
-            folderItems.add( toFolderItem( childPackage ) );
-        }
-
-        folderItems.addAll( getItems( pkg.getPackageMainSrcPath(),
-                                      options ) );
-        folderItems.addAll( getItems( pkg.getPackageTestSrcPath(),
-                                      options ) );
-        folderItems.addAll( getItems( pkg.getPackageMainResourcesPath(),
-                                      options ) );
-        folderItems.addAll( getItems( pkg.getPackageTestResourcesPath(),
-                                      options ) );
-
-        Collections.sort( folderItems,
-                          Sorters.ITEM_SORTER );
+        getItems( pkg,
+                  options,
+                  0,
+                  Integer.MAX_VALUE,
+                  folderItems );
 
         return folderItems;
     }
@@ -271,33 +315,177 @@ public class ExplorerServiceHelper {
         return Arrays.asList( segments );
     }
 
-    private List<FolderItem> getItems( final Path packagePath,
-                                       final ActiveOptions options ) {
-        final List<FolderItem> folderItems = new ArrayList<FolderItem>();
+    /**
+     * Adds the items of a Package within a window to a list. Child Packages precede files, files being merged in
+     * order from the Package's (pre-sorted) source and resource directories.
+     * @return The total number of items of the Package.
+     */
+    private int getItems( final Package pkg,
+                          final ActiveOptions options,
+                          final int offset,
+                          final int limit,
+                          final List<FolderItem> folderItems ) {
+        if ( pkg == null ) {
+            return 0;
+        }
         final boolean includeTags = options.contains( Option.SHOW_TAG_FILTER );
+
+        final List<Package> childPackages = new ArrayList<Package>( projectService.resolvePackages( pkg ) );
+        Collections.sort( childPackages,
+                          Sorters.PACKAGE_SORTER );
+
+        final List<Path> packagePaths = Arrays.asList( pkg.getPackageMainSrcPath(),
+                                                       pkg.getPackageTestSrcPath(),
+                                                       pkg.getPackageMainResourcesPath(),
+                                                       pkg.getPackageTestResourcesPath() );
+        List<FolderListingCache.Item> files = Collections.emptyList();
+        for ( Path packagePath : packagePaths ) {
+            files = merge( files,
+                           getFileItems( packagePath,
+                                         includeTags ) );
+        }
+
+        final int totalCount = childPackages.size() + files.size();
+        final int to = windowEnd( offset,
+                                  limit,
+                                  totalCount );
+        Map<String, String> lockedBy = null;
+        for ( int i = offset; i < to; i++ ) {
+            if ( i < childPackages.size() ) {
+                folderItems.add( toFolderItem( childPackages.get( i ) ) );
+            } else {
+                if ( lockedBy == null ) {
+                    lockedBy = new HashMap<String, String>();
+                    for ( Path packagePath : packagePaths ) {
+                        lockedBy.putAll( getLockedBy( packagePath ) );
+                    }
+                }
+                folderItems.add( toFolderItem( files.get( i - childPackages.size() ),
+                                               lockedBy ) );
+            }
+        }
+        return totalCount;
+    }
+
+    private List<FolderListingCache.Item> getFileItems( final Path packagePath,
+                                                        final boolean includeTags ) {
+        final List<FolderListingCache.Item> files = new ArrayList<FolderListingCache.Item>();
         final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert( packagePath );
         if ( Files.exists( nioPackagePath ) ) {
-            final DirectoryStream<org.uberfire.java.nio.file.Path> nioPaths = ioService.newDirectoryStream( nioPackagePath,
-                                                                                                            regularFileFilter );
-            for ( org.uberfire.java.nio.file.Path nioPath : nioPaths ) {
-                final org.uberfire.backend.vfs.Path path = Paths.convert( nioPath );
-                if ( Paths.isLock( path ) ) {
-                    continue;
+            for ( FolderListingCache.Item item : getDirectoryItems( nioPackagePath,
+                                                                    includeTags ) ) {
+                if ( item.getType() == FolderItemType.FILE && !Paths.isLock( item.getPath() ) ) {
+                    files.add( item );
                 }
+            }
+        }
+        return files;
+    }
 
-                final String lockedBy = Paths.readLockedBy( path );
-                final FolderItem folderItem = new FolderItem( path,
-                                                              path.getFileName(),
-                                                              FolderItemType.FILE,
-                                                              false,
-                                                              lockedBy,
-                                                              includeTags ? metadataService.getTags( path ) : Collections.<String>emptyList(),
-                                                              getRestrictedOperations( path ) );
-                folderItems.add( folderItem );
+    private FolderItem toFolderItem( final FolderListingCache.Item item,
+                                     final Map<String, String> lockedBy ) {
+        final Path path = item.getPath();
+        return new FolderItem( path,
+                               path.getFileName(),
+                               FolderItemType.FILE,
+                               false,
+                               lockedBy.get( path.toURI() ),
+                               new ArrayList<String>( item.getTags() ),
+                               getRestrictedOperations( path ) );
+    }
+
+    private static List<FolderListingCache.Item> merge( final List<FolderListingCache.Item> left,
+                                                        final List<FolderListingCache.Item> right ) {
+        if ( left.isEmpty() ) {
+            return right;
+        } else if ( right.isEmpty() ) {
+            return left;
+        }
+        final List<FolderListingCache.Item> merged = new ArrayList<FolderListingCache.Item>( left.size() + right.size() );
+        int i = 0;
+        int j = 0;
+        while ( i < left.size() && j < right.size() ) {
+            if ( FolderListingCache.ITEM_SORTER.compare( left.get( i ),
+                                                         right.get( j ) ) <= 0 ) {
+                merged.add( left.get( i++ ) );
+            } else {
+                merged.add( right.get( j++ ) );
             }
         }
+        merged.addAll( left.subList( i,
+                                     left.size() ) );
+        merged.addAll( right.subList( j,
+                                      right.size() ) );
+        return merged;
+    }
 
-        return folderItems;
+    private static int windowEnd( final int offset,
+                                  final int limit,
+                                  final int totalCount ) {
+        return (int) Math.min( totalCount,
+                               (long) offset + Math.max( 0,
+                                                         limit ) );
+    }
+
+    /**
+     * Lists the files and folders of a directory together with their tags. Listings are cached for a short time so
+     * repeated requests for the same directory do not hit the VFS for every item. Restricted operations depend on the
+     * user and on locks, so are not part of the listing; they are resolved for the items returned by each request.
+     */
+    private List<FolderListingCache.Item> getDirectoryItems( final org.uberfire.java.nio.file.Path nioDirectory,
+                                                             final boolean includeTags ) {
+        final String directory = nioDirectory.toUri().toString();
+        final List<FolderListingCache.Item> cachedItems = folderListingCache.get( directory,
+                                                                                  includeTags );
+        if ( cachedItems != null ) {
+            return cachedItems;
+        }
+
+        final List<FolderListingCache.Item> items = new ArrayList<FolderListingCache.Item>();
+        final DirectoryStream<org.uberfire.java.nio.file.Path> nioPaths = ioService.newDirectoryStream( nioDirectory,
+                                                                                                        dotFileFilter );
+        for ( org.uberfire.java.nio.file.Path np : nioPaths ) {
+            if ( Files.isRegularFile( np ) ) {
+                final Path p = Paths.convert( np );
+                items.add( new FolderListingCache.Item( p,
+                                                        FolderItemType.FILE,
+                                                        includeTags ? metadataService.getTags( p ) : Collections.<String>emptyList() ) );
+            } else if ( Files.isDirectory( np ) ) {
+                final Path p = Paths.convert( np );
+                items.add( new FolderListingCache.Item( p,
+                                                        FolderItemType.FOLDER,
+                                                        Collections.<String>emptyList() ) );
+            }
+        }
+        Collections.sort( items,
+                          FolderListingCache.ITEM_SORTER );
+        folderListingCache.put( directory,
+                                includeTags,
+                                items );
+        return items;
+    }
+
+    private Map<String, String> getLockedBy( final Path directory ) {
+        final Map<String, String> lockedBy = new HashMap<String, String>();
+        for ( LockInfo lockInfo : lockService.retrieveLockInfos( directory,
+                                                                 false ) ) {
+            if ( lockInfo.isLocked() && lockInfo.getFile() != null ) {
+                lockedBy.put( lockInfo.getFile().toURI(),
+                              lockInfo.lockedBy() );
+            }
+        }
+        return lockedBy;
+    }
+
+    private boolean containsLocks( final Path folder,
+                                   final List<LockInfo> lockInfos ) {
+        final String prefix = folder.toURI().endsWith( "/" ) ? folder.toURI() : folder.toURI() + "/";
+        for ( LockInfo lockInfo : lockInfos ) {
+            if ( lockInfo.getFile() != null && lockInfo.getFile().toURI().startsWith( prefix ) ) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void store( final OrganizationalUnit selectedOrganizationalUnit,
@@ -325,23 +513,13 @@ public class ExplorerServiceHelper {
             _selectedPackage = null;
         }
 
-        SimpleAsyncExecutorService.getDefaultInstance().execute( new DescriptiveRunnable() {
-            @Override
-            public String getDescription() {
-                return "Serialize Navigation State";
-            }
-
-            @Override
-            public void run() {
-                try {
-                    store( userNavPath, lastUserNavPath, _selectedOrganizationalUnit,
-                           _selectedRepository, _branch, _selectedProject,
-                           _selectedPackage, _selectedItem, options );
-                } catch ( final Exception e ) {
-                    LOGGER.error( "Can't serialize user's state navigation", e );
-                }
-            }
-        } );
+        try {
+            store( userNavPath, lastUserNavPath, _selectedOrganizationalUnit,
+                   _selectedRepository, _branch, _selectedProject,
+                   _selectedPackage, _selectedItem, options );
+        } catch ( final Exception e ) {
+            LOGGER.error( "Can't serialize user's state navigation", e );
+        }
     }
 
     public void store( final org.uberfire.java.nio.file.Path userNav,
@@ -358,7 +536,8 @@ public class ExplorerServiceHelper {
         if ( _content == null ) {
             content = new UserExplorerData();
         } else {
-            content = _content;
+            //Stored navigation state is shared and must not be modified in place
+            content = navigationStore.copyOf( _content );
         }
         final UserExplorerLastData lastContent = new UserExplorerLastData();
         if ( organizationalUnit != null ) {
@@ -382,24 +561,16 @@ public class ExplorerServiceHelper {
             lastContent.setOptions( options );
         }
         if ( !content.isEmpty() ) {
-            try {
-                ioServiceConfig.startBatch( userNav.getFileSystem() );
-                ioServiceConfig.write( userNav,
-                                       xs.toXML( content ) );
-                ioServiceConfig.write( lastUserNav,
-                                       xs.toXML( lastContent ) );
-            } finally {
-                ioServiceConfig.endBatch();
-            }
+            navigationStore.store( userNav,
+                                   content );
+            navigationStore.store( lastUserNav,
+                                   lastContent );
         }
     }
 
     public UserExplorerData loadUserContent( final org.uberfire.java.nio.file.Path path ) {
         try {
-            if ( ioServiceConfig.exists( path ) ) {
-                final String xml = ioServiceConfig.readAllString( path );
-                return (UserExplorerData) xs.fromXML( xml );
-            }
+            return navigationStore.loadUserContent( path );
         } catch ( final Exception ignored ) {
         }
         return null;
@@ -426,10 +597,7 @@ public class ExplorerServiceHelper {
 
     public UserExplorerLastData getLastContent( final org.uberfire.java.nio.file.Path path ) {
         try {
-            if ( ioServiceConfig.exists( path ) ) {
-                final String xml = ioServiceConfig.readAllString( path );
-                return (UserExplorerLastData) xs.fromXML( xml );
-            }
+            return navigationStore.loadLastContent( path );
         } catch ( final Exception ignored ) {
         }
         return null;
@@ -19,7 +19,9 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.Dependent;
@@ -28,7 +30,6 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import com.thoughtworks.xstream.XStream;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.guvnor.common.services.project.events.DeleteProjectEvent;
 import org.guvnor.common.services.project.events.RenameProjectEvent;
@@ -59,8 +60,6 @@ import org.uberfire.backend.server.VFSLockServiceImpl;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.backend.vfs.impl.LockInfo;
-import org.uberfire.commons.async.DescriptiveRunnable;
-import org.uberfire.commons.async.SimpleAsyncExecutorService;
 import org.uberfire.ext.editor.commons.backend.service.helper.CopyHelper;
 import org.uberfire.ext.editor.commons.backend.service.helper.RenameHelper;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -68,7 +67,6 @@ import org.uberfire.ext.editor.commons.service.DeleteService;
 import org.uberfire.ext.editor.commons.service.RenameService;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.base.options.CommentedOption;
-import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.Files;
 import org.uberfire.java.nio.file.StandardDeleteOption;
 import org.uberfire.rpc.SessionInfo;
@@ -89,12 +87,7 @@ public class ExplorerServiceImpl
     private IOService ioService;
 
     @Inject
-    @Named("configIO")
-    private IOService ioServiceConfig;
-
-    @Inject
-    @Named("systemFS")
-    private FileSystem fileSystem;
+    private UserExplorerNavigationStore navigationStore;
 
     @Inject
     private KieProjectService projectService;
@@ -145,8 +138,6 @@ public class ExplorerServiceImpl
     //@AppResourcesAuthz
     private AuthorizationManager authorizationManager;
 
-    private XStream xs = new XStream();
-
     public ExplorerServiceImpl() {
         // Boilerplate sacrifice for Weld
     }
@@ -258,34 +249,66 @@ public class ExplorerServiceImpl
                                                               options );
 
         if ( result != null ) {
-            final org.uberfire.java.nio.file.Path userNavPath = userServices.buildPath( "explorer", "user.nav" );
-            final org.uberfire.java.nio.file.Path lastUserNavPath = userServices.buildPath( "explorer", "last.user.nav" );
+            storeNavigationState( organizationalUnit,
+                                  repository,
+                                  branch,
+                                  project,
+                                  item,
+                                  options );
+        }
 
-            SimpleAsyncExecutorService.getDefaultInstance().execute( new DescriptiveRunnable() {
-                @Override
-                public String getDescription() {
-                    return "Serialize Navigation State";
-                }
+        return result;
+    }
 
-                @Override
-                public void run() {
-                    try {
-                        Package pkg = null;
-                        if ( item.getItem() instanceof Package ) {
-                            pkg = (Package) item.getItem();
-                        }
-                        helper.store( userNavPath, lastUserNavPath, organizationalUnit,
-                                      repository, branch, project, pkg, item, options );
-                    } catch ( final Exception e ) {
-                        LOGGER.error( "Can't serialize user's state navigation", e );
-                    }
-                }
-            } );
+    @Override
+    public FolderListing getFolderListing( final OrganizationalUnit organizationalUnit,
+                                           final Repository repository,
+                                           final String branch,
+                                           final Project project,
+                                           final FolderItem item,
+                                           final ActiveOptions options,
+                                           final int offset,
+                                           final int limit ) {
+        final FolderListing result = helper.getFolderListing( item,
+                                                              options,
+                                                              offset,
+                                                              limit );
+
+        //Only the first window of a folder is a navigation; subsequent windows are scrolling
+        if ( result != null && offset == 0 ) {
+            storeNavigationState( organizationalUnit,
+                                  repository,
+                                  branch,
+                                  project,
+                                  item,
+                                  options );
         }
 
         return result;
     }
 
+    private void storeNavigationState( final OrganizationalUnit organizationalUnit,
+                                       final Repository repository,
+                                       final String branch,
+                                       final Project project,
+                                       final FolderItem item,
+                                       final ActiveOptions options ) {
+        final org.uberfire.java.nio.file.Path userNavPath = userServices.buildPath( "explorer", "user.nav" );
+        final org.uberfire.java.nio.file.Path lastUserNavPath = userServices.buildPath( "explorer", "last.user.nav" );
+
+        //The store only updates its in-memory state, which is written behind; so this is cheap enough to do inline
+        try {
+            Package pkg = null;
+            if ( item.getItem() instanceof Package ) {
+                pkg = (Package) item.getItem();
+            }
+            helper.store( userNavPath, lastUserNavPath, organizationalUnit,
+                          repository, branch, project, pkg, item, options );
+        } catch ( final Exception e ) {
+            LOGGER.error( "Can't serialize user's state navigation", e );
+        }
+    }
+
     private List<Path> resolvePath( final FolderItem item ) {
         if ( item == null ) {
             return emptyList();
@@ -388,34 +411,46 @@ public class ExplorerServiceImpl
     }
 
     private void cleanup( final Project project ) {
-        final Collection<org.uberfire.java.nio.file.Path> lastNavs = userServicesBackend.getAllUsersData( "explorer", "last.user.nav" );
-        final Collection<org.uberfire.java.nio.file.Path> userNavs = userServicesBackend.getAllUsersData( "explorer", "user.nav" );
-
-        try {
-            ioServiceConfig.startBatch( fileSystem );
-
-            for ( org.uberfire.java.nio.file.Path path : userNavs ) {
-                final UserExplorerData userContent = helper.loadUserContent( path );
-                if ( userContent != null ) {
-                    if ( userContent.deleteProject( project ) ) {
-                        ioServiceConfig.write( path, xs.toXML( userContent ) );
-                    }
+        final Collection<org.uberfire.java.nio.file.Path> lastNavs = getAllUsersNavigationData( "last.user.nav" );
+        final Collection<org.uberfire.java.nio.file.Path> userNavs = getAllUsersNavigationData( "user.nav" );
+
+        for ( org.uberfire.java.nio.file.Path path : userNavs ) {
+            final UserExplorerData userContent = helper.loadUserContent( path );
+            if ( userContent != null ) {
+                final UserExplorerData newUserContent = navigationStore.copyOf( userContent );
+                if ( newUserContent.deleteProject( project ) ) {
+                    navigationStore.store( path, newUserContent );
                 }
             }
+        }
 
-            for ( org.uberfire.java.nio.file.Path lastNav : lastNavs ) {
-                final UserExplorerLastData lastUserContent = helper.getLastContent( lastNav );
-                if ( lastUserContent != null ) {
-                    if ( lastUserContent.deleteProject( project ) ) {
-                        ioServiceConfig.write( lastNav, xs.toXML( lastUserContent ) );
-                    }
+        for ( org.uberfire.java.nio.file.Path lastNav : lastNavs ) {
+            final UserExplorerLastData lastUserContent = helper.getLastContent( lastNav );
+            if ( lastUserContent != null ) {
+                final UserExplorerLastData newLastUserContent = navigationStore.copyOf( lastUserContent );
+                if ( newLastUserContent.deleteProject( project ) ) {
+                    navigationStore.store( lastNav, newLastUserContent );
                 }
             }
-        } finally {
-            ioServiceConfig.endBatch();
         }
     }
 
+    /**
+     * The navigation files of all users; including those held by the navigation store that have not been written yet.
+     */
+    private Collection<org.uberfire.java.nio.file.Path> getAllUsersNavigationData( final String fileName ) {
+        final Map<String, org.uberfire.java.nio.file.Path> paths = new LinkedHashMap<String, org.uberfire.java.nio.file.Path>();
+        for ( org.uberfire.java.nio.file.Path path : userServicesBackend.getAllUsersData( "explorer", fileName ) ) {
+            paths.put( path.toUri().toString(), path );
+        }
+        for ( org.uberfire.java.nio.file.Path path : navigationStore.getPaths( fileName ) ) {
+            if ( !paths.containsKey( path.toUri().toString() ) ) {
+                paths.put( path.toUri().toString(), path );
+            }
+        }
+        return paths.values();
+    }
+
     public class OrganizationalUnitNotFoundForURI extends RuntimeException {
 
     }
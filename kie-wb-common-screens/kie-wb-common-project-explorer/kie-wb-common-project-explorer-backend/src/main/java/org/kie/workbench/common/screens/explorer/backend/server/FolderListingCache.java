@@ -0,0 +1,260 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.kie.workbench.common.screens.explorer.model.FolderItemType;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Short-lived cache of directory contents shown by the Project Explorer. Each entry holds the items of a directory,
+ * in display order, together with their tags. Lock information and restricted operations are not cached as they
+ * depend on the user and change independently of the files. Entries expire after a few seconds. Deleted items are removed from their directory's
+ * entry whereas other changes to a directory discard its entry.
+ */
+@ApplicationScoped
+public class FolderListingCache {
+
+    static final String TTL_PROPERTY_NAME = "org.kie.explorer.listing.cache.ttl";
+
+    private static final long TTL = Long.getLong( TTL_PROPERTY_NAME,
+                                                  5000 );
+
+    private static final int MAX_ENTRIES = 100;
+
+    /**
+     * Folders before files, then by path; consistent with the ordering of FolderItems by Sorters.ITEM_SORTER.
+     */
+    static final Comparator<Item> ITEM_SORTER = new Comparator<Item>() {
+        @Override
+        public int compare( final Item o1,
+                            final Item o2 ) {
+            if ( !o1.getType().equals( o2.getType() ) ) {
+                return o1.getType().equals( FolderItemType.FOLDER ) ? -1 : 1;
+            }
+            return o1.getPath().toURI().toLowerCase().compareTo( o2.getPath().toURI().toLowerCase() );
+        }
+    };
+
+    private final Map<String, Listing> listings = Collections.synchronizedMap( new LinkedHashMap<String, Listing>( 16,
+                                                                                                                   0.75f,
+                                                                                                                   true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, Listing> eldest ) {
+            return size() > MAX_ENTRIES;
+        }
+    } );
+
+    /**
+     * @param directory URI of the directory.
+     * @param includeTags Whether the items must contain their tags.
+     * @return The cached items of the directory, or null if there is no current listing.
+     */
+    List<Item> get( final String directory,
+                    final boolean includeTags ) {
+        final String key = key( directory,
+                                includeTags );
+        final Listing listing = listings.get( key );
+        if ( listing == null ) {
+            return null;
+        }
+        if ( listing.expires < System.currentTimeMillis() ) {
+            listings.remove( key );
+            return null;
+        }
+        return listing.items;
+    }
+
+    /**
+     * @param directory URI of the directory.
+     * @param includeTags Whether the items contain their tags.
+     * @param items The items of the directory, ordered by ITEM_SORTER.
+     */
+    void put( final String directory,
+              final boolean includeTags,
+              final List<Item> items ) {
+        if ( TTL <= 0 ) {
+            return;
+        }
+        listings.put( key( directory,
+                           includeTags ),
+                      new Listing( Collections.unmodifiableList( items ),
+                                   System.currentTimeMillis() + TTL ) );
+    }
+
+    /**
+     * Removes a deleted path from the listing of its directory, and discards its own listing should it be a directory.
+     * @param path The path that was deleted.
+     */
+    public void remove( final Path path ) {
+        if ( path == null ) {
+            return;
+        }
+        final String uri = normalize( path.toURI() );
+        invalidateDirectory( uri );
+        final int index = uri.lastIndexOf( '/' );
+        if ( index > 0 ) {
+            final String directory = uri.substring( 0,
+                                                    index );
+            remove( key( directory,
+                         true ),
+                    uri );
+            remove( key( directory,
+                         false ),
+                    uri );
+        }
+    }
+
+    /**
+     * Discards the listings of the directory containing a path, and of the path itself should it be a directory.
+     * @param path The path that changed.
+     */
+    public void invalidate( final Path path ) {
+        if ( path == null ) {
+            return;
+        }
+        final String uri = normalize( path.toURI() );
+        invalidateDirectory( uri );
+        final int index = uri.lastIndexOf( '/' );
+        if ( index > 0 ) {
+            invalidateDirectory( uri.substring( 0,
+                                                index ) );
+        }
+    }
+
+    public void clear() {
+        listings.clear();
+    }
+
+    public void onResourceAdded( @Observes final ResourceAddedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceUpdated( @Observes final ResourceUpdatedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes final ResourceDeletedEvent event ) {
+        remove( event.getPath() );
+    }
+
+    public void onResourceCopied( @Observes final ResourceCopiedEvent event ) {
+        invalidate( event.getDestinationPath() );
+    }
+
+    public void onResourceRenamed( @Observes final ResourceRenamedEvent event ) {
+        invalidate( event.getPath() );
+        invalidate( event.getDestinationPath() );
+    }
+
+    public void onBatchResourceChanges( @Observes final ResourceBatchChangesEvent event ) {
+        for ( final Map.Entry<Path, Collection<ResourceChange>> entry : event.getBatch().entrySet() ) {
+            invalidate( entry.getKey() );
+        }
+    }
+
+    private void remove( final String key,
+                         final String uri ) {
+        synchronized ( listings ) {
+            final Listing listing = listings.get( key );
+            if ( listing == null ) {
+                return;
+            }
+            final List<Item> items = new ArrayList<Item>( listing.items );
+            if ( items.removeIf( item -> normalize( item.getPath().toURI() ).equals( uri ) ) ) {
+                listings.put( key,
+                              new Listing( Collections.unmodifiableList( items ),
+                                           listing.expires ) );
+            }
+        }
+    }
+
+    private void invalidateDirectory( final String directory ) {
+        listings.remove( key( directory,
+                              true ) );
+        listings.remove( key( directory,
+                              false ) );
+    }
+
+    private static String key( final String directory,
+                               final boolean includeTags ) {
+        return normalize( directory ) + ( includeTags ? "#tags" : "" );
+    }
+
+    private static String normalize( final String uri ) {
+        return uri.endsWith( "/" ) ? uri.substring( 0,
+                                                    uri.length() - 1 ) : uri;
+    }
+
+    /**
+     * The user and lock independent content of a FolderItem.
+     */
+    static class Item {
+
+        private final Path path;
+        private final FolderItemType type;
+        private final List<String> tags;
+
+        Item( final Path path,
+              final FolderItemType type,
+              final List<String> tags ) {
+            this.path = path;
+            this.type = type;
+            this.tags = tags;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        FolderItemType getType() {
+            return type;
+        }
+
+        List<String> getTags() {
+            return tags;
+        }
+    }
+
+    private static class Listing {
+
+        private final List<Item> items;
+        private final long expires;
+
+        private Listing( final List<Item> items,
+                         final long expires ) {
+            this.items = items;
+            this.expires = expires;
+        }
+    }
+}
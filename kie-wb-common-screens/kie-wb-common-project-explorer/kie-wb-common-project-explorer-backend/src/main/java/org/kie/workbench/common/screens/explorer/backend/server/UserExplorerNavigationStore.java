@@ -0,0 +1,259 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.thoughtworks.xstream.XStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Write-behind store of the users' Project Explorer navigation state. The latest state of each navigation file is
+ * held in memory, where reads are served from, and changed files are written periodically in a single batch per
+ * file system; superseding any number of intermediate updates. Pending changes are also written on shutdown.
+ * <p>
+ * States held by the store are never modified: updates must be applied to a copy which is then stored.
+ */
+@ApplicationScoped
+public class UserExplorerNavigationStore {
+
+    public static final String FLUSH_INTERVAL_PROPERTY_NAME = "org.kie.explorer.navigation.flush.interval";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( UserExplorerNavigationStore.class );
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5000;
+
+    private static final int MAX_CLEAN_ENTRIES = 1000;
+
+    private final XStream xs = new XStream();
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    private IOService ioServiceConfig;
+
+    private ScheduledExecutorService timer;
+
+    public UserExplorerNavigationStore() {
+        //Empty constructor for Weld
+    }
+
+    @Inject
+    public UserExplorerNavigationStore( @Named("configIO") final IOService ioServiceConfig ) {
+        this.ioServiceConfig = ioServiceConfig;
+    }
+
+    @PostConstruct
+    public void start() {
+        final long interval = Long.getLong( FLUSH_INTERVAL_PROPERTY_NAME,
+                                            DEFAULT_FLUSH_INTERVAL_MILLIS );
+        timer = Executors.newSingleThreadScheduledExecutor( runnable -> {
+            final Thread thread = new Thread( runnable,
+                                              "explorer-navigation-store" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        timer.scheduleWithFixedDelay( this::flush,
+                                      interval,
+                                      interval,
+                                      TimeUnit.MILLISECONDS );
+    }
+
+    @PreDestroy
+    public void stop() {
+        if ( timer != null ) {
+            timer.shutdown();
+        }
+        flush();
+    }
+
+    public UserExplorerData loadUserContent( final Path path ) {
+        return (UserExplorerData) load( path );
+    }
+
+    public UserExplorerLastData loadLastContent( final Path path ) {
+        return (UserExplorerLastData) load( path );
+    }
+
+    /**
+     * Stores the navigation state for a path. The state will be written with the next flush.
+     * @param path Path of the navigation file.
+     * @param content The new state; which must not be modified after being stored.
+     */
+    public void store( final Path path,
+                       final Object content ) {
+        while ( true ) {
+            final Entry entry = entries.computeIfAbsent( path.toUri().toString(),
+                                                         uri -> new Entry( path ) );
+            synchronized ( entry ) {
+                if ( !entry.evicted ) {
+                    entry.content = content;
+                    entry.dirty = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param fileName Name of the navigation files, e.g. "user.nav".
+     * @return The paths of the navigation files with that name held in memory; including those not yet written.
+     */
+    public List<Path> getPaths( final String fileName ) {
+        final List<Path> paths = new ArrayList<Path>();
+        for ( Map.Entry<String, Entry> e : entries.entrySet() ) {
+            if ( e.getKey().endsWith( "/" + fileName ) ) {
+                paths.add( e.getValue().path );
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * @return A copy of a navigation state that can be modified and stored.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T copyOf( final T content ) {
+        return (T) xs.fromXML( xs.toXML( content ) );
+    }
+
+    /**
+     * Writes all pending navigation state, in a single batch per file system.
+     */
+    public synchronized void flush() {
+        final Map<FileSystem, List<Entry>> pending = new HashMap<FileSystem, List<Entry>>();
+        for ( Entry entry : entries.values() ) {
+            if ( entry.dirty ) {
+                final FileSystem fileSystem = entry.path.getFileSystem();
+                if ( !pending.containsKey( fileSystem ) ) {
+                    pending.put( fileSystem,
+                                 new ArrayList<Entry>() );
+                }
+                pending.get( fileSystem ).add( entry );
+            }
+        }
+
+        for ( Map.Entry<FileSystem, List<Entry>> batch : pending.entrySet() ) {
+            try {
+                ioServiceConfig.startBatch( batch.getKey() );
+                for ( Entry entry : batch.getValue() ) {
+                    write( entry );
+                }
+            } catch ( final Exception e ) {
+                LOGGER.error( "Can't serialize user's state navigation",
+                              e );
+            } finally {
+                ioServiceConfig.endBatch();
+            }
+        }
+
+        if ( entries.size() > MAX_CLEAN_ENTRIES ) {
+            evictCleanEntries();
+        }
+    }
+
+    private void evictCleanEntries() {
+        for ( Map.Entry<String, Entry> e : entries.entrySet() ) {
+            final Entry entry = e.getValue();
+            synchronized ( entry ) {
+                if ( !entry.dirty ) {
+                    entry.evicted = true;
+                    entries.remove( e.getKey(),
+                                    entry );
+                }
+            }
+        }
+    }
+
+    private void write( final Entry entry ) {
+        final Object content;
+        synchronized ( entry ) {
+            content = entry.content;
+            entry.dirty = false;
+        }
+        try {
+            ioServiceConfig.write( entry.path,
+                                   xs.toXML( content ) );
+        } catch ( final RuntimeException e ) {
+            synchronized ( entry ) {
+                //Retry with the next flush unless superseded
+                if ( entry.content == content ) {
+                    entry.dirty = true;
+                }
+            }
+            throw e;
+        }
+    }
+
+    private Object load( final Path path ) {
+        final String uri = path.toUri().toString();
+        final Entry entry = entries.get( uri );
+        if ( entry != null ) {
+            synchronized ( entry ) {
+                return entry.content;
+            }
+        }
+
+        Object content = null;
+        try {
+            if ( ioServiceConfig.exists( path ) ) {
+                content = xs.fromXML( ioServiceConfig.readAllString( path ) );
+            }
+        } catch ( final Exception ignored ) {
+        }
+        if ( content != null ) {
+            final Entry loaded = new Entry( path );
+            loaded.content = content;
+            final Entry existing = entries.putIfAbsent( uri,
+                                                        loaded );
+            if ( existing != null ) {
+                synchronized ( existing ) {
+                    return existing.content;
+                }
+            }
+        }
+        return content;
+    }
+
+    private static class Entry {
+
+        private final Path path;
+        private Object content;
+        private volatile boolean dirty;
+        private boolean evicted;
+
+        private Entry( final Path path ) {
+            this.path = path;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.workbench.common.screens.explorer.model.FolderItem;
 import org.kie.workbench.common.screens.explorer.model.FolderItemOperation;
+import org.kie.workbench.common.screens.explorer.model.FolderListing;
 import org.kie.workbench.common.screens.explorer.service.ActiveOptions;
 import org.kie.workbench.common.screens.explorer.service.Option;
 import org.kie.workbench.common.services.shared.project.KieProjectService;
@@ -35,6 +36,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.backend.server.UserServicesImpl;
 import org.uberfire.backend.server.VFSLockServiceImpl;
+import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.backend.vfs.PathFactory;
 import org.uberfire.ext.editor.commons.service.CopyService;
@@ -61,7 +63,7 @@ public class ExplorerServiceHelperTest {
     private IOService ioService;
 
     @Mock
-    private IOService ioServiceConfig;
+    private UserExplorerNavigationStore navigationStore;
 
     @Mock
     private OtherMetaView otherMetaView;
@@ -99,6 +101,8 @@ public class ExplorerServiceHelperTest {
     @Mock
     private Path testResourcesPath;
 
+    private FolderListingCache folderListingCache;
+
     private org.uberfire.java.nio.file.Path path;
     private ExplorerServiceHelper helper;
 
@@ -140,16 +144,19 @@ public class ExplorerServiceHelperTest {
             }
         } );
 
+        folderListingCache = new FolderListingCache();
+
         helper = new ExplorerServiceHelper( projectService,
                                             folderListingResolver,
                                             ioService,
-                                            ioServiceConfig,
+                                            navigationStore,
                                             lockService,
                                             metadataService,
                                             userServices,
                                             deleteService,
                                             renameService,
-                                            copyService );
+                                            copyService,
+                                            folderListingCache );
     }
 
     @Test
@@ -206,6 +213,66 @@ public class ExplorerServiceHelperTest {
                 fis.get( 3 ).getTags().size() );
     }
 
+    @Test
+    public void testListingIsCachedUntilInvalidated() {
+        getFolderItems( Option.BUSINESS_CONTENT, Option.SHOW_TAG_FILTER );
+        getFolderItems( Option.BUSINESS_CONTENT, Option.SHOW_TAG_FILTER );
+
+        //All package paths resolve to the same directory which is only listed once
+        verify( ioService,
+                times( 1 ) ).newDirectoryStream( any( org.uberfire.java.nio.file.Path.class ),
+                                                 any( LinkedFilter.class ) );
+        verify( metadataService,
+                times( 1 ) ).getTags( any( Path.class ) );
+
+        folderListingCache.invalidate( Paths.convert( path ) );
+        final List<FolderItem> fis = getFolderItems( Option.BUSINESS_CONTENT, Option.SHOW_TAG_FILTER );
+
+        checkFolderItemsWithTags( fis );
+        verify( ioService,
+                times( 2 ) ).newDirectoryStream( any( org.uberfire.java.nio.file.Path.class ),
+                                                 any( LinkedFilter.class ) );
+    }
+
+    @Test
+    public void testRestrictedOperationsAreNotCachedWithListing() {
+        mockDeleteRestrictions( false );
+        assertTrue( getFolderItems( Option.BUSINESS_CONTENT ).get( 0 ).canDoOperation( FolderItemOperation.DELETE ) );
+
+        //Restrictions can change, e.g. when a file is locked, without the directory changing
+        mockDeleteRestrictions( true );
+        final List<FolderItem> fis = getFolderItems( Option.BUSINESS_CONTENT );
+
+        verify( ioService,
+                times( 1 ) ).newDirectoryStream( any( org.uberfire.java.nio.file.Path.class ),
+                                                 any( LinkedFilter.class ) );
+        assertFalse( fis.get( 0 ).canDoOperation( FolderItemOperation.DELETE ) );
+    }
+
+    @Test
+    public void testPagedFolderListing() {
+        final FolderListing listing = helper.getFolderListing( pkg,
+                                                               new ActiveOptions( Option.BUSINESS_CONTENT ),
+                                                               1,
+                                                               2 );
+
+        assertEquals( 2,
+                      listing.getContent().size() );
+        assertEquals( 1,
+                      listing.getOffset() );
+        assertEquals( 4,
+                      listing.getTotalCount() );
+        assertTrue( listing.hasMore() );
+
+        final FolderListing lastPage = helper.getFolderListing( pkg,
+                                                                new ActiveOptions( Option.BUSINESS_CONTENT ),
+                                                                3,
+                                                                2 );
+        assertEquals( 1,
+                      lastPage.getContent().size() );
+        assertFalse( lastPage.hasMore() );
+    }
+
     protected List<FolderItem> getFolderItems( Option... options ) {
         final ActiveOptions activeOptions = new ActiveOptions( options );
         return helper.getItems( pkg, activeOptions );
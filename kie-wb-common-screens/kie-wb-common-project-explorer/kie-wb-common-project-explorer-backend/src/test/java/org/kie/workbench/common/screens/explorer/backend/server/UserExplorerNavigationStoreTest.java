@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.net.URI;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserExplorerNavigationStoreTest {
+
+    @Mock
+    private IOService ioServiceConfig;
+
+    @Mock
+    private FileSystem fileSystem;
+
+    @Mock
+    private Path userNav;
+
+    @Mock
+    private Path lastUserNav;
+
+    private UserExplorerNavigationStore store;
+
+    @Before
+    public void setup() {
+        mockPath( userNav,
+                  "default://user/explorer/user.nav" );
+        mockPath( lastUserNav,
+                  "default://user/explorer/last.user.nav" );
+
+        store = new UserExplorerNavigationStore( ioServiceConfig );
+    }
+
+    @Test
+    public void testStoresAreCoalescedUntilFlushed() {
+        final UserExplorerLastData first = new UserExplorerLastData();
+        final UserExplorerLastData second = new UserExplorerLastData();
+
+        store.store( lastUserNav,
+                     first );
+        store.store( lastUserNav,
+                     second );
+        store.store( userNav,
+                     new UserExplorerData() );
+
+        verify( ioServiceConfig,
+                never() ).write( any( Path.class ),
+                                 anyString() );
+        assertSame( second,
+                    store.loadLastContent( lastUserNav ) );
+        verify( ioServiceConfig,
+                never() ).readAllString( any( Path.class ) );
+
+        store.flush();
+
+        verify( ioServiceConfig,
+                times( 1 ) ).startBatch( fileSystem );
+        verify( ioServiceConfig,
+                times( 1 ) ).write( eq( lastUserNav ),
+                                    anyString() );
+        verify( ioServiceConfig,
+                times( 1 ) ).write( eq( userNav ),
+                                    anyString() );
+        verify( ioServiceConfig,
+                times( 1 ) ).endBatch();
+
+        //Nothing changed since the last flush
+        store.flush();
+
+        verify( ioServiceConfig,
+                times( 1 ) ).startBatch( fileSystem );
+    }
+
+    @Test
+    public void testFailedWriteIsRetried() {
+        doThrow( new RuntimeException() ).doReturn( userNav ).when( ioServiceConfig ).write( eq( userNav ),
+                                                                                     anyString() );
+
+        store.store( userNav,
+                     new UserExplorerData() );
+
+        store.flush();
+        store.flush();
+
+        verify( ioServiceConfig,
+                times( 2 ) ).write( eq( userNav ),
+                                    anyString() );
+        verify( ioServiceConfig,
+                times( 2 ) ).endBatch();
+    }
+
+    @Test
+    public void testUnwrittenPathsAreListed() {
+        store.store( userNav,
+                     new UserExplorerData() );
+        store.store( lastUserNav,
+                     new UserExplorerLastData() );
+
+        assertEquals( Collections.singletonList( userNav ),
+                      store.getPaths( "user.nav" ) );
+        assertEquals( Collections.singletonList( lastUserNav ),
+                      store.getPaths( "last.user.nav" ) );
+        verify( ioServiceConfig,
+                never() ).write( any( Path.class ),
+                                 anyString() );
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        final UserExplorerData content = new UserExplorerData();
+        final UserExplorerData copy = store.copyOf( content );
+
+        assertNotSame( content,
+                       copy );
+    }
+
+    private void mockPath( final Path path,
+                           final String uri ) {
+        when( path.toUri() ).thenReturn( URI.create( uri ) );
+        when( path.getFileSystem() ).thenReturn( fileSystem );
+    }
+}
@@ -50,13 +50,22 @@ import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.search.DateRange;
 import org.uberfire.ext.metadata.search.IOSearchService;
 import org.uberfire.io.IOService;
+import org.uberfire.io.attribute.DublinCoreAttributes;
 import org.uberfire.io.attribute.DublinCoreView;
 import org.uberfire.java.nio.base.version.VersionAttributeView;
+import org.uberfire.java.nio.base.version.VersionAttributes;
+import org.uberfire.java.nio.base.version.VersionRecord;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.paging.PageResponse;
 import org.uberfire.security.authz.AuthorizationManager;
 import org.uberfire.workbench.type.ResourceTypeDefinition;
 
+/**
+ * Full text and metadata search over the documents indexed by uberfire-metadata for each file. Those documents, and
+ * so the hits passed to the search filter, do not hold Project membership nor version history: KIE indexers write
+ * separate documents that searches do not return. Hits are therefore authorized by resolving their Project, once per
+ * folder, and the attributes shown for each row of the requested page are read from the VFS.
+ */
 @Service
 @ApplicationScoped
 public class SearchServiceImpl implements SearchService {
@@ -123,21 +132,16 @@ public class SearchServiceImpl implements SearchService {
     @Override
     public PageResponse<SearchPageRow> fullTextSearch( final SearchTermPageRequest pageRequest ) {
         try {
-            //hits is an approximation at this stage, since we've not filtered by Authorised Project
-            final int totalNumHitsEstimate = ioSearchService.fullTextSearchHits( pageRequest.getTerm(),
-                                                                                 getAuthorizedRepositoryRoots() );
-            if ( totalNumHitsEstimate > 0 ) {
-                final PagedCountingFilter filter = new PagedCountingFilter( pageRequest.getStartRowIndex(),
-                                                                            pageRequest.getPageSize() );
-                final List<Path> pathResult = ioSearchService.fullTextSearch( pageRequest.getTerm(),
-                                                                              filter,
-                                                                              getAuthorizedRepositoryRoots() );
-                return buildResponse( pathResult,
-                                      pageRequest.getPageSize(),
-                                      pageRequest.getStartRowIndex(),
-                                      filter.getHitsTotalCount() );
-            }
-            return emptyResponse;
+            //A single pass both counts the authorized hits and collects the requested page
+            final PagedCountingFilter filter = new PagedCountingFilter( pageRequest.getStartRowIndex(),
+                                                                        pageRequest.getPageSize() );
+            final List<Path> pathResult = ioSearchService.fullTextSearch( pageRequest.getTerm(),
+                                                                          filter,
+                                                                          getAuthorizedRepositoryRoots() );
+            return buildResponse( pathResult,
+                                  pageRequest.getPageSize(),
+                                  pageRequest.getStartRowIndex(),
+                                  filter.getHitsTotalCount() );
 
         } catch ( Exception e ) {
             throw ExceptionUtilities.handleException( e );
@@ -158,21 +162,16 @@ public class SearchServiceImpl implements SearchService {
                                                             pageRequest.getLastModifiedAfter() ) );
             }
 
-            //hits is an approximation at this stage, since we've not filtered by Authorised Project
-            final int totalNumHitsEstimate = ioSearchService.searchByAttrsHits( attrs,
-                                                                                getAuthorizedRepositoryRoots() );
-            if ( totalNumHitsEstimate > 0 ) {
-                final PagedCountingFilter filter = new PagedCountingFilter( pageRequest.getStartRowIndex(),
-                                                                            pageRequest.getPageSize() );
-                final List<Path> pathResult = ioSearchService.searchByAttrs( attrs,
-                                                                             filter,
-                                                                             getAuthorizedRepositoryRoots() );
-                return buildResponse( pathResult,
-                                      pageRequest.getPageSize(),
-                                      pageRequest.getStartRowIndex(),
-                                      filter.getHitsTotalCount() );
-            }
-            return emptyResponse;
+            //A single pass both counts the authorized hits and collects the requested page
+            final PagedCountingFilter filter = new PagedCountingFilter( pageRequest.getStartRowIndex(),
+                                                                        pageRequest.getPageSize() );
+            final List<Path> pathResult = ioSearchService.searchByAttrs( attrs,
+                                                                         filter,
+                                                                         getAuthorizedRepositoryRoots() );
+            return buildResponse( pathResult,
+                                  pageRequest.getPageSize(),
+                                  pageRequest.getStartRowIndex(),
+                                  filter.getHitsTotalCount() );
 
         } catch ( Exception e ) {
             throw ExceptionUtilities.handleException( e );
@@ -183,18 +182,23 @@ public class SearchServiceImpl implements SearchService {
                                                        final int pageSize,
                                                        final int startRow,
                                                        final int hitsTotalCount ) {
+        if ( hitsTotalCount == 0 ) {
+            return emptyResponse;
+        }
         final List<SearchPageRow> result = new ArrayList<SearchPageRow>( pathResult.size() );
         for ( final Path path : pathResult ) {
-            final DublinCoreView dcoreView = ioService.getFileAttributeView( path,
-                                                                             DublinCoreView.class );
-            final VersionAttributeView versionAttributeView = ioService.getFileAttributeView( path,
-                                                                                              VersionAttributeView.class );
-
-            final String creator = extractCreator( versionAttributeView );
-            final Date createdDate = extractCreatedDate( versionAttributeView );
-            final String lastContributor = extractLastContributor( versionAttributeView );
-            final Date lastModifiedDate = extractLastModifiedDate( versionAttributeView );
-            final String description = extractDescription( dcoreView );
+            //Version history is not indexed; each view reads the attributes afresh, and for versions that means the
+            //file's history, so read them once per row of the page only
+            final DublinCoreAttributes dcoreAttributes = ioService.getFileAttributeView( path,
+                                                                                         DublinCoreView.class ).readAttributes();
+            final VersionAttributes versionAttributes = ioService.getFileAttributeView( path,
+                                                                                        VersionAttributeView.class ).readAttributes();
+
+            final String creator = extractCreator( versionAttributes );
+            final Date createdDate = extractCreatedDate( versionAttributes );
+            final String lastContributor = extractLastContributor( versionAttributes );
+            final Date lastModifiedDate = extractLastModifiedDate( versionAttributes );
+            final String description = extractDescription( dcoreAttributes );
 
             final SearchPageRow row = new SearchPageRow( Paths.convert( path ),
                                                          creator,
@@ -215,32 +219,33 @@ public class SearchServiceImpl implements SearchService {
         return response;
     }
 
-    private String extractCreator( final VersionAttributeView versionAttributeView ) {
-        if ( versionAttributeView.readAttributes().history().records().size() > 0 ) {
-            return versionAttributeView.readAttributes().history().records().get( 0 ).author();
+    private String extractCreator( final VersionAttributes versionAttributes ) {
+        final List<VersionRecord> records = versionAttributes.history().records();
+        if ( records.size() > 0 ) {
+            return records.get( 0 ).author();
         }
         return "";
     }
 
-    private Date extractCreatedDate( final VersionAttributeView versionAttributeView ) {
-        return new Date( versionAttributeView.readAttributes().creationTime().toMillis() );
+    private Date extractCreatedDate( final VersionAttributes versionAttributes ) {
+        return new Date( versionAttributes.creationTime().toMillis() );
     }
 
-    private String extractLastContributor( final VersionAttributeView versionAttributeView ) {
-        if ( versionAttributeView.readAttributes().history().records().size() > 0 ) {
-            final int lastIndex = versionAttributeView.readAttributes().history().records().size() - 1;
-            return versionAttributeView.readAttributes().history().records().get( lastIndex ).author();
+    private String extractLastContributor( final VersionAttributes versionAttributes ) {
+        final List<VersionRecord> records = versionAttributes.history().records();
+        if ( records.size() > 0 ) {
+            return records.get( records.size() - 1 ).author();
         }
         return "";
     }
 
-    private Date extractLastModifiedDate( final VersionAttributeView versionAttributeView ) {
-        return new Date( versionAttributeView.readAttributes().lastModifiedTime().toMillis() );
+    private Date extractLastModifiedDate( final VersionAttributes versionAttributes ) {
+        return new Date( versionAttributes.lastModifiedTime().toMillis() );
     }
 
-    private String extractDescription( final DublinCoreView dcoreView ) {
-        if ( dcoreView.readAttributes().descriptions().size() > 0 ) {
-            return dcoreView.readAttributes().descriptions().get( 0 );
+    private String extractDescription( final DublinCoreAttributes dcoreAttributes ) {
+        if ( dcoreAttributes.descriptions().size() > 0 ) {
+            return dcoreAttributes.descriptions().get( 0 );
         }
         return "";
     }
@@ -302,6 +307,10 @@ public class SearchServiceImpl implements SearchService {
         private final int startRow;
         private final int pageSize;
 
+        //Hits are mostly clustered in a few folders; so resolve the Project, and its authorization, once per folder
+        private final Map<String, Boolean> authorizedFolders = new HashMap<String, Boolean>();
+        private final Map<KieProject, Boolean> authorizedProjects = new HashMap<KieProject, Boolean>();
+
         PagedCountingFilter( final int startRow,
                              final int pageSize ) {
             this.startRow = startRow;
@@ -310,15 +319,15 @@ public class SearchServiceImpl implements SearchService {
 
         @Override
         public boolean accept( final KObject kObject ) {
-            final Path path = ioService.get( URI.create( kObject.getKey() ) );
-            final org.uberfire.backend.vfs.Path vfsPath = Paths.convert( path );
-            final KieProject project = projectService.resolveProject( vfsPath );
-
-            //All Users are granted access to Resources outside the Project structure
-            boolean authorized = true;
-            if ( project != null ) {
-                authorized = authorizationManager.authorize( project,
-                                                             identity );
+            final String key = kObject.getKey();
+            final String folder = key.substring( 0,
+                                                 Math.max( key.lastIndexOf( '/' ),
+                                                           0 ) );
+            Boolean authorized = authorizedFolders.get( folder );
+            if ( authorized == null ) {
+                authorized = isAuthorized( key );
+                authorizedFolders.put( folder,
+                                       authorized );
             }
 
             if ( authorized ) {
@@ -336,6 +345,25 @@ public class SearchServiceImpl implements SearchService {
             return hitsTotalCount;
         }
 
+        private boolean isAuthorized( final String key ) {
+            final Path path = ioService.get( URI.create( key ) );
+            final org.uberfire.backend.vfs.Path vfsPath = Paths.convert( path );
+            final KieProject project = projectService.resolveProject( vfsPath );
+
+            //All Users are granted access to Resources outside the Project structure
+            if ( project == null ) {
+                return true;
+            }
+            Boolean authorized = authorizedProjects.get( project );
+            if ( authorized == null ) {
+                authorized = authorizationManager.authorize( project,
+                                                             identity );
+                authorizedProjects.put( project,
+                                        authorized );
+            }
+            return authorized;
+        }
+
     }
 
 }
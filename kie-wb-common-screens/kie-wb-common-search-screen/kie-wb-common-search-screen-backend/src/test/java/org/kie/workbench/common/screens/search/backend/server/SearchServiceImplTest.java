@@ -197,8 +197,6 @@ public class SearchServiceImplTest {
         final KObject kObject = mock( KObject.class );
 
         when( kObject.getKey() ).thenReturn( "default://project1/file1" );
-        when( ioSearchService.fullTextSearchHits( eq( "smurf" ),
-                                                  Matchers.<Path>anyVararg() ) ).thenReturn( 1 );
         when( ioSearchService.fullTextSearch( eq( "smurf" ),
                                               any( SearchServiceImpl.PagedCountingFilter.class ),
                                               Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -263,8 +261,6 @@ public class SearchServiceImplTest {
         final KObject kObject = mock( KObject.class );
 
         when( kObject.getKey() ).thenReturn( "default://project1/file1" );
-        when( ioSearchService.fullTextSearchHits( eq( "smurf" ),
-                                                  Matchers.<Path>anyVararg() ) ).thenReturn( 1 );
         when( ioSearchService.fullTextSearch( eq( "smurf" ),
                                               any( SearchServiceImpl.PagedCountingFilter.class ),
                                               Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -331,8 +327,6 @@ public class SearchServiceImplTest {
         final KObject kObject = mock( KObject.class );
 
         when( kObject.getKey() ).thenReturn( "default://project1/file1" );
-        when( ioSearchService.searchByAttrsHits( any( Map.class ),
-                                                 Matchers.<Path>anyVararg() ) ).thenReturn( 1 );
         when( ioSearchService.searchByAttrs( any( Map.class ),
                                              any( SearchServiceImpl.PagedCountingFilter.class ),
                                              Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -401,8 +395,6 @@ public class SearchServiceImplTest {
         final KObject kObject = mock( KObject.class );
 
         when( kObject.getKey() ).thenReturn( "default://project1/file1" );
-        when( ioSearchService.searchByAttrsHits( any( Map.class ),
-                                                 Matchers.<Path>anyVararg() ) ).thenReturn( 1 );
         when( ioSearchService.searchByAttrs( any( Map.class ),
                                              any( SearchServiceImpl.PagedCountingFilter.class ),
                                              Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -465,8 +457,6 @@ public class SearchServiceImplTest {
         final KObject kObject = mock( KObject.class );
 
         when( kObject.getKey() ).thenReturn( "default://project1/file1" );
-        when( ioSearchService.fullTextSearchHits( eq( "smurf" ),
-                                                  Matchers.<Path>anyVararg() ) ).thenReturn( 1 );
         when( ioSearchService.fullTextSearch( eq( "smurf" ),
                                               any( SearchServiceImpl.PagedCountingFilter.class ),
                                               Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -535,8 +525,6 @@ public class SearchServiceImplTest {
         final KObject kObject = mock( KObject.class );
 
         when( kObject.getKey() ).thenReturn( "default://project1/file1" );
-        when( ioSearchService.searchByAttrsHits( any( Map.class ),
-                                                 Matchers.<Path>anyVararg() ) ).thenReturn( 1 );
         when( ioSearchService.searchByAttrs( any( Map.class ),
                                              any( SearchServiceImpl.PagedCountingFilter.class ),
                                              Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -604,8 +592,6 @@ public class SearchServiceImplTest {
             kObject[ i ] = mock( KObject.class );
             when( kObject[ i ].getKey() ).thenReturn( "default://project1/file" + i );
         }
-        when( ioSearchService.fullTextSearchHits( eq( "smurf" ),
-                                                  Matchers.<Path>anyVararg() ) ).thenReturn( SIZE );
         when( ioSearchService.fullTextSearch( eq( "smurf" ),
                                               any( SearchServiceImpl.PagedCountingFilter.class ),
                                               Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -723,8 +709,6 @@ public class SearchServiceImplTest {
             when( kObject[ i ].getKey() ).thenReturn( "default://project1/file" + i );
         }
 
-        when( ioSearchService.searchByAttrsHits( any( Map.class ),
-                                                 Matchers.<Path>anyVararg() ) ).thenReturn( SIZE );
         when( ioSearchService.searchByAttrs( any( Map.class ),
                                              any( SearchServiceImpl.PagedCountingFilter.class ),
                                              Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
@@ -822,4 +806,70 @@ public class SearchServiceImplTest {
         }
     }
 
+    @Test
+    public void testFullTextSearchResolvesProjectOncePerFolder() {
+        //Setup access rights - Grant access to all OUs, Repositories and Project1
+        when( authorizationManager.authorize( any( OrganizationalUnit.class ),
+                                              eq( identity ) ) ).thenReturn( true );
+        when( authorizationManager.authorize( any( Repository.class ),
+                                              eq( identity ) ) ).thenReturn( true );
+        when( authorizationManager.authorize( project1,
+                                              identity ) ).thenReturn( true );
+
+        //Setup search
+        final int SIZE = 10;
+        final KObject kObject[] = new KObject[ SIZE ];
+        for ( int i = 0; i < SIZE; i++ ) {
+            kObject[ i ] = mock( KObject.class );
+            when( kObject[ i ].getKey() ).thenReturn( "default://project1/src/file" + i );
+        }
+        when( ioSearchService.fullTextSearch( eq( "smurf" ),
+                                              any( SearchServiceImpl.PagedCountingFilter.class ),
+                                              Matchers.<Path>anyVararg() ) ).thenAnswer( new Answer<List<Path>>() {
+            @Override
+            public List<Path> answer( final InvocationOnMock invocation ) throws Throwable {
+                final SearchServiceImpl.PagedCountingFilter filter = (SearchServiceImpl.PagedCountingFilter) invocation.getArguments()[ 1 ];
+                final List<Path> result = new ArrayList<Path>();
+                for ( int i = 0; i < SIZE; i++ ) {
+                    if ( filter.accept( kObject[ i ] ) ) {
+                        result.add( Paths.convert( PathFactory.newPath( "file" + i,
+                                                                        "default://project1/src/file" + i ) ) );
+                    }
+                }
+                return result;
+            }
+        } );
+
+        when( projectService.resolveProject( any( org.uberfire.backend.vfs.Path.class ) ) ).thenReturn( project1 );
+
+        final DublinCoreView dublinCoreView = mock( DublinCoreView.class );
+        final VersionAttributeView versionAttributeView = mock( VersionAttributeView.class );
+        when( dublinCoreView.readAttributes() ).thenReturn( new DublinCoreAttributesMock() );
+        when( versionAttributeView.readAttributes() ).thenReturn( new VersionAttributesMock( Collections.EMPTY_LIST ) );
+        when( ioService.getFileAttributeView( any( Path.class ),
+                                              eq( DublinCoreView.class ) ) ).thenReturn( dublinCoreView );
+        when( ioService.getFileAttributeView( any( Path.class ),
+                                              eq( VersionAttributeView.class ) ) ).thenReturn( versionAttributeView );
+
+        //Perform search
+        final PageResponse<SearchPageRow> results = searchService.fullTextSearch( new SearchTermPageRequest( "smurf",
+                                                                                                             0,
+                                                                                                             5 ) );
+        assertEquals( SIZE,
+                      results.getTotalRowSize() );
+        assertEquals( 5,
+                      results.getPageRowList().size() );
+
+        verify( ioSearchService,
+                never() ).fullTextSearchHits( anyString(),
+                                              Matchers.<Path>anyVararg() );
+        verify( projectService,
+                times( 1 ) ).resolveProject( any( org.uberfire.backend.vfs.Path.class ) );
+        verify( authorizationManager,
+                times( 1 ) ).authorize( project1,
+                                        identity );
+        verify( versionAttributeView,
+                times( 5 ) ).readAttributes();
+    }
+
 }
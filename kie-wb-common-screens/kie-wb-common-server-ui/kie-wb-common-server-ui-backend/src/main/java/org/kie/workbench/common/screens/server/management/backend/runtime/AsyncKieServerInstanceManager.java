@@ -19,7 +19,11 @@ package org.kie.workbench.common.screens.server.management.backend.runtime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
@@ -39,7 +43,6 @@ import org.kie.workbench.common.screens.server.management.model.ContainerRuntime
 import org.kie.workbench.common.screens.server.management.model.ContainerRuntimeState;
 import org.kie.workbench.common.screens.server.management.model.ContainerUpdateEvent;
 import org.uberfire.commons.async.DisposableExecutor;
-import org.uberfire.commons.async.SimpleAsyncExecutorService;
 
 import static org.kie.workbench.common.screens.server.management.model.ContainerRuntimeOperation.*;
 
@@ -47,6 +50,7 @@ import static org.kie.workbench.common.screens.server.management.model.Container
 public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
 
     private DisposableExecutor executor;
+    private ServerInstanceDispatcher dispatcher;
     private NotificationService notificationService;
     private Event<ContainerUpdateEvent> containerUpdateEvent;
 
@@ -54,6 +58,10 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         this.executor = executor;
     }
 
+    protected void setDispatcher(ServerInstanceDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
     public AsyncKieServerInstanceManager() {
     }
 
@@ -65,7 +73,34 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
 
     @PostConstruct
     public void configure() {
-        executor = SimpleAsyncExecutorService.getDefaultInstance();
+        // operations wait for all server instances to respond so keep them off the shared executor
+        final ExecutorService operations = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "kie-server-operations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = new DisposableExecutor() {
+            @Override
+            public void dispose() {
+                operations.shutdownNow();
+            }
+
+            @Override
+            public void execute(Runnable command) {
+                operations.execute(command);
+            }
+        };
+        dispatcher = new ServerInstanceDispatcher();
+    }
+
+    @PreDestroy
+    public void dispose() {
+        if (executor != null) {
+            executor.dispose();
+        }
+        if (dispatcher != null) {
+            dispatcher.dispose();
+        }
     }
 
     @Override
@@ -75,7 +110,7 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         executor.execute( new Runnable() {
             @Override
             public void run() {
-                List<Container> containers = AsyncKieServerInstanceManager.super.startScanner( serverTemplate, containerSpec, interval );
+                List<Container> containers = dispatch( serverTemplate, containerSpec, false, template -> AsyncKieServerInstanceManager.super.startScanner( template, containerSpec, interval ) );
 
                 notificationService.notify( serverTemplate, containerSpec, containers );
 
@@ -91,7 +126,7 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         executor.execute( new Runnable() {
             @Override
             public void run() {
-                List<Container> containers = AsyncKieServerInstanceManager.super.stopScanner( serverTemplate, containerSpec );
+                List<Container> containers = dispatch( serverTemplate, containerSpec, false, template -> AsyncKieServerInstanceManager.super.stopScanner( template, containerSpec ) );
                 notificationService.notify( serverTemplate, containerSpec, containers );
 
                 produceContainerUpdateEvent(serverTemplate, containerSpec, containers, STOP_SCANNER);
@@ -106,7 +141,7 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         executor.execute( new Runnable() {
             @Override
             public void run() {
-                List<Container> containers = AsyncKieServerInstanceManager.super.scanNow( serverTemplate, containerSpec );
+                List<Container> containers = dispatch( serverTemplate, containerSpec, true, template -> AsyncKieServerInstanceManager.super.scanNow( template, containerSpec ) );
                 notificationService.notify( serverTemplate, containerSpec, containers );
 
                 produceContainerUpdateEvent(serverTemplate, containerSpec, containers, SCAN);
@@ -121,7 +156,7 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         executor.execute( new Runnable() {
             @Override
             public void run() {
-                List<Container> containers = AsyncKieServerInstanceManager.super.startContainer( serverTemplate, containerSpec );
+                List<Container> containers = dispatch( serverTemplate, containerSpec, false, template -> AsyncKieServerInstanceManager.super.startContainer( template, containerSpec ) );
                 notificationService.notify( serverTemplate, containerSpec, containers );
 
                 produceContainerUpdateEvent(serverTemplate, containerSpec, containers, START_CONTAINER);
@@ -136,7 +171,7 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         executor.execute( new Runnable() {
             @Override
             public void run() {
-                List<Container> containers = AsyncKieServerInstanceManager.super.stopContainer( serverTemplate, containerSpec );
+                List<Container> containers = dispatch( serverTemplate, containerSpec, false, template -> AsyncKieServerInstanceManager.super.stopContainer( template, containerSpec ) );
                 notificationService.notify( serverTemplate, containerSpec, containers );
 
                 produceContainerUpdateEvent(serverTemplate, containerSpec, containers, STOP_CONTAINER);
@@ -151,7 +186,7 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         executor.execute( new Runnable() {
             @Override
             public void run() {
-                List<Container> containers = AsyncKieServerInstanceManager.super.upgradeContainer( serverTemplate, containerSpec );
+                List<Container> containers = dispatch( serverTemplate, containerSpec, false, template -> AsyncKieServerInstanceManager.super.upgradeContainer( template, containerSpec ) );
                 notificationService.notify( serverTemplate, containerSpec, containers );
 
                 produceContainerUpdateEvent(serverTemplate, containerSpec, containers, UPGRADE_CONTAINER);
@@ -186,7 +221,7 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         executor.execute( new Runnable() {
             @Override
             public void run() {
-                List<Container> containers = AsyncKieServerInstanceManager.super.getContainers(serverTemplate, containerSpec);
+                List<Container> containers = dispatch(serverTemplate, containerSpec, true, template -> AsyncKieServerInstanceManager.super.getContainers(template, containerSpec));
 
                 notificationService.notify(serverTemplate, containerSpec, containers);
             }
@@ -194,6 +229,42 @@ public class AsyncKieServerInstanceManager extends KieServerInstanceManager {
         return Collections.emptyList();
     }
 
+    /**
+     * Runs an operation against each server instance of the template in parallel, through the dispatcher, and merges
+     * their containers. Only scans and container listings are idempotent, and hence retried when a server instance
+     * fails.
+     * @param operation The operation, given a copy of the server template limited to a single server instance.
+     */
+    protected List<Container> dispatch(final ServerTemplate serverTemplate,
+                                       final ContainerSpec containerSpec,
+                                       final boolean idempotent,
+                                       final Function<ServerTemplate, List<Container>> operation) {
+        if (dispatcher == null || serverTemplate.getServerInstanceKeys() == null) {
+            return operation.apply(serverTemplate);
+        }
+        return dispatcher.dispatch(new ArrayList<ServerInstanceKey>(serverTemplate.getServerInstanceKeys()),
+                                   serverInstanceKey -> operation.apply(forServerInstance(serverTemplate, serverInstanceKey)),
+                                   containerSpec.getId(),
+                                   idempotent);
+    }
+
+    /**
+     * @return A copy of the server template limited to a single server instance.
+     */
+    protected ServerTemplate forServerInstance(ServerTemplate serverTemplate, ServerInstanceKey serverInstanceKey) {
+        ServerTemplate instanceTemplate = new ServerTemplate();
+        instanceTemplate.setId(serverTemplate.getId());
+        instanceTemplate.setName(serverTemplate.getName());
+        instanceTemplate.setCapabilities(serverTemplate.getCapabilities());
+        if (serverTemplate.getContainersSpec() != null) {
+            for (ContainerSpec spec : serverTemplate.getContainersSpec()) {
+                instanceTemplate.addContainerSpec(spec);
+            }
+        }
+        instanceTemplate.addServerInstance(serverInstanceKey);
+        return instanceTemplate;
+    }
+
     protected void produceContainerUpdateEvent(ServerTemplate serverTemplate, ContainerSpec containerSpec, List<Container> containers, ContainerRuntimeOperation containerRuntimeOperation) {
         List<ServerInstanceKey> failedServerInstances = new ArrayList<ServerInstanceKey>();
         for (Container container : containers) {
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.server.management.backend.runtime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.controller.api.model.runtime.Container;
+import org.kie.server.controller.api.model.runtime.ServerInstanceKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs an operation against a number of kie server instances in parallel, on its own thread pool so slow or
+ * unreachable servers do not hold up other asynchronous work. Each server instance runs a limited number of
+ * operations at a time; further calls to it wait in a queue of their own rather than on a pool thread, so a slow
+ * server instance cannot hold up calls to the others. Calls that take too long are reported as failed containers.
+ * Idempotent operations whose server instance reports a failed container are retried with an increasing delay, within
+ * the time left for the call; other operations are never resent, as the server instance may already have applied them.
+ */
+public class ServerInstanceDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerInstanceDispatcher.class);
+
+    public static final String THREADS_PROPERTY_NAME = "org.kie.workbench.controller.dispatcher.threads";
+    public static final String PER_SERVER_LIMIT_PROPERTY_NAME = "org.kie.workbench.controller.dispatcher.server.limit";
+    public static final String TIMEOUT_PROPERTY_NAME = "org.kie.workbench.controller.dispatcher.timeout";
+    public static final String RETRIES_PROPERTY_NAME = "org.kie.workbench.controller.dispatcher.retries";
+    public static final String BACKOFF_PROPERTY_NAME = "org.kie.workbench.controller.dispatcher.backoff";
+
+    private final ThreadPoolExecutor executor;
+    private final int perServerLimit;
+    private final long timeoutMillis;
+    private final int retries;
+    private final long backoffMillis;
+
+    private final ConcurrentMap<String, ServerQueue> serverQueues = new ConcurrentHashMap<String, ServerQueue>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    public ServerInstanceDispatcher() {
+        this(Integer.getInteger(THREADS_PROPERTY_NAME, 10),
+             Integer.getInteger(PER_SERVER_LIMIT_PROPERTY_NAME, 1),
+             Long.getLong(TIMEOUT_PROPERTY_NAME, 60000),
+             Integer.getInteger(RETRIES_PROPERTY_NAME, 2),
+             Long.getLong(BACKOFF_PROPERTY_NAME, 500));
+    }
+
+    public ServerInstanceDispatcher(final int threads,
+                                    final int perServerLimit,
+                                    final long timeoutMillis,
+                                    final int retries,
+                                    final long backoffMillis) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads,
+                                               threads,
+                                               60,
+                                               TimeUnit.SECONDS,
+                                               new LinkedBlockingQueue<Runnable>(),
+                                               runnable -> {
+                                                   final Thread thread = new Thread(runnable, "kie-server-dispatcher-" + threadCount.incrementAndGet());
+                                                   thread.setDaemon(true);
+                                                   return thread;
+                                               });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.perServerLimit = perServerLimit;
+        this.timeoutMillis = timeoutMillis;
+        this.retries = retries;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Runs an operation against each server instance and merges the resulting containers, in the order of the given
+     * server instances.
+     * @param serverInstanceKeys The server instances to run the operation against.
+     * @param operation The operation, returning the containers of a single server instance.
+     * @param containerSpecId Identifier of the container spec the operation is about, used to report timeouts.
+     * @param idempotent Whether the operation can safely be sent again when a server instance reports a failure.
+     * @return The containers of all server instances.
+     */
+    public List<Container> dispatch(final List<ServerInstanceKey> serverInstanceKeys,
+                                    final Function<ServerInstanceKey, List<Container>> operation,
+                                    final String containerSpecId,
+                                    final boolean idempotent) {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        final List<Future<List<Container>>> futures = new ArrayList<Future<List<Container>>>(serverInstanceKeys.size());
+        for (final ServerInstanceKey serverInstanceKey : serverInstanceKeys) {
+            final FutureTask<List<Container>> call = new FutureTask<List<Container>>(() -> invoke(serverInstanceKey, operation, idempotent ? retries : 0, deadline));
+            serverQueues.computeIfAbsent(serverInstanceKey.getServerInstanceId(), id -> new ServerQueue()).submit(call);
+            futures.add(call);
+        }
+
+        final List<Container> result = new ArrayList<Container>();
+        for (int i = 0; i < futures.size(); i++) {
+            final ServerInstanceKey serverInstanceKey = serverInstanceKeys.get(i);
+            final Future<List<Container>> future = futures.get(i);
+            try {
+                result.addAll(future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("Server instance {} did not respond within {} ms", serverInstanceKey.getServerInstanceId(), timeoutMillis);
+                result.add(failedContainer(serverInstanceKey, containerSpecId));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                result.add(failedContainer(serverInstanceKey, containerSpecId));
+            } catch (ExecutionException e) {
+                logger.warn("Error while calling server instance {}", serverInstanceKey.getServerInstanceId(), e.getCause());
+                result.add(failedContainer(serverInstanceKey, containerSpecId));
+            }
+        }
+        logger.debug("Dispatched to {} server instances; {}", serverInstanceKeys.size(), this);
+        return result;
+    }
+
+    public void dispose() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return Number of server instance calls waiting for a thread or for their server instance.
+     */
+    public int getQueueDepth() {
+        int pending = 0;
+        for (ServerQueue serverQueue : serverQueues.values()) {
+            pending += serverQueue.size();
+        }
+        return executor.getQueue().size() + pending;
+    }
+
+    public int getActiveCalls() {
+        return executor.getActiveCount();
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getAverageLatencyMillis() {
+        final long count = calls.get();
+        return count == 0 ? 0 : totalLatencyMillis.get() / count;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return "queue depth " + getQueueDepth()
+                + ", active " + getActiveCalls()
+                + ", calls " + getCalls()
+                + ", failures " + getFailures()
+                + ", average latency " + getAverageLatencyMillis() + " ms"
+                + ", max latency " + getMaxLatencyMillis() + " ms";
+    }
+
+    private List<Container> invoke(final ServerInstanceKey serverInstanceKey,
+                                   final Function<ServerInstanceKey, List<Container>> operation,
+                                   final int retries,
+                                   final long deadline) throws InterruptedException {
+        long delay = backoffMillis;
+        for (int attempt = 0; ; attempt++) {
+            final long start = System.currentTimeMillis();
+            final List<Container> containers;
+            try {
+                containers = operation.apply(serverInstanceKey);
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                throw e;
+            } finally {
+                record(System.currentTimeMillis() - start);
+            }
+            // remote failures are reported as failed containers rather than thrown
+            if (!hasFailed(containers)) {
+                return containers;
+            }
+            failures.incrementAndGet();
+            if (attempt >= retries || System.currentTimeMillis() + delay >= deadline) {
+                return containers;
+            }
+            logger.debug("Call to server instance {} failed, retrying in {} ms", serverInstanceKey.getServerInstanceId(), delay);
+            Thread.sleep(delay);
+            delay *= 2;
+        }
+    }
+
+    private boolean hasFailed(final List<Container> containers) {
+        if (containers == null) {
+            return false;
+        }
+        for (Container container : containers) {
+            if (KieContainerStatus.FAILED.equals(container.getStatus())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(final long latencyMillis) {
+        calls.incrementAndGet();
+        totalLatencyMillis.addAndGet(latencyMillis);
+        maxLatencyMillis.accumulateAndGet(latencyMillis, Math::max);
+    }
+
+    private Container failedContainer(final ServerInstanceKey serverInstanceKey,
+                                      final String containerSpecId) {
+        final Container container = new Container();
+        container.setContainerSpecId(containerSpecId);
+        container.setServerInstanceId(serverInstanceKey.getServerInstanceId());
+        container.setServerTemplateId(serverInstanceKey.getServerTemplateId());
+        container.setUrl(serverInstanceKey.getUrl());
+        container.setStatus(KieContainerStatus.FAILED);
+        return container;
+    }
+
+    /**
+     * Hands the calls to a single server instance to the thread pool, no more than the per server limit at a time.
+     * Calls that time out while waiting here are cancelled and complete without calling the server instance.
+     */
+    private class ServerQueue {
+
+        private final Queue<Runnable> pending = new ArrayDeque<Runnable>();
+        private int running;
+
+        synchronized void submit(final Runnable call) {
+            if (running < perServerLimit) {
+                running++;
+                executor.execute(() -> run(call));
+            } else {
+                pending.add(call);
+            }
+        }
+
+        synchronized int size() {
+            return pending.size();
+        }
+
+        private void run(final Runnable call) {
+            try {
+                call.run();
+            } finally {
+                next();
+            }
+        }
+
+        private synchronized void next() {
+            final Runnable call = pending.poll();
+            if (call == null) {
+                running--;
+            } else {
+                executor.execute(() -> run(call));
+            }
+        }
+    }
+}
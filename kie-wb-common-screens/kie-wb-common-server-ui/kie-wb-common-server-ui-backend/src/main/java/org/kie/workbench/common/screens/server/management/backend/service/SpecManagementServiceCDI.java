@@ -25,6 +25,7 @@ import org.kie.server.controller.api.model.runtime.ServerInstanceKey;
 import org.kie.server.controller.api.model.spec.ServerTemplate;
 import org.kie.server.controller.impl.KieServerInstanceManager;
 import org.kie.server.controller.rest.RestSpecManagementServiceImpl;
+import org.kie.workbench.common.screens.server.management.backend.storage.ServerTemplateVFSStorage;
 import org.kie.workbench.common.screens.server.management.service.SpecManagementService;
 
 import static org.uberfire.commons.validation.PortablePreconditions.*;
@@ -73,6 +74,14 @@ public class SpecManagementServiceCDI extends RestSpecManagementServiceImpl impl
         if ( !isValidIdentifier( containerId ) ) {
             return false;
         }
+        if ( getTemplateStorage() instanceof ServerTemplateVFSStorage ) {
+            //answered from the container index, without copying the template
+            final ServerTemplateVFSStorage templateStorage = (ServerTemplateVFSStorage) getTemplateStorage();
+            if ( !templateStorage.exists( serverTemplateId ) ) {
+                throw new RuntimeException( "Server template doesn't exists" );
+            }
+            return !templateStorage.getServerTemplateIds( containerId ).contains( serverTemplateId );
+        }
         final ServerTemplate template = getServerTemplate( serverTemplateId );
         if ( template == null ) {
             throw new RuntimeException( "Server template doesn't exists" );
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.server.management.backend.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.controller.api.model.runtime.ServerInstanceKey;
+import org.kie.server.controller.api.model.spec.Capability;
+import org.kie.server.controller.api.model.spec.ContainerConfig;
+import org.kie.server.controller.api.model.spec.ContainerSpec;
+import org.kie.server.controller.api.model.spec.ProcessConfig;
+import org.kie.server.controller.api.model.spec.RuleConfig;
+import org.kie.server.controller.api.model.spec.ServerTemplate;
+import org.kie.server.controller.api.model.spec.ServerTemplateKey;
+
+/**
+ * Deep copies of server templates, made field by field rather than through XStream. Only the parts of the model used
+ * by the workbench are known: a template with server configs, or container configs other than rule and process ones,
+ * cannot be copied and null is returned; in which case the caller falls back to a serialized copy.
+ */
+final class ServerTemplateCopier {
+
+    private ServerTemplateCopier() {
+    }
+
+    static ServerTemplate copy( final ServerTemplate source ) {
+        if ( source.getConfigs() != null && !source.getConfigs().isEmpty() ) {
+            return null;
+        }
+        final ServerTemplate copy = new ServerTemplate();
+        copy.setId( source.getId() );
+        copy.setName( source.getName() );
+        if ( source.getCapabilities() != null ) {
+            copy.setCapabilities( new ArrayList<String>( source.getCapabilities() ) );
+        }
+        if ( source.getContainersSpec() != null ) {
+            for ( final ContainerSpec spec : source.getContainersSpec() ) {
+                final ContainerSpec specCopy = copy( spec );
+                if ( specCopy == null ) {
+                    return null;
+                }
+                copy.addContainerSpec( specCopy );
+            }
+        }
+        if ( source.getServerInstanceKeys() != null ) {
+            for ( final ServerInstanceKey instance : source.getServerInstanceKeys() ) {
+                copy.addServerInstance( new ServerInstanceKey( instance.getServerTemplateId(),
+                                                               instance.getServerName(),
+                                                               instance.getServerInstanceId(),
+                                                               instance.getUrl() ) );
+            }
+        }
+        return copy;
+    }
+
+    private static ContainerSpec copy( final ContainerSpec source ) {
+        final ContainerSpec copy = new ContainerSpec();
+        copy.setId( source.getId() );
+        copy.setContainerName( source.getContainerName() );
+        copy.setStatus( source.getStatus() );
+        final ServerTemplateKey templateKey = source.getServerTemplateKey();
+        if ( templateKey != null ) {
+            copy.setServerTemplateKey( new ServerTemplateKey( templateKey.getId(),
+                                                              templateKey.getName() ) );
+        }
+        final ReleaseId releaseId = source.getReleasedId();
+        if ( releaseId != null ) {
+            copy.setReleasedId( new ReleaseId( releaseId.getGroupId(),
+                                               releaseId.getArtifactId(),
+                                               releaseId.getVersion() ) );
+        }
+        if ( source.getConfigs() != null ) {
+            final Map<Capability, ContainerConfig> configs = new HashMap<Capability, ContainerConfig>();
+            for ( final Map.Entry<Capability, ContainerConfig> e : source.getConfigs().entrySet() ) {
+                final ContainerConfig config = copy( e.getValue() );
+                if ( config == null && e.getValue() != null ) {
+                    return null;
+                }
+                configs.put( e.getKey(),
+                             config );
+            }
+            copy.setConfigs( configs );
+        }
+        return copy;
+    }
+
+    private static ContainerConfig copy( final ContainerConfig source ) {
+        if ( source == null ) {
+            return null;
+        }
+        if ( source.getClass() == RuleConfig.class ) {
+            final RuleConfig ruleConfig = (RuleConfig) source;
+            final RuleConfig copy = new RuleConfig();
+            copy.setPollInterval( ruleConfig.getPollInterval() );
+            copy.setScannerStatus( ruleConfig.getScannerStatus() );
+            return copy;
+        }
+        if ( source.getClass() == ProcessConfig.class ) {
+            final ProcessConfig processConfig = (ProcessConfig) source;
+            final ProcessConfig copy = new ProcessConfig();
+            copy.setKBase( processConfig.getKBase() );
+            copy.setKSession( processConfig.getKSession() );
+            copy.setMergeMode( processConfig.getMergeMode() );
+            copy.setRuntimeStrategy( processConfig.getRuntimeStrategy() );
+            return copy;
+        }
+        return null;
+    }
+}
@@ -19,13 +19,23 @@ package org.kie.workbench.common.screens.server.management.backend.storage;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import com.thoughtworks.xstream.XStream;
+import org.kie.server.controller.api.model.spec.ContainerSpec;
 import org.kie.server.controller.api.model.spec.ServerTemplate;
 import org.kie.server.controller.api.model.spec.ServerTemplateKey;
 import org.kie.server.controller.api.storage.KieServerTemplateStorage;
@@ -33,20 +43,55 @@ import org.kie.workbench.common.screens.server.management.backend.storage.migrat
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.WatchContext;
 import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.NotDirectoryException;
 import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
 
+/**
+ * Server template storage backed by the config file system. All templates are held in memory, deserialized once and
+ * indexed by identifier and by the identifiers of their containers, so reads never touch the file system. Each read
+ * returns its own copy of the templates, which is made field by field (see {@link ServerTemplateCopier}).
+ * Changes are applied to memory immediately and written to the file system in the background, in the order they were
+ * made. A write that keeps failing is abandoned and the in-memory template reverted to the file system's copy, so
+ * memory and file system do not diverge; the failure is reported by the next {@link #flush()}. Changes made to the
+ * files by other nodes are picked up from the file system's watch events.
+ */
 @ApplicationScoped
 public class ServerTemplateVFSStorage implements KieServerTemplateStorage {
 
     private static final Logger logger = LoggerFactory.getLogger(ServerTemplateVFSStorage.class);
 
+    private static final String TEMPLATE_FILE_SUFFIX = "-template.xml";
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long WRITE_RETRY_DELAY = 500;
+
     private IOService ioService;
     private FileSystem fileSystem;
 
     private final XStream xs = new XStream();
 
+    private final ConcurrentMap<String, Entry> templates = new ConcurrentHashMap<String, Entry>();
+    //identifiers of the templates having a container, by container identifier; updated along with templates
+    private final ConcurrentMap<String, Set<String>> templatesByContainer = new ConcurrentHashMap<String, Set<String>>();
+    private final Object indexLock = new Object();
+    private final ConcurrentMap<String, AtomicInteger> pendingWrites = new ConcurrentHashMap<String, AtomicInteger>();
+    private final ConcurrentMap<String, Exception> failedWrites = new ConcurrentHashMap<String, Exception>();
+    private volatile boolean loaded = false;
+
+    //single thread so changes reach the file system in the order they were made
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "server-template-storage");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private WatchService watchService;
+
     //enable proxy
     public ServerTemplateVFSStorage() {
     }
@@ -60,19 +105,29 @@ public class ServerTemplateVFSStorage implements KieServerTemplateStorage {
     @PostConstruct
     public void init() {
         ServerTemplateMigration.migrate(buildPath(null), ioService, xs, this);
+        watch();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        try {
+            flush();
+        } catch ( IllegalStateException e ) {
+            logger.error("Server templates could not be written before shutdown", e);
+        }
+        writer.shutdown();
+        if (watchService != null) {
+            watchService.close();
+        }
     }
 
     @Override
     public ServerTemplate store( final ServerTemplate serverTemplate ) {
         logger.debug("About to store server template {}", serverTemplate);
-        final Path path = buildPath( serverTemplate.getId() );
-        if (!ioService.exists(path)) {
-            try {
-                ioService.startBatch(path.getFileSystem());
-                ioService.write(path, xs.toXML(serverTemplate));
-            } finally {
-                ioService.endBatch();
-            }
+        ensureLoaded();
+        final Entry entry = newEntry(serverTemplate);
+        if (putEntryIfAbsent(entry)) {
+            write(serverTemplate.getId());
             logger.debug("Server template {} stored successfully");
             return serverTemplate;
         } else {
@@ -83,85 +138,62 @@ public class ServerTemplateVFSStorage implements KieServerTemplateStorage {
     @Override
     public List<ServerTemplateKey> loadKeys() {
         logger.debug("About to load all available server templates (as keys only)...");
+        ensureLoaded();
         final List<ServerTemplateKey> result = new ArrayList<ServerTemplateKey>();
-        final Path dir = buildPath( null );
-
-        try {
-            ioService.startBatch( dir.getFileSystem() );
-            for ( final Path registeredServer : ioService.newDirectoryStream( dir ) ) {
-                try {
-                    ServerTemplate serverTemplate = readServerTemplate(registeredServer);
-                    logger.debug("Found server template {}, taking its short key version...");
-                    result.add( new ServerTemplateKey(serverTemplate.getId(), serverTemplate.getName()) );
-                } catch ( final Exception ignore ) {
-                    ioService.delete( registeredServer );
-                }
-            }
-            logger.debug("All found server template keys {}", result);
-            return result;
-        } catch ( final NotDirectoryException ignore ) {
-            logger.debug("No directory found {}, returning empty result", dir);
-            return result;
-        } finally {
-            ioService.endBatch();
+        for ( final Entry entry : templates.values() ) {
+            result.add( new ServerTemplateKey(entry.id, entry.name) );
         }
+        logger.debug("All found server template keys {}", result);
+        return result;
     }
 
     @Override
     public List<ServerTemplate> load() {
         logger.debug("About to load all available server templates...");
+        ensureLoaded();
         final List<ServerTemplate> result = new ArrayList<ServerTemplate>();
-        final Path dir = buildPath( null );
-
-        try {
-            ioService.startBatch( dir.getFileSystem() );
-            for ( final Path registeredServer : ioService.newDirectoryStream( dir ) ) {
-                try {
-                    ServerTemplate serverTemplate = readServerTemplate(registeredServer);
-                    logger.debug("Found server template {}", serverTemplate);
-                    result.add( serverTemplate );
-                } catch ( final Exception ignore ) {
-                    ioService.delete( registeredServer );
-                }
-            }
-            logger.debug("All found server templates {}", result);
-            return result;
-        } catch ( final NotDirectoryException ignore ) {
-            logger.debug("No directory found {}, returning empty result", dir);
-            return result;
-        } finally {
-            ioService.endBatch();
+        for ( final Entry entry : templates.values() ) {
+            result.add( entry.copy() );
         }
+        logger.debug("All found server templates {}", result);
+        return result;
     }
 
     @Override
     public ServerTemplate load( final String identifier ) {
         logger.debug("About to load server template for {}", identifier);
-        final Path path = buildPath( identifier );
+        ensureLoaded();
+        final Entry entry = templates.get( identifier );
 
-        ServerTemplate serverTemplate = readServerTemplate(path);
+        ServerTemplate serverTemplate = entry == null ? null : entry.copy();
         logger.debug("Server template loaded {}", serverTemplate);
         return serverTemplate;
     }
 
     @Override
     public boolean exists( final String identifier ) {
-
-        boolean serverTemplateExists = ioService.exists( buildPath( identifier));
+        ensureLoaded();
+        boolean serverTemplateExists = templates.containsKey( identifier );
         logger.debug("Server with id {} exists = {}", identifier, serverTemplateExists);
         return serverTemplateExists;
     }
 
+    /**
+     * @param containerId Identifier of a container.
+     * @return The identifiers of the templates having a container with that identifier.
+     */
+    public Set<String> getServerTemplateIds( final String containerId ) {
+        ensureLoaded();
+        final Set<String> identifiers = templatesByContainer.get( containerId );
+        return identifiers == null ? Collections.<String>emptySet() : new HashSet<String>( identifiers );
+    }
+
     @Override
     public ServerTemplate update( final ServerTemplate serverTemplate ) {
         logger.debug("About to update server template {}", serverTemplate);
-        final Path path = buildPath( serverTemplate.getId() );
-        try {
-            ioService.startBatch(path.getFileSystem());
-            ioService.write(path, xs.toXML(serverTemplate));
-        } finally {
-            ioService.endBatch();
-        }
+        ensureLoaded();
+        putEntry(newEntry(serverTemplate));
+        write(serverTemplate.getId());
         logger.debug("Server template {} updated successfully", serverTemplate);
         return serverTemplate;
     }
@@ -169,24 +201,279 @@ public class ServerTemplateVFSStorage implements KieServerTemplateStorage {
     @Override
     public ServerTemplate delete( final String identifier ) {
         logger.debug("About to remove server template with id {}", identifier);
-        final Path path = buildPath( identifier );
+        ensureLoaded();
+        final Entry entry = removeEntry( identifier );
+        write( identifier );
+        logger.debug("Server template with id {}, removed successfully", identifier);
+        return entry == null ? null : entry.copy();
+    }
 
-        ServerTemplate serverTemplate = null;
+    /**
+     * Waits until all changes made so far have been written to the file system.
+     * @throws IllegalStateException if changes made since the previous flush could not be written; those changes have
+     * been reverted.
+     */
+    public void flush() {
         try {
-            ioService.startBatch( path.getFileSystem() );
-            serverTemplate = readServerTemplate(path);
-            ioService.delete( path );
-        } finally {
-            ioService.endBatch();
+            writer.submit( () -> { } ).get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        } catch ( Exception e ) {
+            logger.error("Error while waiting for server templates to be written", e);
+        }
+        if ( !failedWrites.isEmpty() ) {
+            final IllegalStateException failure = new IllegalStateException( "Server templates " + failedWrites.keySet() + " could not be written" );
+            for ( final String identifier : new ArrayList<String>( failedWrites.keySet() ) ) {
+                final Exception cause = failedWrites.remove( identifier );
+                if ( cause != null ) {
+                    failure.addSuppressed( cause );
+                }
+            }
+            throw failure;
         }
-        logger.debug("Server template with id {}, removed successfully", identifier);
-        return serverTemplate;
     }
 
     /*
      * helper methods
      */
 
+    private void ensureLoaded() {
+        if ( loaded ) {
+            return;
+        }
+        synchronized ( templates ) {
+            if ( loaded ) {
+                return;
+            }
+            final Path dir = buildPath( null );
+            try {
+                ioService.startBatch( dir.getFileSystem() );
+                for ( final Path registeredServer : ioService.newDirectoryStream( dir ) ) {
+                    try {
+                        final String xml = ioService.readAllString( registeredServer );
+                        final ServerTemplate serverTemplate = (ServerTemplate) xs.fromXML( xml );
+                        logger.debug("Found server template {}", serverTemplate);
+                        putEntryIfAbsent( new Entry( serverTemplate, xml ) );
+                    } catch ( final Exception ignore ) {
+                        ioService.delete( registeredServer );
+                    }
+                }
+            } catch ( final NotDirectoryException ignore ) {
+                logger.debug("No directory found {}, no server templates loaded", dir);
+            } finally {
+                ioService.endBatch();
+            }
+            loaded = true;
+        }
+    }
+
+    private void write( final String identifier ) {
+        final AtomicInteger pending = pendingWrites.computeIfAbsent( identifier, id -> new AtomicInteger() );
+        pending.incrementAndGet();
+        writer.execute( () -> {
+            try {
+                final Exception failure = writeCurrent( identifier );
+                if ( failure != null ) {
+                    logger.error("Error writing server template {}, the change is reverted", identifier, failure);
+                    failedWrites.put( identifier, failure );
+                    //Later changes to the template are still to be written, and will be retried themselves
+                    if ( pending.get() == 1 ) {
+                        revert( identifier );
+                    }
+                }
+            } finally {
+                pending.decrementAndGet();
+            }
+        } );
+    }
+
+    /**
+     * Writes the current in-memory state of a template, retrying a few times should the file system fail. The state
+     * is read on each attempt so that, whatever the order of attempts, the latest change is the one written.
+     * @return The failure of the last attempt, or null if the template was written.
+     */
+    private Exception writeCurrent( final String identifier ) {
+        final Path path = buildPath( identifier );
+        Exception failure = null;
+        for ( int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++ ) {
+            final Entry entry = templates.get( identifier );
+            try {
+                ioService.startBatch( path.getFileSystem() );
+                if ( entry != null ) {
+                    ioService.write( path, entry.xml );
+                } else {
+                    ioService.deleteIfExists( path );
+                }
+                return null;
+            } catch ( Exception ex ) {
+                logger.warn("Attempt {} to write server template {} to path {} failed", attempt, identifier, path, ex);
+                failure = ex;
+            } finally {
+                ioService.endBatch();
+            }
+            if ( attempt < MAX_WRITE_ATTEMPTS ) {
+                try {
+                    Thread.sleep( WRITE_RETRY_DELAY * attempt );
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Brings the in-memory copy of a template back in line with its file after a change could not be written.
+     */
+    private void revert( final String identifier ) {
+        final Path path = buildPath( identifier );
+        try {
+            if ( ioService.exists( path ) ) {
+                final String xml = ioService.readAllString( path );
+                final ServerTemplate serverTemplate = (ServerTemplate) xs.fromXML( xml );
+                putEntry( new Entry( serverTemplate, xml ) );
+            } else {
+                removeEntry( identifier );
+            }
+        } catch ( Exception ex ) {
+            logger.error("Error reverting server template {} to path {}, memory and file system differ", identifier, path, ex);
+        }
+    }
+
+    private void watch() {
+        try {
+            watchService = fileSystem.newWatchService();
+        } catch ( Exception ex ) {
+            logger.warn("File system does not support watching, changes made by other nodes will not be seen", ex);
+            return;
+        }
+        final Thread watcher = new Thread( () -> {
+            while ( true ) {
+                final WatchKey key;
+                try {
+                    key = watchService.take();
+                } catch ( Exception ex ) {
+                    //watch service closed
+                    return;
+                }
+                try {
+                    for ( final WatchEvent<?> event : key.pollEvents() ) {
+                        final WatchContext context = (WatchContext) event.context();
+                        refresh( context.getOldPath() );
+                        refresh( context.getPath() );
+                    }
+                } catch ( Exception ex ) {
+                    logger.error("Error while refreshing server templates", ex);
+                } finally {
+                    key.reset();
+                }
+            }
+        }, "server-template-storage-watch" );
+        watcher.setDaemon( true );
+        watcher.start();
+    }
+
+    /**
+     * Brings the in-memory copy of a template in line with its file, unless a change to the template is still waiting
+     * to be written; in which case the file is about to be replaced anyway.
+     */
+    void refresh( final Path path ) {
+        if ( !loaded || !isServerTemplateFile( path ) ) {
+            return;
+        }
+        final String fileName = path.getFileName().toString();
+        for ( final Entry entry : templates.values() ) {
+            if ( fileName.equals( buildPath( entry.id ).getFileName().toString() ) && isPending( entry.id ) ) {
+                return;
+            }
+        }
+        final Path registeredServer = buildPath( null ).resolve( fileName );
+        if ( ioService.exists( registeredServer ) ) {
+            try {
+                final String xml = ioService.readAllString( registeredServer );
+                final ServerTemplate serverTemplate = (ServerTemplate) xs.fromXML( xml );
+                if ( !isPending( serverTemplate.getId() ) ) {
+                    putEntry( new Entry( serverTemplate, xml ) );
+                }
+            } catch ( Exception ex ) {
+                logger.error("Error reading KieServerInstance definition from path {}", registeredServer, ex);
+            }
+        } else {
+            for ( final Entry entry : templates.values() ) {
+                if ( fileName.equals( buildPath( entry.id ).getFileName().toString() ) && !isPending( entry.id ) ) {
+                    removeEntry( entry.id );
+                }
+            }
+        }
+    }
+
+    private Entry newEntry( final ServerTemplate serverTemplate ) {
+        final String xml = xs.toXML( serverTemplate );
+        //the caller keeps its instance, so the entry holds its own copy
+        final ServerTemplate copy = ServerTemplateCopier.copy( serverTemplate );
+        return new Entry( copy == null ? (ServerTemplate) xs.fromXML( xml ) : copy, xml );
+    }
+
+    private boolean putEntryIfAbsent( final Entry entry ) {
+        synchronized ( indexLock ) {
+            if ( templates.putIfAbsent( entry.id, entry ) != null ) {
+                return false;
+            }
+            index( entry );
+            return true;
+        }
+    }
+
+    private void putEntry( final Entry entry ) {
+        synchronized ( indexLock ) {
+            unindex( templates.put( entry.id, entry ) );
+            index( entry );
+        }
+    }
+
+    private Entry removeEntry( final String identifier ) {
+        synchronized ( indexLock ) {
+            final Entry entry = templates.remove( identifier );
+            unindex( entry );
+            return entry;
+        }
+    }
+
+    private void index( final Entry entry ) {
+        for ( final String containerId : entry.containerIds ) {
+            templatesByContainer.computeIfAbsent( containerId, id -> ConcurrentHashMap.newKeySet() ).add( entry.id );
+        }
+    }
+
+    private void unindex( final Entry entry ) {
+        if ( entry == null ) {
+            return;
+        }
+        for ( final String containerId : entry.containerIds ) {
+            final Set<String> identifiers = templatesByContainer.get( containerId );
+            if ( identifiers != null ) {
+                identifiers.remove( entry.id );
+                if ( identifiers.isEmpty() ) {
+                    templatesByContainer.remove( containerId );
+                }
+            }
+        }
+    }
+
+    private boolean isServerTemplateFile( final Path path ) {
+        return path != null
+                && path.getFileName() != null
+                && path.getFileName().toString().endsWith( TEMPLATE_FILE_SUFFIX )
+                && path.getParent() != null
+                && path.getParent().endsWith( "servers/remote" );
+    }
+
+    private boolean isPending( final String identifier ) {
+        final AtomicInteger pending = pendingWrites.get( identifier );
+        return pending != null && pending.get() > 0;
+    }
+
     protected ServerTemplate readServerTemplate(final Path registeredServer) {
         try {
             if (ioService.exists(registeredServer)) {
@@ -201,7 +488,7 @@ public class ServerTemplateVFSStorage implements KieServerTemplateStorage {
 
     protected Path buildPath( final String identifier ) {
         if ( identifier != null ) {
-            return fileSystem.getPath( "servers", "remote", toHex( identifier ) + "-template.xml" );
+            return fileSystem.getPath( "servers", "remote", toHex( identifier ) + TEMPLATE_FILE_SUFFIX );
         } else {
             return fileSystem.getPath( "servers", "remote" );
         }
@@ -222,4 +509,32 @@ public class ServerTemplateVFSStorage implements KieServerTemplateStorage {
             return false;
         }
     }
+
+    private class Entry {
+
+        private final String id;
+        private final String name;
+        private final String xml;
+        //never handed out, nor modified
+        private final ServerTemplate template;
+        private final Set<String> containerIds = new HashSet<String>();
+
+        private Entry( final ServerTemplate template,
+                       final String xml ) {
+            this.id = template.getId();
+            this.name = template.getName();
+            this.xml = xml;
+            this.template = template;
+            if ( template.getContainersSpec() != null ) {
+                for ( final ContainerSpec spec : template.getContainersSpec() ) {
+                    containerIds.add( spec.getId() );
+                }
+            }
+        }
+
+        private ServerTemplate copy() {
+            final ServerTemplate copy = ServerTemplateCopier.copy( template );
+            return copy == null ? (ServerTemplate) xs.fromXML( xml ) : copy;
+        }
+    }
 }
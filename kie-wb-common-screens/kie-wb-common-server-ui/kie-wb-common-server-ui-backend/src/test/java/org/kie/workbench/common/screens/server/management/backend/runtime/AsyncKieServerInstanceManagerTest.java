@@ -17,12 +17,14 @@
 package org.kie.workbench.common.screens.server.management.backend.runtime;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import javax.enterprise.event.Event;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -119,6 +121,11 @@ public class AsyncKieServerInstanceManagerTest {
 
     }
 
+    @After
+    public void cleanup() {
+        this.kieServerInstanceManager.dispose();
+    }
+
     @Test
     public void testStartContainerSuccess() {
         testContainerOperationSuccess(ContainerRuntimeOperation.START_CONTAINER);
@@ -297,10 +304,80 @@ public class AsyncKieServerInstanceManagerTest {
         assertContainerUpdateEvent(updateEvent, ContainerRuntimeState.PARTIAL_ONLINE, 1);
     }
 
+    @Test
+    public void testSingleServerInstanceIsDispatched() {
+        final List<ServerTemplate> calledTemplates = dispatchingManager(KieContainerStatus.STARTED);
+        final ServerInstanceKey serverInstanceKey = new ServerInstanceKey(serverTemplate.getId(), "server", "server", "http://localhost:8080/server");
+        serverTemplate.addServerInstance(serverInstanceKey);
+
+        this.kieServerInstanceManager.startContainer(serverTemplate, containerSpec);
+
+        assertEquals(1, calledTemplates.size());
+        assertNotSame(serverTemplate, calledTemplates.get(0));
+        assertEquals(1, calledTemplates.get(0).getServerInstanceKeys().size());
+        assertEquals(serverInstanceKey.getServerInstanceId(), calledTemplates.get(0).getServerInstanceKeys().iterator().next().getServerInstanceId());
+        assertContainerUpdateEvent(receivedEvents.get(0), ContainerRuntimeState.ONLINE, 0);
+    }
+
+    @Test
+    public void testEachServerInstanceIsCalledWithItsOwnTemplate() {
+        final List<ServerTemplate> calledTemplates = dispatchingManager(KieContainerStatus.STARTED);
+        serverTemplate.addServerInstance(new ServerInstanceKey(serverTemplate.getId(), "server1", "server1", "http://localhost:8080/server"));
+        serverTemplate.addServerInstance(new ServerInstanceKey(serverTemplate.getId(), "server2", "server2", "http://localhost:8081/server"));
+
+        this.kieServerInstanceManager.stopContainer(serverTemplate, containerSpec);
+
+        assertEquals(2, calledTemplates.size());
+        for (ServerTemplate calledTemplate : calledTemplates) {
+            assertEquals(1, calledTemplate.getServerInstanceKeys().size());
+        }
+    }
+
+    @Test
+    public void testFailedScanIsRetried() {
+        final List<ServerTemplate> calledTemplates = dispatchingManager(KieContainerStatus.FAILED);
+        serverTemplate.addServerInstance(new ServerInstanceKey(serverTemplate.getId(), "server", "server", "http://localhost:8080/server"));
+
+        this.kieServerInstanceManager.scanNow(serverTemplate, containerSpec);
+
+        assertEquals(3, calledTemplates.size());
+        assertContainerUpdateEvent(receivedEvents.get(0), ContainerRuntimeState.OFFLINE, 1);
+    }
+
+    @Test
+    public void testFailedStartIsNotRetried() {
+        final List<ServerTemplate> calledTemplates = dispatchingManager(KieContainerStatus.FAILED);
+        serverTemplate.addServerInstance(new ServerInstanceKey(serverTemplate.getId(), "server", "server", "http://localhost:8080/server"));
+
+        this.kieServerInstanceManager.startContainer(serverTemplate, containerSpec);
+
+        assertEquals(1, calledTemplates.size());
+        assertContainerUpdateEvent(receivedEvents.get(0), ContainerRuntimeState.OFFLINE, 1);
+    }
+
     /*
      * helper methods
      */
 
+    /**
+     * Replaces the manager by one using a dispatcher, whose server instances all report a container in the given status.
+     * @return The server templates the remote operations are called with.
+     */
+    protected List<ServerTemplate> dispatchingManager(final KieContainerStatus status) {
+        final List<ServerTemplate> calledTemplates = Collections.synchronizedList(new ArrayList<ServerTemplate>());
+        this.kieServerInstanceManager = new AsyncKieServerInstanceManager(notificationService, containerUpdateEvent) {
+            @Override
+            protected List<Container> callRemoteKieServerOperation(ServerTemplate serverTemplate, ContainerSpec containerSpec, RemoteKieServerOperation operation) {
+                calledTemplates.add(serverTemplate);
+                return createContainers(status, new ArrayList<Message>(), 1);
+            }
+        };
+        this.kieServerInstanceManager.setExecutor(executor);
+        this.kieServerInstanceManager.setDispatcher(new ServerInstanceDispatcher(2, 1, 10000, 2, 1));
+        return calledTemplates;
+    }
+
+
     protected void assertContainerUpdateEvent(ContainerUpdateEvent updateEvent, ContainerRuntimeState state, int failedInstances) {
         assertEquals(state, updateEvent.getContainerRuntimeState());
         assertEquals(failedInstances, updateEvent.getFailedServerInstances().size());
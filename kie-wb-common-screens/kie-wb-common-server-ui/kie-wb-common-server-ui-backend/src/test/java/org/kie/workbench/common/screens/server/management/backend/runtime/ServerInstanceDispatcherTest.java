@@ -0,0 +1,220 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.server.management.backend.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.controller.api.model.runtime.Container;
+import org.kie.server.controller.api.model.runtime.ServerInstanceKey;
+
+import static org.junit.Assert.*;
+
+public class ServerInstanceDispatcherTest {
+
+    private ServerInstanceDispatcher dispatcher;
+
+    @After
+    public void cleanup() {
+        dispatcher.dispose();
+    }
+
+    @Test
+    public void testServerInstancesAreCalledInParallel() {
+        dispatcher = new ServerInstanceDispatcher(3, 1, 10000, 0, 0);
+        final List<ServerInstanceKey> serverInstanceKeys = serverInstanceKeys(3);
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys, serverInstanceKey -> {
+            latch.countDown();
+            try {
+                // only completes when all server instances are being called at the same time
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.STARTED));
+        }, "container", true);
+
+        assertEquals(3, containers.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(serverInstanceKeys.get(i).getServerInstanceId(), containers.get(i).getServerInstanceId());
+            assertEquals(KieContainerStatus.STARTED, containers.get(i).getStatus());
+        }
+        assertEquals(3, dispatcher.getCalls());
+    }
+
+    @Test
+    public void testFailedIdempotentCallIsRetried() {
+        dispatcher = new ServerInstanceDispatcher(1, 1, 10000, 2, 1);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys(1), serverInstanceKey -> {
+            if (attempts.incrementAndGet() < 3) {
+                return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.FAILED));
+            }
+            return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.STARTED));
+        }, "container", true);
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, containers.size());
+        assertEquals(KieContainerStatus.STARTED, containers.get(0).getStatus());
+        assertEquals(2, dispatcher.getFailures());
+    }
+
+    @Test
+    public void testFailedIdempotentCallIsReportedOnceRetriesAreExhausted() {
+        dispatcher = new ServerInstanceDispatcher(1, 1, 10000, 2, 1);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys(1), serverInstanceKey -> {
+            attempts.incrementAndGet();
+            return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.FAILED));
+        }, "container", true);
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, containers.size());
+        assertEquals(KieContainerStatus.FAILED, containers.get(0).getStatus());
+        assertEquals(3, dispatcher.getFailures());
+    }
+
+    @Test
+    public void testFailedNonIdempotentCallIsNotRetried() {
+        dispatcher = new ServerInstanceDispatcher(1, 1, 10000, 2, 1);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys(1), serverInstanceKey -> {
+            attempts.incrementAndGet();
+            return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.FAILED));
+        }, "container", false);
+
+        assertEquals(1, attempts.get());
+        assertEquals(1, containers.size());
+        assertEquals(KieContainerStatus.FAILED, containers.get(0).getStatus());
+        assertEquals(1, dispatcher.getFailures());
+    }
+
+    @Test
+    public void testThrowingCallIsNotRetried() {
+        dispatcher = new ServerInstanceDispatcher(1, 1, 10000, 2, 1);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys(1), serverInstanceKey -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("server not reachable");
+        }, "container", true);
+
+        assertEquals(1, attempts.get());
+        assertEquals(1, containers.size());
+        assertEquals(KieContainerStatus.FAILED, containers.get(0).getStatus());
+    }
+
+    @Test
+    public void testSlowServerInstanceIsReportedAsFailed() {
+        dispatcher = new ServerInstanceDispatcher(2, 1, 200, 0, 0);
+        final List<ServerInstanceKey> serverInstanceKeys = serverInstanceKeys(2);
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys, serverInstanceKey -> {
+            if (serverInstanceKey == serverInstanceKeys.get(1)) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.STARTED));
+        }, "container", true);
+
+        assertEquals(2, containers.size());
+        assertEquals(KieContainerStatus.STARTED, containers.get(0).getStatus());
+        assertEquals(KieContainerStatus.FAILED, containers.get(1).getStatus());
+        assertEquals("container", containers.get(1).getContainerSpecId());
+        assertEquals(serverInstanceKeys.get(1).getServerInstanceId(), containers.get(1).getServerInstanceId());
+    }
+
+    @Test
+    public void testBusyServerInstanceDoesNotHoldThreads() {
+        dispatcher = new ServerInstanceDispatcher(2, 1, 10000, 0, 0);
+        final List<ServerInstanceKey> busyServerInstanceKeys = serverInstanceKeys(1);
+        final ServerInstanceKey otherServerInstanceKey = new ServerInstanceKey("template", "other", "other", "http://localhost:8090/server");
+        final List<ServerInstanceKey> serverInstanceKeys = new ArrayList<ServerInstanceKey>();
+        serverInstanceKeys.add(busyServerInstanceKeys.get(0));
+        serverInstanceKeys.add(busyServerInstanceKeys.get(0));
+        serverInstanceKeys.add(otherServerInstanceKey);
+        final CountDownLatch otherCalled = new CountDownLatch(1);
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys, serverInstanceKey -> {
+            if (serverInstanceKey == otherServerInstanceKey) {
+                otherCalled.countDown();
+            } else {
+                try {
+                    // the second call to the busy server instance must wait without taking the other thread
+                    assertTrue(otherCalled.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.STARTED));
+        }, "container", false);
+
+        assertEquals(3, containers.size());
+        for (Container container : containers) {
+            assertEquals(KieContainerStatus.STARTED, container.getStatus());
+        }
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+    @Test
+    public void testRetriesStopAtTheDeadline() {
+        dispatcher = new ServerInstanceDispatcher(1, 1, 200, 10, 500);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        List<Container> containers = dispatcher.dispatch(serverInstanceKeys(1), serverInstanceKey -> {
+            attempts.incrementAndGet();
+            return Collections.singletonList(container(serverInstanceKey, KieContainerStatus.FAILED));
+        }, "container", true);
+
+        assertEquals(1, attempts.get());
+        assertEquals(1, containers.size());
+        assertEquals(KieContainerStatus.FAILED, containers.get(0).getStatus());
+    }
+
+    private List<ServerInstanceKey> serverInstanceKeys(int count) {
+        List<ServerInstanceKey> serverInstanceKeys = new ArrayList<ServerInstanceKey>();
+        for (int i = 0; i < count; i++) {
+            serverInstanceKeys.add(new ServerInstanceKey("template", "server" + i, "server" + i, "http://localhost:808" + i + "/server"));
+        }
+        return serverInstanceKeys;
+    }
+
+    private Container container(ServerInstanceKey serverInstanceKey, KieContainerStatus status) {
+        Container container = new Container();
+        container.setContainerSpecId("container");
+        container.setServerInstanceId(serverInstanceKey.getServerInstanceId());
+        container.setServerTemplateId(serverInstanceKey.getServerTemplateId());
+        container.setUrl(serverInstanceKey.getUrl());
+        container.setStatus(status);
+        return container;
+    }
+}
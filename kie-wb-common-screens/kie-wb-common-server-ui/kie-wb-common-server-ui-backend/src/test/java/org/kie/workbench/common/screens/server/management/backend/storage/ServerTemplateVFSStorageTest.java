@@ -18,6 +18,7 @@ package org.kie.workbench.common.screens.server.management.backend.storage;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -41,9 +42,14 @@ import org.kie.server.controller.api.model.spec.ProcessConfig;
 import org.kie.server.controller.api.model.spec.RuleConfig;
 import org.kie.server.controller.api.model.spec.ServerTemplate;
 import org.kie.server.controller.api.model.spec.ServerTemplateKey;
+import org.mockito.Matchers;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.OpenOption;
+import org.uberfire.java.nio.file.Path;
 import org.uberfire.mocks.FileSystemTestingUtils;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 public class ServerTemplateVFSStorageTest {
 
@@ -66,6 +72,7 @@ public class ServerTemplateVFSStorageTest {
 
     @After
     public void cleanup() {
+        templateStorage.flush();
         fileSystemTestingUtils.cleanup();
     }
 
@@ -310,6 +317,118 @@ public class ServerTemplateVFSStorageTest {
         assertEquals(newContainerSpec.getConfigs().size(), spec.getConfigs().size());
     }
 
+    @Test
+    public void testLoadReturnsCopies() {
+
+        templateStorage.store(serverTemplate);
+
+        ServerTemplate fromStorage = templateStorage.load(serverTemplate.getId());
+        fromStorage.addServerInstance(ModelFactory.newServerInstanceKey(serverTemplate.getId(), "http://localhost:8080/server"));
+
+        // changes are only visible once the template is updated
+        assertEquals(0, templateStorage.load(serverTemplate.getId()).getServerInstanceKeys().size());
+
+        templateStorage.update(fromStorage);
+
+        assertEquals(1, templateStorage.load(serverTemplate.getId()).getServerInstanceKeys().size());
+    }
+
+    @Test
+    public void testLoadCopiesContainerConfigs() {
+
+        templateStorage.store(serverTemplate);
+
+        ServerTemplate fromStorage = templateStorage.load(serverTemplate.getId());
+        RuleConfig ruleConfig = (RuleConfig) fromStorage.getContainerSpec(containerSpec.getId()).getConfigs().get(Capability.RULE);
+        ruleConfig.setScannerStatus(KieScannerStatus.STOPPED);
+        fromStorage.getContainerSpec(containerSpec.getId()).getReleasedId().setVersion("2.0");
+
+        // neither the stored template nor the caller's instance share state with the copy
+        ServerTemplate reloaded = templateStorage.load(serverTemplate.getId());
+        assertEquals(KieScannerStatus.STARTED, ((RuleConfig) reloaded.getContainerSpec(containerSpec.getId()).getConfigs().get(Capability.RULE)).getScannerStatus());
+        assertEquals("1.0", reloaded.getContainerSpec(containerSpec.getId()).getReleasedId().getVersion());
+        assertEquals(KieScannerStatus.STARTED, this.ruleConfig.getScannerStatus());
+
+        // changes made by the caller after storing are not visible either
+        serverTemplate.setName("changed");
+        assertEquals("test server", templateStorage.load(serverTemplate.getId()).getName());
+    }
+
+    @Test
+    public void testContainerIndexIsMaintained() {
+
+        assertTrue(templateStorage.getServerTemplateIds(containerSpec.getId()).isEmpty());
+
+        templateStorage.store(serverTemplate);
+        assertEquals(Collections.singleton(serverTemplate.getId()), templateStorage.getServerTemplateIds(containerSpec.getId()));
+
+        ServerTemplate fromStorage = templateStorage.load(serverTemplate.getId());
+        fromStorage.deleteContainerSpec(containerSpec.getId());
+        ContainerSpec newContainerSpec = new ContainerSpec();
+        newContainerSpec.setId("new container");
+        newContainerSpec.setServerTemplateKey(new ServerTemplateKey(serverTemplate.getId(), serverTemplate.getName()));
+        newContainerSpec.setReleasedId(new ReleaseId("org.kie", "kie-server-kjar", "2.0"));
+        fromStorage.addContainerSpec(newContainerSpec);
+        templateStorage.update(fromStorage);
+
+        assertTrue(templateStorage.getServerTemplateIds(containerSpec.getId()).isEmpty());
+        assertEquals(Collections.singleton(serverTemplate.getId()), templateStorage.getServerTemplateIds("new container"));
+
+        templateStorage.delete(serverTemplate.getId());
+        assertTrue(templateStorage.getServerTemplateIds("new container").isEmpty());
+    }
+
+    @Test
+    public void testChangesAreWrittenInOrder() {
+
+        templateStorage.store(serverTemplate);
+        serverTemplate.setName("updated test server");
+        templateStorage.update(serverTemplate);
+        templateStorage.flush();
+
+        ServerTemplateVFSStorage otherStorage = new ServerTemplateVFSStorage(fileSystemTestingUtils.getIoService(), fileSystemTestingUtils.getFileSystem());
+        ServerTemplate fromStorage = otherStorage.load(serverTemplate.getId());
+        assertNotNull(fromStorage);
+        assertEquals("updated test server", fromStorage.getName());
+
+        templateStorage.delete(serverTemplate.getId());
+        templateStorage.flush();
+
+        otherStorage = new ServerTemplateVFSStorage(fileSystemTestingUtils.getIoService(), fileSystemTestingUtils.getFileSystem());
+        assertFalse(otherStorage.exists(serverTemplate.getId()));
+    }
+
+    @Test
+    public void testFailedWriteIsRetried() {
+        final IOService ioService = spy(fileSystemTestingUtils.getIoService());
+        doThrow(new RuntimeException("failure")).doCallRealMethod().when(ioService).write(any(Path.class), anyString(), Matchers.<OpenOption>anyVararg());
+        templateStorage = new ServerTemplateVFSStorage(ioService, fileSystemTestingUtils.getFileSystem());
+
+        templateStorage.store(serverTemplate);
+        templateStorage.flush();
+
+        ServerTemplateVFSStorage otherStorage = new ServerTemplateVFSStorage(fileSystemTestingUtils.getIoService(), fileSystemTestingUtils.getFileSystem());
+        assertTrue(otherStorage.exists(serverTemplate.getId()));
+    }
+
+    @Test
+    public void testFailedWriteIsRevertedAndReported() {
+        final IOService ioService = spy(fileSystemTestingUtils.getIoService());
+        doThrow(new RuntimeException("failure")).when(ioService).write(any(Path.class), anyString(), Matchers.<OpenOption>anyVararg());
+        templateStorage = new ServerTemplateVFSStorage(ioService, fileSystemTestingUtils.getFileSystem());
+
+        templateStorage.store(serverTemplate);
+        try {
+            templateStorage.flush();
+            fail("Failed write was not reported");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains(serverTemplate.getId()));
+        }
+
+        //Memory is brought back in line with the file system, where the template was never written
+        assertFalse(templateStorage.exists(serverTemplate.getId()));
+    }
+
     /*
      * helper method to setup template container and container spec
      */
@@ -26,6 +26,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.lang3.StringUtils;
 import org.drools.core.base.ClassTypeResolver;
@@ -102,6 +104,13 @@ public class JavaRoasterModelDriver implements ModelDriver {
 
     private FilterHolder filterHolder;
 
+    private JavaSourceParseCache parseCache;
+
+    private static final String PARSER_THREADS_PROPERTY_NAME = "org.kie.datamodeller.parser.threads";
+
+    private static final ForkJoinPool PARSER_POOL = new ForkJoinPool( Integer.getInteger( PARSER_THREADS_PROPERTY_NAME,
+                                                                                          Runtime.getRuntime().availableProcessors() ) );
+
     private static final String DATA_OBJECT_LOAD_ERROR = "It was not possible to create or load DataObject: \"{0}\" .";
 
     private static final String ANNOTATION_LOAD_ERROR = "It was not possible to create or load a DataObject or Field annotation for annotation class name: \"{0}\" .";
@@ -136,6 +145,15 @@ public class JavaRoasterModelDriver implements ModelDriver {
         this.filterHolder = filterHolder;
     }
 
+    public JavaRoasterModelDriver( IOService ioService,
+                                   Path javaRootPath,
+                                   ClassLoader classLoader,
+                                   FilterHolder filterHolder,
+                                   JavaSourceParseCache parseCache ) {
+        this( ioService, javaRootPath, classLoader, filterHolder );
+        this.parseCache = parseCache;
+    }
+
     @Override
     public List<AnnotationDefinition> getConfiguredAnnotations() {
         return configuredAnnotations;
@@ -161,7 +179,6 @@ public class JavaRoasterModelDriver implements ModelDriver {
 
         ModelDriverResult result = new ModelDriverResult();
         DataModel dataModel;
-        String fileContent;
         dataModel = createModel();
         result.setDataModel( dataModel );
 
@@ -170,42 +187,25 @@ public class JavaRoasterModelDriver implements ModelDriver {
 
         Collection<FileUtils.ScanResult> scanResults = FileUtils.getInstance().scan( ioService, rootPaths, ".java", true );
         if ( scanResults != null ) {
-            for ( FileUtils.ScanResult scanResult : scanResults ) {
+            //files are read and parsed in parallel, the DataModel is populated in scan order.
+            List<ParsedFile> parsedFiles = parseFiles( scanResults );
+            for ( ParsedFile parsedFile : parsedFiles ) {
 
-                logger.debug( "Starting file loading into model, file: " + scanResult.getFile() );
-                fileContent = ioService.readAllString( scanResult.getFile() );
-                if ( fileContent == null || "".equals( fileContent ) ) {
-                    logger.debug( "file: " + scanResult.getFile() + " is empty." );
+                logger.debug( "Starting file loading into model, file: " + parsedFile.file );
+                if ( parsedFile.error != null ) {
+                    //Unexpected parsing o model loading exception.
+                    logger.error( errorMessage( MODEL_LOAD_GENERIC_ERROR, javaRootPath.toUri() ), parsedFile.error );
+                    throw new ModelDriverException( errorMessage( MODEL_LOAD_GENERIC_ERROR, javaRootPath.toUri() ), parsedFile.error );
+                }
+                if ( parsedFile.javaType == null ) {
+                    logger.debug( "file: " + parsedFile.file + " is empty." );
                     continue;
                 }
                 try {
-                    JavaType<?> javaType = Roaster.parse( fileContent );
-                    final boolean isClass = javaType.isClass();
-                    final boolean vetoed = ( isClass ? isVetoed( javaType ) : false );
-                    if ( isClass && !vetoed ) {
-                        if ( javaType.getSyntaxErrors() != null && !javaType.getSyntaxErrors().isEmpty() ) {
-                            //if a file has parsing errors it will be skipped.
-                            addSyntaxErrors( result, scanResult.getFile(), javaType.getSyntaxErrors() );
-                        } else {
-                            try {
-                                //try to load the data object.
-                                Pair<DataObject, List<ObjectProperty>> pair = parseDataObject( ( JavaClassSource ) javaType );
-                                if ( pair.getK1() != null ) {
-                                    dataModel.addDataObject( pair.getK1() );
-                                    result.setClassPath( pair.getK1().getClassName(), Paths.convert( scanResult.getFile() ) );
-                                    result.setUnmanagedProperties( pair.getK1().getClassName(), pair.getK2() );
-                                }
-                            } catch ( ModelDriverException e ) {
-                                logger.error( "An error was produced when file: " + scanResult.getFile() + " was being loaded into a DataObject.", e );
-                                addModelDriverError( result, scanResult.getFile(), e );
-                            }
-                        }
-                    } else if ( vetoed ) {
-                        logger.debug( "The class, {}, in the file, {}, was vetoed and will be skipped.",
-                                      javaType.getQualifiedName(),
-                                      scanResult.getFile() );
-                    } else {
-                        logger.debug( "No Class definition was found for file: " + scanResult.getFile() + ", it will be skipped." );
+                    JavaType<?> javaType = parsedFile.javaType;
+                    //cached types can be visited by concurrent model loads.
+                    synchronized ( javaType ) {
+                        addDataObject( result, dataModel, parsedFile.file, javaType );
                     }
                 } catch ( Exception e ) {
                     //Unexpected parsing o model loading exception.
@@ -217,6 +217,74 @@ public class JavaRoasterModelDriver implements ModelDriver {
         return result;
     }
 
+    private void addDataObject( final ModelDriverResult result,
+                                final DataModel dataModel,
+                                final Path file,
+                                final JavaType<?> javaType ) {
+        final boolean isClass = javaType.isClass();
+        final boolean vetoed = ( isClass ? isVetoed( javaType ) : false );
+        if ( isClass && !vetoed ) {
+            if ( javaType.getSyntaxErrors() != null && !javaType.getSyntaxErrors().isEmpty() ) {
+                //if a file has parsing errors it will be skipped.
+                addSyntaxErrors( result, file, javaType.getSyntaxErrors() );
+            } else {
+                try {
+                    //try to load the data object.
+                    Pair<DataObject, List<ObjectProperty>> pair = parseDataObject( ( JavaClassSource ) javaType );
+                    if ( pair.getK1() != null ) {
+                        dataModel.addDataObject( pair.getK1() );
+                        result.setClassPath( pair.getK1().getClassName(), Paths.convert( file ) );
+                        result.setUnmanagedProperties( pair.getK1().getClassName(), pair.getK2() );
+                    }
+                } catch ( ModelDriverException e ) {
+                    logger.error( "An error was produced when file: " + file + " was being loaded into a DataObject.", e );
+                    addModelDriverError( result, file, e );
+                }
+            }
+        } else if ( vetoed ) {
+            logger.debug( "The class, {}, in the file, {}, was vetoed and will be skipped.",
+                          javaType.getQualifiedName(),
+                          file );
+        } else {
+            logger.debug( "No Class definition was found for file: " + file + ", it will be skipped." );
+        }
+    }
+
+    private List<ParsedFile> parseFiles( final Collection<FileUtils.ScanResult> scanResults ) throws ModelDriverException {
+        final List<ParsedFile> parsedFiles = new ArrayList<ParsedFile>();
+        for ( FileUtils.ScanResult scanResult : scanResults ) {
+            parsedFiles.add( new ParsedFile( scanResult.getFile() ) );
+        }
+        if ( parseCache != null ) {
+            final List<Path> files = new ArrayList<Path>();
+            for ( ParsedFile parsedFile : parsedFiles ) {
+                files.add( parsedFile.file );
+            }
+            parseCache.retainAll( javaRootPath, files );
+        }
+        try {
+            PARSER_POOL.submit( () -> parsedFiles.parallelStream().forEach( this::parseFile ) ).get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new ModelDriverException( errorMessage( MODEL_LOAD_GENERIC_ERROR, javaRootPath.toUri() ), e );
+        } catch ( ExecutionException e ) {
+            throw new ModelDriverException( errorMessage( MODEL_LOAD_GENERIC_ERROR, javaRootPath.toUri() ), e.getCause() );
+        }
+        return parsedFiles;
+    }
+
+    private void parseFile( final ParsedFile parsedFile ) {
+        try {
+            final String fileContent = ioService.readAllString( parsedFile.file );
+            if ( fileContent == null || "".equals( fileContent ) ) {
+                return;
+            }
+            parsedFile.javaType = parseCache != null ? parseCache.parse( parsedFile.file, fileContent ) : Roaster.parse( fileContent );
+        } catch ( Exception e ) {
+            parsedFile.error = e;
+        }
+    }
+
     private boolean isVetoed( final JavaType<?> javaType ) {
         return filterHolder.getSourceFilters().stream().anyMatch( filter -> filter.veto( javaType ) );
     }
@@ -1709,4 +1777,16 @@ public class JavaRoasterModelDriver implements ModelDriver {
         return MessageFormat.format( message, params );
     }
 
+    private static class ParsedFile {
+
+        private final Path file;
+
+        private JavaType<?> javaType;
+
+        private Exception error;
+
+        private ParsedFile( final Path file ) {
+            this.file = file;
+        }
+    }
 }
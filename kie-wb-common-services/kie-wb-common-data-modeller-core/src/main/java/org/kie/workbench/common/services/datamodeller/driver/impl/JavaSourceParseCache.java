@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodeller.driver.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.JavaType;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Keeps the result of parsing Java source files so a DataModel can be re-loaded without re-parsing the files that
+ * did not change. Entries are keyed by file URI and are only reused while the digest of the file content matches.
+ * Parsed types are shared between concurrent model loads and must be treated as read-only; or be accessed whilst
+ * holding their monitor. The number of entries is bounded, least recently used entries being discarded first.
+ */
+@ApplicationScoped
+public class JavaSourceParseCache {
+
+    public static final String CACHE_SIZE_PROPERTY_NAME = "org.kie.datamodeller.parse.cache.size";
+
+    private static final int DEFAULT_CACHE_SIZE = 2000;
+
+    private static final String JAVA_EXTENSION = ".java";
+
+    private final Map<String, Entry> entries;
+
+    public JavaSourceParseCache() {
+        this( Integer.getInteger( CACHE_SIZE_PROPERTY_NAME,
+                                  DEFAULT_CACHE_SIZE ) );
+    }
+
+    public JavaSourceParseCache( final int cacheSize ) {
+        this.entries = Collections.synchronizedMap( new LinkedHashMap<String, Entry>( 16,
+                                                                                      0.75f,
+                                                                                      true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<String, Entry> eldest ) {
+                return size() > cacheSize;
+            }
+        } );
+    }
+
+    /**
+     * Parses the content of a Java source file, or returns the result of a previous parse of identical content.
+     * @param file The file the content was read from.
+     * @param content The content of the file.
+     * @return The parsed type.
+     */
+    public JavaType<?> parse( final Path file,
+                              final String content ) {
+        final String uri = file.toUri().toString();
+        final String digest = DigestUtils.sha1Hex( content );
+        final Entry entry = entries.get( uri );
+        if ( entry != null && entry.digest.equals( digest ) ) {
+            return entry.javaType;
+        }
+        final JavaType<?> javaType = Roaster.parse( content );
+        entries.put( uri,
+                     new Entry( digest,
+                                javaType ) );
+        return javaType;
+    }
+
+    /**
+     * Discards the entries below a root path that are not in the given collection of files, i.e. those for files that
+     * were removed from the root path.
+     * @param rootPath The path that was scanned.
+     * @param files The files found below the root path.
+     */
+    public void retainAll( final Path rootPath,
+                           final Collection<Path> files ) {
+        final String rootUri = rootPath.toUri().toString();
+        final Set<String> uris = new HashSet<String>();
+        for ( Path file : files ) {
+            uris.add( file.toUri().toString() );
+        }
+        synchronized ( entries ) {
+            entries.keySet().removeIf( uri -> uri.startsWith( rootUri ) && !uris.contains( uri ) );
+        }
+    }
+
+    public void invalidate( final org.uberfire.backend.vfs.Path path ) {
+        if ( path != null && path.getFileName().endsWith( JAVA_EXTENSION ) ) {
+            entries.remove( path.toURI() );
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void onResourceUpdated( @Observes final ResourceUpdatedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceDeleted( @Observes final ResourceDeletedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onResourceRenamed( @Observes final ResourceRenamedEvent event ) {
+        invalidate( event.getPath() );
+    }
+
+    public void onBatchResourceChanges( @Observes final ResourceBatchChangesEvent event ) {
+        for ( final Map.Entry<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> entry : event.getBatch().entrySet() ) {
+            invalidate( entry.getKey() );
+        }
+    }
+
+    private static class Entry {
+
+        private final String digest;
+
+        private final JavaType<?> javaType;
+
+        private Entry( final String digest,
+                       final JavaType<?> javaType ) {
+            this.digest = digest;
+            this.javaType = javaType;
+        }
+    }
+}
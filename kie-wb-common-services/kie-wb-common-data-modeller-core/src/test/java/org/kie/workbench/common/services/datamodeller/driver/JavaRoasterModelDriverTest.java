@@ -18,6 +18,7 @@ package org.kie.workbench.common.services.datamodeller.driver;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -81,6 +82,7 @@ import org.kie.workbench.common.services.datamodeller.core.impl.MethodImpl;
 import org.kie.workbench.common.services.datamodeller.core.impl.ParameterImpl;
 import org.kie.workbench.common.services.datamodeller.core.impl.TypeImpl;
 import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelDriver;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaSourceParseCache;
 import org.kie.workbench.common.services.datamodeller.driver.impl.UpdateInfo;
 import org.kie.workbench.common.services.datamodeller.driver.model.ModelDriverResult;
 import org.kie.workbench.common.services.datamodeller.parser.test.TestAnnotation;
@@ -203,6 +205,52 @@ public class JavaRoasterModelDriverTest {
         }
     }
 
+    @Test
+    public void modelReadFromParseCacheTest() {
+        try {
+            String uriToResource = this.getClass().getResource( "projectRoot.txt" ).toURI().toString();
+            URI uriToRootPath = URI.create( uriToResource.substring( 0, uriToResource.length() - "projectRoot.txt".length() ) );
+            Path rootPath = simpleFileSystemProvider.getPath( uriToRootPath );
+
+            final SourceFilter pojo1Filter = javaType -> false;
+            final NestedClassFilter nestedClassFilter = javaType -> javaType.isClass() && javaType.getAnnotation( Generated.class ) != null;
+            final MethodFilter methodFilter = method -> !method.isConstructor() && method.getAnnotation( Generated.class ) != null;
+
+            FilterHolder filterHolder = mock( FilterHolder.class );
+            when( filterHolder.getSourceFilters() ).thenReturn( Collections.singleton( pojo1Filter ) );
+            when( filterHolder.getNestedClassFilters() ).thenReturn( Collections.singleton( nestedClassFilter ) );
+            when( filterHolder.getMethodFilters() ).thenReturn( Collections.singleton( methodFilter ) );
+
+            JavaSourceParseCache parseCache = new JavaSourceParseCache();
+
+            JavaRoasterModelDriver javaRoasterModelDriver = new JavaRoasterModelDriver( ioService,
+                                                                                        rootPath,
+                                                                                        getClass().getClassLoader(),
+                                                                                        filterHolder,
+                                                                                        parseCache );
+
+            //first load populates the cache, second load is served from it.
+            ModelDriverResult coldResult = javaRoasterModelDriver.loadModel();
+            int cachedFiles = parseCache.size();
+            ModelDriverResult warmResult = javaRoasterModelDriver.loadModel();
+
+            DataModel dataModelOriginal = createModel();
+
+            assertTrue( cachedFiles > 0 );
+            assertEquals( cachedFiles, parseCache.size() );
+            assertEquals( coldResult.getDataModel().getDataObjects().size(), warmResult.getDataModel().getDataObjects().size() );
+            assertEquals( dataModelOriginal.getDataObjects().size(), warmResult.getDataModel().getDataObjects().size() );
+
+            for ( DataObject dataObject : dataModelOriginal.getDataObjects() ) {
+                DataModelerAssert.assertEqualsDataObject( dataObject, warmResult.getDataModel().getDataObject( dataObject.getClassName() ) );
+            }
+
+        } catch ( Exception e ) {
+            e.printStackTrace();
+            fail( "Test failed: " + e.getMessage() );
+        }
+    }
+
     @Test
     public void updateAnnotationsTest() {
 
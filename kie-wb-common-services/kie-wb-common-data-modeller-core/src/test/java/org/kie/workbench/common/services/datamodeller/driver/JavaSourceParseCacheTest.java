@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodeller.driver;
+
+import java.net.URI;
+
+import org.jboss.forge.roaster.model.JavaType;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaSourceParseCache;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class JavaSourceParseCacheTest {
+
+    private JavaSourceParseCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new JavaSourceParseCache( 2 );
+    }
+
+    @Test
+    public void testIdenticalContentIsNotReparsed() {
+        final Path file = mockPath( "A" );
+        final JavaType<?> javaType = cache.parse( file,
+                                                  source( "A" ) );
+
+        assertSame( javaType,
+                    cache.parse( file,
+                                 source( "A" ) ) );
+        assertNotSame( javaType,
+                       cache.parse( file,
+                                    source( "A" ) + "\n" ) );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        final Path fileA = mockPath( "A" );
+        final Path fileB = mockPath( "B" );
+        final JavaType<?> javaTypeA = cache.parse( fileA,
+                                                   source( "A" ) );
+        final JavaType<?> javaTypeB = cache.parse( fileB,
+                                                   source( "B" ) );
+
+        //Reading "A" makes "B" the least recently used entry
+        cache.parse( fileA,
+                     source( "A" ) );
+        cache.parse( mockPath( "C" ),
+                     source( "C" ) );
+
+        assertEquals( 2,
+                      cache.size() );
+        assertSame( javaTypeA,
+                    cache.parse( fileA,
+                                 source( "A" ) ) );
+        assertNotSame( javaTypeB,
+                       cache.parse( fileB,
+                                    source( "B" ) ) );
+    }
+
+    private Path mockPath( final String className ) {
+        final Path path = mock( Path.class );
+        when( path.toUri() ).thenReturn( URI.create( "default://master@repo/src/main/java/" + className + ".java" ) );
+        return path;
+    }
+
+    private String source( final String className ) {
+        return "package org.test; public class " + className + " { }";
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.drools.workbench.models.datamodel.oracle.MethodInfo;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.util.BlackLists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide cache of the reflective metadata used to build Fact Types from classes. Metadata is held against the
+ * Class itself, i.e. keyed by ClassLoader and class name. Builder loads a Project's classes on top of the dependencies
+ * ClassLoader shared by Projects with identical dependencies, so their dependency classes are introspected once.
+ * Metadata for a Project's own classes is discarded along with its ClassLoader.
+ */
+public final class ClassIntrospector {
+
+    private static final Logger log = LoggerFactory.getLogger( ClassIntrospector.class );
+
+    private static final String THREADS_PROPERTY_NAME = "org.kie.datamodel.introspection.threads";
+
+    private static final ForkJoinPool INTROSPECTION_POOL = new ForkJoinPool( Integer.getInteger( THREADS_PROPERTY_NAME,
+                                                                                                  Runtime.getRuntime().availableProcessors() ) );
+
+    private static final ClassValue<ClassFieldInspector> FIELDS = new ClassValue<ClassFieldInspector>() {
+        @Override
+        protected ClassFieldInspector computeValue( final Class<?> type ) {
+            return new ClassFieldInspector( type );
+        }
+    };
+
+    private static final ClassValue<List<MethodInfo>> METHODS = new ClassValue<List<MethodInfo>>() {
+        @Override
+        protected List<MethodInfo> computeValue( final Class<?> type ) {
+            try {
+                return Collections.unmodifiableList( new ClassMethodInspector( type,
+                                                                               new JavaTypeSystemTranslator() ).getMethodInfos() );
+            } catch ( IOException e ) {
+                throw new UncheckedIOException( e );
+            }
+        }
+    };
+
+    private ClassIntrospector() {
+    }
+
+    /**
+     * @return The fields of a class. The result is shared and must not be modified.
+     */
+    public static ClassFieldInspector getFieldInspector( final Class<?> clazz ) {
+        return FIELDS.get( clazz );
+    }
+
+    /**
+     * @return The methods, that are not getters or setters, of a class.
+     */
+    public static List<MethodInfo> getMethodInfos( final Class<?> clazz ) {
+        return new ArrayList<MethodInfo>( METHODS.get( clazz ) );
+    }
+
+    /**
+     * Introspects classes, and the types of their fields, in parallel so subsequent construction of ClassFactBuilders,
+     * which must happen on a single thread, finds the metadata already cached.
+     * @param classes The classes to introspect.
+     */
+    public static void introspect( final Collection<Class<?>> classes ) {
+        if ( classes.isEmpty() ) {
+            return;
+        }
+        final Set<Class<?>> introspected = ConcurrentHashMap.newKeySet();
+        try {
+            INTROSPECTION_POOL.submit( () -> classes.parallelStream()
+                    .forEach( clazz -> introspect( clazz,
+                                                   introspected ) ) ).get();
+
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        } catch ( ExecutionException e ) {
+            //Introspection is repeated, and failures reported, when the ClassFactBuilders are constructed
+            log.debug( e.getMessage() );
+        }
+    }
+
+    private static void introspect( final Class<?> clazz,
+                                    final Set<Class<?>> introspected ) {
+        if ( !introspected.add( clazz ) ) {
+            return;
+        }
+        try {
+            METHODS.get( clazz );
+            for ( ClassFieldInspector.FieldInfo f : getFieldInspector( clazz ).getFieldTypesFieldInfo().values() ) {
+                final Class<?> returnType = f.getReturnType();
+                if ( !BlackLists.isReturnTypeBlackListed( returnType ) ) {
+                    introspect( returnType,
+                                introspected );
+                }
+            }
+        } catch ( Throwable e ) {
+            log.debug( e.getMessage() );
+        }
+    }
+}
@@ -32,8 +32,6 @@ import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCac
 import org.guvnor.common.services.project.builder.model.BuildMessage;
 import org.guvnor.common.services.project.model.Package;
 import org.guvnor.common.services.shared.message.Level;
-import org.kie.api.builder.KieModule;
-import org.kie.scanner.KieModuleMetaData;
 import org.kie.workbench.common.services.backend.builder.LRUBuilderCache;
 import org.kie.workbench.common.services.backend.file.DSLFileFilter;
 import org.kie.workbench.common.services.backend.file.EnumerationsFileFilter;
@@ -168,8 +166,8 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
     private void loadEnumsForPackage( final PackageDataModelOracleBuilder dmoBuilder,
                                       final KieProject project,
                                       final Package pkg ) {
-        final KieModule module = builderCache.assertBuilder( project ).getKieModuleIgnoringErrors();
-        final ClassLoader classLoader = KieModuleMetaData.Factory.newKieModuleMetaData( module ).getClassLoader();
+        //Dependency classes are loaded from the ClassLoader shared by Projects with identical dependencies
+        final ClassLoader classLoader = builderCache.assertBuilder( project ).getKieModuleMetaDataIgnoringErrors().getClassLoader();
         final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert( pkg.getPackageMainResourcesPath() );
         final Collection<org.uberfire.java.nio.file.Path> enumFiles = fileDiscoveryService.discoverFiles( nioPackagePath,
                                                                                                           FILTER_ENUMERATIONS );
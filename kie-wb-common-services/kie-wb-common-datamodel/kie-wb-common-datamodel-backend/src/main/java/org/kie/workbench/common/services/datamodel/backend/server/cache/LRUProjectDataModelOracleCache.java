@@ -15,6 +15,8 @@
 
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
@@ -30,17 +32,30 @@ import org.uberfire.backend.vfs.Path;
 import org.uberfire.commons.validation.PortablePreconditions;
 
 /**
- * A simple LRU cache for Project DataModelOracles
+ * A simple LRU cache for Project DataModelOracles. The state from which each Project's DataModelOracle was built is
+ * retained following invalidation so that the next DataModelOracle can be built incrementally.
  */
 @ApplicationScoped
 @Named("ProjectDataModelOracleCache")
 public class LRUProjectDataModelOracleCache
         extends LRUCache<KieProject, ProjectDataModelOracle> {
 
+    private static final int MAX_STATES = 20;
+
     private ProjectDataModelOracleBuilderProvider builderProvider;
     private KieProjectService projectService;
     private LRUBuilderCache cache;
 
+    //Guarded by the instance monitor
+    private final Map<KieProject, ProjectDataModelOracleState> states = new LinkedHashMap<KieProject, ProjectDataModelOracleState>( MAX_STATES + 1,
+                                                                                                                                   0.75f,
+                                                                                                                                   true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<KieProject, ProjectDataModelOracleState> eldest ) {
+            return size() > MAX_STATES;
+        }
+    };
+
     public LRUProjectDataModelOracleCache() {
     }
 
@@ -77,8 +92,11 @@ public class LRUProjectDataModelOracleCache
     }
 
     private ProjectDataModelOracle makeProjectOracle( final KieProject project ) {
-        return builderProvider.newBuilder( project,
-                                           cache.assertBuilder( project ) ).build();
+        final ProjectDataModelOracleState state = builderProvider.newBuilder( project,
+                                                                              cache.assertBuilder( project ) ).build( states.get( project ) );
+        states.put( project,
+                    state );
+        return state.getOracle();
     }
 
 }
@@ -16,18 +16,32 @@
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.inject.Inject;
 
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.workbench.models.commons.backend.oracle.ProjectDataModelOracleImpl;
 import org.drools.workbench.models.datamodel.imports.Import;
+import org.drools.workbench.models.datamodel.oracle.ModelField;
 import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
 import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.kie.api.builder.KieModule;
 import org.kie.scanner.KieModuleMetaData;
 import org.kie.workbench.common.services.backend.builder.Builder;
+import org.kie.workbench.common.services.backend.builder.LRUProjectDependenciesClassLoaderCache;
 import org.kie.workbench.common.services.backend.builder.TypeSourceResolver;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListServiceImpl;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ClassIntrospector;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ProjectDataModelOracleBuilder;
 import org.kie.workbench.common.services.shared.project.KieProject;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -62,6 +76,7 @@ class ProjectDataModelOracleBuilderProvider {
         final TypeSourceResolver typeSourceResolver = builder.getTypeSourceResolver( kieModuleMetaData );
 
         return new InnerBuilder( project,
+                                 builder.getKieModuleIgnoringErrors(),
                                  kieModuleMetaData,
                                  typeSourceResolver );
     }
@@ -71,43 +86,334 @@ class ProjectDataModelOracleBuilderProvider {
         private final ProjectDataModelOracleBuilder pdBuilder = ProjectDataModelOracleBuilder.newProjectOracleBuilder();
 
         private final KieProject project;
+        private final KieModule kieModule;
         private final KieModuleMetaData kieModuleMetaData;
         private final TypeSourceResolver typeSourceResolver;
 
         private InnerBuilder( final KieProject project,
+                              final KieModule kieModule,
                               final KieModuleMetaData kieModuleMetaData,
                               final TypeSourceResolver typeSourceResolver ) {
             this.project = project;
+            this.kieModule = kieModule;
             this.kieModuleMetaData = kieModuleMetaData;
             this.typeSourceResolver = typeSourceResolver;
         }
 
         public ProjectDataModelOracle build() {
+            return build( null ).getOracle();
+        }
 
-            addFromKieModuleMetadata();
+        /**
+         * Builds the ProjectDataModelOracle. If the previous state was built from the same dependencies, packages and
+         * imports only types affected by changes to the Project's classes are re-introspected; the remainder are
+         * carried over from the previous ProjectDataModelOracle.
+         * @param previous The state from which the previous ProjectDataModelOracle was built. Can be null.
+         * @return The new state.
+         */
+        ProjectDataModelOracleState build( final ProjectDataModelOracleState previous ) {
+            final WhiteList packageNames = getFilteredPackageNames();
+            final List<Import> imports = getExternalImports();
+            final ProjectDataModelOracleState snapshot = new ProjectDataModelOracleState( null,
+                                                                                          getClassDigests(),
+                                                                                          getDependencies(),
+                                                                                          new HashSet<String>( packageNames ),
+                                                                                          getTypes( imports ) );
 
-            addExternalImports();
+            if ( previous != null && snapshot.isCompatible( previous ) ) {
+                return snapshot.withOracle( buildIncrementally( previous,
+                                                                snapshot,
+                                                                packageNames ) );
+            }
 
-            return pdBuilder.build();
+            addFromKieModuleMetadata( packageNames );
+
+            addExternalImports( imports );
+
+            return snapshot.withOracle( pdBuilder.build() );
         }
 
         /**
          * The availability of these classes is checked in Builder and failed fast. Here we load them into the DMO
          */
-        private void addExternalImports() {
-            if ( Files.exists( Paths.convert( project.getImportsPath() ) ) ) {
-                for (final Import item : getImports()) {
-                    addClass( item );
-                }
+        private void addExternalImports( final List<Import> imports ) {
+            for (final Import item : imports) {
+                addClass( item );
             }
         }
 
-        private void addFromKieModuleMetadata() {
-            for (final String packageName : getFilteredPackageNames()) {
+        private void addFromKieModuleMetadata( final WhiteList packageNames ) {
+            for (final String packageName : packageNames) {
                 pdBuilder.addPackage( packageName );
-                addClasses( packageName,
-                            kieModuleMetaData.getClasses( packageName ) );
             }
+            addClasses( loadClasses( packageNames ).values() );
+        }
+
+        /**
+         * Classes are introspected in parallel before being added to the (single-threaded) ProjectDataModelOracleBuilder
+         */
+        private void addClasses( final Collection<Class<?>> classes ) {
+            ClassIntrospector.introspect( classes );
+            for (final Class<?> clazz : classes) {
+                addClass( clazz );
+            }
+        }
+
+        private Map<String, Class<?>> loadClasses( final WhiteList packageNames ) {
+            final Map<String, Class<?>> classes = new LinkedHashMap<String, Class<?>>();
+            for (final String packageName : packageNames) {
+                for (final String className : kieModuleMetaData.getClasses( packageName )) {
+                    try {
+                        final Class<?> clazz = kieModuleMetaData.getClass( packageName,
+                                                                           className );
+                        classes.put( normalise( clazz.getName() ),
+                                     clazz );
+
+                    } catch (Throwable e) {
+                        //Class resolution would have happened in Builder and reported as warnings so log error here at debug level to avoid flooding logs
+                        log.debug( e.getMessage() );
+                    }
+                }
+            }
+            return classes;
+        }
+
+        private ProjectDataModelOracle buildIncrementally( final ProjectDataModelOracleState previous,
+                                                           final ProjectDataModelOracleState snapshot,
+                                                           final WhiteList packageNames ) {
+            final ProjectDataModelOracle previousOracle = previous.getOracle();
+            final Map<String, String> previousTypes = getTypes( previousOracle );
+            final Set<String> invalidTypes = getChangedClasses( previous.getClassDigests(),
+                                                                snapshot.getClassDigests() );
+
+            //Classes whose compiled form is unchanged may still need re-introspecting if their metadata has changed
+            final Map<String, Class<?>> classes = loadClasses( packageNames );
+            for (final Map.Entry<String, Class<?>> e : classes.entrySet()) {
+                final String type = e.getKey();
+                final Class<?> clazz = e.getValue();
+                final String previousType = previousTypes.get( type );
+                try {
+                    if ( kieModuleMetaData.getTypeMetaInfo( clazz ).isDeclaredType()
+                            || !Boolean.valueOf( kieModuleMetaData.getTypeMetaInfo( clazz ).isEvent() ).equals( previousOracle.getProjectEventTypes().get( previousType ) )
+                            || typeSourceResolver.getTypeSource( clazz ) != previousOracle.getProjectTypeSources().get( previousType ) ) {
+                        invalidTypes.add( type );
+                    }
+                } catch (Throwable t) {
+                    log.debug( t.getMessage() );
+                }
+            }
+
+            addDependentTypes( invalidTypes,
+                               previousOracle );
+            if ( invalidTypes.isEmpty() ) {
+                return previousOracle;
+            }
+
+            log.debug( "Re-introspecting " + invalidTypes.size() + " types of " + project.getRootPath() );
+
+            final List<Class<?>> invalidClasses = new ArrayList<Class<?>>();
+            for (final String type : invalidTypes) {
+                final Class<?> clazz = classes.get( type );
+                if ( clazz != null ) {
+                    invalidClasses.add( clazz );
+                } else if ( previousTypes.containsKey( type ) ) {
+                    //Types discovered from fields are re-added, unless they have been removed
+                    addClass( previousTypes.get( type ),
+                              previousOracle );
+                }
+            }
+            addClasses( invalidClasses );
+            final ProjectDataModelOracle partialOracle = pdBuilder.build();
+
+            final ProjectDataModelOracleImpl oracle = new ProjectDataModelOracleImpl();
+            oracle.addProjectModelFields( merge( previousOracle.getProjectModelFields(),
+                                                 partialOracle.getProjectModelFields(),
+                                                 invalidTypes ) );
+            oracle.addProjectCollectionTypes( merge( previousOracle.getProjectCollectionTypes(),
+                                                     partialOracle.getProjectCollectionTypes(),
+                                                     invalidTypes ) );
+            oracle.addProjectEventTypes( merge( previousOracle.getProjectEventTypes(),
+                                                partialOracle.getProjectEventTypes(),
+                                                invalidTypes ) );
+            oracle.addProjectTypeSources( merge( previousOracle.getProjectTypeSources(),
+                                                 partialOracle.getProjectTypeSources(),
+                                                 invalidTypes ) );
+            oracle.addProjectSuperTypes( merge( previousOracle.getProjectSuperTypes(),
+                                                partialOracle.getProjectSuperTypes(),
+                                                invalidTypes ) );
+            oracle.addProjectTypeAnnotations( merge( previousOracle.getProjectTypeAnnotations(),
+                                                     partialOracle.getProjectTypeAnnotations(),
+                                                     invalidTypes ) );
+            oracle.addProjectTypeFieldsAnnotations( merge( previousOracle.getProjectTypeFieldsAnnotations(),
+                                                           partialOracle.getProjectTypeFieldsAnnotations(),
+                                                           invalidTypes ) );
+            oracle.addProjectJavaEnumDefinitions( merge( previousOracle.getProjectJavaEnumDefinitions(),
+                                                         partialOracle.getProjectJavaEnumDefinitions(),
+                                                         invalidTypes ) );
+            oracle.addProjectMethodInformation( merge( previousOracle.getProjectMethodInformation(),
+                                                       partialOracle.getProjectMethodInformation(),
+                                                       invalidTypes ) );
+            oracle.addProjectFieldParametersType( merge( previousOracle.getProjectFieldParametersType(),
+                                                         partialOracle.getProjectFieldParametersType(),
+                                                         invalidTypes ) );
+            oracle.addProjectPackageNames( new ArrayList<String>( packageNames ) );
+            return oracle;
+        }
+
+        /**
+         * Types whose compiled form was added, removed or changed since the previous build
+         */
+        private Set<String> getChangedClasses( final Map<String, String> previousDigests,
+                                               final Map<String, String> currentDigests ) {
+            final Set<String> changedClasses = new HashSet<String>();
+            for (final Map.Entry<String, String> e : currentDigests.entrySet()) {
+                if ( !e.getValue().equals( previousDigests.get( e.getKey() ) ) ) {
+                    changedClasses.add( e.getKey() );
+                }
+            }
+            for (final String className : previousDigests.keySet()) {
+                if ( !currentDigests.containsKey( className ) ) {
+                    changedClasses.add( className );
+                }
+            }
+            return changedClasses;
+        }
+
+        /**
+         * Adds types whose super-types, fields or generic parameters refer to invalid types, until no more are found
+         */
+        private void addDependentTypes( final Set<String> invalidTypes,
+                                        final ProjectDataModelOracle previousOracle ) {
+            if ( invalidTypes.isEmpty() ) {
+                return;
+            }
+            final Map<String, Set<String>> references = new HashMap<String, Set<String>>();
+            for (final Map.Entry<String, ModelField[]> e : previousOracle.getProjectModelFields().entrySet()) {
+                final Set<String> referencedTypes = new HashSet<String>();
+                for (final ModelField field : e.getValue()) {
+                    referencedTypes.add( normalise( field.getClassName() ) );
+                }
+                final List<String> superTypes = previousOracle.getProjectSuperTypes().get( e.getKey() );
+                if ( superTypes != null ) {
+                    for (final String superType : superTypes) {
+                        referencedTypes.add( normalise( superType ) );
+                    }
+                }
+                references.put( normalise( e.getKey() ),
+                                referencedTypes );
+            }
+            for (final Map.Entry<String, String> e : previousOracle.getProjectFieldParametersType().entrySet()) {
+                final Set<String> referencedTypes = references.get( normalise( getType( e.getKey() ) ) );
+                if ( referencedTypes != null && e.getValue() != null ) {
+                    referencedTypes.add( normalise( e.getValue() ) );
+                }
+            }
+
+            boolean changed = true;
+            while ( changed ) {
+                changed = false;
+                for (final Map.Entry<String, Set<String>> e : references.entrySet()) {
+                    if ( !invalidTypes.contains( e.getKey() ) && !Collections.disjoint( e.getValue(),
+                                                                                        invalidTypes ) ) {
+                        invalidTypes.add( e.getKey() );
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        private <V> Map<String, V> merge( final Map<String, V> previous,
+                                          final Map<String, V> partial,
+                                          final Set<String> invalidTypes ) {
+            final Map<String, V> merged = new HashMap<String, V>();
+            for (final Map.Entry<String, V> e : previous.entrySet()) {
+                if ( !invalidTypes.contains( normalise( getType( e.getKey() ) ) ) ) {
+                    merged.put( e.getKey(),
+                                e.getValue() );
+                }
+            }
+            merged.putAll( partial );
+            return merged;
+        }
+
+        //Some entries are keyed by "Type#field"
+        private String getType( final String key ) {
+            final int index = key.indexOf( '#' );
+            return index < 0 ? key : key.substring( 0,
+                                                    index );
+        }
+
+        /**
+         * Compiled classes are named by their binary name (i.e. "Outer$Inner") whereas the DMO may refer to the same
+         * type by its canonical name (i.e. "Outer.Inner"). Types are compared by their canonical form.
+         */
+        private String normalise( final String type ) {
+            return type.replace( '$',
+                                 '.' );
+        }
+
+        /**
+         * @return The types of the previous DMO, keyed by their canonical form
+         */
+        private Map<String, String> getTypes( final ProjectDataModelOracle previousOracle ) {
+            final Map<String, String> types = new HashMap<String, String>();
+            for (final String type : previousOracle.getProjectModelFields().keySet()) {
+                types.put( normalise( type ),
+                           type );
+            }
+            return types;
+        }
+
+        private Map<String, String> getClassDigests() {
+            final Map<String, String> classDigests = new HashMap<String, String>();
+            if ( !( kieModule instanceof InternalKieModule ) ) {
+                return classDigests;
+            }
+            final Map<String, byte[]> classesMap = ( (InternalKieModule) kieModule ).getClassesMap( true );
+            for (final Map.Entry<String, byte[]> e : classesMap.entrySet()) {
+                final String fileName = e.getKey();
+                if ( fileName.endsWith( ".class" ) ) {
+                    classDigests.put( normalise( fileName.substring( 0,
+                                                                     fileName.length() - ".class".length() ).replace( '/',
+                                                                                                                      '.' ) ),
+                                      digest( e.getValue() ) );
+                }
+            }
+            return classDigests;
+        }
+
+        private String digest( final byte[] bytes ) {
+            try {
+                final StringBuilder sb = new StringBuilder();
+                for (final byte b : MessageDigest.getInstance( "SHA-1" ).digest( bytes )) {
+                    sb.append( String.format( "%02x",
+                                              b ) );
+                }
+                return sb.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException( e );
+            }
+        }
+
+        private List<String> getDependencies() {
+            //By construction the parent of the KieModuleMetaData ClassLoader contains the dependencies. See LRUProjectDependenciesClassLoaderCache
+            final ClassLoader classLoader = kieModuleMetaData.getClassLoader();
+            return LRUProjectDependenciesClassLoaderCache.getDependencies( classLoader == null ? null : classLoader.getParent() );
+        }
+
+        private List<Import> getExternalImports() {
+            if ( Files.exists( Paths.convert( project.getImportsPath() ) ) ) {
+                return getImports();
+            }
+            return Collections.emptyList();
+        }
+
+        private List<String> getTypes( final List<Import> imports ) {
+            final List<String> types = new ArrayList<String>();
+            for (final Import item : imports) {
+                types.add( item.getType() );
+            }
+            return types;
         }
 
         /**
@@ -118,14 +424,6 @@ class ProjectDataModelOracleBuilderProvider {
                                                                    kieModuleMetaData.getPackages() );
         }
 
-        private void addClasses( final String packageName,
-                                 final Collection<String> classes ) {
-            for (final String className : classes) {
-                addClass( packageName,
-                          className );
-            }
-        }
-
         private void addClass( final Import item ) {
             try {
                 Class clazz = this.getClass().getClassLoader().loadClass( item.getType() );
@@ -142,17 +440,26 @@ class ProjectDataModelOracleBuilderProvider {
             }
         }
 
-        private void addClass( final String packageName,
-                               final String className ) {
+        private void addClass( final Class<?> clazz ) {
             try {
-                final Class clazz = kieModuleMetaData.getClass( packageName,
-                                                                className );
                 pdBuilder.addClass( clazz,
                                     kieModuleMetaData.getTypeMetaInfo( clazz ).isEvent(),
                                     typeSourceResolver.getTypeSource( clazz ) );
 
             } catch (Throwable e) {
-                //Class resolution would have happened in Builder and reported as warnings so log error here at debug level to avoid flooding logs
+                log.debug( e.getMessage() );
+            }
+        }
+
+        private void addClass( final String type,
+                               final ProjectDataModelOracle previousOracle ) {
+            try {
+                final Class clazz = kieModuleMetaData.getClassLoader().loadClass( type );
+                pdBuilder.addClass( clazz,
+                                    Boolean.TRUE.equals( previousOracle.getProjectEventTypes().get( type ) ),
+                                    previousOracle.getProjectTypeSources().get( type ) );
+
+            } catch (Throwable e) {
                 log.debug( e.getMessage() );
             }
         }
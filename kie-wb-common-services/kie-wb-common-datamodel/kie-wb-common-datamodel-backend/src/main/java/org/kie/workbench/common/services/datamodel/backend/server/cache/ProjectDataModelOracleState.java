@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+
+/**
+ * A ProjectDataModelOracle together with a snapshot of the inputs from which it was built. The snapshot is used to
+ * determine which types need to be re-introspected when the Project changes.
+ */
+class ProjectDataModelOracleState {
+
+    private final ProjectDataModelOracle oracle;
+    private final Map<String, String> classDigests;
+    private final List<String> dependencies;
+    private final Set<String> packageNames;
+    private final List<String> imports;
+
+    ProjectDataModelOracleState( final ProjectDataModelOracle oracle,
+                                 final Map<String, String> classDigests,
+                                 final List<String> dependencies,
+                                 final Set<String> packageNames,
+                                 final List<String> imports ) {
+        this.oracle = oracle;
+        this.classDigests = Collections.unmodifiableMap( classDigests );
+        this.dependencies = dependencies;
+        this.packageNames = Collections.unmodifiableSet( packageNames );
+        this.imports = Collections.unmodifiableList( imports );
+    }
+
+    ProjectDataModelOracle getOracle() {
+        return oracle;
+    }
+
+    ProjectDataModelOracleState withOracle( final ProjectDataModelOracle oracle ) {
+        return new ProjectDataModelOracleState( oracle,
+                                                classDigests,
+                                                dependencies,
+                                                packageNames,
+                                                imports );
+    }
+
+    /**
+     * @return Digests of the Project's compiled classes, keyed by fully qualified class name.
+     */
+    Map<String, String> getClassDigests() {
+        return classDigests;
+    }
+
+    /**
+     * Checks whether types resolved for this state remain valid for another; i.e. both states have the same
+     * dependencies, authorable packages and imports. Only changes to the Project's own classes can then affect the DMO.
+     * @param other The other state.
+     * @return true if the states are compatible.
+     */
+    boolean isCompatible( final ProjectDataModelOracleState other ) {
+        return dependencies != null
+                && dependencies.equals( other.dependencies )
+                && packageNames.equals( other.packageNames )
+                && imports.equals( other.imports );
+    }
+}
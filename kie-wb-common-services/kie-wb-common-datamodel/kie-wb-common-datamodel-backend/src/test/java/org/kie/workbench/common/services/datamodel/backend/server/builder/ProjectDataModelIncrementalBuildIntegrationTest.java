@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.builder;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.drools.workbench.models.datamodel.oracle.ModelField;
+import org.drools.workbench.models.datamodel.oracle.ProjectDataModelOracle;
+import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
+import org.junit.Test;
+import org.kie.workbench.common.services.shared.project.KieProject;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.rpc.SessionInfo;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ProjectDataModelIncrementalBuildIntegrationTest extends AbstractWeldBuilderIntegrationTest {
+
+    @Test
+    public void testUnchangedProjectReusesDataModel() throws Exception {
+        final URL packageUrl = this.getClass().getResource( "/DataModelBackendSuperTypesTest1/src/main/java/t2p1" );
+        final org.uberfire.java.nio.file.Path nioPackagePath = fs.getPath( packageUrl.toURI() );
+        final Path packagePath = paths.convert( nioPackagePath );
+
+        final KieProject project = projectService.resolveProject( packagePath );
+        final ProjectDataModelOracle oracle1 = projectDMOCache.assertProjectDataModelOracle( project );
+
+        projectDMOCache.invalidateProjectCache( new InvalidateDMOProjectCacheEvent( mock( SessionInfo.class ),
+                                                                                    project,
+                                                                                    packagePath ) );
+        final ProjectDataModelOracle oracle2 = projectDMOCache.assertProjectDataModelOracle( project );
+
+        //Nothing changed so none of the types needed re-introspecting
+        assertSame( oracle1,
+                    oracle2 );
+        assertEquals( oracle1.getProjectModelFields().keySet(),
+                      oracle2.getProjectModelFields().keySet() );
+    }
+
+    @Test
+    public void testRebuiltProjectYieldsSameDataModel() throws Exception {
+        final URL packageUrl = this.getClass().getResource( "/DataModelBackendSuperTypesTest1/src/main/java/t2p1" );
+        final org.uberfire.java.nio.file.Path nioPackagePath = fs.getPath( packageUrl.toURI() );
+        final Path packagePath = paths.convert( nioPackagePath );
+
+        final KieProject project = projectService.resolveProject( packagePath );
+        final ProjectDataModelOracle oracle1 = projectDMOCache.assertProjectDataModelOracle( project );
+
+        //A new Builder is a full rebuild of the Project; the DMO content must be unchanged
+        builderCache.invalidateCache( project );
+        projectDMOCache.invalidateCache( project );
+        final ProjectDataModelOracle oracle2 = projectDMOCache.assertProjectDataModelOracle( project );
+
+        assertEquals( oracle1.getProjectModelFields().keySet(),
+                      oracle2.getProjectModelFields().keySet() );
+        assertEquals( oracle1.getProjectSuperTypes(),
+                      oracle2.getProjectSuperTypes() );
+        assertEquals( oracle1.getProjectPackageNames(),
+                      oracle2.getProjectPackageNames() );
+    }
+
+    @Test
+    public void testChangedNestedClassIsReintrospected() throws Exception {
+        final URL packageUrl = this.getClass().getResource( "/DataModelBackendIncrementalTest1/src/main/java/t12p1" );
+        final org.uberfire.java.nio.file.Path nioPackagePath = fs.getPath( packageUrl.toURI() );
+        final Path packagePath = paths.convert( nioPackagePath );
+
+        final KieProject project = projectService.resolveProject( packagePath );
+        final ProjectDataModelOracle oracle1 = projectDMOCache.assertProjectDataModelOracle( project );
+        assertNotNull( getFields( oracle1,
+                                  "t12p1.Outer.Inner" ) );
+        assertFalse( hasField( oracle1,
+                               "t12p1.Outer.Inner",
+                               "field2" ) );
+
+        //Add a field to the nested class; the source on disk is left unchanged
+        final String source = new String( java.nio.file.Files.readAllBytes( java.nio.file.Paths.get( packageUrl.toURI() ).resolve( "Outer.java" ) ),
+                                          StandardCharsets.UTF_8 );
+        final String changedSource = source.replace( "        private String field1;",
+                                                     "        private String field1;\n\n"
+                                                             + "        private String field2;\n\n"
+                                                             + "        public String getField2() {\n"
+                                                             + "            return field2;\n"
+                                                             + "        }\n\n"
+                                                             + "        public void setField2( String field2 ) {\n"
+                                                             + "            this.field2 = field2;\n"
+                                                             + "        }" );
+        builderCache.assertBuilder( project ).updateResource( nioPackagePath.resolve( "Outer.java" ),
+                                                              new ByteArrayInputStream( changedSource.getBytes( StandardCharsets.UTF_8 ) ) );
+
+        projectDMOCache.invalidateProjectCache( new InvalidateDMOProjectCacheEvent( mock( SessionInfo.class ),
+                                                                                    project,
+                                                                                    packagePath ) );
+        final ProjectDataModelOracle oracle2 = projectDMOCache.assertProjectDataModelOracle( project );
+
+        assertNotSame( oracle1,
+                       oracle2 );
+        assertTrue( hasField( oracle2,
+                              "t12p1.Outer.Inner",
+                              "field2" ) );
+        assertEquals( oracle1.getProjectModelFields().keySet(),
+                      oracle2.getProjectModelFields().keySet() );
+
+        //Types unaffected by the change are carried over from the previous DMO
+        assertSame( getFields( oracle1,
+                               "t12p1.Bean1" ),
+                    getFields( oracle2,
+                               "t12p1.Bean1" ) );
+    }
+
+    //Nested types may be keyed by either their binary or canonical name
+    private ModelField[] getFields( final ProjectDataModelOracle oracle,
+                                    final String type ) {
+        for ( Map.Entry<String, ModelField[]> e : oracle.getProjectModelFields().entrySet() ) {
+            if ( e.getKey().replace( '$',
+                                     '.' ).equals( type ) ) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
+    private boolean hasField( final ProjectDataModelOracle oracle,
+                              final String type,
+                              final String fieldName ) {
+        final ModelField[] fields = getFields( oracle,
+                                               type );
+        if ( fields != null ) {
+            for ( ModelField field : fields ) {
+                if ( fieldName.equals( field.getName() ) ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.drools.workbench.models.datamodel.oracle.MethodInfo;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.project.MapClassLoader;
+
+import static org.junit.Assert.*;
+
+public class ClassIntrospectorTest {
+
+    @Test
+    public void testFieldsAreIntrospectedOnce() {
+        assertSame( ClassIntrospector.getFieldInspector( Person.class ),
+                    ClassIntrospector.getFieldInspector( Person.class ) );
+        assertEquals( 2,
+                      ClassIntrospector.getFieldInspector( Person.class ).getFieldNames().size() );
+    }
+
+    @Test
+    public void testMethodInfosAreCopied() {
+        final List<MethodInfo> methodInfos = ClassIntrospector.getMethodInfos( Person.class );
+        assertEquals( 1,
+                      methodInfos.size() );
+        methodInfos.clear();
+
+        assertEquals( 1,
+                      ClassIntrospector.getMethodInfos( Person.class ).size() );
+    }
+
+    @Test
+    public void testDependencyClassesAreIntrospectedOnceAcrossProjects() throws Exception {
+        //Project ClassLoaders are built on top of the dependencies ClassLoader shared by Projects with identical
+        //dependencies, so both Projects load the same dependency Class. See SharedDependenciesKieModuleMetaData
+        final ClassLoader dependencies = ClassIntrospectorTest.class.getClassLoader();
+        final ClassLoader project1 = new MapClassLoader( Collections.emptyMap(),
+                                                         dependencies );
+        final ClassLoader project2 = new MapClassLoader( Collections.emptyMap(),
+                                                         dependencies );
+
+        assertSame( ClassIntrospector.getFieldInspector( project1.loadClass( Person.class.getName() ) ),
+                    ClassIntrospector.getFieldInspector( project2.loadClass( Person.class.getName() ) ) );
+    }
+
+    @Test
+    public void testIntrospectedClassesBuildSameFactTypes() throws Exception {
+        ClassIntrospector.introspect( Arrays.<Class<?>>asList( Person.class,
+                                                               Address.class ) );
+
+        final ProjectDataModelOracleBuilder builder = ProjectDataModelOracleBuilder.newProjectOracleBuilder();
+        builder.addClass( Person.class );
+
+        assertEquals( 2,
+                      builder.build().getProjectModelFields().get( Address.class.getName() ).length );
+    }
+
+    public static class Person {
+
+        private String name;
+        private Address address;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName( final String name ) {
+            this.name = name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress( final Address address ) {
+            this.address = address;
+        }
+
+        public void greet( final String greeting ) {
+        }
+    }
+
+    public static class Address {
+
+        private String street;
+
+        public String getStreet() {
+            return street;
+        }
+    }
+}
@@ -17,24 +17,31 @@ package org.kie.workbench.common.services.refactoring.backend.server.query;
 
 import static org.uberfire.ext.metadata.backend.lucene.util.KObjectUtil.toKObject;
 
+import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.function.IntFunction;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TopScoreDocCollector;
-import org.apache.lucene.search.TotalHitCountCollector;
 import org.drools.workbench.models.datamodel.util.PortablePreconditions;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
@@ -58,10 +65,22 @@ import org.uberfire.paging.PageResponse;
 @ApplicationScoped
 public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
+    private static final int MAX_CURSORS = 100;
+
     private LuceneConfig config;
     private NamedQueries namedQueries;
     private PageResponse<RefactoringPageRow> emptyResponse;
 
+    //The last document of recently served pages, so the next page can be searched for without collecting preceding documents
+    private final Map<PageCursor, ScoreDoc> cursors = Collections.synchronizedMap( new LinkedHashMap<PageCursor, ScoreDoc>( MAX_CURSORS + 1,
+                                                                                                                            0.75f,
+                                                                                                                            true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<PageCursor, ScoreDoc> eldest ) {
+            return size() > MAX_CURSORS;
+        }
+    } );
+
     public RefactoringQueryServiceImpl() {
         //Make proxyable
     }
@@ -102,19 +121,23 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
         final int pageSize = request.getPageSize();
         final int startIndex = request.getStartRowIndex();
+        if ( pageSize <= 0 ) {
+            return emptyResponse;
+        }
 
-        final List<KObject> kObjects
-            = search(query,
-                     (hits) -> ( (startIndex + 1) * ( pageSize > 0 ? pageSize : 1 ) ), // num docs to get
-                     (collector) -> (collector.topDocs( startIndex ).scoreDocs), // get docs starting at startIndex
-                     (numHits) -> ( numHits > pageSize ? pageSize : numHits ) // num docs to add to response
-                    );
-
-        if( ! kObjects.isEmpty() ) {
-            final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
-            return responseBuilder.buildResponse( pageSize,
-                                                  startIndex,
-                                                  kObjects );
+        final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
+        final Hits hits = searchPage( query,
+                                      startIndex,
+                                      pageSize,
+                                      responseBuilder.getFieldsToLoad() );
+
+        if( ! hits.kObjects.isEmpty() ) {
+            final PageResponse<RefactoringPageRow> response = responseBuilder.buildResponse( pageSize,
+                                                                                             startIndex,
+                                                                                             hits.kObjects );
+            response.setTotalRowSize( hits.totalHits );
+            response.setLastPage( startIndex + hits.kObjects.size() >= hits.totalHits );
+            return response;
         } else {
             return emptyResponse;
         }
@@ -134,55 +157,104 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
         final Query query = namedQuery.toQuery( queryTerms );
 
-        final List<KObject> kObjects
-            = search(query,
-                     (hits) -> (hits), // num docs to get
-                     (collector) -> (collector.topDocs().scoreDocs), // get all docs
-                     (numHits) -> (numHits) // num docs to add to response
-                    );
+        final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
+        final List<KObject> kObjects = searchAll( query,
+                                                  responseBuilder.getFieldsToLoad() );
 
         if( ! kObjects.isEmpty() ) {
-            final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
             return responseBuilder.buildResponse( kObjects );
         } else {
             return Collections.emptyList();
         }
     }
 
-    private List<KObject> search(final Query query,
-            final IntFunction<Integer> totalHitsSupplier,
-            final Function<TopScoreDocCollector, ScoreDoc[]> getDocsHitFunction,
-            final IntFunction<Integer> numDocsInResponseFunction,
-            final ClusterSegment... clusterSegments ) {
-
+    /**
+     * Collects the requested page, and the total number of hits, in a single pass over the index. If the previous page
+     * was served from the same index the page is collected after the last document of the previous page.
+     */
+    private Hits searchPage( final Query query,
+                             final int startIndex,
+                             final int pageSize,
+                             final Set<String> fieldsToLoad,
+                             final ClusterSegment... clusterSegments ) {
         final LuceneIndexManager indexManager = ( (LuceneIndexManager) config.getIndexManager() );
         final IndexSearcher index = indexManager.getIndexSearcher( clusterSegments );
 
+        try {
+            final PageCursor cursor = new PageCursor( query,
+                                                      index.getIndexReader(),
+                                                      startIndex );
+            final ScoreDoc after = ( startIndex > 0 ? cursors.get( cursor ) : null );
+            final TopDocs topDocs;
+            if ( after != null ) {
+                topDocs = index.searchAfter( after,
+                                             query,
+                                             pageSize );
+            } else {
+                final TopScoreDocCollector collector = TopScoreDocCollector.create( startIndex + pageSize );
+                index.search( query,
+                              collector );
+                topDocs = collector.topDocs( startIndex,
+                                             pageSize );
+            }
+
+            final ScoreDoc[] docsHit = topDocs.scoreDocs;
+            if ( docsHit.length == pageSize ) {
+                cursors.put( new PageCursor( query,
+                                             index.getIndexReader(),
+                                             startIndex + pageSize ),
+                             docsHit[ docsHit.length - 1 ] );
+            }
+            return new Hits( topDocs.totalHits,
+                             load( index,
+                                   docsHit,
+                                   fieldsToLoad ) );
+
+        } catch ( final Exception ex ) {
+            throw new RuntimeException( "Error during Query!",
+                                        ex );
+        } finally {
+            indexManager.release( index );
+        }
+    }
+
+    /**
+     * Collects all hits, ordered by score, in a single pass over the index.
+     */
+    private List<KObject> searchAll( final Query query,
+                                     final Set<String> fieldsToLoad,
+                                     final ClusterSegment... clusterSegments ) {
+        final LuceneIndexManager indexManager = ( (LuceneIndexManager) config.getIndexManager() );
+        final IndexSearcher index = indexManager.getIndexSearcher( clusterSegments );
 
-        final List<KObject> result = new ArrayList<KObject>();
         try {
-            final TotalHitCountCollector totalHitCountCollector = new TotalHitCountCollector();
+            final AllDocsCollector collector = new AllDocsCollector();
             index.search( query,
-                          totalHitCountCollector );
-
-            int numHits = totalHitCountCollector.getTotalHits();
-            if( numHits > 0 ) {
-                final TopScoreDocCollector topScoreDocCollector = TopScoreDocCollector.create( totalHitsSupplier.apply(numHits) );
-                index.search( query, topScoreDocCollector );
-                final ScoreDoc[] docsHit = getDocsHitFunction.apply(topScoreDocCollector);
-
-                int numDocs = numDocsInResponseFunction.apply(docsHit.length);
-                for ( int i = 0; i < numDocs; i++ ) {
-                    result.add( toKObject( index.doc( docsHit[ i ].doc ) ) );
-                }
-            }
+                          collector );
+            final List<ScoreDoc> docsHit = collector.getHits();
+            docsHit.sort( ( d1, d2 ) -> d1.score != d2.score ? Float.compare( d2.score,
+                                                                              d1.score ) : Integer.compare( d1.doc,
+                                                                                                            d2.doc ) );
+            return load( index,
+                         docsHit.toArray( new ScoreDoc[ docsHit.size() ] ),
+                         fieldsToLoad );
+
         } catch ( final Exception ex ) {
             throw new RuntimeException( "Error during Query!",
                                         ex );
         } finally {
             indexManager.release( index );
         }
+    }
 
+    private List<KObject> load( final IndexSearcher index,
+                                final ScoreDoc[] docsHit,
+                                final Set<String> fieldsToLoad ) throws IOException {
+        final List<KObject> result = new ArrayList<KObject>( docsHit.length );
+        for ( ScoreDoc scoreDoc : docsHit ) {
+            result.add( toKObject( fieldsToLoad == null ? index.doc( scoreDoc.doc ) : index.doc( scoreDoc.doc,
+                                                                                                 fieldsToLoad ) ) );
+        }
         return result;
     }
 
@@ -236,5 +308,91 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         return request;
     }
 
+    private static class Hits {
+
+        private final int totalHits;
+        private final List<KObject> kObjects;
+
+        private Hits( final int totalHits,
+                      final List<KObject> kObjects ) {
+            this.totalHits = totalHits;
+            this.kObjects = kObjects;
+        }
+    }
+
+    private static class AllDocsCollector extends SimpleCollector {
+
+        private final List<ScoreDoc> hits = new ArrayList<ScoreDoc>();
+        private Scorer scorer;
+        private int docBase;
 
+        @Override
+        protected void doSetNextReader( final LeafReaderContext context ) {
+            this.docBase = context.docBase;
+        }
+
+        @Override
+        public void setScorer( final Scorer scorer ) {
+            this.scorer = scorer;
+        }
+
+        @Override
+        public void collect( final int doc ) throws IOException {
+            hits.add( new ScoreDoc( docBase + doc,
+                                    scorer.score() ) );
+        }
+
+        @Override
+        public boolean needsScores() {
+            return true;
+        }
+
+        private List<ScoreDoc> getHits() {
+            return hits;
+        }
+    }
+
+    /**
+     * Identifies a page of a query's results against a specific IndexReader; document numbers are only stable for the
+     * lifetime of a reader.
+     */
+    private static class PageCursor {
+
+        private final Query query;
+        private final WeakReference<IndexReader> reader;
+        private final int readerHashCode;
+        private final int startIndex;
+
+        private PageCursor( final Query query,
+                            final IndexReader reader,
+                            final int startIndex ) {
+            this.query = query;
+            this.reader = new WeakReference<IndexReader>( reader );
+            this.readerHashCode = System.identityHashCode( reader );
+            this.startIndex = startIndex;
+        }
+
+        @Override
+        public boolean equals( final Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !( o instanceof PageCursor ) ) {
+                return false;
+            }
+            final PageCursor that = (PageCursor) o;
+            final IndexReader thisReader = reader.get();
+            return startIndex == that.startIndex
+                    && thisReader != null
+                    && thisReader == that.reader.get()
+                    && query.equals( that.query );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash( query,
+                                 readerHashCode,
+                                 startIndex );
+        }
+    }
 }
@@ -18,6 +18,7 @@ package org.kie.workbench.common.services.refactoring.backend.server.query.respo
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -63,6 +64,12 @@ public class DefaultResponseBuilder
         return response;
     }
 
+    @Override
+    public Set<String> getFieldsToLoad() {
+        //Rows are built from the resource's key alone
+        return KOBJECT_FIELDS;
+    }
+
     @Override
     public List<RefactoringPageRow> buildResponse( final List<KObject> kObjects ) {
         final List<RefactoringPageRow> result = new ArrayList<RefactoringPageRow>( kObjects.size() );
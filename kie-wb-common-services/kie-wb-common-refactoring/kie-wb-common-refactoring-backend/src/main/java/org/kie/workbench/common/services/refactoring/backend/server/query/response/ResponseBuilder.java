@@ -15,7 +15,11 @@
  */
 package org.kie.workbench.common.services.refactoring.backend.server.query.response;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
 import org.uberfire.ext.metadata.model.KObject;
@@ -23,10 +27,27 @@ import org.uberfire.paging.PageResponse;
 
 public interface ResponseBuilder {
 
+    /**
+     * Stored fields from which a KObject's identity (including the key of the indexed resource) is built
+     */
+    Set<String> KOBJECT_FIELDS = Collections.unmodifiableSet( new HashSet<String>( Arrays.asList( "id",
+                                                                                                  "type",
+                                                                                                  "cluster.id",
+                                                                                                  "segment.id",
+                                                                                                  "key" ) ) );
+
     PageResponse<RefactoringPageRow> buildResponse( final int pageSize,
                                                     final int startRow,
                                                     final List<KObject> kObjects );
 
     List<RefactoringPageRow> buildResponse( final List<KObject> kObjects );
 
+    /**
+     * The stored fields needed to build responses. Only these fields are loaded for matching documents.
+     * @return The names of the fields, or null if all fields are needed.
+     */
+    default Set<String> getFieldsToLoad() {
+        return null;
+    }
+
 }
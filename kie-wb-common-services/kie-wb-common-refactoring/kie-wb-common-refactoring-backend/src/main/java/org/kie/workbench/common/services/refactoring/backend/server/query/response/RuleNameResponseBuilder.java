@@ -33,6 +33,10 @@ import org.uberfire.paging.PageResponse;
 public class RuleNameResponseBuilder
         implements ResponseBuilder {
 
+    private static final Set<String> FIELDS_TO_LOAD = new HashSet<String>( KOBJECT_FIELDS ) {{
+        add( ResourceType.RULE.toString() );
+    }};
+
     @Override
     public PageResponse<RefactoringPageRow> buildResponse( final int pageSize,
                                                            final int startRow,
@@ -49,6 +53,11 @@ public class RuleNameResponseBuilder
         return response;
     }
 
+    @Override
+    public Set<String> getFieldsToLoad() {
+        return FIELDS_TO_LOAD;
+    }
+
     @Override
     public List<RefactoringPageRow> buildResponse( final List<KObject> kObjects ) {
         //Both "child" rule and "parent" rule (when one extends another) are stored
@@ -16,7 +16,9 @@
 package org.kie.workbench.common.services.refactoring.backend.server.query.findresourcereferences;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
@@ -136,6 +138,39 @@ public class FindResourceReferencesQueryValidIndexTermsTest
             }
         }
 
+        //Paged
+        {
+            final Set<ValueIndexTerm> queryTerms = new HashSet<ValueIndexTerm>() {{
+                add( new ValueReferenceIndexTerm(
+                        "org.kie.workbench.common.services.refactoring.backend.server.drl.classes",
+                        ResourceType.JAVA,
+                        TermSearchType.PREFIX) );
+            }};
+
+            final PageResponse<RefactoringPageRow> page1 = service.query( new RefactoringPageRequest( FindResourceReferencesQuery.NAME,
+                                                                                                      queryTerms,
+                                                                                                      0,
+                                                                                                      2 ) );
+            assertEquals( 2,
+                          page1.getPageRowList().size() );
+            assertEquals( 3,
+                          page1.getTotalRowSize() );
+            assertFalse( page1.isLastPage() );
+
+            final PageResponse<RefactoringPageRow> page2 = service.query( new RefactoringPageRequest( FindResourceReferencesQuery.NAME,
+                                                                                                      queryTerms,
+                                                                                                      2,
+                                                                                                      2 ) );
+            assertEquals( 1,
+                          page2.getPageRowList().size() );
+            assertEquals( 3,
+                          page2.getTotalRowSize() );
+            assertTrue( page2.isLastPage() );
+            for ( RefactoringPageRow row : page2.getPageRowList() ) {
+                assertFalse( page1.getPageRowList().stream().anyMatch( r -> r.getValue().equals( row.getValue() ) ) );
+            }
+        }
+
         {
             final RefactoringPageRequest request = new RefactoringPageRequest( FindResourceReferencesQuery.NAME,
                                                                                new HashSet<ValueIndexTerm>() {{
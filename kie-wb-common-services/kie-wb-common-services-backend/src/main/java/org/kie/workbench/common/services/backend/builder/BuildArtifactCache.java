@@ -0,0 +1,373 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.xml.DomDriver;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.compiler.kie.builder.impl.KieFileSystemImpl;
+import org.drools.compiler.kproject.xml.PomModel;
+import org.drools.core.util.Drools;
+import org.guvnor.common.services.project.builder.model.BuildMessage;
+import org.guvnor.common.services.project.model.Dependency;
+import org.guvnor.common.services.project.model.Project;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.ReleaseId;
+import org.kie.scanner.ArtifactResolver;
+import org.kie.scanner.DependencyDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.workbench.common.services.backend.project.KieProjectResourcePaths.*;
+
+/**
+ * Persistent cache of compiled KieModules, so that unchanged Projects need not be recompiled following a restart.
+ * Artifacts are keyed by a hash of the Project's sources, including pom.xml, project.imports and the package name
+ * white list, the Java sources accepted by the class filter, the resolved dependencies and the version of the compiler.
+ * They are only stored for Projects whose dependencies, direct and transitive, and parent POM resolve to fixed versions
+ * (i.e. not SNAPSHOT, LATEST, RELEASE or version ranges). Dependencies declared without a version, whose version is
+ * managed by a parent POM or a property, are checked once their effective version is resolved. The least recently used
+ * artifacts are evicted once the cache is full. The cache is enabled by setting the directory in which artifacts are
+ * stored with the "org.kie.build.cache.dir" system property.
+ */
+@ApplicationScoped
+public class BuildArtifactCache {
+
+    public static final String CACHE_DIR_PROPERTY_NAME = "org.kie.build.cache.dir";
+    public static final String CACHE_SIZE_PROPERTY_NAME = "org.kie.build.cache.size";
+
+    private static final Logger logger = LoggerFactory.getLogger( BuildArtifactCache.class );
+
+    private static final int DEFAULT_CACHE_SIZE = 500;
+
+    private static final String KIE_MODULE_SUFFIX = ".jar";
+    private static final String MESSAGES_SUFFIX = ".messages.xml";
+
+    private static final String POM_XML = "pom.xml";
+    private static final String JAVA_SUFFIX = ".java";
+
+    //Timestamped versions of deployed SNAPSHOTs, e.g. 1.0-20170101.123456-1
+    private static final Pattern TIMESTAMPED_SNAPSHOT = Pattern.compile( ".*-\\d{8}\\.\\d{6}-\\d+" );
+
+    private final XStream xStream = new XStream( new DomDriver() );
+
+    private File cacheDir;
+    private int cacheSize;
+
+    @PostConstruct
+    public void init() {
+        final String dir = System.getProperty( CACHE_DIR_PROPERTY_NAME );
+        if ( dir == null ) {
+            return;
+        }
+        final File candidate = new File( dir );
+        if ( !( candidate.isDirectory() || candidate.mkdirs() ) ) {
+            logger.warn( "Build artifact cache directory '" + dir + "' could not be created. Cache disabled." );
+            return;
+        }
+        this.cacheDir = candidate;
+        this.cacheSize = Integer.getInteger( CACHE_SIZE_PROPERTY_NAME,
+                                             DEFAULT_CACHE_SIZE );
+    }
+
+    public boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Calculates the key of the artifact built from the content of a KieFileSystem.
+     * @param project The Project being built.
+     * @param kieFileSystem The KieFileSystem containing the Project's resources.
+     * @param pomModel The Project's PomModel, if already known. It is parsed from the KieFileSystem otherwise.
+     * @param classFilter The filter of the Java sources that are compiled.
+     * @return The key, or null if the Project's artifact cannot be cached.
+     */
+    public String getKey( final Project project,
+                          final KieFileSystem kieFileSystem,
+                          final PomModel pomModel,
+                          final Predicate<String> classFilter ) {
+        if ( !isEnabled() || hasVolatileDependencies( project ) ) {
+            return null;
+        }
+        final MemoryFileSystem mfs = ( (KieFileSystemImpl) kieFileSystem ).getMfs();
+        final List<String> dependencies = getResolvedDependencies( mfs,
+                                                                   pomModel );
+        if ( dependencies == null ) {
+            return null;
+        }
+
+        final MessageDigest digest = newDigest();
+        update( digest,
+                Drools.getFullVersion() );
+        for ( String dependency : dependencies ) {
+            update( digest,
+                    dependency );
+        }
+
+        //Neither is compiled into the KieModule, but both change the messages of the build
+        update( digest,
+                PROJECT_IMPORTS_PATH );
+        update( digest,
+                mfs.getBytes( PROJECT_IMPORTS_PATH ) );
+        update( digest,
+                PACKAGE_NAME_WHITE_LIST );
+        update( digest,
+                mfs.getBytes( PACKAGE_NAME_WHITE_LIST ) );
+
+        final List<String> fileNames = new ArrayList<>( mfs.getFileNames() );
+        fileNames.sort( Comparator.naturalOrder() );
+        for ( String fileName : fileNames ) {
+            update( digest,
+                    fileName );
+            if ( fileName.endsWith( JAVA_SUFFIX ) && !classFilter.test( fileName ) ) {
+                //Java sources rejected by the class filter are not compiled
+                update( digest,
+                        "filtered" );
+                continue;
+            }
+            update( digest,
+                    mfs.getBytes( fileName ) );
+        }
+        return toHex( digest.digest() );
+    }
+
+    /**
+     * Resolves the parent POM and the direct and transitive dependencies of a Project.
+     * @return The sorted coordinates of the parent POM and dependencies, or null if any of them is not identified by
+     * a fixed version or they cannot be resolved.
+     */
+    private List<String> getResolvedDependencies( final MemoryFileSystem mfs,
+                                                  final PomModel cachedPomModel ) {
+        try {
+            final PomModel pomModel = ( cachedPomModel != null ? cachedPomModel : parsePomModel( mfs ) );
+            if ( pomModel == null ) {
+                return null;
+            }
+            final List<String> dependencies = new ArrayList<>();
+            final ReleaseId parent = pomModel.getParentReleaseId();
+            if ( parent != null ) {
+                if ( !isFixedVersion( parent.getVersion() ) ) {
+                    return null;
+                }
+                dependencies.add( "parent:" + parent.getGroupId() + ":" + parent.getArtifactId() + ":" + parent.getVersion() );
+            }
+            for ( DependencyDescriptor dependency : ArtifactResolver.getResolverFor( pomModel ).getAllDependecies() ) {
+                if ( !isFixedVersion( dependency.getVersion() ) ) {
+                    return null;
+                }
+                dependencies.add( dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion() );
+            }
+            dependencies.sort( Comparator.naturalOrder() );
+            return dependencies;
+
+        } catch ( Exception e ) {
+            logger.warn( "Unable to resolve the project dependencies. Its build will not be cached.",
+                         e );
+            return null;
+        }
+    }
+
+    private PomModel parsePomModel( final MemoryFileSystem mfs ) {
+        final byte[] pomXml = mfs.getBytes( POM_XML );
+        if ( pomXml == null ) {
+            return null;
+        }
+        return PomModel.Parser.parse( POM_XML,
+                                      new ByteArrayInputStream( pomXml ) );
+    }
+
+    public Artifact get( final String key ) {
+        if ( !isEnabled() || key == null ) {
+            return null;
+        }
+        final File kieModuleFile = new File( cacheDir,
+                                             key + KIE_MODULE_SUFFIX );
+        final File messagesFile = new File( cacheDir,
+                                            key + MESSAGES_SUFFIX );
+        if ( !( kieModuleFile.isFile() && messagesFile.isFile() ) ) {
+            return null;
+        }
+        //Eviction is based on the last modification time, so mark the artifact as recently used
+        kieModuleFile.setLastModified( System.currentTimeMillis() );
+        try {
+            final byte[] kieModule = Files.readAllBytes( kieModuleFile.toPath() );
+            @SuppressWarnings("unchecked")
+            final List<BuildMessage> messages = (List<BuildMessage>) xStream.fromXML( new String( Files.readAllBytes( messagesFile.toPath() ),
+                                                                                                 StandardCharsets.UTF_8 ) );
+            return new Artifact( kieModule,
+                                 messages );
+        } catch ( Exception e ) {
+            logger.warn( "Unable to read cached build artifact '" + key + "'.",
+                         e );
+            return null;
+        }
+    }
+
+    public void put( final String key,
+                     final byte[] kieModule,
+                     final List<BuildMessage> messages ) {
+        if ( !isEnabled() || key == null ) {
+            return;
+        }
+        try {
+            //Messages are written last as their presence marks the artifact as complete
+            write( new File( cacheDir,
+                             key + KIE_MODULE_SUFFIX ),
+                   kieModule );
+            write( new File( cacheDir,
+                             key + MESSAGES_SUFFIX ),
+                   xStream.toXML( new ArrayList<>( messages ) ).getBytes( StandardCharsets.UTF_8 ) );
+            evict();
+        } catch ( IOException e ) {
+            logger.warn( "Unable to store build artifact '" + key + "'.",
+                         e );
+        }
+    }
+
+    private void write( final File file,
+                        final byte[] content ) throws IOException {
+        final File tmp = File.createTempFile( file.getName(),
+                                              ".tmp",
+                                              cacheDir );
+        Files.write( tmp.toPath(),
+                     content );
+        Files.move( tmp.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    private void evict() {
+        final File[] kieModules = cacheDir.listFiles( ( dir, name ) -> name.endsWith( KIE_MODULE_SUFFIX ) );
+        if ( kieModules == null || kieModules.length <= cacheSize ) {
+            return;
+        }
+        Arrays.sort( kieModules,
+                     Comparator.comparingLong( File::lastModified ) );
+        for ( int i = 0; i < kieModules.length - cacheSize; i++ ) {
+            final String key = kieModules[ i ].getName().substring( 0,
+                                                                    kieModules[ i ].getName().length() - KIE_MODULE_SUFFIX.length() );
+            new File( cacheDir,
+                      key + MESSAGES_SUFFIX ).delete();
+            kieModules[ i ].delete();
+        }
+    }
+
+    /**
+     * Checks the versions declared by the Project, as version ranges are no longer visible once resolved. Versions that
+     * are missing or defined by a property are not checked here, as they are only known once resolved.
+     */
+    private boolean hasVolatileDependencies( final Project project ) {
+        if ( project.getPom() == null ) {
+            return true;
+        }
+        for ( Dependency dependency : project.getPom().getDependencies() ) {
+            if ( isVolatileVersion( dependency.getVersion() ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isVolatileVersion( final String version ) {
+        if ( version == null || version.isEmpty() || version.contains( "${" ) ) {
+            return false;
+        }
+        return version.endsWith( "-SNAPSHOT" )
+                || version.equals( "LATEST" )
+                || version.equals( "RELEASE" )
+                || version.startsWith( "[" )
+                || version.startsWith( "(" )
+                || TIMESTAMPED_SNAPSHOT.matcher( version ).matches();
+    }
+
+    /**
+     * Checks an effective (i.e. resolved) version. A version that is still missing or defined by a property could not
+     * be resolved, in which case the Project's artifact is not cached either.
+     */
+    static boolean isFixedVersion( final String version ) {
+        return !( version == null || version.isEmpty() || version.contains( "${" ) || isVolatileVersion( version ) );
+    }
+
+    private void update( final MessageDigest digest,
+                         final String value ) {
+        update( digest,
+                value.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private void update( final MessageDigest digest,
+                         final byte[] value ) {
+        if ( value != null ) {
+            digest.update( value );
+        }
+        digest.update( (byte) 0 );
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance( "SHA-256" );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private String toHex( final byte[] bytes ) {
+        final StringBuilder sb = new StringBuilder();
+        for ( byte b : bytes ) {
+            sb.append( String.format( "%02x",
+                                      b ) );
+        }
+        return sb.toString();
+    }
+
+    public static class Artifact {
+
+        private final byte[] kieModule;
+        private final List<BuildMessage> messages;
+
+        public Artifact( final byte[] kieModule,
+                         final List<BuildMessage> messages ) {
+            this.kieModule = kieModule;
+            this.messages = messages;
+        }
+
+        public byte[] getKieModule() {
+            return kieModule;
+        }
+
+        public List<BuildMessage> getMessages() {
+            return messages;
+        }
+    }
+}
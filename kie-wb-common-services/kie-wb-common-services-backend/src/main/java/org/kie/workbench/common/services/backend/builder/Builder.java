@@ -22,6 +22,7 @@ import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -34,6 +35,7 @@ import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
 import org.drools.compiler.kie.builder.impl.KieContainerImpl;
 import org.drools.compiler.kie.builder.impl.KieFileSystemImpl;
 import org.drools.compiler.kie.builder.impl.KieModuleKieProject;
+import org.drools.compiler.kie.builder.impl.MemoryKieModule;
 import org.drools.compiler.kproject.xml.DependencyFilter;
 import org.drools.compiler.kproject.xml.PomModel;
 import org.drools.workbench.models.datamodel.imports.Import;
@@ -100,6 +102,7 @@ public class Builder implements Serializable {
     private final Handles handles = new Handles();
     private final KieProjectService projectService;
     private KieBuilder kieBuilder;
+    private volatile Generation generation;
     private final ProjectImportsService importsService;
     private final List<BuildValidationHelper> buildValidationHelpers;
 
@@ -117,6 +120,11 @@ public class Builder implements Serializable {
 
     private final Predicate<String> classFilter;
 
+    private final BuildArtifactCache artifactCache;
+
+    //Set when the last full build was restored from the BuildArtifactCache and hence there is no KieBuilder
+    private boolean restored = false;
+
     public Builder( final Project project,
                     final IOService ioService,
                     final KieProjectService projectService,
@@ -126,6 +134,7 @@ public class Builder implements Serializable {
                     final LRUPomModelCache pomModelCache,
                     final PackageNameWhiteListService packageNameWhiteListService,
                     final Predicate<String> classFilter,
+                    final BuildArtifactCache artifactCache,
                     final KieBuilder kieBuilder,
                     final KieFileSystem kieFileSystem ) {
         this.project = project;
@@ -135,6 +144,7 @@ public class Builder implements Serializable {
         this.buildValidationHelpers = buildValidationHelpers;
         this.packageNameWhiteListService = packageNameWhiteListService;
         this.classFilter = classFilter;
+        this.artifactCache = artifactCache;
 
         this.projectGAV = project.getPom().getGav();
         this.projectRoot = Paths.convert( project.getRootPath() );
@@ -142,6 +152,9 @@ public class Builder implements Serializable {
         this.kieServices = KieServices.Factory.get();
         this.kieBuilder = kieBuilder;
         this.kieFileSystem = kieFileSystem;
+        if ( kieBuilder != null ) {
+            publishGeneration();
+        }
         this.dependenciesClassLoaderCache = dependenciesClassLoaderCache;
         this.pomModelCache = pomModelCache;
 
@@ -167,25 +180,55 @@ public class Builder implements Serializable {
               pomModelCache,
               packageNameWhiteListService,
               classFilter,
+              null );
+    }
+
+    public Builder( final Project project,
+                    final IOService ioService,
+                    final KieProjectService projectService,
+                    final ProjectImportsService importsService,
+                    final List<BuildValidationHelper> buildValidationHelpers,
+                    final LRUProjectDependenciesClassLoaderCache dependenciesClassLoaderCache,
+                    final LRUPomModelCache pomModelCache,
+                    final PackageNameWhiteListService packageNameWhiteListService,
+                    final Predicate<String> classFilter,
+                    final BuildArtifactCache artifactCache ) {
+        this( project,
+              ioService,
+              projectService,
+              importsService,
+              buildValidationHelpers,
+              dependenciesClassLoaderCache,
+              pomModelCache,
+              packageNameWhiteListService,
+              classFilter,
+              artifactCache,
               null,
               KieServices.Factory.get().newKieFileSystem() );
     }
 
     public Builder clone() {
-        final KieFileSystem kieFileSystemClone = kieFileSystemClone();
-        final KieBuilderImpl kieBuilder = kieBuilderClone( kieFileSystemClone );
-
-        return new Builder( project,
-                            ioService,
-                            projectService,
-                            importsService,
-                            buildValidationHelpers,
-                            dependenciesClassLoaderCache,
-                            pomModelCache,
-                            packageNameWhiteListService,
-                            classFilter,
-                            kieBuilder,
-                            kieFileSystemClone );
+        synchronized ( kieFileSystem ) {
+            //Clones are used to validate changes incrementally and hence need a KieBuilder
+            assertCompiled();
+
+            final KieFileSystem kieFileSystemClone = kieFileSystemClone();
+            final KieBuilderImpl kieBuilder = kieBuilderClone( kieFileSystemClone );
+
+            //Clones contain unsaved content and are not cached
+            return new Builder( project,
+                                ioService,
+                                projectService,
+                                importsService,
+                                buildValidationHelpers,
+                                dependenciesClassLoaderCache,
+                                pomModelCache,
+                                packageNameWhiteListService,
+                                classFilter,
+                                null,
+                                kieBuilder,
+                                kieFileSystemClone );
+        }
     }
 
     private KieFileSystem kieFileSystemClone() {
@@ -206,6 +249,77 @@ public class Builder implements Serializable {
 
     public BuildResults build() {
         synchronized ( kieFileSystem ) {
+            final String artifactKey = ( artifactCache == null ? null : artifactCache.getKey( project,
+                                                                                             kieFileSystem,
+                                                                                             pomModelCache.getEntry( project ),
+                                                                                             classFilter ) );
+            BuildResults results = restore( artifactKey );
+            if ( results == null ) {
+                results = compile();
+                store( artifactKey,
+                       results );
+            }
+
+            //Messages from external helpers are not cached, as incremental builds need to know which resource they belong to
+            validateNonKieResources( results );
+            return results;
+        }
+    }
+
+    private BuildResults restore( final String artifactKey ) {
+        final BuildArtifactCache.Artifact artifact = ( artifactKey == null ? null : artifactCache.get( artifactKey ) );
+        if ( artifact == null ) {
+            return null;
+        }
+        try {
+            final KieModule kieModule = kieServices.getRepository().addKieModule( kieServices.getResources().newByteArrayResource( artifact.getKieModule() ) );
+            kieBuilder = null;
+            restored = true;
+            generation = new Generation( ( generation == null ? 0 : generation.version + 1 ),
+                                         kieModule,
+                                         artifact.getMessages() );
+
+            //Resolves the dependencies, storing their ClassLoader for optimization purposes
+            getKieModuleMetaDataIgnoringErrors();
+
+            final BuildResults results = new BuildResults( projectGAV );
+            results.addAllBuildMessages( artifact.getMessages() );
+            return results;
+
+        } catch ( Exception e ) {
+            logger.warn( "Unable to restore cached build of project '" + project.getProjectName() + "'. It will be rebuilt.",
+                         e );
+            return null;
+        }
+    }
+
+    private void store( final String artifactKey,
+                        final BuildResults results ) {
+        if ( artifactKey == null || !results.getErrorMessages().isEmpty() ) {
+            return;
+        }
+        final KieModule kieModule = generation.kieModuleIgnoringErrors;
+        if ( kieModule instanceof InternalKieModule ) {
+            artifactCache.put( artifactKey,
+                               ( (InternalKieModule) kieModule ).getBytes(),
+                               results.getMessages() );
+        }
+    }
+
+    /**
+     * Incremental operations need the KieBuilder of a full build; which is not available if the full build was
+     * restored from the BuildArtifactCache. In which case the Project is compiled before proceeding.
+     */
+    private void assertCompiled() {
+        if ( restored ) {
+            compile();
+        }
+    }
+
+    private BuildResults compile() {
+        synchronized ( kieFileSystem ) {
+            restored = false;
+
             //KieBuilder is not re-usable for successive "full" builds
             kieBuilder = createKieBuilder( kieFileSystem );
 
@@ -233,15 +347,7 @@ public class Builder implements Serializable {
                 if ( pomModel != null ) {
                     pomModelCache.setEntry( project, pomModel );
                 }
-            }
-
-            //Add validate messages from external helpers
-            for ( Map.Entry<Path, BuildValidationHelper> e : nonKieResourceValidationHelpers.entrySet() ) {
-                final org.uberfire.backend.vfs.Path vfsPath = Paths.convert( e.getKey() );
-                final List<ValidationMessage> validationMessages = e.getValue().validate( vfsPath );
-                nonKieResourceValidationHelperMessages.put( e.getKey(),
-                                                            validationMessages );
-                results.addAllBuildMessages( convertValidationMessages( validationMessages ) );
+                publishGeneration();
             }
 
             //Check external imports are available. These are loaded when a DMO is requested, but it's better to report them early
@@ -269,16 +375,32 @@ public class Builder implements Serializable {
             // X references another external class Y, Y is also accessible by the class loader.
             final KieModuleMetaData kieModuleMetaData = getKieModuleMetaDataIgnoringErrors();
 
-            //store the project dependencies ClassLoader for optimization purposes.
-            updateDependenciesClassLoader( project,
-                                           kieModuleMetaData );
-
             results.addAllBuildMessages( verifyClasses( kieModuleMetaData ) );
 
             return results;
         }
     }
 
+    private void validateNonKieResources( final BuildResults results ) {
+        //Add validate messages from external helpers
+        for ( Map.Entry<Path, BuildValidationHelper> e : nonKieResourceValidationHelpers.entrySet() ) {
+            final org.uberfire.backend.vfs.Path vfsPath = Paths.convert( e.getKey() );
+            final List<ValidationMessage> validationMessages = e.getValue().validate( vfsPath );
+            nonKieResourceValidationHelperMessages.put( e.getKey(),
+                                                        validationMessages );
+            results.addAllBuildMessages( convertValidationMessages( validationMessages ) );
+        }
+    }
+
+    /**
+     * Records the state of the last completed build. Must be called whilst holding the build lock.
+     */
+    private void publishGeneration() {
+        final long version = ( generation == null ? 0 : generation.version + 1 );
+        generation = new Generation( version,
+                                     kieBuilder );
+    }
+
     public BuildResults build( Path resource,
                                InputStream inputStream ) {
         synchronized ( kieFileSystem ) {
@@ -310,14 +432,23 @@ public class Builder implements Serializable {
         return kieBuilder;
     }
 
-    private void updateDependenciesClassLoader( final Project project,
-                                                final KieModuleMetaData kieModuleMetaData ) {
-        KieProject kieProject = projectService.resolveProject( project.getPomXMLPath() );
-        if ( kieProject != null ) {
-            dependenciesClassLoaderCache.setDependenciesClassLoader( kieProject,
-                                                                     LRUProjectDependenciesClassLoaderCache.buildClassLoader( kieProject,
-                                                                                                                              kieModuleMetaData ) );
+    /**
+     * Stores the project dependencies ClassLoader for optimization purposes, and returns KieModuleMetaData loading
+     * classes on top of the ClassLoader shared by Projects with identical dependencies.
+     */
+    private KieModuleMetaData makeKieModuleMetaData( final KieModule kieModule ) {
+        final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData( kieModule,
+                                                                                                    DependencyFilter.COMPILE_FILTER );
+        final KieProject kieProject = projectService.resolveProject( project.getPomXMLPath() );
+        if ( kieProject == null ) {
+            return kieModuleMetaData;
         }
+        dependenciesClassLoaderCache.setDependenciesClassLoader( kieProject,
+                                                                 LRUProjectDependenciesClassLoaderCache.buildClassLoader( kieProject,
+                                                                                                                          kieModuleMetaData ) );
+        return SharedDependenciesKieModuleMetaData.newKieModuleMetaData( kieModuleMetaData,
+                                                                         kieModule,
+                                                                         () -> dependenciesClassLoaderCache.assertDependenciesClassLoader( kieProject ) );
     }
 
     public IncrementalBuildResults addResource( final Path resource ) {
@@ -545,6 +676,8 @@ public class Builder implements Serializable {
                 handles.remove( Handles.RESOURCE_PATH + "/" + getBaseFileName( message.getPath() ) );
             }
 
+            publishGeneration();
+
         } catch ( LinkageError e ) {
             final String msg = MessageFormat.format( ERROR_CLASS_NOT_FOUND,
                                                      e.getLocalizedMessage() );
@@ -563,32 +696,38 @@ public class Builder implements Serializable {
         if ( !isBuilt() ) {
             throw new IllegalStateException( "A full build needs to be performed before any incremental operations." );
         }
+        assertCompiled();
     }
 
     public KieModule getKieModule() {
-        //Kie classes are only available once built
-        if ( !isBuilt() ) {
-            build();
-        }
-        synchronized ( kieFileSystem ) {
-            return kieBuilder.getKieModule();
-        }
+        return assertGeneration().getKieModule();
     }
 
     public KieModule getKieModuleIgnoringErrors() {
+        return assertGeneration().kieModuleIgnoringErrors;
+    }
+
+    /**
+     * Returns the version of the last completed build. It is incremented on every full and incremental build.
+     * @return The version of the last completed build, or -1 if no build has been completed.
+     */
+    public long getBuildVersion() {
+        final Generation current = generation;
+        return ( current == null ? -1 : current.version );
+    }
+
+    private Generation assertGeneration() {
         //Kie classes are only available once built
-        if ( !isBuilt() ) {
-            build();
-        }
-        synchronized ( kieFileSystem ) {
-            return ( (InternalKieBuilder) kieBuilder ).getKieModuleIgnoringErrors();
+        final Generation current = generation;
+        if ( current != null ) {
+            return current;
         }
+        build();
+        return generation;
     }
 
     public KieModuleMetaData getKieModuleMetaDataIgnoringErrors() {
-        return KieModuleMetaData.Factory.newKieModuleMetaData( getKieModuleIgnoringErrors(),
-                                                               DependencyFilter.COMPILE_FILTER );
-
+        return assertGeneration().getKieModuleMetaData();
     }
 
     public TypeSourceResolver getTypeSourceResolver( KieModuleMetaData kieModuleMetaData ) {
@@ -597,24 +736,21 @@ public class Builder implements Serializable {
     }
 
     public KieContainer getKieContainer() {
-        BuildResults results = null;
-
         //Kie classes are only available once built
-        if ( !isBuilt() ) {
-            results = build();
-        } else {
-            results = new BuildResults();
-            results.addAllBuildMessages( convertMessages( kieBuilder.getResults().getMessages(), handles ) );
-        }
+        final Generation current = assertGeneration();
+
+        final BuildResults results = new BuildResults();
+        results.addAllBuildMessages( current.messages );
+
         //It's impossible to retrieve a KieContainer if the KieModule contains errors
         if ( results.getErrorMessages().isEmpty() ) {
             // Do not retrieve the KieContainer with KieServices.newKieContainer(releaseId) since this looks-up the KieModule to
             // create the KieContainer from KieRepository. This holds the most recent KieModule (for the ReleaseId) that was built with
             // kieBuilder.buildAll() which *may* be a KieModule created during asset validation and hence will lack many assets.
             // See https://bugzilla.redhat.com/show_bug.cgi?id=1202551
-            final KieModule kieModule = kieBuilder.getKieModule();
+            final KieModule kieModule = current.getKieModule();
             final ReleaseId releaseId = kieModule.getReleaseId();
-            final org.drools.compiler.kie.builder.impl.KieProject kieProject = new KieModuleKieProject( (InternalKieModule) kieBuilder.getKieModule(), null );
+            final org.drools.compiler.kie.builder.impl.KieProject kieProject = new KieModuleKieProject( (InternalKieModule) kieModule, null );
             final KieContainer kieContainer = new KieContainerImpl( kieProject,
                                                                     KieServices.Factory.get().getRepository(),
                                                                     releaseId );
@@ -625,9 +761,7 @@ public class Builder implements Serializable {
     }
 
     public boolean isBuilt() {
-        synchronized ( kieFileSystem ) {
-            return kieBuilder != null;
-        }
+        return generation != null;
     }
 
     private void visitPaths( final DirectoryStream<org.uberfire.java.nio.file.Path> directoryStream ) {
@@ -696,4 +830,88 @@ public class Builder implements Serializable {
     KieFileSystem getKieFileSystem() {
         return kieFileSystem;
     }
+
+    /**
+     * Immutable state of a completed build; it can be read without the build lock. KieBuilder updates its KieModule
+     * in place during incremental builds, so each Generation holds its own copy of it.
+     */
+    private class Generation {
+
+        private final long version;
+        private final KieModule kieModule;
+        private final KieModule kieModuleIgnoringErrors;
+        private final RuntimeException kieModuleError;
+        private final List<BuildMessage> messages;
+        private volatile KieModuleMetaData kieModuleMetaData;
+
+        private Generation( final long version,
+                            final KieModule restoredKieModule,
+                            final List<BuildMessage> messages ) {
+            this.version = version;
+            this.kieModule = restoredKieModule;
+            this.kieModuleIgnoringErrors = restoredKieModule;
+            this.kieModuleError = null;
+            this.messages = messages;
+        }
+
+        private Generation( final long version,
+                            final KieBuilder kieBuilder ) {
+            this.version = version;
+            this.kieModuleIgnoringErrors = copyOf( ( (InternalKieBuilder) kieBuilder ).getKieModuleIgnoringErrors() );
+            this.messages = Collections.unmodifiableList( convertMessages( kieBuilder.getResults().getMessages(),
+                                                                           handles ) );
+
+            //KieBuilder.getKieModule() returns the same KieModule once it has checked there are no errors
+            KieModule kieModule = null;
+            RuntimeException kieModuleError = null;
+            try {
+                kieBuilder.getKieModule();
+                kieModule = kieModuleIgnoringErrors;
+            } catch ( RuntimeException e ) {
+                kieModuleError = e;
+            }
+            this.kieModule = kieModule;
+            this.kieModuleError = kieModuleError;
+        }
+
+        private KieModule getKieModule() {
+            if ( kieModuleError != null ) {
+                throw kieModuleError;
+            }
+            return kieModule;
+        }
+
+        private KieModuleMetaData getKieModuleMetaData() {
+            KieModuleMetaData metaData = kieModuleMetaData;
+            if ( metaData == null ) {
+                synchronized ( this ) {
+                    metaData = kieModuleMetaData;
+                    if ( metaData == null ) {
+                        metaData = makeKieModuleMetaData( kieModuleIgnoringErrors );
+                        kieModuleMetaData = metaData;
+                    }
+                }
+            }
+            return metaData;
+        }
+    }
+
+    /**
+     * Copies the in-memory KieModule of a KieBuilder. The files are copied, the compiled KieBases are not; they are
+     * rebuilt from the copy when a KieContainer needs them, as they are for KieModules restored from the cache.
+     */
+    private static KieModule copyOf( final KieModule kieModule ) {
+        if ( !( kieModule instanceof MemoryKieModule ) ) {
+            return kieModule;
+        }
+        final MemoryKieModule source = (MemoryKieModule) kieModule;
+        final MemoryKieModule copy = new MemoryKieModule( source.getReleaseId(),
+                                                          source.getKieModuleModel(),
+                                                          source.getMemoryFileSystem().clone() );
+        copy.setPomModel( source.getPomModel() );
+        for ( final InternalKieModule dependency : source.getKieDependencies().values() ) {
+            copy.addKieDependency( dependency );
+        }
+        return copy;
+    }
 }
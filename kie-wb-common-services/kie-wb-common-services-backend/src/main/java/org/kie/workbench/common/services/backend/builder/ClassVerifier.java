@@ -17,8 +17,14 @@ package org.kie.workbench.common.services.backend.builder;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.drools.workbench.models.datamodel.oracle.TypeSource;
 import org.guvnor.common.services.project.builder.model.BuildMessage;
@@ -27,8 +33,14 @@ import org.kie.workbench.common.services.shared.whitelist.WhiteList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static java.util.stream.Collectors.*;
 import static org.kie.workbench.common.services.backend.builder.BuildMessageBuilder.*;
 
+/**
+ * Verifies classes in white-listed packages can be loaded. Packages are verified in parallel. External classes that
+ * have been verified successfully are remembered for the set of dependencies from which they were loaded, so that
+ * they are not verified again on subsequent builds of any Project with the same dependencies.
+ */
 public class ClassVerifier {
 
     private static final Logger logger = LoggerFactory.getLogger( ClassVerifier.class );
@@ -36,6 +48,23 @@ public class ClassVerifier {
     private final static String ERROR_EXTERNAL_CLASS_VERIFICATION = "Verification of class {0} failed and will not be available for authoring.\n" +
             "Please check the necessary external dependencies for this project are configured correctly.";
 
+    private static final String THREADS_PROPERTY_NAME = "org.kie.build.verifier.threads";
+
+    private static final int MAX_DEPENDENCY_GENERATIONS = 20;
+
+    private static final ForkJoinPool VERIFIER_POOL = new ForkJoinPool( Integer.getInteger( THREADS_PROPERTY_NAME,
+                                                                                             Runtime.getRuntime().availableProcessors() ) );
+
+    //Successfully verified external classes, keyed by the dependencies they were loaded from
+    private static final Map<List<String>, Set<String>> VERIFIED_CLASSES = Collections.synchronizedMap( new LinkedHashMap<List<String>, Set<String>>( MAX_DEPENDENCY_GENERATIONS + 1,
+                                                                                                                                                         0.75f,
+                                                                                                                                                         true ) {
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<List<String>, Set<String>> eldest ) {
+            return size() > MAX_DEPENDENCY_GENERATIONS;
+        }
+    } );
+
     private final TypeSourceResolver typeSourceResolver;
     private final KieModuleMetaData kieModuleMetaData;
 
@@ -48,20 +77,63 @@ public class ClassVerifier {
     }
 
     public List<BuildMessage> verify( WhiteList whiteList ) {
+        final List<String> packageNames = kieModuleMetaData.getPackages().stream()
+                .filter( whiteList::contains )
+                .collect( toList() );
+        if ( packageNames.isEmpty() ) {
+            return buildMessages;
+        }
 
-        for (final String packageName : kieModuleMetaData.getPackages()) {
-            if ( whiteList.contains( packageName ) ) {
-                for (final String className : kieModuleMetaData.getClasses( packageName )) {
-                    verifyClass( packageName,
-                                 className );
-                }
-            }
+        //Initialise the ClassLoader before verifying in parallel
+        final Set<String> verifiedClasses = getVerifiedClasses( kieModuleMetaData.getClassLoader() );
+
+        try {
+            final List<List<BuildMessage>> packageMessages = VERIFIER_POOL.submit( () -> packageNames.parallelStream()
+                    .map( packageName -> verifyPackage( packageName,
+                                                        verifiedClasses ) )
+                    .collect( toList() ) ).get();
+            packageMessages.forEach( buildMessages::addAll );
+
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        } catch ( ExecutionException e ) {
+            throw new RuntimeException( e.getCause() );
         }
         return buildMessages;
     }
 
+    private List<BuildMessage> verifyPackage( final String packageName,
+                                              final Set<String> verifiedClasses ) {
+        final List<BuildMessage> packageMessages = new ArrayList<BuildMessage>();
+        for ( final String className : kieModuleMetaData.getClasses( packageName ) ) {
+            final String fullyQualifiedClassName = toFQCN( packageName,
+                                                           className );
+            if ( !verifiedClasses.contains( fullyQualifiedClassName ) ) {
+                verifyClass( packageName,
+                             className,
+                             verifiedClasses,
+                             packageMessages );
+            }
+        }
+        return packageMessages;
+    }
+
+    private Set<String> getVerifiedClasses( final ClassLoader classLoader ) {
+        //By construction the parent of the KieModuleMetaData ClassLoader contains the dependencies. See LRUProjectDependenciesClassLoaderCache
+        final List<String> dependencies = LRUProjectDependenciesClassLoaderCache.getDependencies( classLoader == null ? null : classLoader.getParent() );
+        if ( dependencies == null ) {
+            //Nothing can be remembered without knowing the dependencies
+            return ConcurrentHashMap.newKeySet();
+        }
+        return VERIFIED_CLASSES.computeIfAbsent( dependencies,
+                                                 d -> ConcurrentHashMap.newKeySet() );
+    }
+
     private void verifyClass( final String packageName,
-                              final String className ) {
+                              final String className,
+                              final Set<String> verifiedClasses,
+                              final List<BuildMessage> buildMessages ) {
 
         try {
             final Class clazz = kieModuleMetaData.getClass( packageName,
@@ -69,6 +141,8 @@ public class ClassVerifier {
             if ( clazz != null ) {
                 if ( TypeSource.JAVA_DEPENDENCY == typeSourceResolver.getTypeSource( clazz ) ) {
                     verifyExternalClass( clazz );
+                    verifiedClasses.add( toFQCN( packageName,
+                                                 className ) );
                 }
             } else {
                 logger.warn( MessageFormat.format( ERROR_EXTERNAL_CLASS_VERIFICATION,
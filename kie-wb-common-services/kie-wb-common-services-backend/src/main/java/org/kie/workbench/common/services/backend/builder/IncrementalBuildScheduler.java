@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.guvnor.common.services.project.builder.service.BuildService;
+import org.guvnor.common.services.project.model.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceChange;
+
+import static org.uberfire.commons.validation.PortablePreconditions.*;
+
+/**
+ * Coalesces bursts of resource changes into a single incremental build per Project. Changes received for a Project
+ * within the configured window are merged, with later changes to a Path superseding earlier ones. Builds for a given
+ * Project never run concurrently and builds across all Projects are limited to a bounded pool of workers.
+ */
+@ApplicationScoped
+public class IncrementalBuildScheduler {
+
+    public static final String WINDOW_PROPERTY_NAME = "org.kie.build.incremental.window";
+    public static final String THREADS_PROPERTY_NAME = "org.kie.build.incremental.threads";
+
+    private static final Logger logger = LoggerFactory.getLogger( IncrementalBuildScheduler.class );
+
+    private static final long DEFAULT_WINDOW_MILLIS = 500;
+
+    private BuildService buildService;
+    private Event<BuildResults> buildResultsEvent;
+    private Event<IncrementalBuildResults> incrementalBuildResultsEvent;
+
+    private long window;
+    private ScheduledExecutorService timer;
+    private ExecutorService workers;
+
+    private final ConcurrentMap<Project, ProjectBatch> batches = new ConcurrentHashMap<>();
+
+    public IncrementalBuildScheduler() {
+        //Empty constructor for Weld
+    }
+
+    @Inject
+    public IncrementalBuildScheduler( final BuildService buildService,
+                                      final Event<BuildResults> buildResultsEvent,
+                                      final Event<IncrementalBuildResults> incrementalBuildResultsEvent ) {
+        this.buildService = buildService;
+        this.buildResultsEvent = buildResultsEvent;
+        this.incrementalBuildResultsEvent = incrementalBuildResultsEvent;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.window = Long.getLong( WINDOW_PROPERTY_NAME,
+                                    DEFAULT_WINDOW_MILLIS );
+        final int threads = Integer.getInteger( THREADS_PROPERTY_NAME,
+                                                Math.max( 1,
+                                                          Runtime.getRuntime().availableProcessors() / 2 ) );
+        this.timer = Executors.newSingleThreadScheduledExecutor( new NamedThreadFactory( "incremental-build-scheduler" ) );
+        this.workers = Executors.newFixedThreadPool( threads,
+                                                     new NamedThreadFactory( "incremental-build-worker" ) );
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Schedules an incremental build of the given changes to a Project.
+     * @param project The Project containing the changed resources.
+     * @param changes The changes, keyed by the Path of the changed resource.
+     */
+    public void schedule( final Project project,
+                          final Map<Path, Collection<ResourceChange>> changes ) {
+        checkNotNull( "project",
+                      project );
+        checkNotNull( "changes",
+                      changes );
+        if ( changes.isEmpty() ) {
+            return;
+        }
+
+        final ProjectBatch batch = batches.computeIfAbsent( project,
+                                                            ProjectBatch::new );
+        batch.add( changes );
+    }
+
+    private void build( final Project project,
+                        final Map<Path, Collection<ResourceChange>> changes ) {
+        try {
+            logger.info( "Incremental build request being processed: " + project.getRootPath() + " (" + changes.size() + " changed resources)." );
+
+            //Incremental builds require a full build first
+            if ( !buildService.isBuilt( project ) ) {
+                buildResultsEvent.fire( buildService.build( project ) );
+            } else {
+                incrementalBuildResultsEvent.fire( buildService.applyBatchResourceChanges( project,
+                                                                                           changes ) );
+            }
+        } catch ( Exception e ) {
+            logger.error( "Incremental build of " + project.getRootPath() + " failed.",
+                          e );
+        }
+    }
+
+    /**
+     * Pending changes for a single Project. All state is guarded by the instance monitor.
+     */
+    private class ProjectBatch {
+
+        private final Project project;
+        private Map<Path, Collection<ResourceChange>> changes = new HashMap<>();
+        private boolean scheduled;
+        private boolean running;
+
+        private ProjectBatch( final Project project ) {
+            this.project = project;
+        }
+
+        private synchronized void add( final Map<Path, Collection<ResourceChange>> changes ) {
+            //Later changes to a Path supersede earlier ones
+            this.changes.putAll( changes );
+            if ( !( scheduled || running ) ) {
+                scheduleDispatch();
+            }
+        }
+
+        private void scheduleDispatch() {
+            try {
+                timer.schedule( this::dispatch,
+                                window,
+                                TimeUnit.MILLISECONDS );
+                scheduled = true;
+            } catch ( RejectedExecutionException e ) {
+                //The scheduler has been stopped
+                logger.warn( "Incremental build of " + project.getRootPath() + " not scheduled as the scheduler is stopped." );
+                changes.clear();
+            }
+        }
+
+        private synchronized void dispatch() {
+            final Map<Path, Collection<ResourceChange>> toBuild = changes;
+            changes = new HashMap<>();
+            scheduled = false;
+            try {
+                workers.execute( () -> {
+                    try {
+                        build( project,
+                               toBuild );
+                    } finally {
+                        completed();
+                    }
+                } );
+                running = true;
+            } catch ( RejectedExecutionException e ) {
+                logger.warn( "Incremental build of " + project.getRootPath() + " not started as the scheduler is stopped." );
+            }
+        }
+
+        private synchronized void completed() {
+            running = false;
+            //Changes received whilst building are dispatched in a subsequent build
+            if ( !changes.isEmpty() ) {
+                scheduleDispatch();
+            }
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private NamedThreadFactory( final String prefix ) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread( final Runnable runnable ) {
+            final Thread thread = new Thread( runnable,
+                                              prefix + "-" + count.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }
+    }
+}
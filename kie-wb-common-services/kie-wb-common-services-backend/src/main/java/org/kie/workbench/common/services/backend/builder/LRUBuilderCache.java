@@ -20,6 +20,11 @@ import static java.util.stream.StreamSupport.stream;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 import javax.annotation.PostConstruct;
@@ -34,6 +39,7 @@ import javax.inject.Named;
 import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
 import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
+import org.guvnor.common.services.project.model.GAV;
 import org.guvnor.common.services.project.model.POM;
 import org.guvnor.common.services.project.model.Project;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListServiceImpl;
@@ -43,7 +49,8 @@ import org.uberfire.commons.validation.PortablePreconditions;
 import org.uberfire.io.IOService;
 
 /**
- * A simple LRU cache for Builders
+ * A simple LRU cache for Builders. Builders are constructed at most once per Project at a time; concurrent requests
+ * for the same Project wait for the pending construction whilst requests for other Projects proceed in parallel.
  */
 @ApplicationScoped
 public class LRUBuilderCache extends LRUCache<Project, Builder> {
@@ -73,6 +80,9 @@ public class LRUBuilderCache extends LRUCache<Project, Builder> {
     @Inject
     private PackageNameWhiteListServiceImpl packageNameWhiteListService;
 
+    @Inject
+    private BuildArtifactCache artifactCache;
+
     @Inject
     @JavaSourceFilter
     private Instance<Predicate<String>> classFilterBeans;
@@ -81,6 +91,16 @@ public class LRUBuilderCache extends LRUCache<Project, Builder> {
 
     private final List<Predicate<String>> classFilters = new ArrayList<>();
 
+    //Builders currently being constructed, so that only one thread constructs the Builder for a given Project
+    private final ConcurrentMap<Project, FutureTask<Builder>> pendingBuilders = new ConcurrentHashMap<>();
+
+    //Secondary index to resolve cached Projects by GAV without scanning all keys
+    private final ConcurrentMap<GAV, Project> projectsByGAV = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+
     @PostConstruct
     public void loadInstances() {
         stream( buildValidationHelperBeans.spliterator(), false ).collect( toCollection( () -> buildValidationHelpers ) );
@@ -93,7 +113,7 @@ public class LRUBuilderCache extends LRUCache<Project, Builder> {
         classFilters.forEach( filter -> classFilterBeans.destroy( filter ) );
     }
 
-    public synchronized void invalidateProjectCache( @Observes final InvalidateDMOProjectCacheEvent event ) {
+    public void invalidateProjectCache( @Observes final InvalidateDMOProjectCacheEvent event ) {
         PortablePreconditions.checkNotNull( "event",
                                             event );
         final Project project = event.getProject();
@@ -104,37 +124,139 @@ public class LRUBuilderCache extends LRUCache<Project, Builder> {
         }
     }
 
-    public synchronized Builder assertBuilder( POM pom )
+    @Override
+    public void invalidateCache() {
+        pendingBuilders.clear();
+        super.invalidateCache();
+        projectsByGAV.clear();
+    }
+
+    @Override
+    public void invalidateCache( final Project project ) {
+        //Discard any pending construction first so that it is not cached once complete
+        pendingBuilders.remove( project );
+        super.invalidateCache( project );
+        projectsByGAV.values().removeIf( p -> p.equals( project ) );
+    }
+
+    public Builder assertBuilder( POM pom )
             throws NoBuilderFoundException {
-        for (Project project : getKeys()) {
-            if ( project.getPom().getGav().equals( pom.getGav() ) ) {
-                return makeBuilder( project );
+        final Project project = projectsByGAV.get( pom.getGav() );
+        //Entries can be evicted by the underlying LRU cache without notice; in which case the index is stale
+        if ( project == null || getEntry( project ) == null ) {
+            if ( project != null ) {
+                projectsByGAV.remove( pom.getGav(),
+                                      project );
             }
+            throw new NoBuilderFoundException();
         }
-        throw new NoBuilderFoundException();
+        return makeBuilder( project );
     }
 
-    public synchronized Builder assertBuilder( final Project project ) {
+    public Builder assertBuilder( final Project project ) {
         return makeBuilder( project );
     }
 
-    private Builder makeBuilder( Project project ) {
-        Builder builder = getEntry( project );
-        if ( builder == null ) {
-            builder = new Builder( project,
-                                   ioService,
-                                   projectService,
-                                   importsService,
-                                   buildValidationHelpers,
-                                   dependenciesClassLoaderCache,
-                                   pomModelCache,
-                                   packageNameWhiteListService,
-                                   createSingleClassFilterPredicate() );
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Total time, in milliseconds, spent constructing Builders following cache misses.
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime.get();
+    }
 
+    private Builder makeBuilder( final Project project ) {
+        final Builder builder = getEntry( project );
+        if ( builder != null ) {
+            hitCount.incrementAndGet();
+            return builder;
+        }
+
+        final FutureTask<Builder> task = new FutureTask<>( () -> loadBuilder( project ) );
+        final FutureTask<Builder> pending = pendingBuilders.putIfAbsent( project,
+                                                                         task );
+        if ( pending != null ) {
+            hitCount.incrementAndGet();
+            return awaitBuilder( pending );
+        }
+
+        //Another thread may have completed and cached its construction between the lookup above and putIfAbsent
+        final Builder cached = getEntry( project );
+        if ( cached != null ) {
+            pendingBuilders.remove( project,
+                                    task );
+            hitCount.incrementAndGet();
+            return cached;
+        }
+
+        missCount.incrementAndGet();
+        task.run();
+
+        //Only cache the Builder if the Project was not invalidated whilst it was being constructed
+        pendingBuilders.computeIfPresent( project,
+                                          ( p, t ) -> {
+                                              if ( t == task ) {
+                                                  cacheBuilder( project,
+                                                                task );
+                                                  return null;
+                                              }
+                                              return t;
+                                          } );
+        return awaitBuilder( task );
+    }
+
+    private Builder loadBuilder( final Project project ) {
+        final long start = System.currentTimeMillis();
+        try {
+            return new Builder( project,
+                                ioService,
+                                projectService,
+                                importsService,
+                                buildValidationHelpers,
+                                dependenciesClassLoaderCache,
+                                pomModelCache,
+                                packageNameWhiteListService,
+                                createSingleClassFilterPredicate(),
+                                artifactCache );
+        } finally {
+            totalLoadTime.addAndGet( System.currentTimeMillis() - start );
+        }
+    }
+
+    private void cacheBuilder( final Project project,
+                               final FutureTask<Builder> task ) {
+        try {
             setEntry( project,
-                      builder );
+                      task.get() );
+            projectsByGAV.put( project.getPom().getGav(),
+                               project );
+        } catch ( InterruptedException | ExecutionException e ) {
+            //Construction failed; nothing to cache. The failure is reported to the caller by awaitBuilder().
+        }
+    }
+
+    private Builder awaitBuilder( final FutureTask<Builder> task ) {
+        try {
+            return task.get();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        } catch ( ExecutionException e ) {
+            final Throwable cause = e.getCause();
+            if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException) cause;
+            } else if ( cause instanceof Error ) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException( cause );
         }
-        return builder;
     }
 
     private Predicate<String> createSingleClassFilterPredicate() {
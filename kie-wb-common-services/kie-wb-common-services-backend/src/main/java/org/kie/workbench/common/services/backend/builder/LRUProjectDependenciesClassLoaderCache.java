@@ -16,7 +16,15 @@
 
 package org.kie.workbench.common.services.backend.builder;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -25,25 +33,151 @@ import org.guvnor.common.services.backend.cache.LRUCache;
 import org.kie.api.builder.KieModule;
 import org.kie.scanner.KieModuleMetaData;
 import org.kie.workbench.common.services.shared.project.KieProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Cache of the ClassLoaders containing each Project's dependencies. Projects with identical resolved dependencies
+ * share a single ClassLoader, which is reference counted and closed, releasing its jar files, once no cached Project
+ * references it. The KieModuleMetaData of Builders loads classes on top of the shared ClassLoader (see
+ * {@link SharedDependenciesKieModuleMetaData}), so the ClassLoader a KieModuleMetaData creates for itself is closed as
+ * soon as it is found to duplicate a shared one.
+ */
 @ApplicationScoped
 @Named("LRUProjectDependenciesClassLoaderCache")
 public class LRUProjectDependenciesClassLoaderCache extends LRUCache<KieProject, ClassLoader> {
 
+    private static final Logger logger = LoggerFactory.getLogger( LRUProjectDependenciesClassLoaderCache.class );
+
     @Inject
     private LRUBuilderCache builderCache;
 
-    public synchronized ClassLoader assertDependenciesClassLoader( final KieProject project ) {
-        ClassLoader classLoader = getEntry( project );
-        if ( classLoader == null ) {
-            classLoader = buildClassLoader( project );
-            setEntry( project, classLoader );
+    //Shared ClassLoaders keyed by their dependencies
+    private final Map<List<String>, SharedClassLoader> sharedClassLoaders = new HashMap<>();
+
+    //The dependencies of the ClassLoader cached for each Project
+    private final Map<KieProject, List<String>> projectDependencies = new HashMap<>();
+
+    public ClassLoader assertDependenciesClassLoader( final KieProject project ) {
+        final ClassLoader classLoader = getEntry( project );
+        if ( classLoader != null ) {
+            return classLoader;
+        }
+        //Building the ClassLoader can require a full build, so it is not performed whilst holding the lock
+        return setDependenciesClassLoader( project,
+                                           buildClassLoader( project ) );
+    }
+
+    /**
+     * Caches the dependencies ClassLoader for a Project.
+     * @param project The Project.
+     * @param classLoader The ClassLoader containing the Project's dependencies.
+     * @return The ClassLoader cached for the Project; which is a ClassLoader shared with other Projects having
+     * identical dependencies, if any.
+     */
+    public synchronized ClassLoader setDependenciesClassLoader( final KieProject project,
+                                                                final ClassLoader classLoader ) {
+        final List<String> dependencies = getDependencies( classLoader );
+
+        //Acquire the new ClassLoader before releasing the previous; which may be the same
+        ClassLoader cachedClassLoader = classLoader;
+        if ( dependencies != null ) {
+            final SharedClassLoader shared = sharedClassLoaders.computeIfAbsent( dependencies,
+                                                                                 d -> new SharedClassLoader( (URLClassLoader) classLoader ) );
+            shared.references++;
+            cachedClassLoader = shared.classLoader;
+            if ( cachedClassLoader != classLoader ) {
+                close( (URLClassLoader) classLoader );
+            }
         }
-        return classLoader;
+        final List<String> previousDependencies = ( dependencies == null ? projectDependencies.remove( project ) : projectDependencies.put( project,
+                                                                                                                                          dependencies ) );
+        if ( previousDependencies != null ) {
+            release( previousDependencies );
+        }
+        setEntry( project,
+                  cachedClassLoader );
+
+        releaseEvicted();
+        return cachedClassLoader;
+    }
+
+    @Override
+    public synchronized void invalidateCache() {
+        super.invalidateCache();
+        releaseEvicted();
+    }
+
+    @Override
+    public synchronized void invalidateCache( final KieProject project ) {
+        super.invalidateCache( project );
+        releaseEvicted();
     }
 
-    public synchronized void setDependenciesClassLoader( final KieProject project, ClassLoader classLoader ) {
-        setEntry( project, classLoader );
+    /**
+     * @return The number of distinct dependency ClassLoaders referenced by cached Projects.
+     */
+    public synchronized int getSharedClassLoaderCount() {
+        return sharedClassLoaders.size();
+    }
+
+    private void releaseEvicted() {
+        //Entries can be evicted by the underlying LRU cache without notice
+        final Iterator<Map.Entry<KieProject, List<String>>> iterator = projectDependencies.entrySet().iterator();
+        while ( iterator.hasNext() ) {
+            final Map.Entry<KieProject, List<String>> e = iterator.next();
+            if ( !getKeys().contains( e.getKey() ) ) {
+                iterator.remove();
+                release( e.getValue() );
+            }
+        }
+    }
+
+    private void release( final List<String> dependencies ) {
+        final SharedClassLoader shared = sharedClassLoaders.get( dependencies );
+        if ( shared == null || --shared.references > 0 ) {
+            return;
+        }
+        sharedClassLoaders.remove( dependencies );
+        close( shared.classLoader );
+    }
+
+    private void close( final URLClassLoader classLoader ) {
+        try {
+            classLoader.close();
+        } catch ( IOException e ) {
+            logger.warn( "Unable to close dependencies ClassLoader.",
+                         e );
+        }
+    }
+
+    /**
+     * The canonical form of a dependencies ClassLoader; being the URLs of the dependencies, in order, qualified with
+     * their size and modification time to distinguish re-deployed artifacts.
+     * @param classLoader The dependencies ClassLoader.
+     * @return The dependencies, or null if the ClassLoader is not a URLClassLoader.
+     */
+    public static List<String> getDependencies( final ClassLoader classLoader ) {
+        if ( !( classLoader instanceof URLClassLoader ) ) {
+            return null;
+        }
+        final List<String> dependencies = new ArrayList<>();
+        for ( URL url : ( (URLClassLoader) classLoader ).getURLs() ) {
+            dependencies.add( url.toExternalForm() + "@" + fingerprint( url ) );
+        }
+        return dependencies;
+    }
+
+    private static String fingerprint( final URL url ) {
+        if ( !"file".equals( url.getProtocol() ) ) {
+            return "";
+        }
+        try {
+            final File file = new File( url.toURI() );
+            return file.length() + ":" + file.lastModified();
+        } catch ( Exception e ) {
+            return "";
+        }
     }
 
     private ClassLoader buildClassLoader( final KieProject project ) {
@@ -74,4 +208,14 @@ public class LRUProjectDependenciesClassLoaderCache extends LRUCache<KieProject,
                     + project.getKModuleXMLPath() );
         }
     }
-}
\ No newline at end of file
+
+    private static class SharedClassLoader {
+
+        private final URLClassLoader classLoader;
+        private int references;
+
+        private SharedClassLoader( final URLClassLoader classLoader ) {
+            this.classLoader = classLoader;
+        }
+    }
+}
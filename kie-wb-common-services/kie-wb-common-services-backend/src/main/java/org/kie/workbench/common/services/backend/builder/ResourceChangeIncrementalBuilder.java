@@ -15,15 +15,25 @@
  */
 package org.kie.workbench.common.services.backend.builder;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Specializes;
 import javax.inject.Inject;
 
+import org.guvnor.common.services.project.model.Project;
 import org.kie.workbench.common.services.shared.kmodule.KModuleService;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAdded;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
 
 /**
- * Listener for changes to project resources to handle incremental builds
+ * Listener for changes to project resources to handle incremental builds. Changes to package resources are handed to
+ * the {@link IncrementalBuildScheduler} so that bursts of changes to a Project result in a single incremental build.
  */
 @ApplicationScoped
 @Specializes
@@ -33,8 +43,94 @@ public class ResourceChangeIncrementalBuilder
     @Inject
     private KModuleService kModuleService;
 
+    @Inject
+    private IncrementalBuildScheduler incrementalBuildScheduler;
+
     @Override
     protected boolean isProjectResourceUpdateNeeded( Path resource ) {
         return projectService.isPom( resource ) || kModuleService.isKModule( resource );
     }
+
+    @Override
+    public void addResource( final Path resource ) {
+        if ( !isIncrementalEnabled ) {
+            return;
+        }
+        if ( !scheduleResourceChange( resource,
+                                      new ResourceAdded( "" ) ) ) {
+            super.addResource( resource );
+        }
+    }
+
+    @Override
+    public void deleteResource( final Path resource ) {
+        if ( !isIncrementalEnabled ) {
+            return;
+        }
+        if ( !scheduleResourceChange( resource,
+                                      new ResourceDeleted( "" ) ) ) {
+            super.deleteResource( resource );
+        }
+    }
+
+    @Override
+    public void updateResource( final Path resource ) {
+        if ( !isIncrementalEnabled ) {
+            return;
+        }
+        if ( !scheduleResourceChange( resource,
+                                      new ResourceUpdated( "" ) ) ) {
+            super.updateResource( resource );
+        }
+    }
+
+    @Override
+    public void batchResourceChanges( final Map<Path, Collection<ResourceChange>> batch ) {
+        if ( !isIncrementalEnabled ) {
+            return;
+        }
+
+        //Block changes together with their respective project as Builder operates at the Project level
+        final Map<Project, Map<Path, Collection<ResourceChange>>> projectBatchChanges = new HashMap<>();
+        for ( Map.Entry<Path, Collection<ResourceChange>> entry : batch.entrySet() ) {
+            final Path resource = entry.getKey();
+            final Project project = projectService.resolveProject( resource );
+            if ( project == null ) {
+                continue;
+            }
+
+            //Changes to pom.xml or kmodule.xml require the whole Project to be rebuilt
+            if ( isProjectResourceUpdateNeeded( resource ) ) {
+                super.updateResource( resource );
+
+            } else if ( projectService.resolvePackage( resource ) != null ) {
+                projectBatchChanges.computeIfAbsent( project,
+                                                     p -> new HashMap<>() ).put( resource,
+                                                                                 entry.getValue() );
+            }
+        }
+
+        projectBatchChanges.forEach( incrementalBuildScheduler::schedule );
+    }
+
+    /**
+     * Schedules a change to a package resource, so that it's coalesced with other changes to the same Project.
+     * @return false if the resource is not a package resource, in which case it's left to the default handling.
+     */
+    private boolean scheduleResourceChange( final Path resource,
+                                            final ResourceChange change ) {
+        if ( isProjectResourceUpdateNeeded( resource ) ) {
+            return false;
+        }
+        final Project project = projectService.resolveProject( resource );
+        if ( project == null || projectService.resolvePackage( resource ) == null ) {
+            return false;
+        }
+        final Map<Path, Collection<ResourceChange>> changes = new HashMap<>();
+        changes.put( resource,
+                     Collections.singletonList( change ) );
+        incrementalBuildScheduler.schedule( project,
+                                            changes );
+        return true;
+    }
 }
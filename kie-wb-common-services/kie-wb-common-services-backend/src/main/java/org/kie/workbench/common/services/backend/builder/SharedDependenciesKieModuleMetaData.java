@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.kie.api.builder.KieModule;
+import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.backend.project.MapClassLoader;
+
+/**
+ * KieModuleMetaData whose ClassLoader loads the Project's classes on top of the dependencies ClassLoader cached by
+ * {@link LRUProjectDependenciesClassLoaderCache}, rather than on the ClassLoader KieModuleMetaData creates for itself.
+ * Projects with identical dependencies hence load the same dependency classes. The dependencies ClassLoader is looked up
+ * on use, as the cache closes it once no Project references it. All other calls are delegated unchanged.
+ */
+class SharedDependenciesKieModuleMetaData implements InvocationHandler {
+
+    private final KieModuleMetaData delegate;
+    private final Map<String, byte[]> classes;
+    private final Supplier<ClassLoader> dependenciesClassLoader;
+
+    private ClassLoader parent;
+    private ClassLoader classLoader;
+
+    private SharedDependenciesKieModuleMetaData( final KieModuleMetaData delegate,
+                                                 final Map<String, byte[]> classes,
+                                                 final Supplier<ClassLoader> dependenciesClassLoader ) {
+        this.delegate = delegate;
+        this.classes = classes;
+        this.dependenciesClassLoader = dependenciesClassLoader;
+    }
+
+    /**
+     * @param delegate The KieModuleMetaData of the KieModule.
+     * @param kieModule The KieModule.
+     * @param dependenciesClassLoader Supplies the dependencies ClassLoader of the Project, or null if there is none.
+     * @return The KieModuleMetaData, which is the delegate itself if the classes of the KieModule are not accessible.
+     */
+    static KieModuleMetaData newKieModuleMetaData( final KieModuleMetaData delegate,
+                                                   final KieModule kieModule,
+                                                   final Supplier<ClassLoader> dependenciesClassLoader ) {
+        if ( !( kieModule instanceof InternalKieModule ) ) {
+            return delegate;
+        }
+        return (KieModuleMetaData) Proxy.newProxyInstance( KieModuleMetaData.class.getClassLoader(),
+                                                           new Class<?>[]{ KieModuleMetaData.class },
+                                                           new SharedDependenciesKieModuleMetaData( delegate,
+                                                                                                    ( (InternalKieModule) kieModule ).getClassesMap( true ),
+                                                                                                    dependenciesClassLoader ) );
+    }
+
+    @Override
+    public Object invoke( final Object proxy,
+                          final Method method,
+                          final Object[] args ) throws Throwable {
+        final int parameterCount = method.getParameterCount();
+        switch ( method.getName() ) {
+            case "getClassLoader":
+                if ( parameterCount == 0 ) {
+                    return getClassLoader();
+                }
+                break;
+            case "getClass":
+                if ( parameterCount == 2 ) {
+                    return getClass( (String) args[ 0 ],
+                                     (String) args[ 1 ] );
+                }
+                break;
+            case "equals":
+                if ( parameterCount == 1 ) {
+                    return proxy == args[ 0 ];
+                }
+                break;
+            case "hashCode":
+                if ( parameterCount == 0 ) {
+                    return System.identityHashCode( proxy );
+                }
+                break;
+        }
+        try {
+            return method.invoke( delegate,
+                                  args );
+        } catch ( InvocationTargetException e ) {
+            throw e.getCause();
+        }
+    }
+
+    private synchronized ClassLoader getClassLoader() {
+        final ClassLoader dependencies = dependenciesClassLoader.get();
+        if ( dependencies == null ) {
+            return delegate.getClassLoader();
+        }
+        if ( dependencies != parent ) {
+            parent = dependencies;
+            classLoader = new MapClassLoader( classes,
+                                              dependencies );
+        }
+        return classLoader;
+    }
+
+    private Class<?> getClass( final String packageName,
+                               final String className ) {
+        try {
+            return Class.forName( ( packageName == null || packageName.trim().isEmpty() ) ? className : packageName + "." + className,
+                                  false,
+                                  getClassLoader() );
+        } catch ( ClassNotFoundException e ) {
+            return null;
+        }
+    }
+}
@@ -27,7 +27,7 @@ import org.drools.core.util.MVELSafeHelper;
 import org.guvnor.common.services.backend.exceptions.ExceptionUtilities;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.kie.api.builder.KieModule;
-import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.backend.builder.Builder;
 import org.kie.workbench.common.services.backend.builder.LRUBuilderCache;
 import org.kie.workbench.common.services.shared.enums.EnumDropdownService;
 import org.kie.workbench.common.services.shared.project.KieProject;
@@ -63,12 +63,14 @@ public class EnumDropdownServiceImpl implements EnumDropdownService {
             logger.error( "A Project could not be resolved for path '" + resource.toURI() + "'. No enums will be returned." );
             return null;
         }
-        final KieModule module = builderCache.assertBuilder( project ).getKieModuleIgnoringErrors();
+        final Builder builder = builderCache.assertBuilder( project );
+        final KieModule module = builder.getKieModuleIgnoringErrors();
         if ( module == null ) {
             logger.error( "A KieModule could not be resolved for path '" + resource.toURI() + "'. No enums will be returned." );
             return null;
         }
-        final ClassLoader classLoader = KieModuleMetaData.Factory.newKieModuleMetaData( module ).getClassLoader();
+        //Dependency classes are loaded from the ClassLoader shared by Projects with identical dependencies
+        final ClassLoader classLoader = builder.getKieModuleMetaDataIgnoringErrors().getClassLoader();
 
         return loadDropDownExpression( classLoader,
                                        valuePairs,
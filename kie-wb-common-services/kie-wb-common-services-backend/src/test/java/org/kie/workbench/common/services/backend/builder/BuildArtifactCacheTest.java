@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Predicate;
+
+import org.guvnor.common.services.project.model.Dependency;
+import org.guvnor.common.services.project.model.GAV;
+import org.guvnor.common.services.project.model.POM;
+import org.guvnor.common.services.project.model.Project;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class BuildArtifactCacheTest {
+
+    private static final Predicate<String> ACCEPT_ALL = fileName -> true;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private BuildArtifactCache cache;
+
+    @Before
+    public void setUp() {
+        System.setProperty( BuildArtifactCache.CACHE_DIR_PROPERTY_NAME,
+                            tempFolder.getRoot().getAbsolutePath() );
+        System.setProperty( BuildArtifactCache.CACHE_SIZE_PROPERTY_NAME,
+                            "2" );
+        cache = new BuildArtifactCache();
+        cache.init();
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty( BuildArtifactCache.CACHE_DIR_PROPERTY_NAME );
+        System.clearProperty( BuildArtifactCache.CACHE_SIZE_PROPERTY_NAME );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedArtifactIsEvicted() {
+        put( "a" );
+        put( "b" );
+        final long now = System.currentTimeMillis();
+        assertTrue( new File( tempFolder.getRoot(),
+                              "a.jar" ).setLastModified( now - 20000 ) );
+        assertTrue( new File( tempFolder.getRoot(),
+                              "b.jar" ).setLastModified( now - 10000 ) );
+
+        //Reading "a" makes "b" the least recently used artifact
+        assertNotNull( cache.get( "a" ) );
+        put( "c" );
+
+        assertNotNull( cache.get( "a" ) );
+        assertNull( cache.get( "b" ) );
+        assertNotNull( cache.get( "c" ) );
+    }
+
+    @Test
+    public void testVolatileVersions() {
+        assertTrue( BuildArtifactCache.isVolatileVersion( "1.0-SNAPSHOT" ) );
+        assertTrue( BuildArtifactCache.isVolatileVersion( "1.0-20170101.123456-1" ) );
+        assertTrue( BuildArtifactCache.isVolatileVersion( "LATEST" ) );
+        assertTrue( BuildArtifactCache.isVolatileVersion( "RELEASE" ) );
+        assertTrue( BuildArtifactCache.isVolatileVersion( "[1.0,2.0)" ) );
+        assertTrue( BuildArtifactCache.isVolatileVersion( "(,1.0]" ) );
+        assertFalse( BuildArtifactCache.isVolatileVersion( "1.0" ) );
+        assertFalse( BuildArtifactCache.isVolatileVersion( "6.5.0.Final" ) );
+
+        //Managed versions are only known once resolved
+        assertFalse( BuildArtifactCache.isVolatileVersion( null ) );
+        assertFalse( BuildArtifactCache.isVolatileVersion( "${project.version}" ) );
+    }
+
+    @Test
+    public void testFixedVersions() {
+        assertTrue( BuildArtifactCache.isFixedVersion( "1.0" ) );
+        assertTrue( BuildArtifactCache.isFixedVersion( "6.5.0.Final" ) );
+        assertFalse( BuildArtifactCache.isFixedVersion( null ) );
+        assertFalse( BuildArtifactCache.isFixedVersion( "" ) );
+        assertFalse( BuildArtifactCache.isFixedVersion( "${project.version}" ) );
+        assertFalse( BuildArtifactCache.isFixedVersion( "1.0-SNAPSHOT" ) );
+        assertFalse( BuildArtifactCache.isFixedVersion( "[1.0,2.0)" ) );
+    }
+
+    @Test
+    public void testDependencyWithoutVersionIsCached() {
+        final Project project = makeProject( new Dependency( new GAV( "org.kie",
+                                                                      "kie-api",
+                                                                      null ) ) );
+
+        assertNotNull( cache.getKey( project,
+                                     makeKieFileSystem(),
+                                     null,
+                                     ACCEPT_ALL ) );
+    }
+
+    @Test
+    public void testDependencyWithVersionRangeIsNotCached() {
+        final Project project = makeProject( new Dependency( new GAV( "org.kie",
+                                                                      "kie-api",
+                                                                      "[6.0,7.0)" ) ) );
+
+        assertNull( cache.getKey( project,
+                                  makeKieFileSystem(),
+                                  null,
+                                  ACCEPT_ALL ) );
+    }
+
+    @Test
+    public void testKeyDependsOnProjectImportsAndWhiteList() {
+        final Project project = makeProject();
+        final KieFileSystem kieFileSystem = makeKieFileSystem();
+        final String key = cache.getKey( project,
+                                         kieFileSystem,
+                                         null,
+                                         ACCEPT_ALL );
+
+        kieFileSystem.write( "project.imports",
+                             "<projectImports/>" );
+        final String keyWithImports = cache.getKey( project,
+                                                    kieFileSystem,
+                                                    null,
+                                                    ACCEPT_ALL );
+        assertNotEquals( key,
+                         keyWithImports );
+
+        kieFileSystem.write( "package-names-white-list",
+                             "org.kie.**" );
+        assertNotEquals( keyWithImports,
+                         cache.getKey( project,
+                                       kieFileSystem,
+                                       null,
+                                       ACCEPT_ALL ) );
+    }
+
+    @Test
+    public void testKeyDependsOnClassFilter() {
+        final Project project = makeProject();
+        final KieFileSystem kieFileSystem = makeKieFileSystem();
+        kieFileSystem.write( "src/main/java/org/kie/Foo.java",
+                             "package org.kie; public class Foo {}" );
+
+        final String key = cache.getKey( project,
+                                         kieFileSystem,
+                                         null,
+                                         ACCEPT_ALL );
+        assertEquals( key,
+                      cache.getKey( project,
+                                    kieFileSystem,
+                                    null,
+                                    ACCEPT_ALL ) );
+        assertNotEquals( key,
+                         cache.getKey( project,
+                                       kieFileSystem,
+                                       null,
+                                       fileName -> !fileName.endsWith( "Foo.java" ) ) );
+    }
+
+    private Project makeProject( final Dependency... dependencies ) {
+        final POM pom = new POM( new GAV( "org.kie",
+                                          "cached",
+                                          "1.0" ) );
+        pom.getDependencies().addAll( Arrays.asList( dependencies ) );
+        final Project project = mock( Project.class );
+        when( project.getPom() ).thenReturn( pom );
+        return project;
+    }
+
+    private KieFileSystem makeKieFileSystem() {
+        final KieFileSystem kieFileSystem = KieServices.Factory.get().newKieFileSystem();
+        kieFileSystem.write( "pom.xml",
+                             "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                                     "  <modelVersion>4.0.0</modelVersion>\n" +
+                                     "  <groupId>org.kie</groupId>\n" +
+                                     "  <artifactId>cached</artifactId>\n" +
+                                     "  <version>1.0</version>\n" +
+                                     "</project>" );
+        return kieFileSystem;
+    }
+
+    private void put( final String key ) {
+        cache.put( key,
+                   new byte[]{ 1, 2, 3 },
+                   Collections.emptyList() );
+    }
+}
@@ -36,8 +36,11 @@ import org.guvnor.common.services.project.model.Project;
 import org.guvnor.common.services.shared.validation.model.ValidationMessage;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.kie.api.builder.KieModule;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
 import org.kie.scanner.KieModuleMetaData;
@@ -69,6 +72,9 @@ public class BuilderTest
 
     private final Predicate<String> alwaysTrue = o -> true;
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Mock
     private PackageNameSearchProvider packageNameSearchProvider;
 
@@ -345,6 +351,106 @@ public class BuilderTest
                                new ArrayList<String>() );
     }
 
+    @Test
+    public void testBuilderPublishesCompletedBuilds() throws Exception {
+        final URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        final Project project = projectService.resolveProject( Paths.convert( path ) );
+
+        final Builder builder = new Builder( project,
+                                             ioService,
+                                             projectService,
+                                             importsService,
+                                             new ArrayList<>(),
+                                             dependenciesClassLoaderCache,
+                                             pomModelCache,
+                                             getPackageNameWhiteListService(),
+                                             alwaysTrue );
+
+        assertFalse( builder.isBuilt() );
+        assertEquals( -1,
+                      builder.getBuildVersion() );
+
+        builder.build();
+
+        assertTrue( builder.isBuilt() );
+        assertEquals( 0,
+                      builder.getBuildVersion() );
+        final KieModule kieModule = builder.getKieModuleIgnoringErrors();
+        assertNotNull( kieModule );
+        assertSame( kieModule,
+                    builder.getKieModuleIgnoringErrors() );
+        assertSame( builder.getKieModuleMetaDataIgnoringErrors(),
+                    builder.getKieModuleMetaDataIgnoringErrors() );
+
+        final URL urlToUpdate = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1/src/main/resources/rule2.drl" );
+        builder.updateResource( p.getPath( urlToUpdate.toURI() ) );
+
+        assertEquals( 1,
+                      builder.getBuildVersion() );
+        assertNotNull( builder.getKieModule() );
+
+        //Every build publishes its own copy of the KieModule, leaving the previous one untouched
+        assertNotSame( kieModule,
+                       builder.getKieModule() );
+    }
+
+    @Test
+    public void testBuilderRestoresCachedBuild() throws Exception {
+        System.setProperty( BuildArtifactCache.CACHE_DIR_PROPERTY_NAME,
+                            tempFolder.getRoot().getAbsolutePath() );
+        final BuildArtifactCache artifactCache = new BuildArtifactCache();
+        try {
+            artifactCache.init();
+        } finally {
+            System.clearProperty( BuildArtifactCache.CACHE_DIR_PROPERTY_NAME );
+        }
+
+        final URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        final Project project = projectService.resolveProject( Paths.convert( path ) );
+
+        final Builder builder1 = new Builder( project,
+                                              ioService,
+                                              projectService,
+                                              importsService,
+                                              new ArrayList<>(),
+                                              dependenciesClassLoaderCache,
+                                              pomModelCache,
+                                              getPackageNameWhiteListService(),
+                                              alwaysTrue,
+                                              artifactCache );
+        final BuildResults results1 = builder1.build();
+        assertTrue( results1.getErrorMessages().isEmpty() );
+
+        //A new Builder for the same, unchanged, Project should restore the cached build
+        final Builder builder2 = new Builder( project,
+                                              ioService,
+                                              projectService,
+                                              importsService,
+                                              new ArrayList<>(),
+                                              dependenciesClassLoaderCache,
+                                              pomModelCache,
+                                              getPackageNameWhiteListService(),
+                                              alwaysTrue,
+                                              artifactCache );
+        final BuildResults results2 = builder2.build();
+        assertEquals( results1.getMessages().size(),
+                      results2.getMessages().size() );
+        assertTrue( builder2.isBuilt() );
+        assertEquals( builder1.getKieModule().getReleaseId(),
+                      builder2.getKieModule().getReleaseId() );
+        assertNotNull( builder2.getKieContainer() );
+
+        //Incremental builds are still possible following a restored build
+        final URL urlToUpdate = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1/src/main/resources/rule2.drl" );
+        assertTrue( builder2.updateResource( p.getPath( urlToUpdate.toURI() ) ).getAddedMessages().isEmpty() );
+    }
+
     private PackageNameWhiteListService getPackageNameWhiteListService() {
         return new PackageNameWhiteListServiceImpl( ioService,
                                                     mock( KieProjectService.class ),
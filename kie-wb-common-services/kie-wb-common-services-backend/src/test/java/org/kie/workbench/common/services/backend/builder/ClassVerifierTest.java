@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.drools.workbench.models.datamodel.oracle.TypeSource;
+import org.guvnor.common.services.project.builder.model.BuildMessage;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.shared.whitelist.WhiteList;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClassVerifierTest {
+
+    @Mock
+    private KieModuleMetaData kieModuleMetaData;
+
+    @Mock
+    private TypeSourceResolver typeSourceResolver;
+
+    private URLClassLoader dependenciesClassLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        //A unique dependency set for each test, so verified classes are not shared between tests
+        dependenciesClassLoader = new URLClassLoader( new URL[]{new URL( "http://localhost/" + System.nanoTime() + ".jar" )} );
+        when( kieModuleMetaData.getClassLoader() ).thenReturn( new URLClassLoader( new URL[ 0 ],
+                                                                                   dependenciesClassLoader ) );
+        when( kieModuleMetaData.getPackages() ).thenReturn( new HashSet<>( Arrays.asList( "java.lang",
+                                                                                          "org.excluded" ) ) );
+        when( kieModuleMetaData.getClasses( "java.lang" ) ).thenReturn( Arrays.asList( "String",
+                                                                                      "Broken" ) );
+        doReturn( String.class ).when( kieModuleMetaData ).getClass( "java.lang",
+                                                                     "String" );
+        when( kieModuleMetaData.getClass( "java.lang",
+                                          "Broken" ) ).thenThrow( new NoClassDefFoundError( "Broken" ) );
+        when( typeSourceResolver.getTypeSource( any( Class.class ) ) ).thenReturn( TypeSource.JAVA_DEPENDENCY );
+    }
+
+    @Test
+    public void testVerifyWhiteListedPackagesOnly() {
+        final List<BuildMessage> messages = new ClassVerifier( kieModuleMetaData,
+                                                               typeSourceResolver ).verify( new WhiteList( Collections.singleton( "java.lang" ) ) );
+
+        assertEquals( 1,
+                      messages.size() );
+        assertTrue( messages.get( 0 ).getText().contains( "java.lang.Broken" ) );
+        verify( kieModuleMetaData,
+                never() ).getClasses( "org.excluded" );
+    }
+
+    @Test
+    public void testVerifiedClassesAreNotReverifiedForSameDependencies() {
+        final WhiteList whiteList = new WhiteList( Collections.singleton( "java.lang" ) );
+        new ClassVerifier( kieModuleMetaData,
+                           typeSourceResolver ).verify( whiteList );
+        final List<BuildMessage> messages = new ClassVerifier( kieModuleMetaData,
+                                                               typeSourceResolver ).verify( whiteList );
+
+        //Classes that failed verification are reported on every build
+        assertEquals( 1,
+                      messages.size() );
+        verify( kieModuleMetaData,
+                times( 1 ) ).getClass( "java.lang",
+                                       "String" );
+        verify( kieModuleMetaData,
+                times( 2 ) ).getClass( "java.lang",
+                                       "Broken" );
+    }
+}
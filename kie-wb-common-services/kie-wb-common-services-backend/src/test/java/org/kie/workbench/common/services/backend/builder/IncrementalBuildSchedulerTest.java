@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.enterprise.event.Event;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.guvnor.common.services.project.builder.service.BuildService;
+import org.guvnor.common.services.project.model.Project;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAdded;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IncrementalBuildSchedulerTest {
+
+    @Mock
+    private BuildService buildService;
+
+    @Mock
+    private Event<BuildResults> buildResultsEvent;
+
+    @Mock
+    private Event<IncrementalBuildResults> incrementalBuildResultsEvent;
+
+    @Mock
+    private Project project;
+
+    @Mock
+    private Path path1;
+
+    @Mock
+    private Path path2;
+
+    private IncrementalBuildScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        System.setProperty( IncrementalBuildScheduler.WINDOW_PROPERTY_NAME,
+                            "100" );
+        scheduler = new IncrementalBuildScheduler( buildService,
+                                                   buildResultsEvent,
+                                                   incrementalBuildResultsEvent );
+        scheduler.start();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.stop();
+        System.clearProperty( IncrementalBuildScheduler.WINDOW_PROPERTY_NAME );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testChangesWithinWindowAreCoalesced() {
+        final IncrementalBuildResults results = new IncrementalBuildResults();
+        when( buildService.isBuilt( project ) ).thenReturn( true );
+        when( buildService.applyBatchResourceChanges( eq( project ),
+                                                      any( Map.class ) ) ).thenReturn( results );
+
+        scheduler.schedule( project,
+                            changes( path1,
+                                     new ResourceAdded( "" ) ) );
+        scheduler.schedule( project,
+                            changes( path2,
+                                     new ResourceUpdated( "" ) ) );
+        scheduler.schedule( project,
+                            changes( path1,
+                                     new ResourceDeleted( "" ) ) );
+
+        final ArgumentCaptor<Map> changesCaptor = ArgumentCaptor.forClass( Map.class );
+        verify( buildService,
+                timeout( 5000 ) ).applyBatchResourceChanges( eq( project ),
+                                                             changesCaptor.capture() );
+        verify( incrementalBuildResultsEvent,
+                timeout( 5000 ) ).fire( results );
+
+        final Map<Path, Collection<ResourceChange>> built = changesCaptor.getValue();
+        assertEquals( 2,
+                      built.size() );
+        assertTrue( built.get( path1 ).iterator().next() instanceof ResourceDeleted );
+        assertTrue( built.get( path2 ).iterator().next() instanceof ResourceUpdated );
+    }
+
+    @Test
+    public void testFullBuildWhenNotBuilt() {
+        final BuildResults results = new BuildResults();
+        when( buildService.isBuilt( project ) ).thenReturn( false );
+        when( buildService.build( project ) ).thenReturn( results );
+
+        scheduler.schedule( project,
+                            changes( path1,
+                                     new ResourceAdded( "" ) ) );
+
+        verify( buildResultsEvent,
+                timeout( 5000 ) ).fire( results );
+        verify( buildService,
+                never() ).applyBatchResourceChanges( any( Project.class ),
+                                                     any( Map.class ) );
+    }
+
+    @Test
+    public void testScheduleAfterStop() {
+        scheduler.stop();
+
+        scheduler.schedule( project,
+                            changes( path1,
+                                     new ResourceAdded( "" ) ) );
+
+        verify( buildService,
+                never() ).isBuilt( any( Project.class ) );
+    }
+
+    private Map<Path, Collection<ResourceChange>> changes( final Path path,
+                                                           final ResourceChange change ) {
+        final Map<Path, Collection<ResourceChange>> changes = new HashMap<>();
+        changes.put( path,
+                     Collections.singletonList( change ) );
+        return changes;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOProjectCacheEvent;
+import org.guvnor.common.services.project.model.Project;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.shared.project.KieProjectService;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+
+public class LRUBuilderCacheTest extends BuilderTestBase {
+
+    private LRUBuilderCache cache;
+
+    private Project project;
+
+    @Before
+    public void setUp() throws Exception {
+        super.startWeld();
+
+        final KieProjectService projectService = getReference( KieProjectService.class );
+        cache = getReference( LRUBuilderCache.class );
+
+        final URL url = this.getClass().getResource( "/GuvnorM2RepoDependencyExample1" );
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath( url.toURI() );
+
+        project = projectService.resolveProject( Paths.convert( path ) );
+    }
+
+    @After
+    public void cleanUp() {
+        super.stopWeld();
+    }
+
+    @Test
+    public void testAssertBuilderIsCached() {
+        final Builder builder1 = cache.assertBuilder( project );
+        final Builder builder2 = cache.assertBuilder( project );
+
+        assertSame( builder1,
+                    builder2 );
+        assertEquals( 1,
+                      cache.getMissCount() );
+        assertEquals( 1,
+                      cache.getHitCount() );
+    }
+
+    @Test
+    public void testAssertBuilderByPom() {
+        final Builder builder = cache.assertBuilder( project );
+
+        assertSame( builder,
+                    cache.assertBuilder( project.getPom() ) );
+    }
+
+    @Test(expected = NoBuilderFoundException.class)
+    public void testAssertBuilderByPomNotCached() {
+        cache.assertBuilder( project.getPom() );
+    }
+
+    @Test(expected = NoBuilderFoundException.class)
+    public void testAssertBuilderByPomAfterInvalidation() {
+        cache.assertBuilder( project );
+        cache.invalidateProjectCache( new InvalidateDMOProjectCacheEvent( null,
+                                                                          project,
+                                                                          project.getRootPath() ) );
+
+        cache.assertBuilder( project.getPom() );
+    }
+
+    @Test
+    public void testConcurrentAssertBuilderConstructsOnce() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try {
+            final List<Callable<Builder>> callables = new ArrayList<>();
+            for ( int i = 0; i < 8; i++ ) {
+                callables.add( () -> cache.assertBuilder( project ) );
+            }
+
+            Builder builder = null;
+            for ( Future<Builder> future : executor.invokeAll( callables ) ) {
+                if ( builder == null ) {
+                    builder = future.get();
+                }
+                assertSame( builder,
+                            future.get() );
+            }
+            assertEquals( 1,
+                          cache.getMissCount() );
+            assertEquals( 7,
+                          cache.getHitCount() );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
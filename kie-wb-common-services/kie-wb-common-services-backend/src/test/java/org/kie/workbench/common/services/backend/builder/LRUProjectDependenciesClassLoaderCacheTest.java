@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.workbench.common.services.shared.project.KieProject;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class LRUProjectDependenciesClassLoaderCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private LRUProjectDependenciesClassLoaderCache cache;
+
+    private KieProject project1;
+    private KieProject project2;
+
+    @Before
+    public void setUp() {
+        cache = new LRUProjectDependenciesClassLoaderCache();
+        project1 = mock( KieProject.class );
+        project2 = mock( KieProject.class );
+    }
+
+    @Test
+    public void testIdenticalDependenciesAreShared() throws Exception {
+        final URLClassLoader classLoader1 = newClassLoader( "http://localhost/a.jar",
+                                                            "http://localhost/b.jar" );
+        final URLClassLoader classLoader2 = newClassLoader( "http://localhost/a.jar",
+                                                            "http://localhost/b.jar" );
+
+        assertSame( classLoader1,
+                    cache.setDependenciesClassLoader( project1,
+                                                      classLoader1 ) );
+        assertSame( classLoader1,
+                    cache.setDependenciesClassLoader( project2,
+                                                      classLoader2 ) );
+        assertSame( classLoader1,
+                    cache.assertDependenciesClassLoader( project2 ) );
+        assertEquals( 1,
+                      cache.getSharedClassLoaderCount() );
+    }
+
+    @Test
+    public void testDifferentDependenciesAreNotShared() throws Exception {
+        final URLClassLoader classLoader1 = newClassLoader( "http://localhost/a.jar" );
+        final URLClassLoader classLoader2 = newClassLoader( "http://localhost/b.jar" );
+
+        cache.setDependenciesClassLoader( project1,
+                                          classLoader1 );
+        assertSame( classLoader2,
+                    cache.setDependenciesClassLoader( project2,
+                                                      classLoader2 ) );
+        assertEquals( 2,
+                      cache.getSharedClassLoaderCount() );
+    }
+
+    @Test
+    public void testClassLoaderReleasedWithLastProject() throws Exception {
+        cache.setDependenciesClassLoader( project1,
+                                          newClassLoader( "http://localhost/a.jar" ) );
+        cache.setDependenciesClassLoader( project2,
+                                          newClassLoader( "http://localhost/a.jar" ) );
+
+        cache.invalidateCache( project1 );
+        assertEquals( 1,
+                      cache.getSharedClassLoaderCount() );
+
+        cache.invalidateCache( project2 );
+        assertEquals( 0,
+                      cache.getSharedClassLoaderCount() );
+    }
+
+    @Test
+    public void testClassLoaderClosedWithLastProject() throws Exception {
+        final URLClassLoader classLoader = newDirectoryClassLoader();
+
+        cache.setDependenciesClassLoader( project1,
+                                          classLoader );
+        cache.setDependenciesClassLoader( project2,
+                                          newDirectoryClassLoader() );
+
+        cache.invalidateCache( project1 );
+        assertNotNull( classLoader.getResource( "resource.txt" ) );
+
+        cache.invalidateCache( project2 );
+        assertEquals( 0,
+                      cache.getSharedClassLoaderCount() );
+        assertNull( classLoader.getResource( "resource.txt" ) );
+    }
+
+    @Test
+    public void testDuplicateClassLoaderIsClosed() throws Exception {
+        final URLClassLoader classLoader1 = newDirectoryClassLoader();
+        final URLClassLoader classLoader2 = newDirectoryClassLoader();
+
+        cache.setDependenciesClassLoader( project1,
+                                          classLoader1 );
+        assertSame( classLoader1,
+                    cache.setDependenciesClassLoader( project2,
+                                                      classLoader2 ) );
+
+        assertNotNull( classLoader1.getResource( "resource.txt" ) );
+        assertNull( classLoader2.getResource( "resource.txt" ) );
+    }
+
+    @Test
+    public void testReplacingClassLoaderReleasesPrevious() throws Exception {
+        cache.setDependenciesClassLoader( project1,
+                                          newClassLoader( "http://localhost/a.jar" ) );
+        cache.setDependenciesClassLoader( project1,
+                                          newClassLoader( "http://localhost/b.jar" ) );
+
+        assertEquals( 1,
+                      cache.getSharedClassLoaderCount() );
+    }
+
+    private URLClassLoader newDirectoryClassLoader() throws Exception {
+        final File dependencies = new File( tempFolder.getRoot(),
+                                            "dependencies" );
+        if ( !dependencies.isDirectory() ) {
+            assertTrue( dependencies.mkdir() );
+            assertTrue( new File( dependencies,
+                                  "resource.txt" ).createNewFile() );
+        }
+        return new URLClassLoader( new URL[]{ dependencies.toURI().toURL() } );
+    }
+
+    private URLClassLoader newClassLoader( final String... urls ) throws Exception {
+        final URL[] u = new URL[ urls.length ];
+        for ( int i = 0; i < urls.length; i++ ) {
+            u[ i ] = new URL( urls[ i ] );
+        }
+        return new URLClassLoader( u );
+    }
+}
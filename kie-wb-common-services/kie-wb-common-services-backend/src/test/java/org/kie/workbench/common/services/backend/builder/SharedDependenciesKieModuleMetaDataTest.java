@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.scanner.KieModuleMetaData;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SharedDependenciesKieModuleMetaDataTest {
+
+    private KieModuleMetaData delegate;
+    private InternalKieModule kieModule;
+    private AtomicReference<ClassLoader> dependenciesClassLoader;
+
+    private KieModuleMetaData metaData;
+
+    @Before
+    public void setUp() {
+        delegate = mock( KieModuleMetaData.class );
+        kieModule = mock( InternalKieModule.class );
+        when( kieModule.getClassesMap( true ) ).thenReturn( Collections.emptyMap() );
+        dependenciesClassLoader = new AtomicReference<>( new URLClassLoader( new URL[ 0 ] ) );
+        metaData = SharedDependenciesKieModuleMetaData.newKieModuleMetaData( delegate,
+                                                                             kieModule,
+                                                                             dependenciesClassLoader::get );
+    }
+
+    @Test
+    public void testClassesAreLoadedOnTopOfDependenciesClassLoader() {
+        final ClassLoader classLoader = metaData.getClassLoader();
+        assertSame( dependenciesClassLoader.get(),
+                    classLoader.getParent() );
+        assertSame( classLoader,
+                    metaData.getClassLoader() );
+        assertEquals( String.class,
+                      metaData.getClass( "java.lang",
+                                         "String" ) );
+        assertNull( metaData.getClass( "org.kie",
+                                       "Missing" ) );
+        verify( delegate,
+                never() ).getClassLoader();
+    }
+
+    @Test
+    public void testReplacedDependenciesClassLoaderIsUsed() {
+        final ClassLoader classLoader = metaData.getClassLoader();
+        dependenciesClassLoader.set( new URLClassLoader( new URL[ 0 ] ) );
+
+        assertNotSame( classLoader,
+                       metaData.getClassLoader() );
+        assertSame( dependenciesClassLoader.get(),
+                    metaData.getClassLoader().getParent() );
+    }
+
+    @Test
+    public void testOtherCallsAreDelegated() {
+        when( delegate.getPackages() ).thenReturn( Collections.singletonList( "org.kie" ) );
+
+        assertEquals( Collections.singletonList( "org.kie" ),
+                      metaData.getPackages() );
+        verify( delegate ).getPackages();
+    }
+}
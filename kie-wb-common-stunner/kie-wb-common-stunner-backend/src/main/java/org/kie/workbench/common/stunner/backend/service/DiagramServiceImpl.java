@@ -118,14 +118,13 @@ public class DiagramServiceImpl
     }
 
     @Override
-    protected void doSave( Diagram diagram, String raw, String metadata ) {
+    protected void doSave( Diagram diagram, String metadata ) {
         try {
             getIoService().startBatch( fileSystem );
             final Path _path = diagram.getMetadata().getPath();
             final org.uberfire.java.nio.file.Path path = Paths.convert( _path );
             // Serialize the diagram's raw data.
-            LOG.debug( "Serializing raw data: " + raw );
-            getIoService().write( path, raw );
+            write( diagram, path );
             final String metadataFileName = getMetadataFileName( _path.getFileName() );
             final org.uberfire.java.nio.file.Path metadataPath =
                     getDiagramsPath().resolve( metadataFileName );
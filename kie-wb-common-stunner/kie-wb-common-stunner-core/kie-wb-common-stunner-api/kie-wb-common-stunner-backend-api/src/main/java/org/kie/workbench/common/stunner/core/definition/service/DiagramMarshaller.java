@@ -21,6 +21,7 @@ import org.kie.workbench.common.stunner.core.graph.Graph;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Provides marshalling and unmarshalling services for a Diagram.
@@ -50,6 +51,19 @@ public interface DiagramMarshaller<G extends Graph, M extends Metadata, D extend
      */
     String marshall( D diagram ) throws IOException;
 
+    /**
+     * Serializes a diagram instance of type <code>D</code> into the given output stream, as UTF-8.
+     * Marshallers that can write the content as it's generated should override it.
+     *
+     * @param diagram The diagram instance to serialize.
+     * @param output  The stream to write to. It's not closed.
+     * @throws IOException System I/O error.
+     */
+    default void marshall( final D diagram,
+                           final OutputStream output ) throws IOException {
+        output.write( marshall( diagram ).getBytes( "UTF-8" ) );
+    }
+
     /**
      * Provides a un/marshaller instance for the Diagram's metadata.
      *
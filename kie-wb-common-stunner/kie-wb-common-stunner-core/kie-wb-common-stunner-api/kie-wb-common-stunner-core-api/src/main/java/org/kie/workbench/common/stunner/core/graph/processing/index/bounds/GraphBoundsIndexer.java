@@ -21,8 +21,20 @@ import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
 
+import java.util.Collection;
+
 public interface GraphBoundsIndexer extends NodeBoundsIndexer<Graph<View, Node<View, Edge>>> {
 
     GraphBoundsIndexer setRootUUID( String uuid );
 
+    /**
+     * Return the nodes which bounds intersect the area given by the top left and bottom right coordinates.
+     */
+    Collection<Node<View<?>, Edge>> getIntersecting( double x1, double y1, double x2, double y2 );
+
+    /**
+     * Return the node which bounds are the nearest to the given x,y cartesian coordinate.
+     */
+    Node<View<?>, Edge> getNearest( double x, double y );
+
 }
@@ -18,6 +18,15 @@ package org.kie.workbench.common.stunner.core.graph.store;
 
 import org.kie.workbench.common.stunner.core.graph.Node;
 
+import java.util.Map;
+
 public interface GraphNodeStore<T extends Node> extends GraphStore<T> {
 
+    /**
+     * Returns the number of nodes in the store for each node label.
+     * The store keeps the counts up to date as nodes are added and removed, so node labels
+     * are expected not to change while the node is in the store.
+     */
+    Map<String, Integer> getLabelsCount();
+
 }
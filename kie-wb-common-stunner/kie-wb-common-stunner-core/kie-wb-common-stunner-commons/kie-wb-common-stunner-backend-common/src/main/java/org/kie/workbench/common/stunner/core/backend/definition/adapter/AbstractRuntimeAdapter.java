@@ -51,6 +51,17 @@ public abstract class AbstractRuntimeAdapter<T> implements PriorityAdapter {
         return RuntimeAdapterUtils.getFieldValue( object, sourceType, fieldName );
     }
 
+    protected <V> V getFieldValue( T object,
+                                   Field field ) throws IllegalAccessException {
+        return RuntimeAdapterUtils.getFieldValue( object, field );
+    }
+
+    protected void setFieldValue( T object,
+                                  Field field,
+                                  Object value ) throws IllegalAccessException {
+        RuntimeAdapterUtils.setFieldValue( object, field, value );
+    }
+
     protected Field getField( T object, String fieldName ) throws IllegalAccessException {
         return RuntimeAdapterUtils.getField( object, fieldName );
     }
@@ -18,38 +18,59 @@ package org.kie.workbench.common.stunner.core.backend.definition.adapter;
 import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reflection helpers for the runtime adapters. The declared fields of each type, the fields resolved by name or by
+ * annotation and the field accessors are cached per class, as adapters are called for each property of each
+ * element while marshalling and validating diagrams.
+ */
 public class RuntimeAdapterUtils {
 
+    private static final MethodType GETTER_TYPE = MethodType.methodType( Object.class, Object.class );
+
+    private static final Map<Class<?>, TypeMetadata> types = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, List<TypeMetadata>> hierarchies = new ConcurrentHashMap<>();
+    private static final Map<Field, MethodHandle> getters = new ConcurrentHashMap<>();
+
     @SuppressWarnings( "unchecked" )
     public static <T, A extends Annotation, V> V getAnnotatedFieldValue( T object,
                                                                          Class<A> annotationType ) throws IllegalAccessException {
-        Class<?> c = object.getClass();
-        while ( !c.getName().equals( Object.class.getName() ) ) {
-            V result = getAnnotatedFieldValue( object, c, annotationType );
+        for ( TypeMetadata type : getHierarchy( object.getClass() ) ) {
+            Field field = type.getAnnotatedField( annotationType );
+            V result = null != field ? getFieldValue( object, field ) : null;
             if ( null != result ) {
                 return result;
             }
-            c = c.getSuperclass();
         }
         return null;
     }
 
     public static <T, V> Set<V> getFieldValues( T object, Set<String> fieldNames ) throws IllegalAccessException {
         Set<V> result = new LinkedHashSet<V>();
+        List<TypeMetadata> hierarchy = getHierarchy( object.getClass() );
         for ( String fieldName : fieldNames ) {
-            Class<?> c = object.getClass();
-            while ( !c.getName().equals( Object.class.getName() ) ) {
-                V result1 = getFieldValue( object, c, fieldName );
+            for ( TypeMetadata type : hierarchy ) {
+                Field field = type.getField( fieldName );
+                V result1 = null != field ? getFieldValue( object, field ) : null;
                 if ( null != result1 ) {
                     result.add( result1 );
                 }
-                c = c.getSuperclass();
             }
 
         }
@@ -57,13 +78,12 @@ public class RuntimeAdapterUtils {
     }
 
     public static <T, V> V getFieldValue( T object, String fieldName ) throws IllegalAccessException {
-        Class<?> c = object.getClass();
-        while ( !c.getName().equals( Object.class.getName() ) ) {
-            V result = getFieldValue( object, c, fieldName );
+        for ( TypeMetadata type : getHierarchy( object.getClass() ) ) {
+            Field field = type.getField( fieldName );
+            V result = null != field ? getFieldValue( object, field ) : null;
             if ( null != result ) {
                 return result;
             }
-            c = c.getSuperclass();
         }
         return null;
 
@@ -73,46 +93,46 @@ public class RuntimeAdapterUtils {
     public static <T, A extends Annotation, V> V getAnnotatedFieldValue( T object,
                                                                          Class<?> sourceType,
                                                                          Class<A> annotationType ) throws IllegalAccessException {
-        V result = null;
-        Field[] fields = sourceType.getDeclaredFields();
-        if ( null != fields ) {
-            for ( Field field : fields ) {
-                A annotation = field.getAnnotation( annotationType );
-                if ( null != annotation ) {
-                    field.setAccessible( true );
-                    result = ( V ) field.get( object );
-                    break;
-                }
-            }
-        }
-        return result;
+        Field field = getTypeMetadata( sourceType ).getAnnotatedField( annotationType );
+        return null != field ? getFieldValue( object, field ) : null;
     }
 
     public static <T, V> V getFieldValue( T object,
                                           Class<?> sourceType,
                                           String fieldName ) throws IllegalAccessException {
-        V result = null;
-        Field[] fields = sourceType.getDeclaredFields();
-        if ( null != fields ) {
-            for ( Field field : fields ) {
-                if ( field.getName().equals( fieldName ) ) {
-                    field.setAccessible( true );
-                    result = ( V ) field.get( object );
-                    break;
-                }
-            }
+        Field field = getTypeMetadata( sourceType ).getField( fieldName );
+        return null != field ? getFieldValue( object, field ) : null;
+    }
+
+    /**
+     * Reads the value of a field using a cached accessor, for both instance and static fields.
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <V> V getFieldValue( Object object,
+                                       Field field ) throws IllegalAccessException {
+        try {
+            final Object value = ( Object ) getGetter( field ).invokeExact( object );
+            return ( V ) value;
+        } catch ( IllegalAccessException | RuntimeException | Error e ) {
+            throw e;
+        } catch ( Throwable t ) {
+            throw new IllegalStateException( "Error obtaining value for field [" + field.getName() + "]", t );
         }
-        return result;
+    }
+
+    public static void setFieldValue( Object object,
+                                      Field field,
+                                      Object value ) throws IllegalAccessException {
+        // Fields are made accessible once, when the type metadata is built.
+        field.set( object, value );
     }
 
     public static <T> Field getField( T object, String fieldName ) throws IllegalAccessException {
-        Class<?> c = object.getClass();
-        while ( !c.getName().equals( Object.class.getName() ) ) {
-            Field result = getField( c, fieldName );
+        for ( TypeMetadata type : getHierarchy( object.getClass() ) ) {
+            Field result = type.getField( fieldName );
             if ( null != result ) {
                 return result;
             }
-            c = c.getSuperclass();
         }
         return null;
 
@@ -120,15 +140,7 @@ public class RuntimeAdapterUtils {
 
     public static Field getField( Class<?> sourceType,
                                   String fieldName ) throws IllegalAccessException {
-        Field[] fields = sourceType.getDeclaredFields();
-        if ( null != fields ) {
-            for ( Field field : fields ) {
-                if ( field.getName().equals( fieldName ) ) {
-                    return field;
-                }
-            }
-        }
-        return null;
+        return getTypeMetadata( sourceType ).getField( fieldName );
     }
 
     public static <T extends Annotation> T getClassAnnotation( Class<?> type, Class<T> annotationType ) {
@@ -144,46 +156,109 @@ public class RuntimeAdapterUtils {
         return null;
     }
 
+    /**
+     * Returns the fields annotated with the given annotation type, from the type up to its topmost superclass.
+     * The resulting collection is cached, so it cannot be modified.
+     */
     public static <T extends Annotation> Collection<Field> getFieldAnnotations( Class<?> type, Class<T> annotationType ) {
         if ( null != type && null != annotationType ) {
-            Collection<Field> result = new LinkedList<>();
-            Class<?> c = type;
-            while ( !c.getName().equals( Object.class.getName() ) ) {
-                Collection<Field> fields = _getFieldAnnotations( c, annotationType );
-                if ( null != fields && !fields.isEmpty() ) {
-                    result.addAll( fields );
+            return getTypeMetadata( type ).getHierarchyAnnotatedFields( annotationType );
 
-                }
+        }
+        return null;
+    }
+
+    public static String getDefinitionId( final Class<?> type ) {
+        return BindableAdapterUtils.getDefinitionId( type );
+    }
+
+    public static String getPropertyId( final Object pojo ) {
+        return BindableAdapterUtils.getPropertyId( pojo.getClass() );
+    }
+
+    private static TypeMetadata getTypeMetadata( final Class<?> type ) {
+        return types.computeIfAbsent( type, TypeMetadata::new );
+    }
+
+    private static List<TypeMetadata> getHierarchy( final Class<?> type ) {
+        return hierarchies.computeIfAbsent( type, t -> {
+            final List<TypeMetadata> result = new ArrayList<>();
+            Class<?> c = t;
+            while ( null != c && !c.getName().equals( Object.class.getName() ) ) {
+                result.add( getTypeMetadata( c ) );
                 c = c.getSuperclass();
             }
-            return result;
+            return Collections.unmodifiableList( result );
+        } );
+    }
 
+    private static MethodHandle getGetter( final Field field ) throws IllegalAccessException {
+        MethodHandle getter = getters.get( field );
+        if ( null == getter ) {
+            getter = MethodHandles.lookup().unreflectGetter( field );
+            if ( Modifier.isStatic( field.getModifiers() ) ) {
+                // Static fields get the target object as an ignored argument.
+                getter = MethodHandles.dropArguments( getter, 0, Object.class );
+            }
+            getter = getter.asType( GETTER_TYPE );
+            getters.putIfAbsent( field, getter );
         }
-        return null;
+        return getter;
     }
 
-    private static <T extends Annotation> Collection<Field> _getFieldAnnotations( Class<?> type, Class<T> annotationType ) {
-        Field[] fields = type.getDeclaredFields();
-        if ( null != fields ) {
-            Collection<Field> result = new LinkedList<>();
+    /**
+     * The declared fields of a single type.
+     */
+    private static final class TypeMetadata {
+
+        private final Class<?> type;
+        private final Field[] fields;
+        private final Map<String, Field> fieldsByName;
+        private final Map<Class<? extends Annotation>, Optional<Field>> annotatedFields = new ConcurrentHashMap<>();
+        private final Map<Class<? extends Annotation>, Collection<Field>> hierarchyAnnotatedFields = new ConcurrentHashMap<>();
+
+        private TypeMetadata( final Class<?> type ) {
+            this.type = type;
+            this.fields = type.getDeclaredFields();
+            this.fieldsByName = new HashMap<>( fields.length );
             for ( Field field : fields ) {
-                T annotation = field.getAnnotation( annotationType );
-                if ( null != annotation ) {
-                    result.add( field );
+                field.setAccessible( true );
+                fieldsByName.putIfAbsent( field.getName(), field );
+            }
+        }
+
+        private Field getField( final String fieldName ) {
+            return fieldsByName.get( fieldName );
+        }
 
+        // The first declared field annotated with the given annotation type.
+        private Field getAnnotatedField( final Class<? extends Annotation> annotationType ) {
+            return annotatedFields.computeIfAbsent( annotationType, a -> {
+                for ( Field field : fields ) {
+                    if ( null != field.getAnnotation( a ) ) {
+                        return Optional.of( field );
+                    }
                 }
+                return Optional.empty();
+            } ).orElse( null );
+        }
+
+        private Collection<Field> getHierarchyAnnotatedFields( final Class<? extends Annotation> annotationType ) {
+            Collection<Field> result = hierarchyAnnotatedFields.get( annotationType );
+            if ( null == result ) {
+                final Collection<Field> annotated = new LinkedList<>();
+                for ( TypeMetadata metadata : getHierarchy( type ) ) {
+                    for ( Field field : metadata.fields ) {
+                        if ( null != field.getAnnotation( annotationType ) ) {
+                            annotated.add( field );
+                        }
+                    }
+                }
+                result = Collections.unmodifiableCollection( annotated );
+                hierarchyAnnotatedFields.putIfAbsent( annotationType, result );
             }
             return result;
         }
-        return null;
-    }
-
-    public static String getDefinitionId( final Class<?> type ) {
-        return BindableAdapterUtils.getDefinitionId( type );
-    }
-
-    public static String getPropertyId( final Object pojo ) {
-        return BindableAdapterUtils.getPropertyId( pojo.getClass() );
     }
 
 }
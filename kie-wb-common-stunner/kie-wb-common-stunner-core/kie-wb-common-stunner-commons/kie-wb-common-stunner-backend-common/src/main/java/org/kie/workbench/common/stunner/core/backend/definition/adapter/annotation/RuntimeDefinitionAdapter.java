@@ -174,8 +174,7 @@ public class RuntimeDefinitionAdapter<T> extends AbstractRuntimeAdapter<T>
     @SuppressWarnings( "unchecked" )
     private <V> V _getValue( Field field, Object annotation, T definition ) throws IllegalAccessException {
         if ( null != annotation ) {
-            field.setAccessible( true );
-            return ( V ) field.get( definition );
+            return getFieldValue( definition, field );
         }
         return null;
     }
@@ -94,22 +94,12 @@ public class RuntimePropertyAdapter<T> extends AbstractRuntimeAdapter<T> impleme
     @Override
     public Object getValue( T property ) {
         if ( null != property ) {
-            Class<?> c = property.getClass();
-            while ( !c.getName().equals( Object.class.getName() ) ) {
-                Field[] fields = c.getDeclaredFields();
-                if ( null != fields ) {
-                    for ( Field field : fields ) {
-                        Value annotation = field.getAnnotation( Value.class );
-                        if ( null != annotation ) {
-                            try {
-                                return _getValue( field, annotation, property );
-                            } catch ( Exception e ) {
-                                LOG.error( "Error obtaining annotated value for Property with id " + getId( property ), e );
-                            }
-                        }
-                    }
+            for ( Field field : getFieldAnnotations( property.getClass(), Value.class ) ) {
+                try {
+                    return getFieldValue( property, field );
+                } catch ( Exception e ) {
+                    LOG.error( "Error obtaining annotated value for Property with id " + getId( property ), e );
                 }
-                c = c.getSuperclass();
             }
 
         }
@@ -120,22 +110,12 @@ public class RuntimePropertyAdapter<T> extends AbstractRuntimeAdapter<T> impleme
     @Override
     public Object getDefaultValue( T property ) {
         if ( null != property ) {
-            Class<?> c = property.getClass();
-            while ( !c.getName().equals( Object.class.getName() ) ) {
-                Field[] fields = c.getDeclaredFields();
-                if ( null != fields ) {
-                    for ( Field field : fields ) {
-                        DefaultValue annotation = field.getAnnotation( DefaultValue.class );
-                        if ( null != annotation ) {
-                            try {
-                                return _getValue( field, annotation, property );
-                            } catch ( Exception e ) {
-                                LOG.error( "Error obtaining annotated default value for Property with id " + getId( property ) );
-                            }
-                        }
-                    }
+            for ( Field field : getFieldAnnotations( property.getClass(), DefaultValue.class ) ) {
+                try {
+                    return getFieldValue( property, field );
+                } catch ( Exception e ) {
+                    LOG.error( "Error obtaining annotated default value for Property with id " + getId( property ) );
                 }
-                c = c.getSuperclass();
             }
         }
         return null;
@@ -146,53 +126,30 @@ public class RuntimePropertyAdapter<T> extends AbstractRuntimeAdapter<T> impleme
     public Map<Object, String> getAllowedValues( T property ) {
         Map<Object, String> result = new LinkedHashMap<>();
         if ( null != property ) {
-            Class<?> c = property.getClass();
-            boolean done = false;
-            while ( !done && !c.getName().equals( Object.class.getName() ) ) {
-                Field[] fields = c.getDeclaredFields();
-                if ( null != fields ) {
-                    for ( Field field : fields ) {
-                        AllowedValues annotation = field.getAnnotation( AllowedValues.class );
-                        if ( null != annotation ) {
-                            try {
-                                Iterable<?> value = _getValue( field, annotation, property );
-                                if ( null != value && value.iterator().hasNext() ) {
-                                    Iterator<?> vIt = value.iterator();
-                                    while ( vIt.hasNext() ) {
-                                        Object v = vIt.next();
-                                        result.put( v, v.toString() );
-
-                                    }
-
-                                }
-                                done = true;
-
-                            } catch ( Exception e ) {
-                                LOG.error( "Error obtaining annotated allowed values for Property with id " + getId( property ) );
-                            }
+            for ( Field field : getFieldAnnotations( property.getClass(), AllowedValues.class ) ) {
+                try {
+                    Iterable<?> value = getFieldValue( property, field );
+                    if ( null != value && value.iterator().hasNext() ) {
+                        Iterator<?> vIt = value.iterator();
+                        while ( vIt.hasNext() ) {
+                            Object v = vIt.next();
+                            result.put( v, v.toString() );
 
                         }
 
                     }
+                    break;
 
+                } catch ( Exception e ) {
+                    LOG.error( "Error obtaining annotated allowed values for Property with id " + getId( property ) );
                 }
-                c = c.getSuperclass();
+
             }
 
         }
         return !result.isEmpty() ? result : null;
     }
 
-    @SuppressWarnings( "unchecked" )
-    private <V> V _getValue( Field field, Object annotation, T property ) throws IllegalAccessException {
-        if ( null != annotation ) {
-            field.setAccessible( true );
-            V result = ( V ) field.get( property );
-            return result;
-        }
-        return null;
-    }
-
     @Override
     public void setValue( final T property, final Object value ) {
         if ( null != property ) {
@@ -201,29 +158,14 @@ public class RuntimePropertyAdapter<T> extends AbstractRuntimeAdapter<T> impleme
                 return;
 
             }
-            Class<?> c = property.getClass();
-            boolean done = false;
-            while ( !done && !c.getName().equals( Object.class.getName() ) ) {
-                Field[] fields = c.getDeclaredFields();
-                if ( null != fields ) {
-                    for ( Field field : fields ) {
-                        Value annotation = field.getAnnotation( Value.class );
-                        if ( null != annotation ) {
-                            try {
-                                field.setAccessible( true );
-                                field.set( property, value );
-                                done = true;
-                                break;
-                            } catch ( Exception e ) {
-                                LOG.error( "Error setting value for Property with id [" + getId( property ) + "] " +
-                                        "and value [" + ( value != null ? value.toString() : "null" ) + "]" );
-                            }
-
-                        }
-                    }
-
+            for ( Field field : getFieldAnnotations( property.getClass(), Value.class ) ) {
+                try {
+                    setFieldValue( property, field, value );
+                    break;
+                } catch ( Exception e ) {
+                    LOG.error( "Error setting value for Property with id [" + getId( property ) + "] " +
+                            "and value [" + ( value != null ? value.toString() : "null" ) + "]" );
                 }
-                c = c.getSuperclass();
 
             }
 
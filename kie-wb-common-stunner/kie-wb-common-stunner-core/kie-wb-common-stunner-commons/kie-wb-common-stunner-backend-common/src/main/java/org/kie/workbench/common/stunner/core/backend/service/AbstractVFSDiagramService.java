@@ -36,12 +36,14 @@ import org.uberfire.io.IOService;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.file.FileAlreadyExistsException;
 import org.uberfire.java.nio.file.FileVisitResult;
+import org.uberfire.java.nio.file.OpenOption;
 import org.uberfire.java.nio.file.SimpleFileVisitor;
 import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
 import org.uberfire.workbench.type.ResourceTypeDefinition;
 
 import javax.enterprise.inject.Instance;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.*;
 
@@ -93,8 +95,7 @@ public abstract class AbstractVFSDiagramService<D extends Diagram> implements Ba
                 throw new FileAlreadyExistsException( kiePath.toString() );
             }
             final D diagram = factoryManager.newDiagram( name, defSetId, metadata );
-            final String[] raw = serizalize( diagram );
-            ioService.write( kiePath, raw[ 0 ] );
+            write( diagram, kiePath );
             return Paths.convert( kiePath );
         } catch ( final Exception e ) {
             LOG.error( "Cannot create diagram in path [" + kiePath + "]", e );
@@ -177,24 +178,52 @@ public abstract class AbstractVFSDiagramService<D extends Diagram> implements Ba
     @SuppressWarnings( "unchecked" )
     private void register( D diagram ) {
         try {
-            String[] raw = serizalize( diagram );
-            doSave( diagram, raw[ 0 ], raw[ 1 ] );
+            final String metadata = serializeMetadata( diagram );
+            doSave( diagram, metadata );
         } catch ( Exception e ) {
             LOG.error( "Error while saving diagram with UUID [" + diagram.getName() + "].", e );
             throw new RuntimeException( e );
         }
     }
 
-    protected String[] serizalize( final D diagram ) throws java.io.IOException {
-        final String uuid = diagram.getName();
-        final String defSetId = diagram.getMetadata().getDefinitionSetId();
-        final DefinitionSetService services = getServicesById( defSetId );
+    /**
+     * Marshalls the diagram into a byte buffer, without building its content as a String, and writes it to the file at
+     * the given path once marshalling succeeded. The file is left untouched if marshalling fails.
+     */
+    protected void write( final D diagram,
+                          final org.uberfire.java.nio.file.Path path,
+                          final OpenOption... options ) throws java.io.IOException {
+        ioService.write( path, marshall( diagram ), options );
+    }
+
+    /**
+     * Writes the marshalled diagram as above, and sets the given attributes of the file in the same write.
+     */
+    protected void write( final D diagram,
+                          final org.uberfire.java.nio.file.Path path,
+                          final Map<String, ?> attributes,
+                          final OpenOption... options ) throws java.io.IOException {
+        ioService.write( path, marshall( diagram ), attributes, options );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private byte[] marshall( final D diagram ) throws java.io.IOException {
         // Serialize using the concrete marshalling service.
-        DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> marshaller = services.getDiagramMarshaller();
-        final String rawData = marshaller.marshall( diagram );
+        final DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> marshaller = getDiagramMarshaller( diagram );
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        marshaller.marshall( diagram, output );
+        return output.toByteArray();
+    }
+
+    protected String serializeMetadata( final D diagram ) throws java.io.IOException {
         final Metadata metadata = diagram.getMetadata();
-        final String metadataRaw = marshaller.getMetadataMarshaller().marshall( metadata );
-        return new String[]{ rawData, metadataRaw };
+        return getDiagramMarshaller( diagram ).getMetadataMarshaller().marshall( metadata );
+    }
+
+    private DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> getDiagramMarshaller( final D diagram ) {
+        final String defSetId = diagram.getMetadata().getDefinitionSetId();
+        final DefinitionSetService services = getServicesById( defSetId );
+        return services.getDiagramMarshaller();
     }
 
     public boolean contains( D item ) {
@@ -248,7 +277,7 @@ public abstract class AbstractVFSDiagramService<D extends Diagram> implements Ba
         return new ByteArrayInputStream( bytes );
     }
 
-    protected abstract void doSave( D diagram, String raw, String metadata );
+    protected abstract void doSave( D diagram, String metadata );
 
     public boolean accepts( final org.uberfire.backend.vfs.Path path ) {
         if ( path != null ) {
@@ -16,6 +16,7 @@
 
 package org.kie.workbench.common.stunner.core.client.canvas;
 
+import com.google.gwt.animation.client.AnimationScheduler;
 import com.google.gwt.logging.client.LogConfiguration;
 import org.kie.workbench.common.stunner.core.client.ShapeManager;
 import org.kie.workbench.common.stunner.core.client.api.ClientDefinitionManager;
@@ -83,6 +84,9 @@ public abstract class AbstractCanvasHandler<D extends Diagram, C extends Abstrac
     private C canvas;
     private D diagram;
     private MutableIndex<?, ?> graphIndex;
+    private int drawBatchDepth = 0;
+    private boolean drawPending = false;
+    private boolean drawScheduled = false;
 
     @Inject
     public AbstractCanvasHandler( final ClientDefinitionManager clientDefinitionManager,
@@ -173,6 +177,52 @@ public abstract class AbstractCanvasHandler<D extends Diagram, C extends Abstrac
         return diagram;
     }
 
+    /*
+        ***************************************************************************************
+        * Drawing
+        ***************************************************************************************
+     */
+
+    /**
+     * Marks the canvas as modified. It's drawn once the current draw batch ends or, if there is no batch in
+     * progress, on the next animation frame, so several changes in a row result in a single draw.
+     */
+    public void requestDraw() {
+        drawPending = true;
+        if ( 0 == drawBatchDepth && !drawScheduled ) {
+            drawScheduled = true;
+            getAnimationScheduler().requestAnimationFrame( timestamp -> {
+                drawScheduled = false;
+                flushDraw();
+            } );
+        }
+    }
+
+    /**
+     * Starts a draw batch. Draw requests are deferred until the matching <code>endDrawBatch</code> call.
+     * Batches can be nested, the canvas is drawn when the outermost one ends.
+     */
+    public void startDrawBatch() {
+        drawBatchDepth++;
+    }
+
+    public void endDrawBatch() {
+        if ( drawBatchDepth > 0 && 0 == --drawBatchDepth ) {
+            flushDraw();
+        }
+    }
+
+    private void flushDraw() {
+        if ( drawPending && 0 == drawBatchDepth && null != canvas ) {
+            drawPending = false;
+            canvas.draw();
+        }
+    }
+
+    protected AnimationScheduler getAnimationScheduler() {
+        return AnimationScheduler.get();
+    }
+
     /*
         ***************************************************************************************
         * Shape/element handling
@@ -200,7 +250,7 @@ public abstract class AbstractCanvasHandler<D extends Diagram, C extends Abstrac
         shape.getShapeView().setZIndex( 0 );
         // Add the shapes on canvas and fire events.
         canvas.addShape( shape );
-        canvas.draw();
+        requestDraw();
         if ( fireEvents ) {
             // Fire listeners.
             fireCanvasElementAdded( candidate );
@@ -226,7 +276,7 @@ public abstract class AbstractCanvasHandler<D extends Diagram, C extends Abstrac
         // TODO: Delete connector connections to the node being deleted?
         doDeregister( shape, element );
         canvas.deleteShape( shape );
-        canvas.draw();
+        requestDraw();
         if ( fireEvents ) {
             afterElementDeleted( element, shape );
         }
@@ -263,7 +313,7 @@ public abstract class AbstractCanvasHandler<D extends Diagram, C extends Abstrac
                     graphShape.applyProperties( candidate, mutationContext );
                 }
                 beforeElementUpdated( candidate, graphShape );
-                canvas.draw();
+                requestDraw();
                 fireCanvasElementUpdated( candidate );
                 afterElementUpdated( candidate, graphShape );
             }
@@ -369,7 +419,7 @@ public abstract class AbstractCanvasHandler<D extends Diagram, C extends Abstrac
         fireCanvasClear();
         canvasElementsClearEvent.fire( new CanvasElementsClearEvent( this ) );
         canvas.clear();
-        canvas.draw();
+        requestDraw();
     }
 
     @Override
@@ -58,6 +58,18 @@ public final class DrawCanvasCommand extends AbstractCanvasCommand {
     private void draw( final AbstractCanvasHandler context ) {
         final Diagram diagram = context.getDiagram();
         final String shapeSetId = context.getDiagram().getMetadata().getShapeSetId();
+        // Draw the canvas just once, after all the shapes have been registered.
+        context.startDrawBatch();
+        try {
+            traverse( context, diagram, shapeSetId );
+        } finally {
+            context.endDrawBatch();
+        }
+    }
+
+    private void traverse( final AbstractCanvasHandler context,
+                           final Diagram diagram,
+                           final String shapeSetId ) {
         // Walk throw the graph and register the shapes.
         treeWalkTraverseProcessor
                 .useEdgeVisitorPolicy( TreeWalkTraverseProcessor.EdgeVisitorPolicy.VISIT_EDGE_AFTER_TARGET_NODE )
@@ -129,7 +141,7 @@ public final class DrawCanvasCommand extends AbstractCanvasCommand {
                     public void endGraphTraversal() {
                         super.endGraphTraversal();
                         // Draw the canvas shapes.
-                        context.getCanvas().draw();
+                        context.requestDraw();
 
                     }
 
@@ -59,6 +59,29 @@ class CanvasCommandManagerImpl
         return commandManager;
     }
 
+    @Override
+    public CommandResult<CanvasViolation> execute( final AbstractCanvasHandler context,
+                                                   final Command<AbstractCanvasHandler, CanvasViolation> command ) {
+        // Composite commands update lots of shapes, draw the canvas once all of them have been executed.
+        context.startDrawBatch();
+        try {
+            return super.execute( context, command );
+        } finally {
+            context.endDrawBatch();
+        }
+    }
+
+    @Override
+    public CommandResult<CanvasViolation> undo( final AbstractCanvasHandler context,
+                                                final Command<AbstractCanvasHandler, CanvasViolation> command ) {
+        context.startDrawBatch();
+        try {
+            return super.undo( context, command );
+        } finally {
+            context.endDrawBatch();
+        }
+    }
+
     @Override
     @SuppressWarnings( "unchecked" )
     protected void postAllow( final AbstractCanvasHandler context,
@@ -113,7 +136,7 @@ class CanvasCommandManagerImpl
     }
 
     private void draw( final AbstractCanvasHandler context ) {
-        context.getCanvas().draw();
+        context.requestDraw();
     }
 
 }
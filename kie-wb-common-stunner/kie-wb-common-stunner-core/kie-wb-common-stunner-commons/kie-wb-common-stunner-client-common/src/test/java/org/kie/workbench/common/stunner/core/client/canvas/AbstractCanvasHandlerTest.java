@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.client.canvas;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwtmockito.GwtMockitoTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith( GwtMockitoTestRunner.class )
+public class AbstractCanvasHandlerTest {
+
+    @Mock AnimationScheduler animationScheduler;
+    @Mock AbstractCanvas canvas;
+
+    private AbstractCanvasHandler tested;
+
+    @Before
+    @SuppressWarnings( "unchecked" )
+    public void setup() throws Exception {
+        this.tested = new AbstractCanvasHandler( null, null, null, null, null, null, null, null, null, null, null, null ) {
+            @Override
+            protected AnimationScheduler getAnimationScheduler() {
+                return animationScheduler;
+            }
+        };
+        tested.initialize( canvas );
+    }
+
+    @Test
+    public void testRequestDrawOutsideBatchSchedulesSingleFrame() {
+        tested.requestDraw();
+        tested.requestDraw();
+        tested.requestDraw();
+        final ArgumentCaptor<AnimationScheduler.AnimationCallback> callbackCaptor =
+                ArgumentCaptor.forClass( AnimationScheduler.AnimationCallback.class );
+        verify( animationScheduler, times( 1 ) ).requestAnimationFrame( callbackCaptor.capture() );
+        verify( canvas, never() ).draw();
+        callbackCaptor.getValue().execute( 0 );
+        verify( canvas, times( 1 ) ).draw();
+        // Once the frame has run, a new request schedules another one.
+        tested.requestDraw();
+        verify( animationScheduler, times( 2 ) ).requestAnimationFrame( any( AnimationScheduler.AnimationCallback.class ) );
+    }
+
+    @Test
+    public void testNestedBatchesDrawOnceAtOutermostEnd() {
+        tested.startDrawBatch();
+        tested.requestDraw();
+        tested.startDrawBatch();
+        tested.requestDraw();
+        tested.endDrawBatch();
+        verify( canvas, never() ).draw();
+        tested.requestDraw();
+        tested.endDrawBatch();
+        verify( canvas, times( 1 ) ).draw();
+        verify( animationScheduler, never() ).requestAnimationFrame( any( AnimationScheduler.AnimationCallback.class ) );
+    }
+
+    @Test
+    public void testBatchWithoutRequestsDoesNotDraw() {
+        tested.startDrawBatch();
+        tested.endDrawBatch();
+        verify( canvas, never() ).draw();
+    }
+
+    @Test
+    public void testFrameScheduledBeforeBatchDoesNotDrawTwice() {
+        tested.requestDraw();
+        final ArgumentCaptor<AnimationScheduler.AnimationCallback> callbackCaptor =
+                ArgumentCaptor.forClass( AnimationScheduler.AnimationCallback.class );
+        verify( animationScheduler, times( 1 ) ).requestAnimationFrame( callbackCaptor.capture() );
+        tested.startDrawBatch();
+        tested.requestDraw();
+        tested.endDrawBatch();
+        verify( canvas, times( 1 ) ).draw();
+        // Nothing left to draw when the frame runs.
+        callbackCaptor.getValue().execute( 0 );
+        verify( canvas, times( 1 ) ).draw();
+    }
+
+}
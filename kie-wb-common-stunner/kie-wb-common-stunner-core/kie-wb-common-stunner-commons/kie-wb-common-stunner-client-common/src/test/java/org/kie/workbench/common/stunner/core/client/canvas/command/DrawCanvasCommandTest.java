@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.client.canvas.command;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.stunner.core.client.command.CanvasViolation;
+import org.kie.workbench.common.stunner.core.command.CommandResult;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeTraverseCallback;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith( MockitoJUnitRunner.class )
+public class DrawCanvasCommandTest extends AbstractCanvasCommandTest {
+
+    @Mock TreeWalkTraverseProcessor treeWalkTraverseProcessor;
+
+    private DrawCanvasCommand tested;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        when( treeWalkTraverseProcessor.useEdgeVisitorPolicy( any( TreeWalkTraverseProcessor.EdgeVisitorPolicy.class ) ) )
+                .thenReturn( treeWalkTraverseProcessor );
+        this.tested = new DrawCanvasCommand( treeWalkTraverseProcessor );
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testExecuteDrawsWithinBatch() {
+        doAnswer( invocation -> {
+            ( ( TreeTraverseCallback ) invocation.getArguments()[ 1 ] ).endGraphTraversal();
+            return null;
+        } ).when( treeWalkTraverseProcessor ).traverse( any( Graph.class ), any( TreeTraverseCallback.class ) );
+        final CommandResult<CanvasViolation> result = tested.execute( canvasHandler );
+        assertNotEquals( CommandResult.Type.ERROR, result.getType() );
+        final InOrder inOrder = inOrder( canvasHandler );
+        inOrder.verify( canvasHandler, times( 1 ) ).startDrawBatch();
+        inOrder.verify( canvasHandler, times( 1 ) ).requestDraw();
+        inOrder.verify( canvasHandler, times( 1 ) ).endDrawBatch();
+    }
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void testExecuteEndsBatchOnFailure() {
+        doThrow( new IllegalStateException( "traverse failed" ) )
+                .when( treeWalkTraverseProcessor ).traverse( any( Graph.class ), any( TreeTraverseCallback.class ) );
+        try {
+            tested.execute( canvasHandler );
+            fail( "The traverse failure should be propagated" );
+        } catch ( IllegalStateException e ) {
+            // Expected.
+        }
+        final InOrder inOrder = inOrder( canvasHandler );
+        inOrder.verify( canvasHandler, times( 1 ) ).startDrawBatch();
+        inOrder.verify( canvasHandler, times( 1 ) ).endDrawBatch();
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void testUndo() {
+        tested.undo( canvasHandler );
+    }
+
+}
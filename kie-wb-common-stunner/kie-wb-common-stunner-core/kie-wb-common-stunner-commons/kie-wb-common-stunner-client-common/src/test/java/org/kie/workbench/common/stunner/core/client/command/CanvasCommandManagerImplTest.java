@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.client.command;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwtmockito.GwtMockitoTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.stunner.core.client.canvas.AbstractCanvas;
+import org.kie.workbench.common.stunner.core.client.canvas.AbstractCanvasHandler;
+import org.kie.workbench.common.stunner.core.command.Command;
+import org.kie.workbench.common.stunner.core.command.CommandManager;
+import org.kie.workbench.common.stunner.core.command.CommandManagerFactory;
+import org.kie.workbench.common.stunner.core.command.CommandResult;
+import org.mockito.Mock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith( GwtMockitoTestRunner.class )
+public class CanvasCommandManagerImplTest {
+
+    @Mock AnimationScheduler animationScheduler;
+    @Mock AbstractCanvas canvas;
+    @Mock CommandManagerFactory commandManagerFactory;
+    @Mock CommandManager<AbstractCanvasHandler, CanvasViolation> commandManager;
+    @Mock Command<AbstractCanvasHandler, CanvasViolation> command;
+    @Mock Command<AbstractCanvasHandler, CanvasViolation> nestedCommand;
+    @Mock CommandResult<CanvasViolation> result;
+
+    private AbstractCanvasHandler canvasHandler;
+    private CanvasCommandManagerImpl tested;
+
+    @Before
+    @SuppressWarnings( "unchecked" )
+    public void setup() throws Exception {
+        this.canvasHandler = new AbstractCanvasHandler( null, null, null, null, null, null, null, null, null, null, null, null ) {
+            @Override
+            protected AnimationScheduler getAnimationScheduler() {
+                return animationScheduler;
+            }
+        };
+        canvasHandler.initialize( canvas );
+        when( commandManagerFactory.<AbstractCanvasHandler, CanvasViolation>newCommandManager() ).thenReturn( commandManager );
+        this.tested = new CanvasCommandManagerImpl( null, null, null, commandManagerFactory );
+    }
+
+    @Test
+    public void testNestedExecutionsDrawOnce() {
+        when( commandManager.execute( canvasHandler, command ) ).thenAnswer( invocation -> {
+            canvasHandler.requestDraw();
+            tested.execute( canvasHandler, nestedCommand );
+            canvasHandler.requestDraw();
+            return result;
+        } );
+        when( commandManager.execute( canvasHandler, nestedCommand ) ).thenAnswer( invocation -> {
+            canvasHandler.requestDraw();
+            return result;
+        } );
+        assertEquals( result, tested.execute( canvasHandler, command ) );
+        verify( commandManager, times( 1 ) ).execute( canvasHandler, nestedCommand );
+        verify( canvas, times( 1 ) ).draw();
+        verify( animationScheduler, never() ).requestAnimationFrame( any( AnimationScheduler.AnimationCallback.class ) );
+    }
+
+    @Test
+    public void testFailedExecutionStillDraws() {
+        when( commandManager.execute( canvasHandler, command ) ).thenAnswer( invocation -> {
+            canvasHandler.requestDraw();
+            throw new IllegalStateException( "command failed" );
+        } );
+        try {
+            tested.execute( canvasHandler, command );
+            fail( "The command failure should be propagated" );
+        } catch ( IllegalStateException e ) {
+            // Expected.
+        }
+        verify( canvas, times( 1 ) ).draw();
+        // The batch is closed, so later requests are drawn on the next frame.
+        canvasHandler.requestDraw();
+        verify( animationScheduler, times( 1 ) ).requestAnimationFrame( any( AnimationScheduler.AnimationCallback.class ) );
+    }
+
+    @Test
+    public void testUndoDrawsOnce() {
+        when( commandManager.undo( canvasHandler, command ) ).thenAnswer( invocation -> {
+            canvasHandler.requestDraw();
+            canvasHandler.requestDraw();
+            return result;
+        } );
+        assertEquals( result, tested.undo( canvasHandler, command ) );
+        verify( canvas, times( 1 ) ).draw();
+        verify( animationScheduler, never() ).requestAnimationFrame( any( AnimationScheduler.AnimationCallback.class ) );
+    }
+
+}
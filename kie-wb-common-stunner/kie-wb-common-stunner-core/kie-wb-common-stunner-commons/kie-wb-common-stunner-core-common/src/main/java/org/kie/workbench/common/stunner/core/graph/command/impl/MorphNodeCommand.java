@@ -22,6 +22,7 @@ import org.kie.workbench.common.stunner.core.command.CommandResult;
 import org.kie.workbench.common.stunner.core.definition.adapter.MorphAdapter;
 import org.kie.workbench.common.stunner.core.definition.morph.MorphDefinition;
 import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandResultBuilder;
@@ -78,13 +79,18 @@ public final class MorphNodeCommand extends AbstractGraphCommand {
             }
             // Morph the node definition to the new one.
             candidate.getContent().setDefinition( newDef );
-            // Update candidate roles.
+            // Update candidate roles. The node is registered again so the graph's node store updates its labels count.
+            final Graph<?, Node> graph = getGraph( context );
+            final boolean registered = null != graph && null != graph.removeNode( candidate.getUUID() );
             final Set<String> newLabels = definitionManager.adapters().forDefinition().getLabels( newDef );
             candidate.getLabels().clear();
             if ( null != newLabels ) {
                 candidate.getLabels().addAll( newLabels );
 
             }
+            if ( registered ) {
+                graph.addNode( candidate );
+            }
 
         }
         return results;
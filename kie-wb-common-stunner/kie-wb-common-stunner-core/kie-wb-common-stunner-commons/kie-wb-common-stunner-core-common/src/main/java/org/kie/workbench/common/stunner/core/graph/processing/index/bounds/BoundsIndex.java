@@ -0,0 +1,258 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An R-tree over rectangular bounds, bulk loaded using the Sort-Tile-Recursive algorithm.
+ * Point, area and nearest item queries visit only the branches which bounds can contain the result.
+ * The index is immutable, so it has to be created again once the items bounds change.
+ *
+ * @param <T> The indexed item type.
+ */
+final class BoundsIndex<T> {
+
+    static final int NODE_CAPACITY = 16;
+
+    private final Branch root;
+    private final int size;
+
+    BoundsIndex( final List<Entry<T>> entries ) {
+        this.size = entries.size();
+        this.root = entries.isEmpty() ? null : pack( entries );
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the entries which bounds contain the given point.
+     */
+    List<Entry<T>> getAt( final double x,
+                          final double y ) {
+        return getIntersecting( x, y, x, y );
+    }
+
+    /**
+     * Returns the entries which bounds intersect the given area.
+     */
+    List<Entry<T>> getIntersecting( final double x1,
+                                    final double y1,
+                                    final double x2,
+                                    final double y2 ) {
+        if ( null == root ) {
+            return Collections.emptyList();
+        }
+        final List<Entry<T>> result = new ArrayList<>();
+        search( root, x1, y1, x2, y2, result );
+        return result;
+    }
+
+    /**
+     * Returns the entry which bounds are closest to the given point, or <code>null</code> if the index is empty.
+     */
+    @SuppressWarnings( "unchecked" )
+    Entry<T> getNearest( final double x,
+                         final double y ) {
+        if ( null == root ) {
+            return null;
+        }
+        // Best first search, items and branches are visited by their distance to the point.
+        final PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add( new Candidate( root, root.distance( x, y ) ) );
+        while ( !queue.isEmpty() ) {
+            final Candidate candidate = queue.poll();
+            if ( candidate.value instanceof Entry ) {
+                return ( Entry<T> ) candidate.value;
+            }
+            final Branch branch = ( Branch ) candidate.value;
+            for ( Object child : branch.children ) {
+                queue.add( new Candidate( child, ( ( Rectangle ) child ).distance( x, y ) ) );
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void search( final Branch branch,
+                         final double x1,
+                         final double y1,
+                         final double x2,
+                         final double y2,
+                         final List<Entry<T>> result ) {
+        for ( Object child : branch.children ) {
+            final Rectangle rectangle = ( Rectangle ) child;
+            if ( rectangle.intersects( x1, y1, x2, y2 ) ) {
+                if ( branch.leaf ) {
+                    result.add( ( Entry<T> ) child );
+                } else {
+                    search( ( Branch ) child, x1, y1, x2, y2, result );
+                }
+            }
+        }
+    }
+
+    private static Branch pack( final List<? extends Rectangle> items ) {
+        List<Branch> level = packLevel( items, true );
+        while ( level.size() > 1 ) {
+            level = packLevel( level, false );
+        }
+        return level.get( 0 );
+    }
+
+    private static List<Branch> packLevel( final List<? extends Rectangle> items,
+                                           final boolean leaf ) {
+        final Rectangle[] sorted = items.toArray( new Rectangle[ items.size() ] );
+        // Split the items sorted by x in vertical slices, then each slice sorted by y in nodes.
+        Arrays.sort( sorted, ( a, b ) -> Double.compare( a.x1 + a.x2, b.x1 + b.x2 ) );
+        final int nodeCount = ( int ) Math.ceil( ( double ) sorted.length / NODE_CAPACITY );
+        final int sliceCount = ( int ) Math.ceil( Math.sqrt( nodeCount ) );
+        final int sliceSize = sliceCount * NODE_CAPACITY;
+        final List<Branch> result = new ArrayList<>( nodeCount );
+        for ( int sliceStart = 0; sliceStart < sorted.length; sliceStart += sliceSize ) {
+            final int sliceEnd = Math.min( sliceStart + sliceSize, sorted.length );
+            Arrays.sort( sorted, sliceStart, sliceEnd, ( a, b ) -> Double.compare( a.y1 + a.y2, b.y1 + b.y2 ) );
+            for ( int start = sliceStart; start < sliceEnd; start += NODE_CAPACITY ) {
+                final int end = Math.min( start + NODE_CAPACITY, sliceEnd );
+                result.add( new Branch( Arrays.copyOfRange( sorted, start, end ), leaf ) );
+            }
+        }
+        return result;
+    }
+
+    abstract static class Rectangle {
+
+        final double x1;
+        final double y1;
+        final double x2;
+        final double y2;
+
+        Rectangle( final double x1,
+                   final double y1,
+                   final double x2,
+                   final double y2 ) {
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+        }
+
+        boolean intersects( final double ox1,
+                            final double oy1,
+                            final double ox2,
+                            final double oy2 ) {
+            return ox1 <= x2 && ox2 >= x1 && oy1 <= y2 && oy2 >= y1;
+        }
+
+        double distance( final double x,
+                         final double y ) {
+            final double dx = x < x1 ? x1 - x : ( x > x2 ? x - x2 : 0 );
+            final double dy = y < y1 ? y1 - y : ( y > y2 ? y - y2 : 0 );
+            return Math.sqrt( dx * dx + dy * dy );
+        }
+
+    }
+
+    /**
+     * An indexed item along with its bounds.
+     */
+    static final class Entry<T> extends Rectangle {
+
+        final T item;
+
+        Entry( final T item,
+               final double x1,
+               final double y1,
+               final double x2,
+               final double y2 ) {
+            super( x1, y1, x2, y2 );
+            this.item = item;
+        }
+
+    }
+
+    private static final class Branch extends Rectangle {
+
+        private final Rectangle[] children;
+        private final boolean leaf;
+
+        private Branch( final Rectangle[] children,
+                        final boolean leaf ) {
+            super( minX( children ), minY( children ), maxX( children ), maxY( children ) );
+            this.children = children;
+            this.leaf = leaf;
+        }
+
+        private static double minX( final Rectangle[] children ) {
+            double result = Double.POSITIVE_INFINITY;
+            for ( Rectangle child : children ) {
+                result = Math.min( result, child.x1 );
+            }
+            return result;
+        }
+
+        private static double minY( final Rectangle[] children ) {
+            double result = Double.POSITIVE_INFINITY;
+            for ( Rectangle child : children ) {
+                result = Math.min( result, child.y1 );
+            }
+            return result;
+        }
+
+        private static double maxX( final Rectangle[] children ) {
+            double result = Double.NEGATIVE_INFINITY;
+            for ( Rectangle child : children ) {
+                result = Math.max( result, child.x2 );
+            }
+            return result;
+        }
+
+        private static double maxY( final Rectangle[] children ) {
+            double result = Double.NEGATIVE_INFINITY;
+            for ( Rectangle child : children ) {
+                result = Math.max( result, child.y2 );
+            }
+            return result;
+        }
+
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+
+        private final Object value;
+        private final double distance;
+
+        private Candidate( final Object value,
+                           final double distance ) {
+            this.value = value;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo( final Candidate other ) {
+            return Double.compare( distance, other.distance );
+        }
+
+    }
+
+}
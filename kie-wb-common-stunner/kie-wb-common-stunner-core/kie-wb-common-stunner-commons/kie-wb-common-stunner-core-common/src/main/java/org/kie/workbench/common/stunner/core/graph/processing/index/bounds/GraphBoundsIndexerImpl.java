@@ -28,13 +28,27 @@ import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Indexes the absolute bounds of the graph nodes in a <code>BoundsIndex</code>, so looking for the nodes at a given
+ * position does not traverse the whole graph. The index is created by the first query after the graph or the root
+ * is given, and callers are expected to build the indexer again once the graph nodes have been updated.
+ */
 @Dependent
 public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
     private Graph<View, Node<View, Edge>> graph;
     private String rootUUID = null;
+    private BoundsIndex<Node<View<?>, Edge>> index = null;
+    private Map<Node, Integer> traverseOrder = null;
+    private BoundsIndex.Entry<Node<View<?>, Edge>> rootEntry = null;
+    private double[] trimmedBounds = null;
 
     ChildrenTraverseProcessor childrenTraverseProcessor;
 
@@ -46,6 +60,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public GraphBoundsIndexerImpl build( Graph<View, Node<View, Edge>> graph ) {
         this.graph = graph;
+        clearIndex();
         return this;
     }
 
@@ -55,68 +70,132 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return findElementAt( x, y );
     }
 
+    @Override
+    public Collection<Node<View<?>, Edge>> getIntersecting( final double x1,
+                                                            final double y1,
+                                                            final double x2,
+                                                            final double y2 ) {
+        ensureIndex();
+        final List<BoundsIndex.Entry<Node<View<?>, Edge>>> entries = index.getIntersecting( x1, y1, x2, y2 );
+        final List<Node<View<?>, Edge>> result = new ArrayList<>( entries.size() );
+        for ( BoundsIndex.Entry<Node<View<?>, Edge>> entry : entries ) {
+            result.add( entry.item );
+        }
+        return result;
+    }
+
+    @Override
+    public Node<View<?>, Edge> getNearest( final double x,
+                                           final double y ) {
+        ensureIndex();
+        final BoundsIndex.Entry<Node<View<?>, Edge>> entry = index.getNearest( x, y );
+        return null != entry ? entry.item : null;
+    }
+
     @Override
     public double[] getTrimmedBounds() {
-        final double[] result = new double[]{ Double.MAX_VALUE, Double.MAX_VALUE, 0, 0 };
-        childrenTraverseProcessor
-                .setRootUUID( this.rootUUID )
-                .traverse( graph, new GraphBoundIndexerTraverseCallback( new NodeBoundsTraverseCallback() {
-
-                    @Override
-                    public void onNodeTraverse( final Node<View, Edge> node,
-                                                final double parentX,
-                                                final double parentY ) {
-                        final String uuid = node.getUUID();
-                        final boolean isRoot = null != GraphBoundsIndexerImpl.this.rootUUID
-                                && GraphBoundsIndexerImpl.this.rootUUID.equals( uuid );
-                        if ( !isRoot ) {
-                            final double[] absCoords = getNodeAbsoluteCoordinates( node, parentX, parentY );
-                            final double x = absCoords[ 0 ];
-                            final double y = absCoords[ 1 ];
-                            final double w = absCoords[ 2 ];
-                            final double h = absCoords[ 3 ];
-                            if ( x < result[ 0 ] ) {
-                                result[ 0 ] = x;
+        ensureIndex();
+        return new double[]{ trimmedBounds[ 0 ], trimmedBounds[ 1 ], trimmedBounds[ 2 ], trimmedBounds[ 3 ] };
 
-                            }
-                            if ( y < result[ 1 ] ) {
-                                result[ 1 ] = y;
+    }
 
-                            }
-                            if ( w > result[ 2 ] ) {
-                                result[ 2 ] = w;
+    public Node<View<?>, Edge> findElementAt( final double x, final double y ) {
+        ensureIndex();
+        // The root node is always a candidate, the last node found by the traversal wins, so nested nodes are
+        // preferred over their parents.
+        BoundsIndex.Entry<Node<View<?>, Edge>> result = rootEntry;
+        for ( BoundsIndex.Entry<Node<View<?>, Edge>> entry : index.getAt( x, y ) ) {
+            if ( null == result || traverseOrder.get( entry.item ) > traverseOrder.get( result.item ) ) {
+                result = entry;
+            }
+        }
+        return null != result ? result.item : null;
+    }
 
-                            }
-                            if ( h > result[ 3 ] ) {
-                                result[ 3 ] = h;
+    @SuppressWarnings( "unchecked" )
+    private void ensureIndex() {
+        if ( null != index ) {
+            return;
+        }
+        final List<BoundsIndex.Entry<Node<View<?>, Edge>>> entries = new ArrayList<>();
+        final Map<Node, Integer> order = new HashMap<>();
+        final double[] bounds = new double[]{ Double.MAX_VALUE, Double.MAX_VALUE, 0, 0 };
+        final BoundsIndex.Entry<Node<View<?>, Edge>>[] root = new BoundsIndex.Entry[ 1 ];
+        if ( null != graph ) {
+            childrenTraverseProcessor
+                    .setRootUUID( null )
+                    .traverse( graph, new GraphBoundIndexerTraverseCallback( new NodeBoundsTraverseCallback() {
+
+                        @Override
+                        public void onNodeTraverse( final Node<View, Edge> node,
+                                                    final Iterator<Node<View, Edge>> parents,
+                                                    final double parentX,
+                                                    final double parentY ) {
+                            final double[] absCoords = getNodeAbsoluteCoordinates( node, parentX, parentY );
+                            final BoundsIndex.Entry<Node<View<?>, Edge>> entry =
+                                    new BoundsIndex.Entry<>( ( Node ) node, absCoords[ 0 ], absCoords[ 1 ], absCoords[ 2 ], absCoords[ 3 ] );
+                            entries.add( entry );
+                            order.put( node, order.size() );
+                            if ( isRoot( node ) ) {
+                                root[ 0 ] = entry;
+
+                            } else if ( isTopLevelOrInRoot( parents ) ) {
+                                updateTrimmedBounds( bounds, absCoords );
 
                             }
 
                         }
 
-                    }
+                    } ) );
+        }
+        this.index = new BoundsIndex<>( entries );
+        this.traverseOrder = order;
+        this.rootEntry = root[ 0 ];
+        this.trimmedBounds = bounds;
+    }
 
-                } ) );
-        return result;
+    private boolean isRoot( final Node node ) {
+        return null != rootUUID && rootUUID.equals( node.getUUID() );
+    }
 
+    // Trimmed bounds only consider the nodes in the root node, if any, or in the top level.
+    private boolean isTopLevelOrInRoot( final Iterator<Node<View, Edge>> parents ) {
+        if ( null == rootUUID || null == parents || !parents.hasNext() ) {
+            return true;
+        }
+        while ( parents.hasNext() ) {
+            if ( isRoot( parents.next() ) ) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public Node<View<?>, Edge> findElementAt( final double x, final double y ) {
-        final Node[] result = new Node[ 1 ];
-        childrenTraverseProcessor.traverse( graph, new GraphBoundIndexerTraverseCallback( new NodeBoundsTraverseCallback() {
-
-            @Override
-            public void onNodeTraverse( final Node<View, Edge> node,
-                                        final double parentX,
-                                        final double parentY ) {
-                if ( isNodeAt( node, parentX, parentY, x, y ) ) {
-                    result[ 0 ] = node;
-                }
+    private static void updateTrimmedBounds( final double[] result,
+                                             final double[] absCoords ) {
+        if ( absCoords[ 0 ] < result[ 0 ] ) {
+            result[ 0 ] = absCoords[ 0 ];
 
-            }
+        }
+        if ( absCoords[ 1 ] < result[ 1 ] ) {
+            result[ 1 ] = absCoords[ 1 ];
+
+        }
+        if ( absCoords[ 2 ] > result[ 2 ] ) {
+            result[ 2 ] = absCoords[ 2 ];
 
-        } ) );
-        return result[ 0 ];
+        }
+        if ( absCoords[ 3 ] > result[ 3 ] ) {
+            result[ 3 ] = absCoords[ 3 ];
+
+        }
+    }
+
+    private void clearIndex() {
+        this.index = null;
+        this.traverseOrder = null;
+        this.rootEntry = null;
+        this.trimmedBounds = null;
     }
 
     private abstract class NodeBoundsTraverseCallback {
@@ -125,7 +204,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
             return true;
         }
 
-        public abstract void onNodeTraverse( Node<View, Edge> node, double parentX, double parentY );
+        public abstract void onNodeTraverse( Node<View, Edge> node, Iterator<Node<View, Edge>> parents, double parentX, double parentY );
 
     }
 
@@ -156,9 +235,11 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
             if ( callback.onNodeTraverseStart( node, parents ) ) {
                 double parentX = 0;
                 double parentY = 0;
+                final List<Node<View, Edge>> parentNodes = new ArrayList<>();
                 if ( null != parents && parents.hasNext() ) {
                     while ( parents.hasNext() ) {
-                        final Node tParent = parents.next();
+                        final Node<View, Edge> tParent = parents.next();
+                        parentNodes.add( tParent );
                         final Double[] nodeCoordinates = getNodeCoordinates( tParent );
                         if ( null != nodeCoordinates ) {
                             parentX += nodeCoordinates[ 0 ];
@@ -169,7 +250,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
                     }
 
                 }
-                callback.onNodeTraverse( node, parentX, parentY );
+                callback.onNodeTraverse( node, parentNodes.iterator(), parentX, parentY );
 
             }
 
@@ -216,29 +297,10 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return new double[]{ ulX, ulY, lrX, lrY };
     }
 
-    private boolean isNodeAt( final Node node,
-                              final double parentX,
-                              final double parentY,
-                              final double mouseX,
-                              final double mouseY ) {
-        if ( null != rootUUID && node.getUUID().equals( rootUUID ) ) {
-            return true;
-        }
-        final double[] absoluteCoords = getNodeAbsoluteCoordinates( node, parentX, parentY );
-        final double ulX = absoluteCoords[ 0 ];
-        final double ulY = absoluteCoords[ 1 ];
-        final double lrX = absoluteCoords[ 2 ];
-        final double lrY = absoluteCoords[ 3 ];
-        if ( mouseX >= ulX && mouseX <= lrX &&
-                mouseY >= ulY && mouseY <= lrY ) {
-            return true;
-        }
-        return false;
-    }
-
     @Override
     public GraphBoundsIndexer setRootUUID( final String uuid ) {
         this.rootUUID = uuid;
+        clearIndex();
         return this;
     }
 
@@ -247,6 +309,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         this.graph = null;
         this.rootUUID = null;
         this.childrenTraverseProcessor = null;
+        clearIndex();
     }
 
 }
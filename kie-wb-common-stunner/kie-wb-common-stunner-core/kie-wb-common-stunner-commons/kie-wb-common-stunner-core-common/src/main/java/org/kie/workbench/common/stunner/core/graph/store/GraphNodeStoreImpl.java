@@ -19,23 +19,37 @@ package org.kie.workbench.common.stunner.core.graph.store;
 import org.jboss.errai.common.client.api.annotations.Portable;
 import org.kie.workbench.common.stunner.core.graph.Node;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 @Portable
 public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
 
     protected Map<String, Node> nodes = new HashMap<String, Node>();
 
+    // Computed on first use, then updated as nodes are added or removed.
+    private transient Map<String, Integer> labelsCount = null;
+
     @Override
     public Node add( final Node node ) {
-        return nodes.put( node.getUUID(), node );
+        final Node previous = nodes.put( node.getUUID(), node );
+        if ( null != labelsCount ) {
+            countLabels( previous, -1 );
+            countLabels( node, 1 );
+        }
+        return previous;
     }
 
     @Override
     public Node remove( final String uuid ) {
-        return nodes.remove( uuid );
+        final Node removed = nodes.remove( uuid );
+        if ( null != labelsCount ) {
+            countLabels( removed, -1 );
+        }
+        return removed;
     }
 
     @Override
@@ -51,10 +65,39 @@ public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
     @Override
     public void clear() {
         nodes.clear();
+        labelsCount = null;
     }
 
     @Override
     public Iterator<Node> iterator() {
         return nodes.values().iterator();
     }
+
+    @Override
+    public Map<String, Integer> getLabelsCount() {
+        if ( null == labelsCount ) {
+            labelsCount = new HashMap<String, Integer>();
+            for ( final Node node : nodes.values() ) {
+                countLabels( node, 1 );
+            }
+        }
+        return Collections.unmodifiableMap( labelsCount );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void countLabels( final Node node,
+                              final int delta ) {
+        final Set<String> labels = null != node ? node.getLabels() : null;
+        if ( null != labels ) {
+            for ( final String label : labels ) {
+                final Integer count = labelsCount.get( label );
+                final int newCount = ( null != count ? count : 0 ) + delta;
+                if ( newCount > 0 ) {
+                    labelsCount.put( label, newCount );
+                } else {
+                    labelsCount.remove( label );
+                }
+            }
+        }
+    }
 }
@@ -29,6 +29,7 @@ import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
 import org.kie.workbench.common.stunner.core.graph.content.view.BoundImpl;
 import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStore;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -105,7 +106,23 @@ public class GraphUtils {
     public static Map<String, Integer> getLabelsCount( final Graph<?, ? extends Node> target,
                                                        final Set<String> filter ) {
         final Map<String, Integer> labels = new LinkedHashMap<>();
-        target.nodes().forEach( node -> {
+        final Iterable<? extends Node> nodes = target.nodes();
+        if ( nodes instanceof GraphNodeStore ) {
+            // The node store keeps the counts, no need to go through all the nodes.
+            final Map<String, Integer> storeCount = ( ( GraphNodeStore ) nodes ).getLabelsCount();
+            if ( null == filter ) {
+                labels.putAll( storeCount );
+            } else {
+                filter.forEach( role -> {
+                    final Integer i = storeCount.get( role );
+                    if ( null != i ) {
+                        labels.put( role, i );
+                    }
+                } );
+            }
+            return labels;
+        }
+        nodes.forEach( node -> {
             final Set<String> nodeRoles = node.getLabels();
             if ( null != nodeRoles ) {
                 nodeRoles
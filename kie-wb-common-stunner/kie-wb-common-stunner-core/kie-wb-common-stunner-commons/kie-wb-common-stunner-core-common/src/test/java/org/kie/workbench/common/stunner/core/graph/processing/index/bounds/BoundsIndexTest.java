@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoundsIndexTest {
+
+    private static final int SIZE = 2000;
+
+    private List<BoundsIndex.Entry<Integer>> entries;
+    private BoundsIndex<Integer> tested;
+
+    @Before
+    public void setup() {
+        final Random random = new Random( 1 );
+        entries = new ArrayList<>();
+        for ( int i = 0; i < SIZE; i++ ) {
+            final double x = random.nextInt( 5000 );
+            final double y = random.nextInt( 5000 );
+            entries.add( new BoundsIndex.Entry<>( i, x, y, x + 20 + random.nextInt( 200 ), y + 20 + random.nextInt( 100 ) ) );
+        }
+        tested = new BoundsIndex<>( entries );
+    }
+
+    @Test
+    public void testEmpty() {
+        final BoundsIndex<Integer> empty = new BoundsIndex<>( new ArrayList<>() );
+        assertEquals( 0, empty.size() );
+        assertTrue( empty.getAt( 10, 10 ).isEmpty() );
+        assertNull( empty.getNearest( 10, 10 ) );
+    }
+
+    @Test
+    public void testGetAt() {
+        assertEquals( SIZE, tested.size() );
+        final Random random = new Random( 2 );
+        for ( int i = 0; i < 200; i++ ) {
+            final double x = random.nextInt( 5200 );
+            final double y = random.nextInt( 5200 );
+            assertEquals( scan( x, y, x, y ), items( tested.getAt( x, y ) ) );
+        }
+    }
+
+    @Test
+    public void testGetIntersecting() {
+        final Random random = new Random( 3 );
+        for ( int i = 0; i < 200; i++ ) {
+            final double x = random.nextInt( 5000 );
+            final double y = random.nextInt( 5000 );
+            final double x2 = x + random.nextInt( 500 );
+            final double y2 = y + random.nextInt( 500 );
+            assertEquals( scan( x, y, x2, y2 ), items( tested.getIntersecting( x, y, x2, y2 ) ) );
+        }
+    }
+
+    @Test
+    public void testGetNearest() {
+        final Random random = new Random( 4 );
+        for ( int i = 0; i < 200; i++ ) {
+            final double x = random.nextInt( 6000 ) - 500;
+            final double y = random.nextInt( 6000 ) - 500;
+            double expected = Double.MAX_VALUE;
+            for ( BoundsIndex.Entry<Integer> entry : entries ) {
+                expected = Math.min( expected, entry.distance( x, y ) );
+            }
+            assertEquals( expected, tested.getNearest( x, y ).distance( x, y ), 0 );
+        }
+    }
+
+    private Set<Integer> scan( final double x1,
+                               final double y1,
+                               final double x2,
+                               final double y2 ) {
+        final Set<Integer> result = new HashSet<>();
+        for ( BoundsIndex.Entry<Integer> entry : entries ) {
+            if ( entry.intersects( x1, y1, x2, y2 ) ) {
+                result.add( entry.item );
+            }
+        }
+        return result;
+    }
+
+    private static Set<Integer> items( final List<BoundsIndex.Entry<Integer>> entries ) {
+        final Set<Integer> result = new HashSet<>();
+        for ( BoundsIndex.Entry<Integer> entry : entries ) {
+            result.add( entry.item );
+        }
+        return result;
+    }
+
+}
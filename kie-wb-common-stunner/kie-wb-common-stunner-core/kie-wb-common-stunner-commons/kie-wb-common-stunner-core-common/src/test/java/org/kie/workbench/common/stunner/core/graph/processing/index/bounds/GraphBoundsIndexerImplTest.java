@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The graph used by the tests:
+ * <pre>
+ * root     (0,0)-(1000,1000)
+ *   parent   (100,100)-(500,500)
+ *     child    (150,150)-(250,250), relative to parent (50,50)-(150,150)
+ *   sibling  (450,450)-(700,700)
+ * other    (2000,2000)-(2100,2100)
+ *   otherChild (2050,2050)-(2500,2500), relative to other (50,50)-(500,500)
+ * </pre>
+ * Nodes are traversed in that order.
+ */
+public class GraphBoundsIndexerImplTest {
+
+    private Graph graph;
+    private Node root;
+    private Node parent;
+    private Node child;
+    private Node sibling;
+    private Node other;
+    private Node otherChild;
+
+    private GraphBoundsIndexerImpl tested;
+
+    @Before
+    @SuppressWarnings( "unchecked" )
+    public void setup() throws Exception {
+        // Keep the insertion order, so the traversal order is known.
+        graph = new GraphImpl<>( "graph", new GraphNodeStoreImpl() {{
+            nodes = new LinkedHashMap<>();
+        }} );
+        root = newNode( "root", 0, 0, 1000, 1000 );
+        parent = newNode( "parent", 100, 100, 500, 500 );
+        child = newNode( "child", 50, 50, 150, 150 );
+        sibling = newNode( "sibling", 450, 450, 700, 700 );
+        other = newNode( "other", 2000, 2000, 2100, 2100 );
+        otherChild = newNode( "otherChild", 50, 50, 500, 500 );
+        setChild( root, parent );
+        setChild( parent, child );
+        setChild( root, sibling );
+        setChild( other, otherChild );
+        tested = new GraphBoundsIndexerImpl( new ChildrenTraverseProcessorImpl( new TreeWalkTraverseProcessorImpl() ) );
+        tested.build( graph );
+    }
+
+    @Test
+    public void testNestedNodesAreFoundAtTheirAbsolutePosition() {
+        assertEquals( child, tested.getAt( 200, 200 ) );
+        assertEquals( parent, tested.getAt( 120, 120 ) );
+        assertEquals( parent, tested.getAt( 300, 300 ) );
+        assertEquals( sibling, tested.getAt( 650, 650 ) );
+        assertEquals( root, tested.getAt( 50, 50 ) );
+        assertEquals( otherChild, tested.getAt( 2300, 2300 ) );
+        assertNull( tested.getAt( 1500, 1500 ) );
+    }
+
+    @Test
+    public void testLastVisitedNodeWinsWithRoot() {
+        tested.setRootUUID( "root" );
+        // root, parent and child are all at this position, the child is visited last.
+        assertEquals( child, tested.getAt( 200, 200 ) );
+        assertEquals( parent, tested.getAt( 120, 120 ) );
+        assertEquals( root, tested.getAt( 50, 50 ) );
+        // sibling overlaps parent and is visited after it.
+        assertEquals( sibling, tested.getAt( 470, 470 ) );
+        // otherChild is visited after other, which contains it.
+        assertEquals( otherChild, tested.getAt( 2080, 2080 ) );
+        // The root node is a candidate for any position, even outside of its bounds.
+        assertEquals( root, tested.getAt( 1500, 1500 ) );
+    }
+
+    @Test
+    public void testTrimmedBoundsWithoutRoot() {
+        assertArrayEquals( new double[]{ 0, 0, 2500, 2500 }, tested.getTrimmedBounds(), 0 );
+    }
+
+    @Test
+    public void testTrimmedBoundsWithRoot() {
+        tested.setRootUUID( "root" );
+        // The root node itself and the nodes nested in other top level nodes are not considered.
+        assertArrayEquals( new double[]{ 100, 100, 2100, 2100 }, tested.getTrimmedBounds(), 0 );
+    }
+
+    @Test
+    public void testIndexIsRebuiltForNewRoot() {
+        tested.setRootUUID( "root" );
+        assertEquals( root, tested.getAt( 1500, 1500 ) );
+        tested.setRootUUID( null );
+        assertNull( tested.getAt( 1500, 1500 ) );
+        assertArrayEquals( new double[]{ 0, 0, 2500, 2500 }, tested.getTrimmedBounds(), 0 );
+    }
+
+    @Test
+    public void testGetIntersecting() {
+        final Collection<Node<View<?>, Edge>> result = tested.getIntersecting( 140, 140, 160, 160 );
+        assertEquals( 3, result.size() );
+        assertTrue( result.contains( root ) );
+        assertTrue( result.contains( parent ) );
+        assertTrue( result.contains( child ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private Node newNode( final String uuid,
+                          final double x1,
+                          final double y1,
+                          final double x2,
+                          final double y2 ) {
+        final Node node = new NodeImpl<>( uuid );
+        node.setContent( new ViewImpl<>( new Object(),
+                                         new BoundsImpl( new BoundImpl( x1, y1 ), new BoundImpl( x2, y2 ) ) ) );
+        graph.addNode( node );
+        return node;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void setChild( final Node parent,
+                           final Node child ) {
+        final Edge edge = new EdgeImpl<>( parent.getUUID() + "-" + child.getUUID() );
+        edge.setContent( new Child() );
+        edge.setSourceNode( parent );
+        edge.setTargetNode( child );
+        parent.getOutEdges().add( edge );
+        child.getInEdges().add( edge );
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GraphNodeStoreImplTest {
+
+    private GraphNodeStoreImpl tested;
+
+    @Before
+    public void setup() throws Exception {
+        this.tested = new GraphNodeStoreImpl();
+        tested.add( newNode( "node1", "task", "activity" ) );
+        tested.add( newNode( "node2", "task" ) );
+    }
+
+    @Test
+    public void testLabelsCount() {
+        final Map<String, Integer> count = tested.getLabelsCount();
+        assertEquals( 2, count.size() );
+        assertEquals( 2, ( int ) count.get( "task" ) );
+        assertEquals( 1, ( int ) count.get( "activity" ) );
+    }
+
+    @Test
+    public void testLabelsCountUpdatedOnAdd() {
+        tested.getLabelsCount();
+        tested.add( newNode( "node3", "task", "event" ) );
+        // Replacing a node discounts the labels of the previous one.
+        tested.add( newNode( "node1", "event" ) );
+        final Map<String, Integer> count = tested.getLabelsCount();
+        assertEquals( 2, ( int ) count.get( "task" ) );
+        assertEquals( 2, ( int ) count.get( "event" ) );
+        assertFalse( count.containsKey( "activity" ) );
+    }
+
+    @Test
+    public void testLabelsCountUpdatedOnRemove() {
+        tested.getLabelsCount();
+        tested.remove( "node1" );
+        tested.remove( "unexisting" );
+        final Map<String, Integer> count = tested.getLabelsCount();
+        assertEquals( 1, ( int ) count.get( "task" ) );
+        assertNull( count.get( "activity" ) );
+    }
+
+    @Test
+    public void testLabelsCountOnClear() {
+        tested.getLabelsCount();
+        tested.clear();
+        assertTrue( tested.getLabelsCount().isEmpty() );
+        tested.add( newNode( "node4", "event" ) );
+        assertEquals( 1, ( int ) tested.getLabelsCount().get( "event" ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Node newNode( final String uuid,
+                                 final String... labels ) {
+        final Node node = new NodeImpl<>( uuid );
+        for ( String label : labels ) {
+            node.getLabels().add( label );
+        }
+        return node;
+    }
+
+}
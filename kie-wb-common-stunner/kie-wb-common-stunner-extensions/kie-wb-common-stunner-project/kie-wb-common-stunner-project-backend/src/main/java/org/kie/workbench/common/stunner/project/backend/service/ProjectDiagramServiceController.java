@@ -96,8 +96,7 @@ class ProjectDiagramServiceController extends AbstractVFSDiagramService<ProjectD
                       Map<String, ?> attributes,
                       OpenOption... comment ) {
         try {
-            String[] raw = serizalize( diagram );
-            getIoService().write( Paths.convert( path ), raw[ 0 ], attributes, comment );
+            write( diagram, Paths.convert( path ), attributes, comment );
         } catch ( Exception e ) {
             LOG.error( "Error while saving diagram with UUID [" + diagram.getName() + "].", e );
             throw new RuntimeException( e );
@@ -106,7 +105,7 @@ class ProjectDiagramServiceController extends AbstractVFSDiagramService<ProjectD
     }
 
     @Override
-    protected void doSave( ProjectDiagram diagram, String raw, String metadata ) {
+    protected void doSave( ProjectDiagram diagram, String metadata ) {
         try {
             Path _path = diagram.getMetadata().getPath();
             org.uberfire.java.nio.file.Path path = Paths.convert( _path );
@@ -115,7 +114,7 @@ class ProjectDiagramServiceController extends AbstractVFSDiagramService<ProjectD
                 final String fileName = path.getFileName().toString();
                 path = parent.resolve( fileName );
             }
-            getIoService().write( path, raw );
+            write( diagram, path );
         } catch ( Exception e ) {
             LOG.error( "Error while saving diagram with UUID [" + diagram.getName() + "].", e );
             throw new RuntimeException( e );
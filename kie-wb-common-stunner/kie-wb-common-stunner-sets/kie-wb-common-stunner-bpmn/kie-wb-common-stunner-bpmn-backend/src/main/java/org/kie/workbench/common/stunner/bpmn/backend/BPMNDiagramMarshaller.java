@@ -56,6 +56,7 @@ import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -118,11 +119,23 @@ public class BPMNDiagramMarshaller implements DiagramMarshaller<Graph, Metadata,
         return result;
     }
 
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public void marshall( final Diagram diagram,
+                          final OutputStream output ) throws IOException {
+        LOG.debug( "Starting BPMN diagram marshalling..." );
+        Bpmn2Marshaller marshaller = new Bpmn2Marshaller( definitionManager, graphUtils, oryxManager );
+        marshaller.marshall( diagram, output );
+        updateRootUUID( diagram.getMetadata(), diagram.getGraph() );
+        LOG.debug( "BPMN diagram marshalling finished successfully." );
+    }
+
     @Override
     public Graph unmarshall( Metadata metadata, InputStream inputStream ) throws IOException {
         LOG.debug( "Starting BPMN diagram loading..." );
+        Definitions definitions = null;
         try {
-            Definitions definitions = parseDefinitions( inputStream );
+            definitions = parseDefinitions( inputStream );
             // No rule checking for marshalling/unmarshalling, current jbpm designer marshallers should do it for us.
             Bpmn2UnMarshaller parser = new Bpmn2UnMarshaller( bpmnGraphBuilderFactory,
                     definitionManager,
@@ -139,6 +152,11 @@ public class BPMNDiagramMarshaller implements DiagramMarshaller<Graph, Metadata,
             return result;
         } catch ( IOException e ) {
             LOG.error( "Error parsing bpmn file.", e );
+        } finally {
+            // The graph no longer references the EMF model, release it.
+            if ( null != definitions && null != definitions.eResource() ) {
+                definitions.eResource().unload();
+            }
         }
         return null;
     }
@@ -17,7 +17,6 @@
 package org.kie.workbench.common.stunner.bpmn.backend.marshall.json;
 
 import bpsim.impl.BpsimFactoryImpl;
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.jboss.drools.impl.DroolsFactoryImpl;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.Bpmn2JsonUnmarshaller;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.resource.JBPMBpmn2ResourceImpl;
@@ -32,6 +31,7 @@ import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 
 public class Bpmn2Marshaller extends Bpmn2JsonUnmarshaller {
@@ -49,13 +49,27 @@ public class Bpmn2Marshaller extends Bpmn2JsonUnmarshaller {
     }
 
     public String marshall( Diagram<Graph, Metadata> diagram ) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshall( diagram, outputStream );
+        return outputStream.toString( "UTF-8" );
+    }
+
+    /**
+     * Writes the BPMN2 xml for the diagram straight to the given stream, without keeping the whole content in memory.
+     * The stream is not closed.
+     */
+    public void marshall( Diagram<Graph, Metadata> diagram, OutputStream outputStream ) throws IOException {
         DroolsFactoryImpl.init();
         BpsimFactoryImpl.init();
         BPMN2JsonParser parser = createParser( diagram );
         JBPMBpmn2ResourceImpl res = ( JBPMBpmn2ResourceImpl ) super.unmarshall( parser, null );
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        res.save( outputStream, new HashMap<Object, Object>() );
-        return StringEscapeUtils.unescapeHtml4( outputStream.toString( "UTF-8" ) );
+        try {
+            HtmlUnescapeOutputStream unescapeStream = new HtmlUnescapeOutputStream( outputStream );
+            res.save( unescapeStream, new HashMap<Object, Object>() );
+            unescapeStream.finish();
+        } finally {
+            res.unload();
+        }
     }
 
     private BPMN2JsonParser createParser( Diagram<Graph, Metadata> diagram ) {
@@ -28,7 +28,6 @@ import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.jboss.drools.DroolsPackage;
 import org.jboss.drools.impl.DroolsPackageImpl;
-import org.jboss.drools.util.DroolsResourceFactoryImpl;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.Bpmn2JsonMarshaller;
 import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.builder.BPMNGraphGenerator;
 import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.builder.BPMNGraphObjectBuilderFactory;
@@ -52,20 +51,6 @@ import java.util.Map;
 
 public class Bpmn2UnMarshaller extends Bpmn2JsonMarshaller {
 
-    final static ResourceSet resourceSet = new ResourceSetImpl();
-
-    static {
-        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put
-                ( Resource.Factory.Registry.DEFAULT_EXTENSION,
-                        new DroolsResourceFactoryImpl() );
-        resourceSet.getPackageRegistry().put
-                ( DroolsPackage.eNS_URI,
-                        DroolsPackage.eINSTANCE );
-        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap()
-                .put( Resource.Factory.Registry.DEFAULT_EXTENSION, new Bpmn2ResourceFactoryImpl() );
-        resourceSet.getPackageRegistry().put( "http://www.omg.org/spec/BPMN/20100524/MODEL", Bpmn2Package.eINSTANCE );
-    }
-
     BPMNGraphGenerator bpmnGraphGenerator;
 
     public Bpmn2UnMarshaller( final BPMNGraphObjectBuilderFactory elementBuilderFactory,
@@ -87,15 +72,20 @@ public class Bpmn2UnMarshaller extends Bpmn2JsonMarshaller {
     }
 
     public Graph unmarshall( String content ) throws IOException {
-        XMLResource outResource = ( XMLResource ) resourceSet.createResource( URI.createURI( "inputStream://" + UUID.uuid() + ".xml" ) );
-        outResource.getDefaultLoadOptions().put( XMLResource.OPTION_ENCODING, "UTF-8" );
-        outResource.setEncoding( "UTF-8" );
-        Map<String, Object> options = new HashMap<String, Object>();
-        options.put( XMLResource.OPTION_ENCODING, "UTF-8" );
-        outResource.load( new BufferedInputStream( new ByteArrayInputStream( content.getBytes( "UTF-8" ) ) ), options );
-        DocumentRoot root = ( DocumentRoot ) outResource.getContents().get( 0 );
-        Definitions definitions = root.getDefinitions();
-        return unmarshall( definitions, null );
+        // A resource set per call, so resources are not shared across requests and can be released once parsed.
+        XMLResource outResource = ( XMLResource ) createResourceSet().createResource( URI.createURI( "inputStream://" + UUID.uuid() + ".xml" ) );
+        try {
+            outResource.getDefaultLoadOptions().put( XMLResource.OPTION_ENCODING, "UTF-8" );
+            outResource.setEncoding( "UTF-8" );
+            Map<String, Object> options = new HashMap<String, Object>();
+            options.put( XMLResource.OPTION_ENCODING, "UTF-8" );
+            outResource.load( new BufferedInputStream( new ByteArrayInputStream( content.getBytes( "UTF-8" ) ) ), options );
+            DocumentRoot root = ( DocumentRoot ) outResource.getContents().get( 0 );
+            Definitions definitions = root.getDefinitions();
+            return unmarshall( definitions, null );
+        } finally {
+            outResource.unload();
+        }
     }
 
     public Graph unmarshall( Definitions def, String preProcessingData ) throws IOException {
@@ -105,4 +95,13 @@ public class Bpmn2UnMarshaller extends Bpmn2JsonMarshaller {
         return bpmnGraphGenerator.getGraph();
     }
 
+    private static ResourceSet createResourceSet() {
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap()
+                .put( Resource.Factory.Registry.DEFAULT_EXTENSION, new Bpmn2ResourceFactoryImpl() );
+        resourceSet.getPackageRegistry().put( DroolsPackage.eNS_URI, DroolsPackage.eINSTANCE );
+        resourceSet.getPackageRegistry().put( "http://www.omg.org/spec/BPMN/20100524/MODEL", Bpmn2Package.eINSTANCE );
+        return resourceSet;
+    }
+
 }
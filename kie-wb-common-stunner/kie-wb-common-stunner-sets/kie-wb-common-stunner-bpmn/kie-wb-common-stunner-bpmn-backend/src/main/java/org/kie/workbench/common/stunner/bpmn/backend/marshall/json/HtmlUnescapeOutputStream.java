@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.marshall.json;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unescapes HTML 4 entities from UTF-8 content as it's written, same as <code>StringEscapeUtils.unescapeHtml4</code>
+ * does for a whole string. Entities are plain ASCII, and bytes of multi-byte UTF-8 sequences are never ASCII, so
+ * only the bytes of a possible entity need to be held back.
+ */
+class HtmlUnescapeOutputStream extends FilterOutputStream {
+
+    // Longer than any named or numeric entity, "&#x10FFFF;" included.
+    private static final int MAX_ENTITY_LENGTH = 12;
+
+    private final byte[] entity = new byte[ MAX_ENTITY_LENGTH ];
+    private int entityLength = 0;
+
+    HtmlUnescapeOutputStream( final OutputStream out ) {
+        super( out );
+    }
+
+    @Override
+    public void write( final int b ) throws IOException {
+        if ( entityLength == 0 ) {
+            if ( b == '&' ) {
+                entity[ entityLength++ ] = ( byte ) b;
+            } else {
+                out.write( b );
+            }
+        } else if ( b == ';' ) {
+            final String value = new String( entity, 0, entityLength, StandardCharsets.US_ASCII ) + ";";
+            entityLength = 0;
+            out.write( StringEscapeUtils.unescapeHtml4( value ).getBytes( StandardCharsets.UTF_8 ) );
+        } else if ( isEntityChar( b ) && entityLength < MAX_ENTITY_LENGTH ) {
+            entity[ entityLength++ ] = ( byte ) b;
+        } else {
+            // Not an entity, write it as is and start over from the current byte.
+            writePendingEntity();
+            write( b );
+        }
+    }
+
+    @Override
+    public void write( final byte[] b, final int off, final int len ) throws IOException {
+        int start = off;
+        final int end = off + len;
+        for ( int i = off; i < end; i++ ) {
+            if ( entityLength > 0 || b[ i ] == '&' ) {
+                out.write( b, start, i - start );
+                write( b[ i ] );
+                start = i + 1;
+            }
+        }
+        out.write( b, start, end - start );
+    }
+
+    /**
+     * Writes any bytes held back as a possible entity. To be called once all the content has been written, as
+     * <code>flush</code> keeps them since more content may follow.
+     */
+    public void finish() throws IOException {
+        writePendingEntity();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private void writePendingEntity() throws IOException {
+        out.write( entity, 0, entityLength );
+        entityLength = 0;
+    }
+
+    private static boolean isEntityChar( final int b ) {
+        return ( b >= 'a' && b <= 'z' ) || ( b >= 'A' && b <= 'Z' ) || ( b >= '0' && b <= '9' ) || b == '#';
+    }
+}
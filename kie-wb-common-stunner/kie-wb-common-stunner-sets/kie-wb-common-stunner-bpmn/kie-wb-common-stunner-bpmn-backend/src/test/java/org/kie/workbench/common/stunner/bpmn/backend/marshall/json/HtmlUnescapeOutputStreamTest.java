@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.marshall.json;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class HtmlUnescapeOutputStreamTest {
+
+    private TrackingOutputStream out;
+    private HtmlUnescapeOutputStream tested;
+
+    @Before
+    public void setup() {
+        out = new TrackingOutputStream();
+        tested = new HtmlUnescapeOutputStream( out );
+    }
+
+    @Test
+    public void testEntitiesAreUnescaped() throws IOException {
+        write( "a &lt;b&gt; &amp; &quot;c&quot; &#233; &#xE9; &eacute;" );
+        tested.close();
+        assertEquals( "a <b> & \"c\" é é é", written() );
+    }
+
+    @Test
+    public void testEntitySplitAcrossWrites() throws IOException {
+        write( "a &a" );
+        write( "m" );
+        write( "p; b &#2" );
+        write( "33;" );
+        tested.close();
+        assertEquals( "a & b é", written() );
+    }
+
+    @Test
+    public void testEntityWrittenByteByByte() throws IOException {
+        for ( final byte b : "x&lt;y".getBytes( StandardCharsets.UTF_8 ) ) {
+            tested.write( b );
+        }
+        tested.close();
+        assertEquals( "x<y", written() );
+    }
+
+    @Test
+    public void testNonEntitiesAreKept() throws IOException {
+        write( "a & b && c &amp d &unknown; e &" );
+        write( "verylongname; f" );
+        tested.close();
+        assertEquals( "a & b && c &amp d &unknown; e &verylongname; f", written() );
+    }
+
+    @Test
+    public void testMultiByteContentIsKept() throws IOException {
+        write( "ñ€😀&" );
+        write( "ñ;" );
+        tested.close();
+        assertEquals( "ñ€😀&ñ;", written() );
+    }
+
+    @Test
+    public void testFlushHoldsBackPossibleEntity() throws IOException {
+        write( "a &am" );
+        tested.flush();
+        assertEquals( "a ", written() );
+        assertEquals( 1, out.flushes );
+        write( "p;" );
+        tested.flush();
+        assertEquals( "a &", written() );
+        assertFalse( out.closed );
+    }
+
+    @Test
+    public void testFinishWritesPendingBytesWithoutClosing() throws IOException {
+        write( "a &am" );
+        tested.finish();
+        assertEquals( "a &am", written() );
+        assertFalse( out.closed );
+    }
+
+    @Test
+    public void testCloseWritesPendingBytesAndCloses() throws IOException {
+        write( "a &#23" );
+        tested.close();
+        assertEquals( "a &#23", written() );
+        assertTrue( out.closed );
+    }
+
+    private void write( final String content ) throws IOException {
+        tested.write( content.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private String written() {
+        return new String( out.toByteArray(), StandardCharsets.UTF_8 );
+    }
+
+    private static class TrackingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes = 0;
+        private boolean closed = false;
+
+        @Override
+        public void flush() throws IOException {
+            flushes++;
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -86,6 +86,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import javax.enterprise.inject.spi.BeanManager;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.*;
 
@@ -593,6 +594,14 @@ public class BPMNDiagramMarshallerTest {
         assertDiagram( result, 1, 7, 7 );
     }
 
+    @Test
+    public void testMarshallEvaluationToStream() throws Exception {
+        Diagram<Graph<DefinitionSet, ?>, Metadata> diagram = unmarshall( BPMN_EVALUATION );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        tested.marshall( diagram, output );
+        assertDiagram( output.toString( "UTF-8" ), 1, 7, 7 );
+    }
+
     // TODO: Disabled @Test - As intermediate events has been disabled for M1
     @Ignore
     public void testMarshallNotBoundaryEvents() throws Exception {